@@ -0,0 +1,87 @@
+package com.emersondev.api.controller;
+
+import com.emersondev.api.request.ConteoFisicoRequest;
+import com.emersondev.api.request.LecturasConteoRequest;
+import com.emersondev.api.response.ConteoFisicoResponse;
+import com.emersondev.api.response.LecturasConteoResponse;
+import com.emersondev.api.response.MensajeResponse;
+import com.emersondev.service.interfaces.ConteoFisicoService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/conteos")
+@RequiredArgsConstructor
+public class ConteoFisicoController {
+
+  private final ConteoFisicoService conteoFisicoService;
+
+  /**
+   * Abrir un conteo físico de un almacén (o de un producto dentro de él)
+   * @param request almacén, producto opcional y referencia
+   * @return la sesión creada
+   */
+  @PostMapping
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<ConteoFisicoResponse> abrirConteo(@Valid @RequestBody ConteoFisicoRequest request) {
+    return new ResponseEntity<>(conteoFisicoService.abrirConteo(request), HttpStatus.CREATED);
+  }
+
+  /**
+   * Registrar un lote de lecturas de escáner
+   * @param id ID del conteo
+   * @param request lecturas por serie
+   * @return inventarios actualizados y series rechazadas
+   */
+  @PostMapping("/{id}/lecturas")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<LecturasConteoResponse> registrarLecturas(
+          @PathVariable Long id,
+          @Valid @RequestBody LecturasConteoRequest request) {
+    return ResponseEntity.ok(conteoFisicoService.registrarLecturas(id, request));
+  }
+
+  /**
+   * Obtener un conteo con su reporte de diferencias
+   * @param id ID del conteo
+   * @param ceroNoContados considera en cero los inventarios no escaneados
+   * @return la sesión con sus diferencias
+   */
+  @GetMapping("/{id}")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<ConteoFisicoResponse> obtenerConteo(
+          @PathVariable Long id,
+          @RequestParam(defaultValue = "false") boolean ceroNoContados) {
+    return ResponseEntity.ok(conteoFisicoService.obtenerConteo(id, ceroNoContados));
+  }
+
+  /**
+   * Aplicar los ajustes del conteo en una sola transacción
+   * @param id ID del conteo
+   * @param ceroNoContados deja en cero los inventarios no escaneados
+   * @return reporte de diferencias aplicadas
+   */
+  @PostMapping("/{id}/aplicar")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<ConteoFisicoResponse> aplicarConteo(
+          @PathVariable Long id,
+          @RequestParam(defaultValue = "false") boolean ceroNoContados) {
+    return ResponseEntity.ok(conteoFisicoService.aplicarConteo(id, ceroNoContados));
+  }
+
+  /**
+   * Cancelar un conteo abierto sin modificar el stock
+   * @param id ID del conteo
+   * @return mensaje de confirmación
+   */
+  @PostMapping("/{id}/cancelar")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<MensajeResponse> cancelarConteo(@PathVariable Long id) {
+    conteoFisicoService.cancelarConteo(id);
+    return ResponseEntity.ok(new MensajeResponse("Conteo cancelado correctamente"));
+  }
+}
@@ -2,20 +2,43 @@ package com.emersondev.api.controller;
 
 import com.emersondev.api.response.FileResponse;
 import com.emersondev.api.response.MensajeResponse;
+import com.emersondev.api.response.SubidaMultipleResponse;
+import com.emersondev.config.FileStorageProperties;
+import com.emersondev.domain.exception.BusinessException;
 import com.emersondev.service.interfaces.FileStorageService;
+import com.emersondev.service.interfaces.SubidaArchivosService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,7 +46,15 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class FileController {
+  private static final String CACHE_INMUTABLE = "public, max-age=31536000, immutable";
+  private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
   private final FileStorageService fileStorageService;
+  private final FileStorageProperties fileStorageProperties;
+  private final SubidaArchivosService subidaArchivosService;
 
   /**
    * Sube un archivo al servidor
@@ -50,48 +81,181 @@ public class FileController {
   }
 
   /**
-   * Sube múltiples archivos al servidor
-   * @param files archivos a subir
+   * Sube múltiples archivos al servidor. La petición se lee en streaming (no pasa por el procesamiento
+   * multipart de Spring) y cada archivo se almacena en paralelo mientras llega el siguiente.
+   * Todo o nada: si algún archivo se rechaza se eliminan los ya almacenados
    * @return información de los archivos subidos
    */
-  @PostMapping("/upload-multiple")
+  @PostMapping(value = "/upload-multiple", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
-  public ResponseEntity<List<FileResponse>> uploadMultipleFiles(@RequestParam("files") MultipartFile[] files) {
-    List<FileResponse> responses = Arrays.stream(files)
-            .map(file -> {
-              String fileName = fileStorageService.storeFile(file);
-              String fileDownloadUri = ServletUriComponentsBuilder.fromCurrentContextPath()
-                      .path("/api/files/")
-                      .path(fileName)
-                      .toUriString();
-
-              return new FileResponse(
-                      fileName,
-                      fileDownloadUri,
-                      file.getContentType(),
-                      file.getSize()
-              );
-            })
-            .collect(Collectors.toList());
-
-    return ResponseEntity.ok(responses);
+  public ResponseEntity<List<FileResponse>> uploadMultipleFiles(HttpServletRequest request) {
+    SubidaMultipleResponse response = subidaArchivosService.subirArchivos(request, urlDescargaBase());
+    if (!esCompleta(response)) {
+      response.getArchivos().forEach(archivo -> fileStorageService.deleteFile(archivo.getFileName()));
+      String motivo = response.getError() != null ? response.getError()
+              : response.getRechazados().stream()
+                      .map(rechazo -> rechazo.getNombre() + ": " + rechazo.getMotivo())
+                      .collect(Collectors.joining("; "));
+      throw new BusinessException("No se subió ningún archivo. " + motivo);
+    }
+    return ResponseEntity.ok(response.getArchivos());
+  }
+
+  /**
+   * Igual que /upload-multiple, pero conserva los archivos almacenados aunque otros se rechacen
+   * @return archivos almacenados y rechazados; 207 si alguno no se pudo almacenar
+   */
+  @PostMapping(value = "/v2/upload-multiple", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<SubidaMultipleResponse> uploadMultipleFilesParcial(HttpServletRequest request) {
+    SubidaMultipleResponse response = subidaArchivosService.subirArchivos(request, urlDescargaBase());
+    return ResponseEntity.status(esCompleta(response) ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(response);
+  }
+
+  private static String urlDescargaBase() {
+    return ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/api/files/uploads/")
+            .toUriString();
+  }
+
+  private static boolean esCompleta(SubidaMultipleResponse response) {
+    return response.getRechazados().isEmpty() && response.getError() == null;
   }
 
   /**
-   * Descarga un archivo del servidor
+   * Descarga un archivo del servidor. Los nombres almacenados son únicos y su contenido no cambia,
+   * así que se sirven como inmutables: ETag fuerte, respuestas 304 condicionales y rangos de bytes.
    * @param fileName nombre del archivo
-   * @return el archivo como recurso
    */
   @GetMapping("/uploads/{fileName:.+}")
-  public ResponseEntity<Resource> downloadFile(@PathVariable String fileName) {
-    Resource resource = fileStorageService.loadFileAsResource(fileName);
+  public void downloadFile(@PathVariable String fileName, WebRequest webRequest,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+    // Con almacenamiento remoto el cliente descarga directamente del bucket con una URL firmada
+    Optional<URI> urlFirmada = fileStorageService.getDownloadUrl(fileName);
+    if (urlFirmada.isPresent()) {
+      // El navegador reutiliza la redirección (y la imagen ya descargada) durante media vigencia de la firma
+      long vigencia = fileStorageProperties.getS3().getVigenciaUrl().toSeconds() / 2;
+      response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + vigencia);
+      response.sendRedirect(urlFirmada.get().toString());
+      return;
+    }
+
+    Path archivo = fileStorageService.loadFilePath(fileName);
+    BasicFileAttributes atributos = Files.readAttributes(archivo, BasicFileAttributes.class);
+    long longitud = atributos.size();
+    long modificado = atributos.lastModifiedTime().toMillis();
+    String etag = "\"" + Long.toHexString(longitud) + "-" + Long.toHexString(modificado) + "\"";
 
-    String contentType = "application/octet-stream";
+    response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_INMUTABLE);
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    // Completa ETag y Last-Modified y responde 304 si el cliente ya tiene esta versión
+    if (webRequest.checkNotModified(etag, modificado)) {
+      return;
+    }
+
+    response.setContentType(MediaTypeFactory.getMediaType(archivo.getFileName().toString())
+            .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.inline().filename(archivo.getFileName().toString()).build().toString());
 
-    return ResponseEntity.ok()
-            .contentType(MediaType.parseMediaType(contentType))
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-            .body(resource);
+    long inicio = 0;
+    long fin = longitud - 1;
+    String cabeceraRango = request.getHeader(HttpHeaders.RANGE);
+    if (cabeceraRango != null && rangoVigente(request.getHeader(HttpHeaders.IF_RANGE), etag, modificado)) {
+      Rango rango;
+      try {
+        rango = resolverRango(cabeceraRango, longitud);
+      } catch (IllegalArgumentException e) {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + longitud);
+        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        return;
+      }
+      // Con varios rangos se envía el archivo completo, como permite la especificación
+      if (rango != null) {
+        inicio = rango.inicio();
+        fin = rango.fin();
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fin + "/" + longitud);
+      }
+    }
+
+    long cantidad = longitud == 0 ? 0 : fin - inicio + 1;
+    response.setContentLengthLong(cantidad);
+    if (HttpMethod.HEAD.matches(request.getMethod()) || cantidad == 0) {
+      return;
+    }
+    enviarArchivo(archivo, inicio, cantidad, request, response);
+  }
+
+  /**
+   * Envía la porción del archivo sin copiarla al heap: con sendfile del conector si está disponible,
+   * y si no con FileChannel.transferTo hacia el socket de la respuesta
+   */
+  private void enviarArchivo(Path archivo, long inicio, long cantidad, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+      request.setAttribute(SENDFILE_ARCHIVO, archivo.toString());
+      request.setAttribute(SENDFILE_INICIO, inicio);
+      request.setAttribute(SENDFILE_FIN, inicio + cantidad);
+      return;
+    }
+
+    try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+      WritableByteChannel salida = Channels.newChannel(response.getOutputStream());
+      long posicion = inicio;
+      long restante = cantidad;
+      while (restante > 0) {
+        long enviados = canal.transferTo(posicion, restante, salida);
+        if (enviados <= 0) {
+          break;
+        }
+        posicion += enviados;
+        restante -= enviados;
+      }
+    }
+  }
+
+  /**
+   * Porción de un archivo, con ambos extremos incluidos
+   */
+  record Rango(long inicio, long fin) {
+  }
+
+  /**
+   * Resuelve la cabecera Range contra la longitud del archivo
+   * @return el rango a enviar, o null si pide varios rangos (se envía el archivo completo)
+   * @throws IllegalArgumentException si la cabecera no es válida o el rango no es satisfacible
+   */
+  static Rango resolverRango(String cabecera, long longitud) {
+    List<HttpRange> rangos = HttpRange.parseRanges(cabecera);
+    if (rangos.size() != 1) {
+      return null;
+    }
+    long inicio = rangos.get(0).getRangeStart(longitud);
+    long fin = rangos.get(0).getRangeEnd(longitud);
+    // Un inicio igual o posterior al final (o un sufijo de cero bytes) no es satisfacible
+    if (inicio >= longitud || fin < inicio) {
+      throw new IllegalArgumentException("Rango no satisfacible para " + longitud + " bytes: " + cabecera);
+    }
+    return new Rango(inicio, fin);
+  }
+
+  /**
+   * Un Range condicionado con If-Range solo se respeta si el validador coincide con la versión actual
+   */
+  private boolean rangoVigente(String ifRange, String etag, long modificado) {
+    if (ifRange == null) {
+      return true;
+    }
+    if (ifRange.startsWith("\"")) {
+      return ifRange.equals(etag);
+    }
+    try {
+      return ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli()
+              == modificado / 1000 * 1000;
+    } catch (DateTimeParseException e) {
+      return false;
+    }
   }
 
   /**
@@ -1,18 +1,42 @@
 package com.emersondev.api.controller;
 
+import com.emersondev.api.request.HojaEtiquetasRequest;
 import com.emersondev.api.request.InventarioRequest;
+import com.emersondev.api.request.OrdenTrasladoRequest;
 import com.emersondev.api.request.TransferenciaInventarioRequest;
+import com.emersondev.api.response.AlertaStockResponse;
+import com.emersondev.api.response.IndiceEscaneoResponse;
 import com.emersondev.api.response.InventarioResponse;
+import com.emersondev.api.response.ItemEscaneoResponse;
 import com.emersondev.api.response.MensajeResponse;
+import com.emersondev.api.response.OrdenTrasladoResponse;
 import com.emersondev.api.response.PagedResponse;
+import com.emersondev.api.response.ReconstruccionCostosResponse;
+import com.emersondev.api.response.StockHistoricoResponse;
+import com.emersondev.api.response.ValoracionInventarioResponse;
+import com.emersondev.api.response.dashboard.InventarioMetricasResponse;
+import com.emersondev.domain.entity.Inventario;
+import com.emersondev.domain.projection.InventarioResumen;
+import com.emersondev.service.interfaces.AlertaStockService;
+import com.emersondev.service.interfaces.EtiquetaService;
+import com.emersondev.service.interfaces.IndiceEscaneoService;
 import com.emersondev.service.interfaces.InventarioService;
+import com.emersondev.service.interfaces.SnapshotStockService;
+import com.emersondev.service.interfaces.StockFeedService;
+import com.emersondev.service.interfaces.ValoracionInventarioService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,6 +45,12 @@ import java.util.List;
 public class InventarioController {
 
   private final InventarioService inventarioService;
+  private final StockFeedService stockFeedService;
+  private final AlertaStockService alertaStockService;
+  private final ValoracionInventarioService valoracionInventarioService;
+  private final SnapshotStockService snapshotStockService;
+  private final IndiceEscaneoService indiceEscaneoService;
+  private final EtiquetaService etiquetaService;
 
   /**
    * Agregar un nuevo registro de inventario
@@ -50,6 +80,23 @@ public class InventarioController {
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * Flujo SSE de cambios de stock para terminales de venta, en reemplazo del sondeo periódico.
+   * Al reconectar, el navegador envía Last-Event-ID y se reenvían los eventos perdidos.
+   * @param almacenId filtra los cambios de un almacén (opcional)
+   * @param desde último evento recibido, si el cliente no puede enviar la cabecera Last-Event-ID
+   * @param ultimoEventoId cabecera Last-Event-ID
+   * @return emisor SSE
+   */
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @PreAuthorize("hasRole('ADMIN') or hasRole('VENTAS')")
+  public SseEmitter suscribirCambiosStock(
+          @RequestParam(required = false) Long almacenId,
+          @RequestParam(required = false) String desde,
+          @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+    return stockFeedService.suscribir(almacenId, ultimoEventoId != null ? ultimoEventoId : desde);
+  }
+
   /**
    * Obtener inventario por ID
    * @param id ID del inventario
@@ -73,6 +120,58 @@ public class InventarioController {
     return ResponseEntity.ok(inventario);
   }
 
+  /**
+   * Resolver un código escaneado en caja desde el índice en memoria
+   * @param codigo serie del inventario o código de producto
+   * @param almacenId limita el resultado a un almacén (opcional)
+   * @return inventarios que corresponden al código
+   */
+  @GetMapping("/escaneo/{codigo}")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('VENTAS')")
+  public ResponseEntity<List<ItemEscaneoResponse>> escanear(
+          @PathVariable String codigo,
+          @RequestParam(required = false) Long almacenId) {
+    return ResponseEntity.ok(indiceEscaneoService.buscar(codigo, almacenId));
+  }
+
+  /**
+   * Estado y tamaño del índice de escaneo
+   * @return series, productos y memoria estimada
+   */
+  @GetMapping("/escaneo-indice")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<IndiceEscaneoResponse> obtenerIndiceEscaneo() {
+    return ResponseEntity.ok(indiceEscaneoService.obtenerEstadisticas());
+  }
+
+  /**
+   * Recargar el índice de escaneo desde la base de datos
+   * @return estado del índice recargado
+   */
+  @PostMapping("/escaneo-indice/recargar")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<IndiceEscaneoResponse> recargarIndiceEscaneo() {
+    indiceEscaneoService.recargar();
+    return ResponseEntity.ok(indiceEscaneoService.obtenerEstadisticas());
+  }
+
+  /**
+   * Generar la hoja de etiquetas con código de barras de un conjunto de series
+   * @param request series (o almacén/producto), copias y diseño de la hoja
+   * @return PDF escrito en streaming
+   */
+  @PostMapping("/etiquetas")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<StreamingResponseBody> generarEtiquetas(@Valid @RequestBody HojaEtiquetasRequest request) {
+    // Se validan las series antes de empezar a escribir el PDF
+    List<InventarioResumen> inventarios = etiquetaService.obtenerInventarios(request);
+    StreamingResponseBody cuerpo = salida -> etiquetaService.generarHoja(inventarios, request, salida);
+    return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"etiquetas.pdf\"")
+            .contentType(MediaType.APPLICATION_PDF)
+            .body(cuerpo);
+  }
+
   /**
    * Obtener inventario por producto
    * @param productoId ID del producto
@@ -101,6 +200,19 @@ public class InventarioController {
     return ResponseEntity.ok(new MensajeResponse("Transferencia de inventario realizada con éxito"));
   }
 
+  /**
+   * Ejecutar una orden de traslado de varias líneas entre almacenes
+   * @param ordenRequest almacenes origen/destino y líneas a trasladar
+   * @return resumen del traslado
+   */
+  @PostMapping("/traslados")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<OrdenTrasladoResponse> transferirOrden(
+          @Valid @RequestBody OrdenTrasladoRequest ordenRequest) {
+    OrdenTrasladoResponse resultado = inventarioService.transferirOrden(ordenRequest);
+    return ResponseEntity.ok(resultado);
+  }
+
   /**
    * Actualizar un registro de inventario
    * @param id ID del inventario
@@ -130,17 +242,138 @@ public class InventarioController {
 
   /**
    * Obtener inventario con stock bajo el umbral especificado
-   * @param umbral cantidad máxima para considerar como stock bajo
+   * @param umbral cantidad máxima para considerar como stock bajo; sin umbral se usa el stock mínimo de cada variante
    * @return lista de inventarios con stock bajo
    */
   @GetMapping("/stock-bajo")
   @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
   public ResponseEntity<List<InventarioResponse>> obtenerInventarioBajoStock(
-          @RequestParam(defaultValue = "5") Integer umbral) {
+          @RequestParam(required = false) Integer umbral) {
     List<InventarioResponse> inventario = inventarioService.obtenerInventarioConStockBajo(umbral);
     return ResponseEntity.ok(inventario);
   }
 
+  /**
+   * Alertas vigentes de stock bajo, servidas desde memoria.
+   * Los cambios se publican en tiempo real como eventos "alerta" de /api/inventarios/stream
+   * @param almacenId filtra por almacén (opcional)
+   * @return variantes en o por debajo de su stock mínimo
+   */
+  @GetMapping("/alertas-stock")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('VENTAS') or hasRole('INVENTARIO')")
+  public ResponseEntity<List<AlertaStockResponse>> obtenerAlertasStock(
+          @RequestParam(required = false) Long almacenId) {
+    return ResponseEntity.ok(alertaStockService.obtenerAlertas(almacenId));
+  }
+
+  /**
+   * Valorización del inventario al costo promedio ponderado
+   * @param almacenId limita la valorización a un almacén (opcional)
+   * @return valor total, unidades y variantes valorizadas
+   */
+  @GetMapping("/valoracion")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<ValoracionInventarioResponse> obtenerValoracion(
+          @RequestParam(required = false) Long almacenId) {
+    return ResponseEntity.ok(valoracionInventarioService.obtenerValoracion(almacenId));
+  }
+
+  /**
+   * Métricas de inventario para el panel, con el valor total al costo promedio vigente
+   * @return métricas de inventario
+   */
+  @GetMapping("/metricas")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<InventarioMetricasResponse> obtenerMetricas() {
+    return ResponseEntity.ok(valoracionInventarioService.obtenerMetricas());
+  }
+
+  /**
+   * Recalcular los costos promedio desde el historial de movimientos
+   * @return resumen de la reconstrucción
+   */
+  @PostMapping("/valoracion/reconstruir")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<ReconstruccionCostosResponse> reconstruirCostos() {
+    return ResponseEntity.ok(valoracionInventarioService.reconstruirCostos());
+  }
+
+  /**
+   * Stock de las variantes a una fecha (p. ej. cierre de ejercicio)
+   * @param fecha fecha de consulta
+   * @param almacenId filtra por almacén (opcional)
+   * @param productoId filtra por producto (opcional)
+   * @return stock de cada variante existente en esa fecha
+   */
+  @GetMapping("/stock-historico")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<List<StockHistoricoResponse>> obtenerStockHistorico(
+          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fecha,
+          @RequestParam(required = false) Long almacenId,
+          @RequestParam(required = false) Long productoId) {
+    return ResponseEntity.ok(snapshotStockService.obtenerStockHistorico(fecha, almacenId, productoId));
+  }
+
+  /**
+   * Stock de un inventario a una fecha
+   * @param id ID del inventario
+   * @param fecha fecha de consulta
+   * @return stock reconstruido
+   */
+  @GetMapping("/{id}/stock-historico")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<StockHistoricoResponse> obtenerStockHistoricoInventario(
+          @PathVariable Long id,
+          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fecha) {
+    return ResponseEntity.ok(snapshotStockService.obtenerStockHistorico(id, fecha));
+  }
+
+  /**
+   * Registrar un snapshot de stock fuera del horario programado
+   * @return cantidad de inventarios registrados
+   */
+  @PostMapping("/snapshots")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<MensajeResponse> registrarSnapshot() {
+    int registrados = snapshotStockService.registrarSnapshot();
+    return ResponseEntity.ok(new MensajeResponse("Snapshot registrado para " + registrados + " inventarios"));
+  }
+
+  /**
+   * Definir el stock mínimo de una variante de inventario
+   * @param id ID del inventario
+   * @param stockMinimo nuevo stock mínimo; si se omite vuelve al valor del producto
+   * @return el inventario actualizado
+   */
+  @PutMapping("/{id}/stock-minimo")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<InventarioResponse> actualizarStockMinimo(
+          @PathVariable Long id,
+          @RequestParam(required = false) Integer stockMinimo) {
+    return ResponseEntity.ok(inventarioService.actualizarStockMinimo(id, stockMinimo));
+  }
+
+  /**
+   * Buscar inventarios por producto, color, talla, almacén y/o estado
+   * @return página de inventarios que cumplen los filtros informados
+   */
+  @GetMapping("/buscar")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('VENTAS')")
+  public ResponseEntity<PagedResponse<InventarioResponse>> buscarInventario(
+          @RequestParam(required = false) Long productoId,
+          @RequestParam(required = false) Long colorId,
+          @RequestParam(required = false) Long tallaId,
+          @RequestParam(required = false) Long almacenId,
+          @RequestParam(required = false) Inventario.EstadoInventario estado,
+          @RequestParam(defaultValue = "0") int page,
+          @RequestParam(defaultValue = "10") int size,
+          @RequestParam(defaultValue = "id") String sortBy,
+          @RequestParam(defaultValue = "asc") String sortDir) {
+    PagedResponse<InventarioResponse> response = inventarioService.buscarInventario(
+            productoId, colorId, tallaId, almacenId, estado, page, size, sortBy, sortDir);
+    return ResponseEntity.ok(response);
+  }
+
   /**
    * Obtener el stock total disponible de un producto en todos los almacenes
    * @param productoId ID del producto
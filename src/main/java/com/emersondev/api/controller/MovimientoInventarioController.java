@@ -1,18 +1,25 @@
 package com.emersondev.api.controller;
 
 import com.emersondev.api.request.MovimientoInventarioRequest;
+import com.emersondev.api.response.ImportacionStockResponse;
 import com.emersondev.api.response.MovimientoInventarioResponse;
 import com.emersondev.api.response.PagedResponse;
 import com.emersondev.domain.entity.MovimientoInventario;
+import com.emersondev.service.interfaces.ImportacionStockService;
+import com.emersondev.service.interfaces.KardexService;
 import com.emersondev.service.interfaces.MovimientoInventarioService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 
 @RestController
@@ -21,6 +28,8 @@ import java.time.LocalDateTime;
 public class MovimientoInventarioController {
 
   private final MovimientoInventarioService movimientoService;
+  private final ImportacionStockService importacionStockService;
+  private final KardexService kardexService;
 
   @PostMapping("/registrar")
   @PreAuthorize("hasRole('ADMIN') or hasRole('VENTAS')")
@@ -30,6 +39,22 @@ public class MovimientoInventarioController {
     return new ResponseEntity<>(movimiento, HttpStatus.CREATED);
   }
 
+  /**
+   * Ingreso masivo de stock desde un CSV o JSON leído en streaming
+   */
+  @PostMapping(value = "/importar-entradas",
+          consumes = {"text/csv", "text/plain", "application/json", "application/x-ndjson"})
+  @PreAuthorize("hasRole('ADMIN') or hasRole('VENTAS')")
+  public ResponseEntity<ImportacionStockResponse> importarEntradas(
+          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+          @RequestParam(required = false) String referencia,
+          InputStream contenido) {
+    ImportacionStockResponse resultado = importacionStockService.importarEntradas(contenido, contentType, referencia);
+    // Lectura interrumpida: parte del archivo se aplicó y el informe indica hasta dónde
+    HttpStatus estado = resultado.getError() != null ? HttpStatus.MULTI_STATUS : HttpStatus.OK;
+    return ResponseEntity.status(estado).body(resultado);
+  }
+
   @GetMapping("/{id}")
   @PreAuthorize("hasRole('ADMIN') or hasRole('VENTAS')")
   public ResponseEntity<MovimientoInventarioResponse> obtenerMovimientoPorId(@PathVariable Long id) {
@@ -48,6 +73,28 @@ public class MovimientoInventarioController {
     return ResponseEntity.ok(movimientos);
   }
 
+  /**
+   * Kardex del inventario con saldo acumulado, escrito en streaming (csv, ndjson o pdf)
+   */
+  @GetMapping("/kardex/{inventarioId}")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('INVENTARIO')")
+  public ResponseEntity<StreamingResponseBody> exportarKardex(
+          @PathVariable Long inventarioId,
+          @RequestParam(defaultValue = "csv") String formato,
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+    KardexService.Formato formatoKardex = KardexService.Formato.desde(formato);
+    // Se valida antes de empezar a escribir, para poder responder 404 con el cuerpo de error habitual
+    String serie = kardexService.obtenerInventario(inventarioId).serie();
+
+    StreamingResponseBody cuerpo = salida -> kardexService.exportar(inventarioId, desde, hasta, formatoKardex, salida);
+    return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"kardex-" + serie + "." + formatoKardex.getExtension() + "\"")
+            .contentType(MediaType.parseMediaType(formatoKardex.getMediaType()))
+            .body(cuerpo);
+  }
+
   @GetMapping("/buscar")
   @PreAuthorize("hasRole('ADMIN') or hasRole('VENTAS')")
   public ResponseEntity<PagedResponse<MovimientoInventarioResponse>> buscarMovimientos(
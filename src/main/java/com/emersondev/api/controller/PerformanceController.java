@@ -1,6 +1,12 @@
 package com.emersondev.api.controller;
 
+import com.emersondev.config.cache.TaggedCaffeineCacheManager;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.cache.CacheManager;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,6 +21,7 @@ import java.util.Map;
 public class PerformanceController {
 
     private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
 
     @GetMapping("/cache/stats")
     @PreAuthorize("hasRole('ADMIN')")
@@ -27,13 +34,67 @@ public class PerformanceController {
                 Map<String, Object> stats = new HashMap<>();
                 stats.put("name", cacheName);
                 stats.put("status", "active");
+                if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                    CacheStats caffeineStats = caffeine.stats();
+                    stats.put("estimatedSize", caffeine.estimatedSize());
+                    stats.put("hitCount", caffeineStats.hitCount());
+                    stats.put("missCount", caffeineStats.missCount());
+                    stats.put("hitRate", caffeineStats.hitRate());
+                    stats.put("evictionCount", caffeineStats.evictionCount());
+                }
                 cacheStats.put(cacheName, stats);
             }
         });
+
+        if (cacheManager instanceof TaggedCaffeineCacheManager taggedCacheManager) {
+            Map<String, Object> indice = new HashMap<>();
+            indice.put("etiquetas", taggedCacheManager.getIndice().totalEtiquetas());
+            indice.put("entradas", taggedCacheManager.getIndice().totalEntradas());
+            cacheStats.put("indiceEtiquetas", indice);
+        }
         
         return ResponseEntity.ok(cacheStats);
     }
 
+    @GetMapping("/cache/l2/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSecondLevelCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> l2Stats = new HashMap<>();
+
+        Map<String, Object> regiones = new HashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats != null) {
+                Map<String, Object> stats = new HashMap<>();
+                stats.put("hitCount", regionStats.getHitCount());
+                stats.put("missCount", regionStats.getMissCount());
+                stats.put("putCount", regionStats.getPutCount());
+                stats.put("elementCountInMemory", regionStats.getElementCountInMemory());
+                regiones.put(region, stats);
+            }
+        }
+        l2Stats.put("regiones", regiones);
+        l2Stats.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        // Sentencias preparadas y cargas de entidades desde el último reinicio, para medir selects por operación
+        l2Stats.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        l2Stats.put("entityLoadCount", statistics.getEntityLoadCount());
+        l2Stats.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+        l2Stats.put("secondLevelCacheMissCount", statistics.getSecondLevelCacheMissCount());
+
+        return ResponseEntity.ok(l2Stats);
+    }
+
+    @PostMapping("/cache/l2/stats/reset")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, String>> resetSecondLevelCacheStats() {
+        entityManagerFactory.unwrap(SessionFactory.class).getStatistics().clear();
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Second-level cache statistics reset");
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/cache/clear")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, String>> clearCaches() {
@@ -1,12 +1,20 @@
 package com.emersondev.api.controller;
 
 import com.emersondev.api.request.ProductoRequest;
+import com.emersondev.api.response.ImportacionCatalogoResponse;
 import com.emersondev.api.response.MensajeResponse;
 import com.emersondev.api.response.PagedResponse;
+import com.emersondev.api.response.ProductoBusquedaResponse;
+import com.emersondev.api.response.ProductoDetalleResponse;
 import com.emersondev.api.response.ProductoResponse;
+import com.emersondev.domain.exception.BusinessException;
+import com.emersondev.service.interfaces.BusquedaProductoService;
+import com.emersondev.service.interfaces.ImagenProductoService;
+import com.emersondev.service.interfaces.ImportacionCatalogoService;
 import com.emersondev.service.interfaces.ProductoService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +22,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -22,6 +31,9 @@ import java.util.List;
 public class ProductoController {
 
   private final ProductoService productoService;
+  private final BusquedaProductoService busquedaProductoService;
+  private final ImportacionCatalogoService importacionCatalogoService;
+  private final ImagenProductoService imagenProductoService;
 
   /**
    * Crea un nuevo producto
@@ -36,6 +48,20 @@ public class ProductoController {
     return new ResponseEntity<>(nuevoProducto, HttpStatus.CREATED);
   }
 
+  /**
+   * Importación masiva de catálogo (productos, colores y tallas) desde un CSV o XLSX leído en streaming.
+   * Con simular=true solo valida el archivo y devuelve lo que se crearía
+   */
+  @PostMapping(value = "/importar",
+          consumes = {"text/csv", "text/plain", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"})
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<ImportacionCatalogoResponse> importarCatalogo(
+          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+          @RequestParam(defaultValue = "false") boolean simular,
+          InputStream contenido) {
+    return ResponseEntity.ok(importacionCatalogoService.importarCatalogo(contenido, contentType, simular));
+  }
+
   /**
    * Obtiene todos los productos con paginación
    */
@@ -57,6 +83,14 @@ public class ProductoController {
     return ResponseEntity.ok(productoService.obtenerProductoPorId(id));
   }
 
+  /**
+   * Ficha del producto con colores, tallas y stock por variante y almacén en una sola respuesta
+   */
+  @GetMapping("/{id}/detalle")
+  public ResponseEntity<ProductoDetalleResponse> obtenerDetalleProducto(@PathVariable Long id) {
+    return ResponseEntity.ok(productoService.obtenerDetalleProducto(id));
+  }
+
   /**
    * Obtiene todos los productos por código
    */
@@ -66,15 +100,52 @@ public class ProductoController {
   }
 
   /**
-   * Busca productos por término en diferentes campos según el filtro especificado
+   * Busca productos por término en diferentes campos según el filtro especificado (modo=subcadena, por defecto).
+   * Con modo=texto la búsqueda es de texto completo: ver {@link #buscarTextoCompleto}
    */
   @GetMapping("/buscar")
   public ResponseEntity<List<ProductoResponse>> buscarProductos(
           @RequestParam String termino,
-          @RequestParam(required = false) String filtro) {
+          @RequestParam(required = false) String filtro,
+          @RequestParam(defaultValue = "subcadena") String modo) {
+    if (!"subcadena".equals(modo)) {
+      throw new BusinessException("Modo de búsqueda no válido: " + modo + " (use subcadena o texto)");
+    }
     return ResponseEntity.ok(productoService.buscarProductos(termino, filtro));
   }
 
+  /**
+   * Modo texto de /buscar: búsqueda de texto completo en PostgreSQL, paginada y ordenada por relevancia.
+   * Admite la sintaxis de websearch: frases entre comillas, OR y exclusiones con "-"
+   */
+  @GetMapping(value = "/buscar", params = "modo=texto")
+  public ResponseEntity<PagedResponse<ProductoBusquedaResponse>> buscarTextoCompleto(
+          @RequestParam String termino,
+          @RequestParam(defaultValue = "0") int page,
+          @RequestParam(defaultValue = "10") int size) {
+    return ResponseEntity.ok(productoService.buscarTextoCompleto(termino, page, size));
+  }
+
+  /**
+   * Búsqueda rápida en memoria, tolerante a prefijos y erratas, ordenada por relevancia
+   */
+  @GetMapping("/buscar-rapido")
+  public ResponseEntity<List<ProductoBusquedaResponse>> buscarRapido(
+          @RequestParam String termino,
+          @RequestParam(defaultValue = "20") int limite) {
+    return ResponseEntity.ok(busquedaProductoService.buscar(termino, limite));
+  }
+
+  /**
+   * Reconstruye el índice de búsqueda rápida desde la base de datos
+   */
+  @PostMapping("/buscar-rapido/recargar")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<MensajeResponse> recargarIndiceBusqueda() {
+    busquedaProductoService.recargar();
+    return ResponseEntity.ok(new MensajeResponse("Índice de búsqueda de productos recargado"));
+  }
+
 
   @GetMapping("/serie/{serie}")
   public ResponseEntity<List<ProductoResponse>> buscarPorSerie(@PathVariable String serie) {
@@ -116,11 +187,22 @@ public class ProductoController {
   }
 
   /**
-   * Obtiene productos con stock bajo según un umbral
+   * Programa la regeneración de las variantes de la imagen de un producto (miniatura, mediana y grande)
+   */
+  @PostMapping("/{id}/imagen/variantes")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<MensajeResponse> regenerarVariantesImagen(@PathVariable Long id) {
+    imagenProductoService.regenerarVariantes(id);
+    return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(new MensajeResponse("Generación de variantes de imagen programada"));
+  }
+
+  /**
+   * Obtiene productos con stock bajo según un umbral, o según el stock mínimo de cada variante si no se indica
    */
   @GetMapping("/stock-bajo")
   public ResponseEntity<List<ProductoResponse>> obtenerProductosStockBajo(
-          @RequestParam(defaultValue = "5") Integer umbral) {
+          @RequestParam(required = false) Integer umbral) {
     return ResponseEntity.ok(productoService.obtenerProductosConStockBajo(umbral));
   }
 
@@ -0,0 +1,26 @@
+package com.emersondev.api.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConteoFisicoRequest {
+
+  @NotNull(message = "El ID del almacén es obligatorio")
+  private Long almacenId;
+
+  /**
+   * Limita el conteo a un producto (conteo cíclico)
+   */
+  private Long productoId;
+
+  @Size(max = 100, message = "La referencia no debe exceder los 100 caracteres")
+  private String referencia;
+}
@@ -0,0 +1,55 @@
+package com.emersondev.api.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Series a imprimir y diseño de la hoja de etiquetas. Si no se indican series
+ * se imprimen todas las del almacén y/o producto indicados.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HojaEtiquetasRequest {
+
+  @Builder.Default
+  private List<String> series = new ArrayList<>();
+
+  private Long almacenId;
+
+  private Long productoId;
+
+  @Min(value = 1, message = "Debe imprimir al menos una copia por serie")
+  @Max(value = 100, message = "No se pueden imprimir más de 100 copias por serie")
+  @Builder.Default
+  private Integer copias = 1;
+
+  /**
+   * A4 o CARTA
+   */
+  @Builder.Default
+  private String tamanoPagina = "A4";
+
+  @Min(value = 1, message = "La hoja debe tener al menos una columna")
+  @Max(value = 10, message = "La hoja no puede tener más de 10 columnas")
+  @Builder.Default
+  private Integer columnas = 3;
+
+  @Min(value = 1, message = "La hoja debe tener al menos una fila")
+  @Max(value = 30, message = "La hoja no puede tener más de 30 filas")
+  @Builder.Default
+  private Integer filas = 8;
+
+  @Min(value = 0, message = "El margen no puede ser negativo")
+  @Max(value = 50, message = "El margen no puede exceder los 50 mm")
+  @Builder.Default
+  private Integer margenMm = 10;
+}
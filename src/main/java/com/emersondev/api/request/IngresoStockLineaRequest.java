@@ -0,0 +1,29 @@
+package com.emersondev.api.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Línea de una importación masiva de ingresos de stock.
+ * La variante se identifica por serie de inventario o por producto/color/talla/almacén.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngresoStockLineaRequest {
+
+  private String serie;
+  private Long productoId;
+  private Long colorId;
+  private Long tallaId;
+  private Long almacenId;
+  private Integer cantidad;
+
+  /**
+   * Costo unitario de compra (opcional; por defecto el precio de compra del producto)
+   */
+  private BigDecimal costoUnitario;
+}
@@ -0,0 +1,28 @@
+package com.emersondev.api.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LecturaConteoRequest {
+
+  @NotBlank(message = "La serie del inventario es obligatoria")
+  private String serie;
+
+  @Min(value = 0, message = "La cantidad no puede ser negativa")
+  @Builder.Default
+  private Integer cantidad = 1;
+
+  /**
+   * Si es true la cantidad reemplaza lo contado hasta ahora (reconteo) en lugar de sumarse
+   */
+  @Builder.Default
+  private boolean reemplazar = false;
+}
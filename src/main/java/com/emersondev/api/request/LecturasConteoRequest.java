@@ -0,0 +1,23 @@
+package com.emersondev.api.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LecturasConteoRequest {
+
+  @NotEmpty(message = "Debe enviar al menos una lectura")
+  @Valid
+  @Builder.Default
+  private List<LecturaConteoRequest> lecturas = new ArrayList<>();
+}
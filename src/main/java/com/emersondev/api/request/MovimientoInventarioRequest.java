@@ -1,5 +1,6 @@
 package com.emersondev.api.request;
 
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,6 +10,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -47,6 +50,12 @@ public class MovimientoInventarioRequest {
   @Min(value = 1, message = "La cantidad debe ser mayor a cero")
   private Integer cantidad;
 
+  /**
+   * Costo unitario de compra (solo ENTRADA; si se omite se usa el precio de compra del producto)
+   */
+  @DecimalMin(value = "0.0", message = "El costo unitario no puede ser negativo")
+  private BigDecimal costoUnitario;
+
   /**
    * Tipo de movimiento (ENTRADA, SALIDA, AJUSTE, TRASLADO)
    */
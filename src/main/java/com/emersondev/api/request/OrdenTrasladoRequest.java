@@ -0,0 +1,38 @@
+package com.emersondev.api.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenTrasladoRequest {
+
+  @NotNull(message = "El ID del almacén origen es obligatorio")
+  private Long almacenOrigenId;
+
+  @NotNull(message = "El ID del almacén destino es obligatorio")
+  private Long almacenDestinoId;
+
+  @Size(max = 100, message = "La referencia no debe exceder los 100 caracteres")
+  private String referencia;
+
+  /**
+   * Sin límite de líneas: una orden puede trasladar un almacén completo. El servicio consulta y bloquea
+   * los inventarios por lotes
+   */
+  @NotEmpty(message = "La orden de traslado debe tener al menos una línea")
+  @Valid
+  @Builder.Default
+  private List<LineaTrasladoRequest> lineas = new ArrayList<>();
+}
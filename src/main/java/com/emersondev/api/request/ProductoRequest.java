@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -69,6 +70,12 @@ import jakarta.validation.constraints.Size;
     */
    private String imagen;
 
+   /**
+    * Stock mínimo por defecto de las variantes del producto
+    */
+   @PositiveOrZero(message = "El stock mínimo no puede ser negativo")
+   private Integer stockMinimo;
+
    /**
     * Colores disponibles para el producto
     */
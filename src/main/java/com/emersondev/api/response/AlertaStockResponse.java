@@ -0,0 +1,24 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Variante de inventario en o por debajo de su stock mínimo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertaStockResponse {
+
+  private Long inventarioId;
+  private Long productoId;
+  private Long almacenId;
+  private Integer cantidad;
+  private Integer stockMinimo;
+  private boolean agotado;
+  private LocalDateTime desde;
+}
@@ -0,0 +1,35 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sesión de conteo físico con su reporte de diferencias
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConteoFisicoResponse {
+
+  private Long id;
+  private Long almacenId;
+  private String almacenNombre;
+  private Long productoId;
+  private String estado;
+  private String referencia;
+  private String usuario;
+  private LocalDateTime fechaInicio;
+  private LocalDateTime fechaCierre;
+  private long inventarios;
+  private long inventariosContados;
+  private int inventariosConDiferencia;
+  private long unidadesFaltantes;
+  private long unidadesSobrantes;
+  private BigDecimal valorDiferencia;
+  private List<DiferenciaConteoResponse> diferencias;
+}
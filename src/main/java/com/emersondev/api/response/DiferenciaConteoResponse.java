@@ -0,0 +1,31 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Diferencia entre lo contado y el stock del sistema para un inventario
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiferenciaConteoResponse {
+
+  private Long inventarioId;
+  private String serie;
+  private String productoNombre;
+  private String colorNombre;
+  private String tallaNumero;
+  private Integer cantidadBase;
+  private Integer cantidadContada;
+  private Integer movimientosDurante;
+  private Integer cantidadFinal;
+  /**
+   * Contado menos el stock del sistema en la última lectura: negativo para faltantes, positivo para sobrantes
+   */
+  private Integer diferencia;
+  private BigDecimal valorDiferencia;
+}
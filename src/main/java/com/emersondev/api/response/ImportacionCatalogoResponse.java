@@ -0,0 +1,40 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de catálogo (productos, colores y tallas)
+ */
+@Data
+public class ImportacionCatalogoResponse {
+
+  /**
+   * true si solo se validó el archivo, sin grabar nada
+   */
+  private boolean simulacion;
+  private int totalLineas;
+  private int lineasValidas;
+  private int productosCreados;
+  private int coloresCreados;
+  private int tallasCreadas;
+  private int codigosGenerados;
+  private long duracionMs;
+  private long lineasPorSegundo;
+  private List<ErrorLinea> errores = new ArrayList<>();
+
+  /**
+   * Error asociado a una línea del archivo (numerada desde 1, sin contar la cabecera)
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class ErrorLinea {
+    private int linea;
+    private String mensaje;
+  }
+}
@@ -0,0 +1,37 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de ingresos de stock
+ */
+@Data
+public class ImportacionStockResponse {
+
+  private int totalLineas;
+  private int lineasProcesadas;
+  private int inventariosCreados;
+  private long unidadesIngresadas;
+  private List<ErrorLinea> errores = new ArrayList<>();
+
+  /**
+   * Motivo por el que se interrumpió la lectura del archivo; las líneas anteriores ya quedaron aplicadas
+   */
+  private String error;
+
+  /**
+   * Error asociado a una línea del archivo (numerada desde 1, sin contar la cabecera)
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class ErrorLinea {
+    private int linea;
+    private String mensaje;
+  }
+}
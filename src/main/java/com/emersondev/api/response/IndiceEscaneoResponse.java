@@ -0,0 +1,26 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado del índice en memoria de escaneo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndiceEscaneoResponse {
+
+  private boolean cargado;
+  private int series;
+  private int productos;
+  /**
+   * Estimación de la memoria ocupada por el índice, calculada a partir del tamaño de sus estructuras
+   */
+  private long bytesEstimados;
+  private long duracionCargaMs;
+  private LocalDateTime fechaCarga;
+}
@@ -3,6 +3,7 @@ package com.emersondev.api.response;
 import com.emersondev.domain.entity.Inventario;
 import lombok.Data;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -20,6 +21,8 @@ public class InventarioResponse {
   private AlmacenSimpleResponse almacen;
   private Integer cantidad;
   private Inventario.EstadoInventario estado;
+  private Integer stockMinimo;
+  private BigDecimal costoPromedio;
   private LocalDateTime fechaCreacion;
   private LocalDateTime fechaActualizacion;
 
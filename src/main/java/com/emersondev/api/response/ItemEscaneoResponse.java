@@ -0,0 +1,28 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Vista compacta de un inventario para el escaneo en caja
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemEscaneoResponse {
+
+  private Long inventarioId;
+  private String serie;
+  private Long productoId;
+  private String productoCodigo;
+  private String productoNombre;
+  private String colorNombre;
+  private String tallaNumero;
+  private Long almacenId;
+  private BigDecimal precioVenta;
+  private Integer cantidad;
+  private String estado;
+}
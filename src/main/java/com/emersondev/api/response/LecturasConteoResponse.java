@@ -0,0 +1,24 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de registrar un lote de lecturas en un conteo físico
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LecturasConteoResponse {
+
+  private Long conteoId;
+  private int inventariosActualizados;
+  private long unidades;
+  /**
+   * Series desconocidas o que no pertenecen al almacén/producto del conteo
+   */
+  private List<String> seriesRechazadas;
+}
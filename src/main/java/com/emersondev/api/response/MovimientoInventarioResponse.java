@@ -4,6 +4,7 @@ import com.emersondev.domain.entity.Inventario;
 import com.emersondev.domain.entity.MovimientoInventario;
 import lombok.Data;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -43,6 +44,11 @@ public class MovimientoInventarioResponse {
    */
   private Integer cantidad;
 
+  /**
+   * Costo unitario con el que se valorizó el movimiento.
+   */
+  private BigDecimal costoUnitario;
+
   /**
    * Tipo de movimiento (ENTRADA, SALIDA, AJUSTE, TRASLADO).
    */
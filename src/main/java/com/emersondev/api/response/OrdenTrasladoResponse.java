@@ -0,0 +1,22 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una orden de traslado entre almacenes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenTrasladoResponse {
+
+  private Long almacenOrigenId;
+  private Long almacenDestinoId;
+  private String referencia;
+  private int lineas;
+  private long unidadesTrasladadas;
+  private int inventariosDestinoCreados;
+  private int inventariosDestinoActualizados;
+}
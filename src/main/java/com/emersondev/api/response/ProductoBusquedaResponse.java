@@ -0,0 +1,31 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Producto encontrado por una búsqueda por relevancia (índice en memoria o texto completo), con su puntaje
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoBusquedaResponse {
+
+  private Long id;
+  private String codigo;
+  private String nombre;
+  private String marca;
+  private String modelo;
+  private BigDecimal precioVenta;
+  private String imagen;
+  private Float puntaje;
+
+  /**
+   * Fragmento de nombre y descripción con las coincidencias entre &lt;mark&gt;; el resto del texto va escapado
+   * como HTML. Solo en la búsqueda de texto completo
+   */
+  private String fragmento;
+}
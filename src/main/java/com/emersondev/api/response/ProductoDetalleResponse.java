@@ -0,0 +1,54 @@
+package com.emersondev.api.response;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ficha completa de un producto: datos, colores, tallas y stock de cada variante por almacén
+ */
+@Data
+public class ProductoDetalleResponse {
+
+  private Long id;
+  private String codigo;
+  private String nombre;
+  private String descripcion;
+  private String marca;
+  private String modelo;
+  private BigDecimal precioCompra;
+  private BigDecimal precioVenta;
+  private String imagen;
+  private Integer stockMinimo;
+  private int stockTotal;
+  private List<ColorDetalle> colores = new ArrayList<>();
+  private LocalDateTime fechaCreacion;
+  private LocalDateTime fechaActualizacion;
+
+  @Data
+  public static class ColorDetalle {
+    private Long id;
+    private String nombre;
+    private String codigoHex;
+    private int stockTotal;
+    private List<TallaDetalle> tallas = new ArrayList<>();
+  }
+
+  @Data
+  public static class TallaDetalle {
+    private Long id;
+    private String numero;
+    private int stockTotal;
+    private List<StockAlmacen> almacenes = new ArrayList<>();
+  }
+
+  @Data
+  public static class StockAlmacen {
+    private Long almacenId;
+    private String almacenNombre;
+    private int cantidad;
+  }
+}
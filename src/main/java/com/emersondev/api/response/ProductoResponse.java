@@ -17,6 +17,10 @@ public class ProductoResponse {
   private BigDecimal precioCompra;
   private BigDecimal precioVenta;
   private String imagen;
+  private String imagenMiniatura;
+  private String imagenMediana;
+  private String imagenGrande;
+  private Integer stockMinimo;
   private List<ColorResponse> colores;
   private LocalDateTime fechaCreacion;
   private LocalDateTime fechaActualizacion;
@@ -0,0 +1,19 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de recalcular los costos promedio desde el historial de movimientos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconstruccionCostosResponse {
+
+  private int variantes;
+  private long movimientosProcesados;
+  private long movimientosCompletados;
+  private long duracionMs;
+}
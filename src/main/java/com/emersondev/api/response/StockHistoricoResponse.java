@@ -0,0 +1,33 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock de una variante reconstruido a una fecha dada
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHistoricoResponse {
+
+  private Long inventarioId;
+  private String serie;
+  private Long productoId;
+  private String productoCodigo;
+  private String productoNombre;
+  private String colorNombre;
+  private String tallaNumero;
+  private Long almacenId;
+  private String almacenNombre;
+  private LocalDateTime fecha;
+  private Integer cantidad;
+  /**
+   * Corte del snapshot usado como punto de partida; null si se reconstruyó desde el primer movimiento
+   */
+  private LocalDateTime fechaSnapshot;
+  private Integer movimientosAplicados;
+}
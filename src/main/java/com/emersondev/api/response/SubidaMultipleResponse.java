@@ -0,0 +1,34 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una subida de varios archivos: los almacenados y los rechazados con su motivo
+ */
+@Data
+public class SubidaMultipleResponse {
+
+  private int totalArchivos;
+  private int almacenados;
+  private long duracionMs;
+  private List<FileResponse> archivos = new ArrayList<>();
+  private List<ArchivoRechazado> rechazados = new ArrayList<>();
+
+  /**
+   * Motivo por el que se dejó de leer la petición (p. ej. límite total excedido), o null si se leyó completa
+   */
+  private String error;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class ArchivoRechazado {
+    private String nombre;
+    private String motivo;
+  }
+}
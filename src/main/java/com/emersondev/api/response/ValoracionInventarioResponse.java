@@ -0,0 +1,23 @@
+package com.emersondev.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Valorización del inventario al costo promedio ponderado
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValoracionInventarioResponse {
+
+  private Long almacenId;
+  private BigDecimal valorTotal;
+  private Long unidades;
+  private Long variantes;
+  private LocalDateTime fechaCalculo;
+}
@@ -0,0 +1,65 @@
+package com.emersondev.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+
+/**
+ * Clientes de S3 para app.file-storage.backend=s3. Con un endpoint propio sirve para MinIO
+ * u otros almacenamientos compatibles
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.file-storage", name = "backend", havingValue = "s3")
+public class AlmacenamientoS3Config {
+
+  @Bean(destroyMethod = "close")
+  public S3Client s3Client(FileStorageProperties properties) {
+    FileStorageProperties.S3 s3 = properties.getS3();
+    var builder = S3Client.builder()
+            .region(Region.of(s3.getRegion()))
+            .credentialsProvider(credenciales(s3))
+            .serviceConfiguration(configuracion(s3));
+    if (StringUtils.hasText(s3.getEndpoint())) {
+      builder.endpointOverride(URI.create(s3.getEndpoint()));
+    }
+    return builder.build();
+  }
+
+  @Bean(destroyMethod = "close")
+  public S3Presigner s3Presigner(FileStorageProperties properties) {
+    FileStorageProperties.S3 s3 = properties.getS3();
+    var builder = S3Presigner.builder()
+            .region(Region.of(s3.getRegion()))
+            .credentialsProvider(credenciales(s3))
+            .serviceConfiguration(configuracion(s3));
+    if (StringUtils.hasText(s3.getEndpoint())) {
+      builder.endpointOverride(URI.create(s3.getEndpoint()));
+    }
+    return builder.build();
+  }
+
+  private AwsCredentialsProvider credenciales(FileStorageProperties.S3 s3) {
+    // Sin claves explícitas se usan las del entorno (variables AWS_*, rol de la instancia, etc.)
+    if (StringUtils.hasText(s3.getAccessKey()) && StringUtils.hasText(s3.getSecretKey())) {
+      return StaticCredentialsProvider.create(AwsBasicCredentials.create(s3.getAccessKey(), s3.getSecretKey()));
+    }
+    return DefaultCredentialsProvider.create();
+  }
+
+  private S3Configuration configuracion(FileStorageProperties.S3 s3) {
+    return S3Configuration.builder()
+            .pathStyleAccessEnabled(s3.isPathStyle())
+            .build();
+  }
+}
@@ -0,0 +1,41 @@
+package com.emersondev.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Columna tsvector generada e índice GIN para la búsqueda de texto completo de productos.
+ * Hibernate (ddl-auto=update) no sabe crear columnas generadas ni índices GIN, así que se crean aquí
+ * de forma idempotente una vez actualizado el esquema. PostgreSQL mantiene la columna en cada INSERT/UPDATE.
+ */
+@Configuration
+@Slf4j
+public class BusquedaTextoConfig {
+
+  /**
+   * Pesos: A código y nombre, B marca y modelo, C descripción. El código usa la configuración 'simple'
+   * para no aplicarle raíces del español
+   */
+  private static final String COLUMNA_BUSQUEDA = """
+          ALTER TABLE productos ADD COLUMN IF NOT EXISTS busqueda tsvector GENERATED ALWAYS AS (
+              setweight(to_tsvector('simple'::regconfig, coalesce(codigo, '')), 'A') ||
+              setweight(to_tsvector('spanish'::regconfig, coalesce(nombre, '')), 'A') ||
+              setweight(to_tsvector('spanish'::regconfig, coalesce(marca, '') || ' ' || coalesce(modelo, '')), 'B') ||
+              setweight(to_tsvector('spanish'::regconfig, coalesce(descripcion, '')), 'C')
+          ) STORED""";
+
+  private static final String INDICE_BUSQUEDA =
+          "CREATE INDEX IF NOT EXISTS idx_producto_busqueda ON productos USING gin (busqueda)";
+
+  @Bean
+  public CommandLineRunner crearIndiceBusquedaTexto(JdbcTemplate jdbcTemplate) {
+    return args -> {
+      jdbcTemplate.execute(COLUMNA_BUSQUEDA);
+      jdbcTemplate.execute(INDICE_BUSQUEDA);
+      log.info("Columna e índice de búsqueda de texto completo de productos verificados");
+    };
+  }
+}
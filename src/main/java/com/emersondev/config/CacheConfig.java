@@ -1,9 +1,10 @@
 package com.emersondev.config;
 
+import com.emersondev.config.cache.CacheTagExtractor;
+import com.emersondev.config.cache.CacheTagIndex;
+import com.emersondev.config.cache.TaggedCaffeineCacheManager;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,16 +16,15 @@ import java.util.concurrent.TimeUnit;
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        
-        // Configure different cache policies for different cache names
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(1000)
-                .expireAfterAccess(5, TimeUnit.MINUTES)
-                .expireAfterWrite(10, TimeUnit.MINUTES)
-                .recordStats());
-                
+    public CacheTagIndex cacheTagIndex() {
+        return new CacheTagIndex();
+    }
+
+    @Bean
+    public TaggedCaffeineCacheManager cacheManager(CacheTagIndex cacheTagIndex, CacheTagExtractor cacheTagExtractor) {
+        // Cada caché registra las etiquetas de dependencia de sus entradas para invalidación selectiva
+        TaggedCaffeineCacheManager cacheManager = new TaggedCaffeineCacheManager(cacheTagIndex, cacheTagExtractor);
+
         // Set cache names
       cacheManager.setCacheNames(Arrays.asList(
               "productos",
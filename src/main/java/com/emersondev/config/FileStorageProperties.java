@@ -3,6 +3,9 @@ package com.emersondev.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Data
 @Component
@@ -10,8 +13,63 @@ import org.springframework.stereotype.Component;
 public class FileStorageProperties {
   private String uploadDir;
 
+  /**
+   * Guarda las subidas por el SHA-256 de su contenido, de modo que un mismo archivo subido varias veces
+   * ocupa disco una sola vez
+   */
+  private boolean deduplicar;
+
+  /**
+   * Dónde se guardan los archivos: "local" (directorio uploadDir) o "s3" (bucket compatible con S3)
+   */
+  private String backend = "local";
+
+  private S3 s3 = new S3();
+
+  private SubidaMultiple subidaMultiple = new SubidaMultiple();
+
   // Por defecto, si no se especifica en application.properties/yml
   public FileStorageProperties() {
     this.uploadDir = "uploads";
   }
+
+  /**
+   * Conexión a un almacenamiento compatible con S3 (AWS S3, MinIO, etc.)
+   */
+  @Data
+  public static class S3 {
+    /**
+     * URL del servicio; vacía para AWS S3, p. ej. "http://localhost:9000" para MinIO
+     */
+    private String endpoint;
+    private String region = "us-east-1";
+    private String bucket;
+    private String accessKey;
+    private String secretKey;
+
+    /**
+     * Direcciones del tipo endpoint/bucket/clave, necesarias en MinIO
+     */
+    private boolean pathStyle = true;
+
+    /**
+     * Vigencia de las URL firmadas de descarga
+     */
+    private Duration vigenciaUrl = Duration.ofMinutes(15);
+
+    /**
+     * Tamaño de cada parte en las subidas multiparte (S3 exige al menos 5 MB)
+     */
+    private int tamanioParteMb = 8;
+  }
+
+  /**
+   * Límites de /api/files/upload-multiple y v2/upload-multiple, que se comprueban mientras se lee la petición
+   */
+  @Data
+  public static class SubidaMultiple {
+    private DataSize tamanioMaximoArchivo = DataSize.ofMegabytes(10);
+    private DataSize tamanioMaximoTotal = DataSize.ofMegabytes(1024);
+    private int maximoArchivos = 300;
+  }
 }
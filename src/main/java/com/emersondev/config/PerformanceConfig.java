@@ -3,12 +3,14 @@ package com.emersondev.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class PerformanceConfig {
 
     @Bean(name = "taskExecutor")
@@ -34,4 +36,35 @@ public class PerformanceConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Generación de variantes de imágenes: pocos hilos porque cada imagen decodificada ocupa bastante memoria
+     */
+    @Bean(name = "imagenExecutor")
+    public Executor imagenExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("ImagenProducto-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Almacenamiento de los archivos de una subida múltiple mientras se sigue leyendo la petición.
+     * Con la cola llena el hilo de la petición almacena él mismo, lo que frena la lectura
+     */
+    @Bean(name = "subidaExecutor")
+    public Executor subidaExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(8);
+        executor.setThreadNamePrefix("SubidaArchivos-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
 }
\ No newline at end of file
@@ -1,16 +1,26 @@
 package com.emersondev.config;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.Set;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
   private static final Logger logger = LoggerFactory.getLogger(WebConfig.class);
+  private static final Set<String> RUTAS_SUBIDA_MULTIPLE =
+          Set.of("/api/files/upload-multiple", "/api/files/v2/upload-multiple");
 
   @Override
   public void addCorsMappings(CorsRegistry registry) {
@@ -29,6 +39,24 @@ public class WebConfig implements WebMvcConfigurer {
     logger.info("Configuración de CORS completada para localhost:4200 y Vercel");
   }
 
+  /**
+   * Resolver multipart de Spring, excepto para la subida múltiple: esa ruta lee el cuerpo en streaming y
+   * no debe procesarse (ni volcarse a disco) antes de llegar al controlador
+   */
+  @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+  public StandardServletMultipartResolver multipartResolver(MultipartProperties multipartProperties) {
+    UrlPathHelper urlPathHelper = new UrlPathHelper();
+    StandardServletMultipartResolver resolver = new StandardServletMultipartResolver() {
+      @Override
+      public boolean isMultipart(HttpServletRequest request) {
+        return !RUTAS_SUBIDA_MULTIPLE.contains(urlPathHelper.getPathWithinApplication(request))
+                && super.isMultipart(request);
+      }
+    };
+    resolver.setResolveLazily(multipartProperties.isResolveLazily());
+    return resolver;
+  }
+
   @Override
   public void addResourceHandlers(ResourceHandlerRegistry registry) {
     registry.addResourceHandler("/uploads/**")
@@ -0,0 +1,89 @@
+package com.emersondev.config.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Invalida las entradas de caché que dependen de las etiquetas indicadas.
+ * Dentro de una transacción las etiquetas se acumulan y se invalidan una sola vez tras el commit,
+ * para que una lectura concurrente no vuelva a poblar la caché con datos aún no confirmados.
+ * Si el bus de coherencia está habilitado, las etiquetas se publican también a los demás nodos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidator {
+
+  private static final Object RECURSO_PENDIENTES = CacheInvalidator.class.getName() + ".PENDIENTES";
+
+  private final CacheManager cacheManager;
+  private final CacheTagIndex indice;
+  private final ObjectProvider<PgCacheCoherenciaBus> coherenciaBus;
+  private final EntidadCacheEvictor entidadCacheEvictor;
+
+  public void invalidar(String... tags) {
+    invalidar(Arrays.asList(tags));
+  }
+
+  public void invalidar(Collection<String> tags) {
+    if (tags.isEmpty()) {
+      return;
+    }
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      invalidarLocal(tags);
+      coherenciaBus.ifAvailable(bus -> bus.publicarEtiquetas(tags));
+      return;
+    }
+
+    @SuppressWarnings("unchecked")
+    Set<String> pendientes = (Set<String>) TransactionSynchronizationManager.getResource(RECURSO_PENDIENTES);
+    if (pendientes == null) {
+      Set<String> nuevasPendientes = new LinkedHashSet<>();
+      TransactionSynchronizationManager.bindResource(RECURSO_PENDIENTES, nuevasPendientes);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void beforeCommit(boolean readOnly) {
+          // NOTIFY dentro de la transacción: Postgres solo lo entrega a los demás nodos si se confirma
+          coherenciaBus.ifAvailable(bus -> bus.publicarEtiquetas(nuevasPendientes));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(RECURSO_PENDIENTES);
+          if (status == STATUS_COMMITTED) {
+            invalidarLocal(nuevasPendientes);
+          }
+        }
+      });
+      pendientes = nuevasPendientes;
+    }
+    pendientes.addAll(tags);
+  }
+
+  /**
+   * Invalida las etiquetas solo en este nodo, sin publicarlas
+   */
+  public void invalidarLocal(Collection<String> tags) {
+    entidadCacheEvictor.evictar(tags);
+    Set<CacheTagIndex.Entrada> entradas = indice.extraerDependientes(tags);
+    for (CacheTagIndex.Entrada entrada : entradas) {
+      Cache cache = cacheManager.getCache(entrada.cacheName());
+      if (cache != null) {
+        cache.evict(entrada.key());
+      }
+    }
+    log.debug("Invalidadas {} entradas de caché para las etiquetas {}", entradas.size(), tags);
+  }
+}
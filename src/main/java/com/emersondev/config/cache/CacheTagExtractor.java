@@ -0,0 +1,147 @@
+package com.emersondev.config.cache;
+
+import com.emersondev.api.response.*;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deduce las etiquetas de dependencia de una entrada de caché a partir de su clave y su valor.
+ * Las reglas por clave cubren los valores que no identifican por sí mismos sus dependencias
+ * (totales de stock, listados vacíos, rangos de fechas).
+ */
+@Component
+public class CacheTagExtractor {
+
+  private static final Pattern RANGO_FECHAS = Pattern.compile("(\\d{4}-\\d{2}-\\d{2})T[\\d:.]+-(\\d{4}-\\d{2}-\\d{2})T");
+  private static final long MAX_DIAS_ETIQUETADOS = 366;
+
+  public Set<String> extraer(String cacheName, Object key, Object value) {
+    Set<String> tags = new HashSet<>();
+    etiquetarPorClave(cacheName, key, tags);
+    etiquetarPorValor(value, tags);
+    return tags;
+  }
+
+  private void etiquetarPorClave(String cacheName, Object key, Set<String> tags) {
+    if (!(key instanceof String clave)) {
+      // Listados paginados o sin parámetros: su composición cambia al crear/eliminar registros
+      tags.add(CacheTags.coleccion(cacheName));
+      String descripcion = String.valueOf(key);
+      if (descripcion.contains("cantidad") || descripcion.contains("estado") || descripcion.contains("fechaActualizacion")) {
+        tags.add(CacheTags.STOCK_GLOBAL);
+      }
+      return;
+    }
+
+    switch (cacheName) {
+      case "inventario" -> {
+        if (clave.startsWith("stock-total-producto-")) {
+          tags.add(CacheTags.stockProducto(idAl(clave, "stock-total-producto-")));
+        } else if (clave.startsWith("stock-variante-")) {
+          tags.add(CacheTags.stockProducto(idAl(clave, "stock-variante-")));
+        } else if (clave.startsWith("producto-")) {
+          tags.add(CacheTags.inventariosProducto(idAl(clave, "producto-")));
+        } else if (clave.startsWith("almacen-")) {
+          tags.add(CacheTags.inventariosAlmacen(idAl(clave, "almacen-")));
+        }
+      }
+      case "productos" -> {
+        if (clave.startsWith("page-")) {
+          tags.add(CacheTags.coleccion(cacheName));
+        }
+      }
+      case "inventarios" -> {
+        if (clave.startsWith("movimientos-inventario-")) {
+          tags.add(CacheTags.inventario(idAl(clave, "movimientos-inventario-")));
+        }
+      }
+      case "ventas" -> {
+        if (clave.startsWith("cliente-")) {
+          tags.add(CacheTags.ventasCliente(idAl(clave, "cliente-")));
+        } else if (clave.startsWith("usuario-")) {
+          tags.add(CacheTags.ventasUsuario(idAl(clave, "usuario-")));
+        } else if (clave.startsWith("estado-")) {
+          tags.add(CacheTags.ventasEstado(clave.substring("estado-".length())));
+        } else if (clave.startsWith("fechas-")) {
+          etiquetarRango(clave, tags);
+        }
+      }
+      case "reportes" -> etiquetarRango(clave, tags);
+      default -> {
+        // Sin reglas por clave para el resto de cachés
+      }
+    }
+  }
+
+  private void etiquetarPorValor(Object value, Set<String> tags) {
+    if (value == null) {
+      return;
+    }
+
+    if (value instanceof PagedResponse<?> paged) {
+      paged.getContenido().forEach(item -> etiquetarPorValor(item, tags));
+    } else if (value instanceof Collection<?> coleccion) {
+      coleccion.forEach(item -> etiquetarPorValor(item, tags));
+    } else if (value instanceof InventarioResponse inventario) {
+      tags.add(CacheTags.inventario(inventario.getId()));
+      if (inventario.getProducto() != null) {
+        tags.add(CacheTags.producto(inventario.getProducto().getId()));
+      }
+    } else if (value instanceof MovimientoInventarioResponse movimiento) {
+      tags.add(CacheTags.inventario(movimiento.getInventarioId()));
+      if (movimiento.getInventarioDestinoId() != null) {
+        tags.add(CacheTags.inventario(movimiento.getInventarioDestinoId()));
+      }
+    } else if (value instanceof ProductoResponse producto) {
+      tags.add(CacheTags.producto(producto.getId()));
+    } else if (value instanceof ProductoDetalleResponse detalle) {
+      // Incluye stock por almacén: caduca con cualquier movimiento del producto o cambio de sus almacenes
+      tags.add(CacheTags.producto(detalle.getId()));
+      tags.add(CacheTags.stockProducto(detalle.getId()));
+      tags.add(CacheTags.inventariosProducto(detalle.getId()));
+      detalle.getColores().forEach(color -> color.getTallas().forEach(talla -> talla.getAlmacenes()
+              .forEach(stock -> tags.add(CacheTags.inventariosAlmacen(stock.getAlmacenId())))));
+    } else if (value instanceof VentaResponse venta) {
+      tags.add(CacheTags.venta(venta.getId()));
+    } else if (value instanceof ReporteVentasResponse reporte && reporte.getFechaInicio() != null
+            && reporte.getFechaFin() != null) {
+      etiquetarDias(reporte.getFechaInicio().toLocalDate(), reporte.getFechaFin().toLocalDate(), tags);
+    }
+  }
+
+  private void etiquetarRango(String clave, Set<String> tags) {
+    Matcher matcher = RANGO_FECHAS.matcher(clave);
+    if (matcher.find()) {
+      etiquetarDias(LocalDate.parse(matcher.group(1)), LocalDate.parse(matcher.group(2)), tags);
+    } else {
+      tags.add(CacheTags.FECHA_CUALQUIERA);
+    }
+  }
+
+  private void etiquetarDias(LocalDate inicio, LocalDate fin, Set<String> tags) {
+    if (fin.isBefore(inicio) || ChronoUnit.DAYS.between(inicio, fin) > MAX_DIAS_ETIQUETADOS) {
+      tags.add(CacheTags.FECHA_CUALQUIERA);
+      return;
+    }
+    for (LocalDate dia = inicio; !dia.isAfter(fin); dia = dia.plusDays(1)) {
+      tags.add(CacheTags.fecha(dia));
+    }
+  }
+
+  private Long idAl(String clave, String prefijo) {
+    String resto = clave.substring(prefijo.length());
+    int fin = resto.indexOf('-');
+    try {
+      return Long.valueOf(fin < 0 ? resto : resto.substring(0, fin));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
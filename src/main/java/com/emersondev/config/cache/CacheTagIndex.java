@@ -0,0 +1,161 @@
+package com.emersondev.config.cache;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Índice en memoria etiqueta → entradas de caché.
+ * Permite invalidar solo las entradas que dependen de una entidad en lugar de vaciar la caché completa.
+ * <p>
+ * Cada invalidación deja una marca con un número de secuencia en sus etiquetas. Una lectura que empezó antes
+ * de la invalidación (y que por tanto pudo leer el dato anterior) no puede registrar su valor: así no vuelve a
+ * poblar la caché con un dato obsoleto aunque termine después del commit del escritor.
+ */
+public class CacheTagIndex {
+
+  /**
+   * Tiempo que se conservan las marcas de invalidación; una carga más lenta que esto no queda protegida
+   */
+  private static final long VIGENCIA_MARCAS_NANOS = TimeUnit.SECONDS.toNanos(60);
+  private static final int MARCAS_ANTES_DE_PODAR = 4096;
+
+  /**
+   * Referencia a una entrada concreta de una caché
+   */
+  public record Entrada(String cacheName, Object key) {
+  }
+
+  /**
+   * Secuencia de la última invalidación que afectó a una etiqueta y cuándo ocurrió
+   */
+  private record Marca(long secuencia, long instante) {
+  }
+
+  private final Map<String, Set<Entrada>> entradasPorTag = new ConcurrentHashMap<>();
+  private final Map<Entrada, Set<String>> tagsPorEntrada = new ConcurrentHashMap<>();
+  private final Map<String, Marca> marcas = new ConcurrentHashMap<>();
+  private final AtomicLong secuencia = new AtomicLong();
+  private final LongSupplier reloj;
+
+  public CacheTagIndex() {
+    this(System::nanoTime);
+  }
+
+  CacheTagIndex(LongSupplier reloj) {
+    this.reloj = reloj;
+  }
+
+  /**
+   * Secuencia actual de invalidaciones; se toma antes de leer el valor que luego se registrará
+   */
+  public long secuencia() {
+    return secuencia.get();
+  }
+
+  /**
+   * Registra (o reemplaza) las etiquetas de una entrada
+   * @param inicioCarga secuencia tomada antes de leer el valor
+   * @return false si alguna etiqueta se invalidó durante la carga: el valor puede estar obsoleto y el llamador
+   * debe descartarlo de la caché
+   */
+  public boolean registrar(String cacheName, Object key, Set<String> tags, long inicioCarga) {
+    Entrada entrada = new Entrada(cacheName, key);
+    eliminar(entrada);
+    if (tags.isEmpty()) {
+      return true;
+    }
+    if (invalidadaDesde(tags, inicioCarga)) {
+      return false;
+    }
+    tagsPorEntrada.put(entrada, tags);
+    for (String tag : tags) {
+      entradasPorTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(entrada);
+    }
+    // Segunda comprobación: una invalidación que marcó las etiquetas mientras se registraba la entrada
+    // pudo extraer los dependientes antes de que esta apareciera en el índice
+    if (invalidadaDesde(tags, inicioCarga)) {
+      eliminar(entrada);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Olvida una entrada (desalojada, expirada o eliminada explícitamente)
+   */
+  public void eliminar(String cacheName, Object key) {
+    eliminar(new Entrada(cacheName, key));
+  }
+
+  /**
+   * Olvida todas las entradas de una caché
+   */
+  public void eliminarCache(String cacheName) {
+    tagsPorEntrada.keySet().stream()
+            .filter(entrada -> entrada.cacheName().equals(cacheName))
+            .toList()
+            .forEach(this::eliminar);
+  }
+
+  /**
+   * Retira del índice y devuelve las entradas que dependen de alguna de las etiquetas
+   */
+  public Set<Entrada> extraerDependientes(Collection<String> tags) {
+    // Las marcas van antes de extraer, para que un registro concurrente las vea en su segunda comprobación
+    Marca marca = new Marca(secuencia.incrementAndGet(), reloj.getAsLong());
+    for (String tag : tags) {
+      marcas.put(tag, marca);
+    }
+    podarMarcas(marca.instante());
+
+    Set<Entrada> dependientes = new HashSet<>();
+    for (String tag : tags) {
+      Set<Entrada> entradas = entradasPorTag.remove(tag);
+      if (entradas != null) {
+        dependientes.addAll(entradas);
+      }
+    }
+    dependientes.forEach(this::eliminar);
+    return dependientes;
+  }
+
+  public int totalEtiquetas() {
+    return entradasPorTag.size();
+  }
+
+  public int totalEntradas() {
+    return tagsPorEntrada.size();
+  }
+
+  private boolean invalidadaDesde(Set<String> tags, long inicioCarga) {
+    for (String tag : tags) {
+      Marca marca = marcas.get(tag);
+      if (marca != null && marca.secuencia() > inicioCarga) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void podarMarcas(long ahora) {
+    if (marcas.size() > MARCAS_ANTES_DE_PODAR) {
+      marcas.values().removeIf(marca -> ahora - marca.instante() > VIGENCIA_MARCAS_NANOS);
+    }
+  }
+
+  private void eliminar(Entrada entrada) {
+    Set<String> tags = tagsPorEntrada.remove(entrada);
+    if (tags == null) {
+      return;
+    }
+    for (String tag : tags) {
+      entradasPorTag.computeIfPresent(tag, (t, entradas) -> {
+        entradas.remove(entrada);
+        return entradas.isEmpty() ? null : entradas;
+      });
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package com.emersondev.config.cache;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Etiquetas de dependencia para las entradas de caché.
+ * Cada entrada se asocia a las entidades de las que depende su contenido y
+ * las escrituras invalidan solo las etiquetas afectadas.
+ */
+public final class CacheTags {
+
+  /**
+   * Entradas que dependen del stock de cualquier inventario (p. ej. listados ordenados por cantidad)
+   */
+  public static final String STOCK_GLOBAL = "stock:*";
+
+  /**
+   * Entradas que cubren rangos de fechas demasiado amplios para etiquetarse día por día
+   */
+  public static final String FECHA_CUALQUIERA = "fecha:*";
+
+  /**
+   * Prefijos de las etiquetas que se aplican sobre el cache de segundo nivel de Hibernate
+   */
+  public static final String PREFIJO_ENTIDAD = "l2-entidad:";
+  public static final String PREFIJO_COLECCION_ENTIDAD = "l2-coleccion:";
+  public static final char SEPARADOR_ID = '#';
+
+  private CacheTags() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  public static String producto(Long productoId) {
+    return "producto:" + productoId;
+  }
+
+  public static String inventario(Long inventarioId) {
+    return "inventario:" + inventarioId;
+  }
+
+  public static String stockProducto(Long productoId) {
+    return "stock-producto:" + productoId;
+  }
+
+  public static String inventariosProducto(Long productoId) {
+    return "inventarios-producto:" + productoId;
+  }
+
+  public static String inventariosAlmacen(Long almacenId) {
+    return "inventarios-almacen:" + almacenId;
+  }
+
+  public static String venta(Long ventaId) {
+    return "venta:" + ventaId;
+  }
+
+  public static String ventasCliente(Long clienteId) {
+    return "ventas-cliente:" + clienteId;
+  }
+
+  public static String ventasUsuario(Long usuarioId) {
+    return "ventas-usuario:" + usuarioId;
+  }
+
+  public static String ventasEstado(String estado) {
+    return "ventas-estado:" + estado;
+  }
+
+  public static String fecha(LocalDate fecha) {
+    return "fecha:" + fecha;
+  }
+
+  /**
+   * Listados completos de una caché cuya composición cambia al crear o eliminar registros
+   */
+  public static String coleccion(String cacheName) {
+    return "coleccion:" + cacheName;
+  }
+
+  /**
+   * Entidad en el cache de segundo nivel de Hibernate
+   */
+  public static String entidad(Class<?> tipo, Long id) {
+    return PREFIJO_ENTIDAD + tipo.getName() + SEPARADOR_ID + id;
+  }
+
+  /**
+   * Colección de una entidad en el cache de segundo nivel de Hibernate (p. ej. Producto.colores)
+   */
+  public static String coleccionEntidad(Class<?> tipo, String propiedad, Long propietarioId) {
+    return PREFIJO_COLECCION_ENTIDAD + tipo.getName() + "." + propiedad + SEPARADOR_ID + propietarioId;
+  }
+
+  /**
+   * Etiquetas afectadas por un cambio de cantidad/estado en un inventario existente
+   */
+  public static List<String> cambioStock(Long inventarioId, Long productoId) {
+    return List.of(inventario(inventarioId), stockProducto(productoId), STOCK_GLOBAL);
+  }
+
+  /**
+   * Etiquetas afectadas al crear o eliminar un registro de inventario
+   */
+  public static List<String> altaBajaInventario(Long productoId, Long almacenId) {
+    return List.of(inventariosProducto(productoId), inventariosAlmacen(almacenId),
+            stockProducto(productoId), coleccion("inventario"));
+  }
+
+  /**
+   * Etiquetas afectadas al registrar o modificar una venta en la fecha indicada.
+   * Los estados son los que deja y adopta la venta, para refrescar sus listados por estado.
+   */
+  public static List<String> cambioVenta(Long ventaId, Long clienteId, Long usuarioId, LocalDate fecha,
+                                         String... estados) {
+    List<String> tags = new ArrayList<>(List.of(venta(ventaId), ventasCliente(clienteId), ventasUsuario(usuarioId),
+            fecha(fecha), FECHA_CUALQUIERA, coleccion("ventas")));
+    for (String estado : estados) {
+      tags.add(ventasEstado(estado));
+    }
+    return tags;
+  }
+}
@@ -0,0 +1,57 @@
+package com.emersondev.config.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Aplica sobre el cache de segundo nivel de Hibernate las etiquetas de entidad y colección.
+ * Hibernate ya mantiene el cache local en cada escritura; esto cubre las modificaciones que no pasan
+ * por la sesión (actualizaciones masivas) y las hechas en otros nodos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EntidadCacheEvictor {
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  public void evictar(Collection<String> tags) {
+    Cache cache = null;
+    for (String tag : tags) {
+      boolean esEntidad = tag.startsWith(CacheTags.PREFIJO_ENTIDAD);
+      boolean esColeccion = tag.startsWith(CacheTags.PREFIJO_COLECCION_ENTIDAD);
+      if (!esEntidad && !esColeccion) {
+        continue;
+      }
+
+      int separador = tag.lastIndexOf(CacheTags.SEPARADOR_ID);
+      String prefijo = esEntidad ? CacheTags.PREFIJO_ENTIDAD : CacheTags.PREFIJO_COLECCION_ENTIDAD;
+      if (separador < prefijo.length()) {
+        continue;
+      }
+      String nombre = tag.substring(prefijo.length(), separador);
+      Long id;
+      try {
+        id = Long.valueOf(tag.substring(separador + 1));
+      } catch (NumberFormatException e) {
+        log.warn("Etiqueta de cache de segundo nivel inválida: {}", tag);
+        continue;
+      }
+
+      if (cache == null) {
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+      }
+      if (esEntidad) {
+        cache.evictEntityData(nombre, id);
+      } else {
+        cache.evictCollectionData(nombre, id);
+      }
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package com.emersondev.config.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bus de invalidación de caché entre instancias usando LISTEN/NOTIFY de PostgreSQL.
+ * Cada nodo publica las etiquetas invalidadas y las limpiezas completas de caché; los demás nodos
+ * las aplican sobre su caché local. Las notificaciones enviadas dentro de una transacción solo se
+ * entregan si ésta se confirma.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.coherencia.enabled", havingValue = "true")
+@Slf4j
+public class PgCacheCoherenciaBus {
+
+  private static final String CANAL = "cache_invalidacion";
+  private static final String TIPO_ETIQUETAS = "T";
+  private static final String TIPO_LIMPIEZA = "C";
+  private static final char SEPARADOR_CABECERA = '|';
+  private static final char SEPARADOR_ELEMENTOS = '\n';
+
+  /**
+   * Postgres limita el payload de NOTIFY a 8000 bytes; se deja margen
+   */
+  private static final int MAX_BYTES_PAYLOAD = 7900;
+  private static final int ESPERA_NOTIFICACIONES_MS = 5000;
+  private static final long ESPERA_RECONEXION_MS = 5000;
+
+  private final String nodoId = UUID.randomUUID().toString();
+  private final JdbcTemplate jdbcTemplate;
+  private final DataSourceProperties dataSourceProperties;
+  private final CacheInvalidator cacheInvalidator;
+  private final TaggedCaffeineCacheManager cacheManager;
+
+  private volatile boolean activo;
+  private Thread escucha;
+
+  public PgCacheCoherenciaBus(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                              CacheInvalidator cacheInvalidator, TaggedCaffeineCacheManager cacheManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.dataSourceProperties = dataSourceProperties;
+    this.cacheInvalidator = cacheInvalidator;
+    this.cacheManager = cacheManager;
+  }
+
+  @PostConstruct
+  public void iniciar() {
+    cacheManager.setAlLimpiarCache(this::publicarLimpieza);
+
+    activo = true;
+    escucha = new Thread(this::escuchar, "cache-coherencia-listener");
+    escucha.setDaemon(true);
+    escucha.start();
+    log.info("Bus de coherencia de caché iniciado en el nodo {}", nodoId);
+  }
+
+  @PreDestroy
+  public void detener() {
+    activo = false;
+    if (escucha != null) {
+      escucha.interrupt();
+    }
+  }
+
+  public void publicarEtiquetas(Collection<String> tags) {
+    enviar(TIPO_ETIQUETAS, tags);
+  }
+
+  public void publicarLimpieza(String cacheName) {
+    enviar(TIPO_LIMPIEZA, List.of(cacheName));
+  }
+
+  /**
+   * Agrupa los elementos en tantas notificaciones como hagan falta para respetar el límite de payload
+   */
+  private void enviar(String tipo, Collection<String> elementos) {
+    String cabecera = nodoId + SEPARADOR_CABECERA + tipo;
+    int bytesCabecera = cabecera.getBytes(StandardCharsets.UTF_8).length;
+
+    StringBuilder payload = new StringBuilder(cabecera);
+    int bytesPayload = bytesCabecera;
+    for (String elemento : elementos) {
+      int bytesElemento = elemento.getBytes(StandardCharsets.UTF_8).length + 1;
+      if (bytesPayload + bytesElemento > MAX_BYTES_PAYLOAD && bytesPayload > bytesCabecera) {
+        notificar(payload.toString());
+        payload = new StringBuilder(cabecera);
+        bytesPayload = bytesCabecera;
+      }
+      payload.append(SEPARADOR_ELEMENTOS).append(elemento);
+      bytesPayload += bytesElemento;
+    }
+    if (bytesPayload > bytesCabecera) {
+      notificar(payload.toString());
+    }
+  }
+
+  private void notificar(String payload) {
+    try {
+      // Usa la conexión de la transacción en curso si la hay
+      jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CANAL, payload);
+    } catch (DataAccessException e) {
+      log.error("No se pudo publicar la invalidación de caché: {}", e.getMessage());
+    }
+  }
+
+  private void escuchar() {
+    boolean reconexion = false;
+    while (activo) {
+      try (Connection conexion = abrirConexion()) {
+        try (Statement statement = conexion.createStatement()) {
+          statement.execute("LISTEN " + CANAL);
+        }
+        if (reconexion) {
+          // Las notificaciones emitidas mientras no había conexión se perdieron
+          log.warn("Conexión de escucha restablecida; vaciando las cachés locales");
+          cacheManager.limpiarTodoLocal();
+        }
+
+        PGConnection pgConexion = conexion.unwrap(PGConnection.class);
+        while (activo) {
+          PGNotification[] notificaciones = pgConexion.getNotifications(ESPERA_NOTIFICACIONES_MS);
+          if (notificaciones != null) {
+            for (PGNotification notificacion : notificaciones) {
+              aplicar(notificacion.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (!activo) {
+          return;
+        }
+        log.error("Error en la conexión de escucha de invalidaciones: {}", e.getMessage());
+        reconexion = true;
+        try {
+          Thread.sleep(ESPERA_RECONEXION_MS);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Conexión dedicada fuera del pool para no retener una conexión de Hikari de forma permanente
+   */
+  private Connection abrirConexion() throws SQLException {
+    return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+            dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+  }
+
+  private void aplicar(String payload) {
+    try {
+      String[] partes = payload.split(String.valueOf(SEPARADOR_ELEMENTOS));
+      int separador = partes[0].indexOf(SEPARADOR_CABECERA);
+      if (separador < 0 || nodoId.equals(partes[0].substring(0, separador))) {
+        return;
+      }
+
+      String tipo = partes[0].substring(separador + 1);
+      List<String> elementos = Arrays.asList(partes).subList(1, partes.length);
+      if (TIPO_ETIQUETAS.equals(tipo)) {
+        cacheInvalidator.invalidarLocal(elementos);
+      } else if (TIPO_LIMPIEZA.equals(tipo)) {
+        elementos.forEach(cacheManager::limpiarLocal);
+      }
+    } catch (RuntimeException e) {
+      log.error("No se pudo aplicar la invalidación remota '{}': {}", payload, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.emersondev.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * CaffeineCacheManager cuyas cachés registran etiquetas de dependencia por entrada.
+ * Las entradas que Caffeine desaloja por tamaño o expiración se retiran también del índice.
+ */
+public class TaggedCaffeineCacheManager extends CaffeineCacheManager {
+
+  private final CacheTagIndex indice;
+  private final CacheTagExtractor extractor;
+  private volatile Consumer<String> alLimpiarCache = cacheName -> {
+  };
+
+  public TaggedCaffeineCacheManager(CacheTagIndex indice, CacheTagExtractor extractor) {
+    this.indice = indice;
+    this.extractor = extractor;
+  }
+
+  public CacheTagIndex getIndice() {
+    return indice;
+  }
+
+  /**
+   * Acción a ejecutar cada vez que una caché se vacía por completo (p. ej. propagarlo a otros nodos)
+   */
+  public void setAlLimpiarCache(Consumer<String> alLimpiarCache) {
+    this.alLimpiarCache = alLimpiarCache;
+  }
+
+  /**
+   * Vacía una caché solo en este nodo
+   */
+  public void limpiarLocal(String cacheName) {
+    if (getCache(cacheName) instanceof TaggingCache cache) {
+      cache.limpiarLocal();
+    }
+  }
+
+  /**
+   * Vacía todas las cachés solo en este nodo
+   */
+  public void limpiarTodoLocal() {
+    getCacheNames().forEach(this::limpiarLocal);
+  }
+
+  @Override
+  protected com.github.benmanes.caffeine.cache.Cache<Object, Object> createNativeCaffeineCache(String name) {
+    return Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(5, TimeUnit.MINUTES)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .recordStats()
+            .<Object, Object>removalListener((key, value, cause) -> {
+              if (cause.wasEvicted()) {
+                indice.eliminar(name, key);
+              }
+            })
+            .build();
+  }
+
+  @Override
+  protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+    return new TaggingCache(super.adaptCaffeineCache(name, cache), indice, extractor,
+            cacheName -> alLimpiarCache.accept(cacheName));
+  }
+}
@@ -0,0 +1,167 @@
+package com.emersondev.config.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Decorador de {@link Cache} que registra en el {@link CacheTagIndex} las etiquetas
+ * de dependencia de cada valor almacenado.
+ * <p>
+ * Con {@code @Cacheable} el valor se lee tras un fallo de {@link #get(Object)} y se guarda con {@link #put}; la
+ * secuencia de invalidación se anota en el fallo para que el índice rechace el valor si entre medias se invalidó
+ * alguna de sus etiquetas.
+ */
+public class TaggingCache implements Cache {
+
+  private static final int MAX_LECTURAS_PENDIENTES = 64;
+
+  private final Cache delegate;
+  private final CacheTagIndex indice;
+  private final CacheTagExtractor extractor;
+  private final Consumer<String> alLimpiar;
+  private final ThreadLocal<Map<Object, Long>> lecturasPendientes = ThreadLocal.withInitial(HashMap::new);
+
+  public TaggingCache(Cache delegate, CacheTagIndex indice, CacheTagExtractor extractor, Consumer<String> alLimpiar) {
+    this.delegate = delegate;
+    this.indice = indice;
+    this.extractor = extractor;
+    this.alLimpiar = alLimpiar;
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    long inicio = indice.secuencia();
+    ValueWrapper valor = delegate.get(key);
+    if (valor == null) {
+      anotarLectura(key, inicio);
+    }
+    return valor;
+  }
+
+  @Override
+  public <T> T get(Object key, Class<T> type) {
+    long inicio = indice.secuencia();
+    T valor = delegate.get(key, type);
+    if (valor == null) {
+      anotarLectura(key, inicio);
+    }
+    return valor;
+  }
+
+  @Override
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    boolean[] rechazado = {false};
+    T resultado = delegate.get(key, () -> {
+      long inicio = indice.secuencia();
+      T value = valueLoader.call();
+      rechazado[0] = !etiquetar(key, value, inicio);
+      return value;
+    });
+    if (rechazado[0]) {
+      // El valor se devuelve a quien lo cargó, pero no queda en caché
+      delegate.evict(key);
+    }
+    return resultado;
+  }
+
+  @Override
+  public CompletableFuture<?> retrieve(Object key) {
+    return delegate.retrieve(key);
+  }
+
+  @Override
+  public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+    return delegate.retrieve(key, valueLoader);
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    long inicio = consumirLectura(key);
+    delegate.put(key, value);
+    if (!etiquetar(key, value, inicio)) {
+      delegate.evict(key);
+    }
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    long inicio = consumirLectura(key);
+    ValueWrapper existente = delegate.putIfAbsent(key, value);
+    if (existente == null && !etiquetar(key, value, inicio)) {
+      delegate.evict(key);
+    }
+    return existente;
+  }
+
+  @Override
+  public void evict(Object key) {
+    delegate.evict(key);
+    indice.eliminar(getName(), key);
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    indice.eliminar(getName(), key);
+    return delegate.evictIfPresent(key);
+  }
+
+  @Override
+  public void clear() {
+    limpiarLocal();
+    alLimpiar.accept(getName());
+  }
+
+  @Override
+  public boolean invalidate() {
+    indice.eliminarCache(getName());
+    boolean conEntradas = delegate.invalidate();
+    alLimpiar.accept(getName());
+    return conEntradas;
+  }
+
+  /**
+   * Vacía la caché sin notificar a los demás nodos (usado al aplicar una limpieza remota)
+   */
+  public void limpiarLocal() {
+    delegate.clear();
+    indice.eliminarCache(getName());
+  }
+
+  private boolean etiquetar(Object key, Object value, long inicio) {
+    return indice.registrar(getName(), key, extractor.extraer(getName(), key, value), inicio);
+  }
+
+  private void anotarLectura(Object key, long inicio) {
+    Map<Object, Long> pendientes = lecturasPendientes.get();
+    if (pendientes.size() >= MAX_LECTURAS_PENDIENTES) {
+      // Fallos que nunca terminaron en put (excepciones, unless/condition): no deben acumularse
+      pendientes.clear();
+    }
+    pendientes.put(key, inicio);
+  }
+
+  /**
+   * Secuencia anotada en el último fallo de esta clave en el hilo actual; sin fallo previo (put directo,
+   * {@code @CachePut}) el valor se considera leído ahora
+   */
+  private long consumirLectura(Object key) {
+    Long inicio = lecturasPendientes.get().remove(key);
+    return inicio != null ? inicio : indice.secuencia();
+  }
+}
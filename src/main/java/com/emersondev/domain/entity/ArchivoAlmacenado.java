@@ -0,0 +1,36 @@
+package com.emersondev.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Archivo guardado por su contenido (SHA-256) y cuántas veces se ha subido sin eliminarse.
+ * El archivo físico solo se borra cuando no le quedan referencias.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "archivos_almacenados")
+public class ArchivoAlmacenado {
+
+  /**
+   * Hash SHA-256 en hexadecimal más la extensión, p. ej. "9f86d0…0a08.jpg"
+   */
+  @Id
+  @Column(length = 80)
+  private String nombre;
+
+  @Column(nullable = false)
+  private Long tamanio;
+
+  @Column(nullable = false)
+  private Integer referencias;
+
+  @Column(name = "fecha_creacion", nullable = false)
+  private LocalDateTime fechaCreacion;
+}
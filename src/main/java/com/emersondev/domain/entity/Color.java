@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -15,6 +17,7 @@ import java.util.Set;
 @ToString(exclude = {"producto", "tallas"})
 @EqualsAndHashCode(exclude = {"producto", "tallas"})
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "colores")
 @Table(name = "colores")
 public class Color {
 
@@ -35,5 +38,6 @@ public class Color {
 
   @OneToMany(mappedBy = "color", cascade = CascadeType.ALL, orphanRemoval = true)
   @JsonManagedReference
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "color-tallas")
   private Set<Talla> tallas = new HashSet<>();
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.emersondev.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sesión de conteo físico de un almacén. Al abrirse congela el stock de cada inventario como base;
+ * las lecturas de los escáneres se acumulan en sus detalles y los ajustes se aplican juntos al cerrar.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@ToString(exclude = {"almacen"})
+@EqualsAndHashCode(exclude = {"almacen"})
+@Table(name = "conteos_fisicos", indexes = {
+    @Index(name = "idx_conteo_almacen_estado", columnList = "almacen_id,estado")
+})
+public class ConteoFisico {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "almacen_id", nullable = false)
+  private Almacen almacen;
+
+  /**
+   * Limita el conteo a un producto (conteo cíclico); null para el almacén completo
+   */
+  @Column(name = "producto_id")
+  private Long productoId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private EstadoConteo estado;
+
+  @Column(nullable = false, length = 100)
+  private String referencia;
+
+  @Column(length = 100)
+  private String usuario;
+
+  @Column(name = "fecha_inicio", nullable = false)
+  private LocalDateTime fechaInicio;
+
+  @Column(name = "fecha_cierre")
+  private LocalDateTime fechaCierre;
+
+  public enum EstadoConteo {
+    ABIERTO,
+    APLICADO,
+    CANCELADO
+  }
+}
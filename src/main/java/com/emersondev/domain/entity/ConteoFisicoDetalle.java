@@ -0,0 +1,64 @@
+package com.emersondev.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock base y cantidad contada de un inventario dentro de un conteo físico
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@ToString(exclude = {"conteo", "inventario"})
+@EqualsAndHashCode(exclude = {"conteo", "inventario"})
+@Table(name = "conteo_fisico_detalles",
+        uniqueConstraints = @UniqueConstraint(name = "uk_conteo_detalle_inventario",
+                columnNames = {"conteo_id", "inventario_id"}))
+public class ConteoFisicoDetalle {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "conteo_id", nullable = false)
+  private ConteoFisico conteo;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "inventario_id", nullable = false)
+  private Inventario inventario;
+
+  /**
+   * Stock del sistema al abrir el conteo
+   */
+  @Column(name = "cantidad_base", nullable = false)
+  private Integer cantidadBase;
+
+  /**
+   * Unidades contadas; null mientras el inventario no haya sido escaneado
+   */
+  @Column(name = "cantidad_contada")
+  private Integer cantidadContada;
+
+  @Column(name = "fecha_ultima_lectura")
+  private LocalDateTime fechaUltimaLectura;
+
+  /**
+   * Stock del sistema en la última lectura: lo vendido o recibido antes ya se refleja en lo contado
+   */
+  @Column(name = "cantidad_sistema_lectura")
+  private Integer cantidadSistemaLectura;
+
+  /**
+   * Variación neta del stock del sistema entre la última lectura (o la apertura, si no se contó) y la aplicación
+   */
+  @Column(name = "movimientos_durante")
+  private Integer movimientosDurante;
+
+  @Column(name = "cantidad_final")
+  private Integer cantidadFinal;
+}
@@ -1,11 +1,14 @@
 package com.emersondev.domain.entity;
 
+import com.emersondev.domain.event.InventarioStockListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -15,6 +18,7 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(InventarioStockListener.class)
 @Table(name = "inventarios", indexes = {
     @Index(name = "idx_inventario_serie", columnList = "serie"),
     @Index(name = "idx_inventario_producto", columnList = "producto_id"),
@@ -23,7 +27,9 @@ import java.util.Set;
     @Index(name = "idx_inventario_almacen", columnList = "almacen_id"),
     @Index(name = "idx_inventario_estado", columnList = "estado"),
     @Index(name = "idx_inventario_cantidad", columnList = "cantidad"),
-    @Index(name = "idx_inventario_producto_color_talla", columnList = "producto_id,color_id,talla_id")
+    @Index(name = "idx_inventario_producto_color_talla", columnList = "producto_id,color_id,talla_id"),
+    @Index(name = "idx_inventario_producto_estado", columnList = "producto_id,estado"),
+    @Index(name = "idx_inventario_almacen_estado", columnList = "almacen_id,estado")
 })
 public class Inventario {
 
@@ -57,6 +63,18 @@ public class Inventario {
   @Column(nullable = false)
   private EstadoInventario estado;
 
+  /**
+   * Stock mínimo de esta variante; por debajo o igual se considera stock bajo (null = umbral general)
+   */
+  @Column(name = "stock_minimo")
+  private Integer stockMinimo;
+
+  /**
+   * Costo promedio ponderado por unidad, mantenido de forma incremental con cada ingreso
+   */
+  @Column(name = "costo_promedio", precision = 14, scale = 4)
+  private BigDecimal costoPromedio;
+
   @OneToMany(mappedBy = "inventario", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
   @BatchSize(size = 20)
   private Set<MovimientoInventario> movimientos = new HashSet<>();
@@ -76,19 +94,64 @@ public class Inventario {
   @UpdateTimestamp
   private LocalDateTime fechaActualizacion;
 
-  private static final int UMBRAL_BAJO_STOCK = 4;
+  public static final int UMBRAL_BAJO_STOCK = 4;
+
+  /**
+   * Umbral efectivo de stock bajo de la variante
+   */
+  public int getUmbralStockBajo() {
+    return stockMinimo != null ? stockMinimo : UMBRAL_BAJO_STOCK;
+  }
 
   // Metodo para actualizar estado basado en la cantidad
   public void actualizarEstado() {
     if (cantidad == 0) {
       estado = EstadoInventario.AGOTADO;
-    } else if (cantidad <= UMBRAL_BAJO_STOCK) {
+    } else if (cantidad <= getUmbralStockBajo()) {
       estado = EstadoInventario.BAJO_STOCK;
     } else {
       estado = EstadoInventario.DISPONIBLE;
     }
   }
 
+  /**
+   * Recalcula el costo promedio ponderado al ingresar unidades.
+   * Debe llamarse antes de sumar la cantidad entrante al stock.
+   */
+  public void aplicarCostoEntrada(int cantidadEntrante, BigDecimal costoUnitario) {
+    if (costoUnitario == null || cantidadEntrante <= 0) {
+      return;
+    }
+    costoPromedio = costoPromedioPonderado(cantidad != null ? cantidad : 0, costoPromedio,
+            cantidadEntrante, costoUnitario);
+  }
+
+  /**
+   * Costo promedio ponderado tras ingresar unidades a un costo dado sobre un stock previo
+   */
+  public static BigDecimal costoPromedioPonderado(int stockPrevio, BigDecimal costoPrevio,
+                                                  int cantidadEntrante, BigDecimal costoUnitario) {
+    int stock = Math.max(stockPrevio, 0);
+    BigDecimal costoBase = costoPrevio != null ? costoPrevio : costoUnitario;
+    BigDecimal valorTotal = costoBase.multiply(BigDecimal.valueOf(stock))
+            .add(costoUnitario.multiply(BigDecimal.valueOf(cantidadEntrante)));
+    return valorTotal.divide(BigDecimal.valueOf((long) stock + cantidadEntrante), 4, RoundingMode.HALF_UP);
+  }
+
+  // Las variantes nuevas heredan el stock mínimo y, si no tienen costo, el precio de compra del producto
+  @PrePersist
+  private void onCreate() {
+    if (stockMinimo == null && producto != null) {
+      stockMinimo = producto.getStockMinimo();
+    }
+    if (costoPromedio == null && producto != null) {
+      costoPromedio = producto.getPrecioCompra();
+    }
+    if (estado != EstadoInventario.RESERVADO) {
+      actualizarEstado();
+    }
+  }
+
   // Método para agregar un movimiento
   public void agregarMovimiento(MovimientoInventario movimiento) {
     movimientos.add(movimiento);
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -13,7 +14,12 @@ import java.time.LocalDateTime;
 @Entity
 @ToString(exclude = {"inventario", "inventarioDestino", "venta"})
 @EqualsAndHashCode(exclude = {"inventario", "inventarioDestino", "venta"})
-@Table(name = "movimientos_inventario")
+@Table(name = "movimientos_inventario", indexes = {
+    @Index(name = "idx_movimiento_inventario_fecha", columnList = "inventario_id,fecha_movimiento"),
+    @Index(name = "idx_movimiento_tipo_fecha", columnList = "tipo,fecha_movimiento"),
+    @Index(name = "idx_movimiento_fecha", columnList = "fecha_movimiento"),
+    @Index(name = "idx_movimiento_venta", columnList = "venta_id")
+})
 public class MovimientoInventario {
 
   @Id
@@ -54,6 +60,12 @@ public class MovimientoInventario {
   @Column(name = "usuario", length = 100)
   private String usuario;
 
+  /**
+   * Costo unitario del movimiento: costo de compra en las entradas, costo promedio vigente en el resto
+   */
+  @Column(name = "costo_unitario", precision = 14, scale = 4)
+  private BigDecimal costoUnitario;
+
   public enum TipoMovimiento {
     ENTRADA,
     SALIDA,
@@ -64,5 +76,8 @@ public class MovimientoInventario {
   @PrePersist
   private void onCreate() {
     this.fechaMovimiento = LocalDateTime.now();
+    if (costoUnitario == null && inventario != null) {
+      costoUnitario = inventario.getCostoPromedio();
+    }
   }
 }
\ No newline at end of file
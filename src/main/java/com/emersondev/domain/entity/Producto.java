@@ -1,9 +1,12 @@
 package com.emersondev.domain.entity;
 
+import com.emersondev.domain.event.ProductoCatalogoListener;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -19,6 +22,8 @@ import java.util.Set;
 @ToString(exclude = {"colores"})
 @EqualsAndHashCode(exclude = {"colores"})
 @Entity
+@EntityListeners(ProductoCatalogoListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "productos")
 @Table(name = "productos", indexes = {
     @Index(name = "idx_producto_codigo", columnList = "codigo"),
     @Index(name = "idx_producto_marca", columnList = "marca"),
@@ -53,9 +58,28 @@ public class Producto {
 
   private String imagen;
 
+  /**
+   * Variantes redimensionadas de la imagen, generadas en segundo plano tras subirla (null mientras no existan)
+   */
+  @Column(name = "imagen_miniatura")
+  private String imagenMiniatura;
+
+  @Column(name = "imagen_mediana")
+  private String imagenMediana;
+
+  @Column(name = "imagen_grande")
+  private String imagenGrande;
+
+  /**
+   * Stock mínimo por defecto de las variantes del producto (null = umbral general)
+   */
+  @Column(name = "stock_minimo")
+  private Integer stockMinimo;
+
   @OneToMany(mappedBy = "producto", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
   @JsonManagedReference
   @BatchSize(size = 10)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "producto-colores")
   private Set<Color> colores = new HashSet<>();
 
   @CreationTimestamp
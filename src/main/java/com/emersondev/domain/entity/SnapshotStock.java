@@ -0,0 +1,43 @@
+package com.emersondev.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock de un inventario en una fecha de corte. Se guarda solo el ID del inventario (sin clave foránea)
+ * para que el historial sobreviva a la eliminación de la variante.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "snapshots_stock",
+        uniqueConstraints = @UniqueConstraint(name = "uk_snapshot_inventario_corte",
+                columnNames = {"inventario_id", "fecha_corte"}),
+        indexes = @Index(name = "idx_snapshot_corte", columnList = "fecha_corte"))
+public class SnapshotStock {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "inventario_id", nullable = false)
+  private Long inventarioId;
+
+  @Column(name = "fecha_corte", nullable = false)
+  private LocalDateTime fechaCorte;
+
+  @Column(nullable = false)
+  private Integer cantidad;
+
+  /**
+   * Último movimiento del inventario confirmado al tomar el snapshot: la reconstrucción aplica solo los de ID
+   * mayor, en orden de registro y no por su fecha (nulo en snapshots anteriores a esta columna)
+   */
+  @Column(name = "ultimo_movimiento_id")
+  private Long ultimoMovimientoId;
+}
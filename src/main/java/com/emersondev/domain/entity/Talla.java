@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
@@ -12,6 +14,7 @@ import lombok.*;
 @ToString(exclude = "color")
 @EqualsAndHashCode(exclude = "color")
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tallas")
 @Table(name = "tallas")
 public class Talla {
 
@@ -0,0 +1,15 @@
+package com.emersondev.domain.event;
+
+import com.emersondev.api.response.AlertaStockResponse;
+
+/**
+ * Cambio en el conjunto de alertas de stock bajo
+ */
+public record AlertaStockEvent(TipoCambio tipo, AlertaStockResponse alerta) {
+
+  public enum TipoCambio {
+    ACTIVADA,
+    ACTUALIZADA,
+    RESUELTA
+  }
+}
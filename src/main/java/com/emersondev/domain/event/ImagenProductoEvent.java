@@ -0,0 +1,11 @@
+package com.emersondev.domain.event;
+
+import java.util.List;
+
+/**
+ * Nueva imagen original de un producto, pendiente de generar sus variantes.
+ * Lleva las variantes de la imagen anterior, ya quitadas del producto: el evento es su único dueño
+ * y las elimina tanto si termina como si se descarta.
+ */
+public record ImagenProductoEvent(Long productoId, String imagen, List<String> variantesAnteriores) {
+}
@@ -0,0 +1,32 @@
+package com.emersondev.domain.event;
+
+import com.emersondev.domain.entity.Inventario;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publica un {@link StockCambioEvent} por cada inventario escrito en la base de datos.
+ * Se engancha a la entidad y no a los servicios para cubrir todos los caminos que modifican
+ * stock (movimientos, ventas, traslados, importaciones). Los oyentes reciben el evento tras el commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventarioStockListener {
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  @PostPersist
+  @PostUpdate
+  public void alGuardar(Inventario inventario) {
+    eventPublisher.publishEvent(StockCambioEvent.de(inventario, false));
+  }
+
+  @PostRemove
+  public void alEliminar(Inventario inventario) {
+    eventPublisher.publishEvent(StockCambioEvent.de(inventario, true));
+  }
+}
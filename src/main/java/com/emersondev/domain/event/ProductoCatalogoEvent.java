@@ -0,0 +1,23 @@
+package com.emersondev.domain.event;
+
+import com.emersondev.domain.entity.Producto;
+import com.emersondev.domain.projection.ProductoBusqueda;
+
+import java.math.BigDecimal;
+
+/**
+ * Alta, cambio o baja de un producto del catálogo, con los datos que usan los índices en memoria
+ */
+public record ProductoCatalogoEvent(Long productoId, String codigo, String nombre, String marca, String modelo,
+                                    String descripcion, BigDecimal precioVenta, String imagen, boolean eliminado) {
+
+  public static ProductoCatalogoEvent de(Producto producto, boolean eliminado) {
+    return new ProductoCatalogoEvent(producto.getId(), producto.getCodigo(), producto.getNombre(),
+            producto.getMarca(), producto.getModelo(), producto.getDescripcion(), producto.getPrecioVenta(),
+            producto.getImagen(), eliminado);
+  }
+
+  public ProductoBusqueda toProductoBusqueda() {
+    return new ProductoBusqueda(productoId, codigo, nombre, marca, modelo, descripcion, precioVenta, imagen);
+  }
+}
@@ -0,0 +1,30 @@
+package com.emersondev.domain.event;
+
+import com.emersondev.domain.entity.Producto;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publica un {@link ProductoCatalogoEvent} por cada producto creado, modificado o eliminado
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductoCatalogoListener {
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  @PostPersist
+  @PostUpdate
+  public void alGuardar(Producto producto) {
+    eventPublisher.publishEvent(ProductoCatalogoEvent.de(producto, false));
+  }
+
+  @PostRemove
+  public void alEliminar(Producto producto) {
+    eventPublisher.publishEvent(ProductoCatalogoEvent.de(producto, true));
+  }
+}
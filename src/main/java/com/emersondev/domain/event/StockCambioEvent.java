@@ -0,0 +1,22 @@
+package com.emersondev.domain.event;
+
+import com.emersondev.domain.entity.Inventario;
+
+/**
+ * Cambio de stock de un inventario. Lleva la cantidad y el estado resultantes (no el delta),
+ * de modo que aplicar el mismo evento dos veces deja al consumidor en el mismo estado.
+ */
+public record StockCambioEvent(Long inventarioId, Long productoId, Long almacenId, Integer cantidad,
+                               Inventario.EstadoInventario estado, Integer stockMinimo, boolean eliminado) {
+
+  public static StockCambioEvent de(Inventario inventario, boolean eliminado) {
+    return new StockCambioEvent(
+            inventario.getId(),
+            inventario.getProducto() != null ? inventario.getProducto().getId() : null,
+            inventario.getAlmacen() != null ? inventario.getAlmacen().getId() : null,
+            eliminado ? 0 : inventario.getCantidad(),
+            inventario.getEstado(),
+            inventario.getUmbralStockBajo(),
+            eliminado);
+  }
+}
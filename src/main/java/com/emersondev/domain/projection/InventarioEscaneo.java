@@ -0,0 +1,22 @@
+package com.emersondev.domain.projection;
+
+import com.emersondev.domain.entity.Inventario;
+
+import java.math.BigDecimal;
+
+/**
+ * Datos de un inventario necesarios para resolver un escaneo en caja
+ */
+public record InventarioEscaneo(
+        Long inventarioId,
+        String serie,
+        Integer cantidad,
+        Inventario.EstadoInventario estado,
+        Long productoId,
+        String productoCodigo,
+        String productoNombre,
+        BigDecimal precioVenta,
+        String colorNombre,
+        String tallaNumero,
+        Long almacenId) {
+}
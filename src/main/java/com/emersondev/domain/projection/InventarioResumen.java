@@ -0,0 +1,31 @@
+package com.emersondev.domain.projection;
+
+import com.emersondev.domain.entity.Inventario;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de inventario con los datos de producto, color, talla y almacén
+ * resueltos en la misma consulta (sin cargar las asociaciones lazy)
+ */
+public record InventarioResumen(
+        Long id,
+        String serie,
+        Integer cantidad,
+        Inventario.EstadoInventario estado,
+        Integer stockMinimo,
+        BigDecimal costoPromedio,
+        LocalDateTime fechaCreacion,
+        LocalDateTime fechaActualizacion,
+        Long productoId,
+        String productoCodigo,
+        String productoNombre,
+        Long colorId,
+        String colorNombre,
+        Long tallaId,
+        String tallaNumero,
+        Long almacenId,
+        String almacenNombre,
+        String almacenUbicacion) {
+}
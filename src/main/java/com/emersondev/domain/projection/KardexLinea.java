@@ -0,0 +1,20 @@
+package com.emersondev.domain.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Línea del kardex de un inventario: movimiento con las unidades que entran o salen y el saldo resultante
+ */
+public record KardexLinea(
+        Long movimientoId,
+        LocalDateTime fecha,
+        String tipo,
+        Integer entrada,
+        Integer salida,
+        Integer saldo,
+        BigDecimal costoUnitario,
+        String referencia,
+        String descripcion,
+        String usuario) {
+}
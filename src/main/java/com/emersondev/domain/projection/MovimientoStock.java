@@ -0,0 +1,27 @@
+package com.emersondev.domain.projection;
+
+import com.emersondev.domain.entity.MovimientoInventario;
+
+import java.time.LocalDateTime;
+
+/**
+ * Datos mínimos de un movimiento para reproducir su efecto sobre el stock
+ */
+public record MovimientoStock(
+        Long id,
+        Long inventarioId,
+        MovimientoInventario.TipoMovimiento tipo,
+        Integer cantidad,
+        LocalDateTime fecha) {
+
+  /**
+   * Stock resultante de aplicar el movimiento: un AJUSTE fija la cantidad absoluta
+   */
+  public int aplicar(int stock) {
+    return switch (tipo) {
+      case ENTRADA -> stock + Math.abs(cantidad);
+      case AJUSTE -> cantidad;
+      case SALIDA, TRASLADO -> stock - Math.abs(cantidad);
+    };
+  }
+}
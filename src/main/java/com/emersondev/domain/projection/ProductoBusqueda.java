@@ -0,0 +1,17 @@
+package com.emersondev.domain.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Campos de un producto que se indexan para la búsqueda rápida
+ */
+public record ProductoBusqueda(
+        Long id,
+        String codigo,
+        String nombre,
+        String marca,
+        String modelo,
+        String descripcion,
+        BigDecimal precioVenta,
+        String imagen) {
+}
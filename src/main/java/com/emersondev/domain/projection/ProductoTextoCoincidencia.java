@@ -0,0 +1,28 @@
+package com.emersondev.domain.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Producto encontrado por la búsqueda de texto completo de PostgreSQL, con su rango y el fragmento resaltado.
+ * Es una interfaz porque se llena desde una consulta nativa
+ */
+public interface ProductoTextoCoincidencia {
+
+  Long getId();
+
+  String getCodigo();
+
+  String getNombre();
+
+  String getMarca();
+
+  String getModelo();
+
+  BigDecimal getPrecioVenta();
+
+  String getImagen();
+
+  Float getPuntaje();
+
+  String getFragmento();
+}
@@ -0,0 +1,12 @@
+package com.emersondev.domain.projection;
+
+/**
+ * Stock agregado de una variante (color y talla) de un producto en un almacén
+ */
+public record StockVarianteAlmacen(
+        Long colorId,
+        Long tallaId,
+        Long almacenId,
+        String almacenNombre,
+        Long cantidad) {
+}
@@ -0,0 +1,9 @@
+package com.emersondev.domain.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales de valorización del inventario al costo promedio
+ */
+public record ValoracionResumen(BigDecimal valorTotal, Long unidades, Long variantes) {
+}
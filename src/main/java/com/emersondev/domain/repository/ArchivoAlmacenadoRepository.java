@@ -0,0 +1,45 @@
+package com.emersondev.domain.repository;
+
+import com.emersondev.domain.entity.ArchivoAlmacenado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivoAlmacenadoRepository extends JpaRepository<ArchivoAlmacenado, String> {
+
+  /**
+   * Serializa, hasta el fin de la transacción, el registro de un archivo por contenido y el borrado de su copia
+   * en el almacenamiento (la fila puede no existir todavía, así que no sirve bloquearla)
+   */
+  @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtextextended(:nombre, 0))) bloqueo",
+          nativeQuery = true)
+  int bloquearNombre(@Param("nombre") String nombre);
+
+  /**
+   * Registra una referencia al archivo, creándolo con una referencia si es la primera subida.
+   * La fila queda bloqueada hasta el fin de la transacción, así que no puede eliminarse a la vez
+   */
+  @Modifying
+  @Query(value = "INSERT INTO archivos_almacenados (nombre, tamanio, referencias, fecha_creacion) " +
+          "VALUES (:nombre, :tamanio, 1, now()) " +
+          "ON CONFLICT (nombre) DO UPDATE SET referencias = archivos_almacenados.referencias + 1",
+          nativeQuery = true)
+  int registrarReferencia(@Param("nombre") String nombre, @Param("tamanio") long tamanio);
+
+  /**
+   * @return 1 si el archivo está registrado y se descontó una referencia, 0 si no se lleva su cuenta
+   */
+  @Modifying
+  @Query("UPDATE ArchivoAlmacenado a SET a.referencias = a.referencias - 1 WHERE a.nombre = :nombre")
+  int liberarReferencia(@Param("nombre") String nombre);
+
+  /**
+   * @return 1 si el archivo se quedó sin referencias y se quitó del registro
+   */
+  @Modifying
+  @Query("DELETE FROM ArchivoAlmacenado a WHERE a.nombre = :nombre AND a.referencias <= 0")
+  int eliminarSinReferencias(@Param("nombre") String nombre);
+}
@@ -19,6 +19,9 @@ public interface ColorRepository extends JpaRepository<Color, Long> {
 
   List<Color> findByProductoId(Long productoId);
 
+  @Query("SELECT c FROM Color c LEFT JOIN FETCH c.tallas WHERE c.id = :id")
+  Optional<Color> findByIdWithTallas(@Param("id") Long id);
+
   Optional<Color> findByNombreAndProductoId(String nombre, Long productoId);
 
   boolean existsByNombreAndProductoId(String nombre, Long productoId);
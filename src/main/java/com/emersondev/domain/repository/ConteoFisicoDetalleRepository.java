@@ -0,0 +1,39 @@
+package com.emersondev.domain.repository;
+
+import com.emersondev.domain.entity.ConteoFisicoDetalle;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ConteoFisicoDetalleRepository extends JpaRepository<ConteoFisicoDetalle, Long> {
+
+  /**
+   * Congela en una sola sentencia el stock actual de los inventarios del almacén como base del conteo
+   */
+  @Modifying
+  @Query(value = "INSERT INTO conteo_fisico_detalles (conteo_id, inventario_id, cantidad_base) " +
+          "SELECT :conteoId, i.id, i.cantidad FROM inventarios i " +
+          "WHERE i.almacen_id = :almacenId " +
+          "AND (CAST(:productoId AS BIGINT) IS NULL OR i.producto_id = :productoId)",
+          nativeQuery = true)
+  int registrarBase(@Param("conteoId") Long conteoId,
+                    @Param("almacenId") Long almacenId,
+                    @Param("productoId") Long productoId);
+
+  @Query("SELECT d.inventario.id FROM ConteoFisicoDetalle d WHERE d.conteo.id = :conteoId")
+  List<Long> findInventarioIdsByConteoId(@Param("conteoId") Long conteoId);
+
+  @EntityGraph(attributePaths = {"inventario", "inventario.producto", "inventario.color", "inventario.talla"})
+  @Query("SELECT d FROM ConteoFisicoDetalle d WHERE d.conteo.id = :conteoId ORDER BY d.inventario.id")
+  List<ConteoFisicoDetalle> findConInventarioByConteoId(@Param("conteoId") Long conteoId);
+
+  long countByConteoId(Long conteoId);
+
+  long countByConteoIdAndCantidadContadaIsNotNull(Long conteoId);
+}
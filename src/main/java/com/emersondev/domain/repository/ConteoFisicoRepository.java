@@ -0,0 +1,30 @@
+package com.emersondev.domain.repository;
+
+import com.emersondev.domain.entity.ConteoFisico;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ConteoFisicoRepository extends JpaRepository<ConteoFisico, Long> {
+
+  boolean existsByAlmacenIdAndEstado(Long almacenId, ConteoFisico.EstadoConteo estado);
+
+  @EntityGraph(attributePaths = {"almacen"})
+  @Query("SELECT c FROM ConteoFisico c WHERE c.id = :id")
+  Optional<ConteoFisico> findConAlmacenById(@Param("id") Long id);
+
+  /**
+   * Bloquea la sesión: no se aplica o cancela dos veces en paralelo, y las lecturas no se registran
+   * mientras se aplica (ni después sobre un conteo ya cerrado)
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT c FROM ConteoFisico c WHERE c.id = :id")
+  Optional<ConteoFisico> findParaActualizarById(@Param("id") Long id);
+}
@@ -1,19 +1,84 @@
 package com.emersondev.domain.repository;
 
 import com.emersondev.domain.entity.Inventario;
+import com.emersondev.domain.event.StockCambioEvent;
+import com.emersondev.domain.projection.InventarioEscaneo;
+import com.emersondev.domain.projection.InventarioResumen;
+import com.emersondev.domain.projection.StockVarianteAlmacen;
+import com.emersondev.domain.projection.ValoracionResumen;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface InventarioRepository extends JpaRepository<Inventario, Long> {
+public interface InventarioRepository extends JpaRepository<Inventario, Long>, JpaSpecificationExecutor<Inventario> {
 
+  /**
+   * Selección común de las proyecciones de inventario: una sola consulta con las asociaciones unidas
+   */
+  String SELECT_RESUMEN = "SELECT new com.emersondev.domain.projection.InventarioResumen(" +
+          "i.id, i.serie, i.cantidad, i.estado, i.stockMinimo, i.costoPromedio, i.fechaCreacion, i.fechaActualizacion, " +
+          "p.id, p.codigo, p.nombre, c.id, c.nombre, t.id, t.numero, a.id, a.nombre, a.ubicacion) " +
+          "FROM Inventario i JOIN i.producto p JOIN i.color c JOIN i.talla t JOIN i.almacen a";
+
+  String SELECT_ESCANEO = "SELECT new com.emersondev.domain.projection.InventarioEscaneo(" +
+          "i.id, i.serie, i.cantidad, i.estado, p.id, p.codigo, p.nombre, p.precioVenta, c.nombre, t.numero, a.id) " +
+          "FROM Inventario i JOIN i.producto p JOIN i.color c JOIN i.talla t JOIN i.almacen a";
+
+  /**
+   * Lista paginada de inventarios como proyección
+   */
+  @Query(value = SELECT_RESUMEN, countQuery = "SELECT COUNT(i) FROM Inventario i")
+  Page<InventarioResumen> findAllResumen(Pageable pageable);
+
+  /**
+   * Inventarios de un producto como proyección
+   */
+  @Query(SELECT_RESUMEN + " WHERE p.id = :productoId")
+  List<InventarioResumen> findResumenByProductoId(@Param("productoId") Long productoId);
+
+  /**
+   * Inventarios con cantidad menor o igual a un umbral como proyección
+   */
+  @Query(SELECT_RESUMEN + " WHERE i.cantidad <= :umbral")
+  List<InventarioResumen> findResumenByCantidadLessThanEqual(@Param("umbral") Integer umbral);
+
+  /**
+   * Inventarios indicados como proyección
+   */
+  @Query(SELECT_RESUMEN + " WHERE i.id IN :ids")
+  List<InventarioResumen> findResumenByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Query(SELECT_RESUMEN + " WHERE i.serie IN :series")
+  List<InventarioResumen> findResumenBySerieIn(@Param("series") Collection<String> series);
+
+  /**
+   * Estado de stock de las variantes en o por debajo de su stock mínimo, para cargar las alertas al arrancar
+   */
+  @Query("SELECT new com.emersondev.domain.event.StockCambioEvent(" +
+          "i.id, i.producto.id, i.almacen.id, i.cantidad, i.estado, COALESCE(i.stockMinimo, :umbralPorDefecto), false) " +
+          "FROM Inventario i WHERE i.cantidad <= COALESCE(i.stockMinimo, :umbralPorDefecto)")
+  List<StockCambioEvent> findEstadoStockBajoMinimo(@Param("umbralPorDefecto") Integer umbralPorDefecto);
 
   /**
    * Busca un inventario por ID de producto y almacén
@@ -54,16 +119,162 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
    */
   boolean existsByTallaId(Long tallaId);
 
+  /**
+   * De las tallas indicadas, las que tienen algún inventario asociado
+   */
+  @Query("SELECT DISTINCT i.talla.id FROM Inventario i WHERE i.talla.id IN :tallaIds")
+  Set<Long> findTallaIdsConInventario(@Param("tallaIds") Collection<Long> tallaIds);
+
   /**
    * Busca un inventario por su número de serie
    */
   Optional<Inventario> findBySerie(String serie);
 
+  /**
+   * Busca inventarios por un conjunto de series
+   */
+  @EntityGraph(attributePaths = {"producto"})
+  List<Inventario> findBySerieIn(Collection<String> series);
+
+  /**
+   * Devuelve cuáles de las series indicadas ya están registradas
+   */
+  @Query("SELECT i.serie FROM Inventario i WHERE i.serie IN :series")
+  Set<String> findSeriesExistentes(@Param("series") Collection<String> series);
+
+  /**
+   * IDs de los inventarios con las series indicadas, para bloquearlos después con {@link #findParaActualizarByIdIn}
+   */
+  @Query("SELECT i.id FROM Inventario i WHERE i.serie IN :series")
+  List<Long> findIdsBySerieIn(@Param("series") Collection<String> series);
+
+  /**
+   * IDs de los inventarios de un conjunto de productos en un conjunto de almacenes
+   */
+  @Query("SELECT i.id FROM Inventario i WHERE i.producto.id IN :productoIds AND i.almacen.id IN :almacenIds")
+  List<Long> findIdsByProductoIdInAndAlmacenIdIn(@Param("productoIds") Collection<Long> productoIds,
+                                                 @Param("almacenIds") Collection<Long> almacenIds);
+
+  /**
+   * Carga un conjunto de inventarios junto con la variante que identifica cada uno
+   */
+  @EntityGraph(attributePaths = {"producto", "color", "talla", "almacen"})
+  @Query("SELECT i FROM Inventario i WHERE i.id IN :ids")
+  List<Inventario> findAllConVarianteByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Bloquea un conjunto de inventarios en orden de ID (evita interbloqueos entre transacciones)
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT i FROM Inventario i WHERE i.id IN :ids ORDER BY i.id")
+  List<Inventario> findParaActualizarByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * IDs de los inventarios de un almacén para un conjunto de productos
+   */
+  @Query("SELECT i.id FROM Inventario i WHERE i.almacen.id = :almacenId AND i.producto.id IN :productoIds")
+  List<Long> findIdsByAlmacenIdAndProductoIdIn(@Param("almacenId") Long almacenId,
+                                               @Param("productoIds") Collection<Long> productoIds);
+
+  /**
+   * Productos de un conjunto de inventarios (el producto de un inventario no cambia, no requiere bloqueo)
+   */
+  @Query("SELECT DISTINCT i.producto.id FROM Inventario i WHERE i.id IN :ids")
+  Set<Long> findProductoIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * IDs de todos los inventarios, para repartir trabajos por lotes de variantes
+   */
+  @Query("SELECT i.id FROM Inventario i ORDER BY i.id")
+  List<Long> findAllIds();
+
+  /**
+   * Todos los inventarios para cargar el índice de escaneo, leídos con un cursor
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query(SELECT_ESCANEO)
+  Stream<InventarioEscaneo> streamEscaneo();
+
+  @Query(SELECT_ESCANEO + " WHERE i.id IN :ids")
+  List<InventarioEscaneo> findEscaneoByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Query(SELECT_ESCANEO + " WHERE i.serie = :serie")
+  Optional<InventarioEscaneo> findEscaneoBySerie(@Param("serie") String serie);
+
+  @Query(SELECT_ESCANEO + " WHERE p.codigo = :codigo")
+  List<InventarioEscaneo> findEscaneoByProductoCodigo(@Param("codigo") String codigo);
+
+  /**
+   * IDs de los inventarios que ya existían en la fecha indicada, con filtros opcionales de almacén y producto.
+   * Cada combinación de filtros tiene su propia consulta para que Postgres planifique con los índices de las
+   * columnas filtradas (un predicado {@code :x IS NULL OR ...} lo obliga a recorrer la tabla).
+   */
+  default List<Long> findIdsCreadosHasta(LocalDateTime fecha, Long almacenId, Long productoId) {
+    if (almacenId != null && productoId != null) {
+      return findIdsCreadosHastaPorAlmacenYProducto(fecha, almacenId, productoId);
+    }
+    if (almacenId != null) {
+      return findIdsCreadosHastaPorAlmacen(fecha, almacenId);
+    }
+    if (productoId != null) {
+      return findIdsCreadosHastaPorProducto(fecha, productoId);
+    }
+    return findIdsCreadosHasta(fecha);
+  }
+
+  @Query("SELECT i.id FROM Inventario i WHERE i.fechaCreacion <= :fecha ORDER BY i.id")
+  List<Long> findIdsCreadosHasta(@Param("fecha") LocalDateTime fecha);
+
+  @Query("SELECT i.id FROM Inventario i WHERE i.fechaCreacion <= :fecha AND i.almacen.id = :almacenId ORDER BY i.id")
+  List<Long> findIdsCreadosHastaPorAlmacen(@Param("fecha") LocalDateTime fecha, @Param("almacenId") Long almacenId);
+
+  @Query("SELECT i.id FROM Inventario i WHERE i.fechaCreacion <= :fecha AND i.producto.id = :productoId ORDER BY i.id")
+  List<Long> findIdsCreadosHastaPorProducto(@Param("fecha") LocalDateTime fecha,
+                                            @Param("productoId") Long productoId);
+
+  @Query("SELECT i.id FROM Inventario i WHERE i.fechaCreacion <= :fecha AND i.almacen.id = :almacenId " +
+          "AND i.producto.id = :productoId ORDER BY i.id")
+  List<Long> findIdsCreadosHastaPorAlmacenYProducto(@Param("fecha") LocalDateTime fecha,
+                                                    @Param("almacenId") Long almacenId,
+                                                    @Param("productoId") Long productoId);
+
+  /**
+   * Actualiza solo el costo promedio: no reescribe la cantidad que otra transacción pueda estar modificando
+   */
+  @Modifying
+  @Query("UPDATE Inventario i SET i.costoPromedio = :costo WHERE i.id = :id")
+  int actualizarCostoPromedio(@Param("id") Long id, @Param("costo") BigDecimal costo);
+
+  /**
+   * Productos con al menos una variante en el estado indicado
+   */
+  @Query("SELECT COUNT(DISTINCT i.producto.id) FROM Inventario i WHERE i.estado = :estado")
+  long contarProductosConEstado(@Param("estado") Inventario.EstadoInventario estado);
+
+  /**
+   * Valorización al costo promedio vigente: una suma sobre las filas, sin recorrer los movimientos
+   */
+  @Query("SELECT new com.emersondev.domain.projection.ValoracionResumen(" +
+          "COALESCE(SUM(i.cantidad * i.costoPromedio), 0), COALESCE(SUM(i.cantidad), 0), COUNT(i)) " +
+          "FROM Inventario i")
+  ValoracionResumen valorizarInventario();
+
+  @Query("SELECT new com.emersondev.domain.projection.ValoracionResumen(" +
+          "COALESCE(SUM(i.cantidad * i.costoPromedio), 0), COALESCE(SUM(i.cantidad), 0), COUNT(i)) " +
+          "FROM Inventario i WHERE i.almacen.id = :almacenId")
+  ValoracionResumen valorizarInventarioPorAlmacen(@Param("almacenId") Long almacenId);
+
   /**
    * Busca inventarios por ID de producto
    */
   List<Inventario> findByProductoId(Long productoId);
 
+  /**
+   * IDs de los inventarios de un producto, para bloquearlos con {@link #findParaActualizarByIdIn}
+   */
+  @Query("SELECT i.id FROM Inventario i WHERE i.producto.id = :productoId")
+  List<Long> findIdsByProductoId(@Param("productoId") Long productoId);
+
   /**
    * Busca inventarios por ID de almacén
    */
@@ -115,6 +326,15 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
   @Query("SELECT COALESCE(SUM(i.cantidad), 0) FROM Inventario i WHERE i.producto.id = :productoId")
   Integer calcularStockTotalProducto(@Param("productoId") Long productoId);
 
+  /**
+   * Stock de todas las variantes de un producto agrupado por color, talla y almacén, en una sola consulta
+   */
+  @Query("SELECT new com.emersondev.domain.projection.StockVarianteAlmacen(" +
+          "i.color.id, i.talla.id, a.id, a.nombre, COALESCE(SUM(i.cantidad), 0)) " +
+          "FROM Inventario i JOIN i.almacen a WHERE i.producto.id = :productoId " +
+          "GROUP BY i.color.id, i.talla.id, a.id, a.nombre ORDER BY a.nombre")
+  List<StockVarianteAlmacen> findStockPorVarianteYAlmacen(@Param("productoId") Long productoId);
+
   /**
    * Calcula el stock para una variante específica
    */
@@ -130,9 +350,9 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
   /**
    * Encuentra productos con stock bajo
    */
-  @Query("SELECT i.producto.id, i.producto.nombre, SUM(i.cantidad) as stock " +
+  @Query("SELECT i.producto.id " +
           "FROM Inventario i " +
-          "GROUP BY i.producto.id, i.producto.nombre " +
+          "GROUP BY i.producto.id " +
           "HAVING SUM(i.cantidad) <= :umbral")
   List<Long> findProductosConStockBajo(@Param("umbral") Integer umbral);
 
@@ -147,28 +367,12 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
 
   List<Inventario> findByEstado(Inventario.EstadoInventario estado);
 
-  @Query("SELECT i FROM Inventario i WHERE " +
-          "(:productoId IS NULL OR i.producto.id = :productoId) AND " +
-          "(:colorId IS NULL OR i.color.id = :colorId) AND " +
-          "(:tallaId IS NULL OR i.talla.id = :tallaId) AND " +
-          "(:estado IS NULL OR i.estado = :estado)")
-  List<Inventario> buscarInventario(
-          @Param("productoId") Long productoId,
-          @Param("colorId") Long colorId,
-          @Param("tallaId") Long tallaId,
-          @Param("estado") Inventario.EstadoInventario estado);
-
-  @Query("SELECT i FROM Inventario i WHERE " +
-          "(:productoId IS NULL OR i.producto.id = :productoId) AND " +
-          "(:colorId IS NULL OR i.color.id = :colorId) AND " +
-          "(:tallaId IS NULL OR i.talla.id = :tallaId) AND " +
-          "(:estado IS NULL OR i.estado = :estado)")
-  Page<Inventario> buscarInventarioPaginado(
-          @Param("productoId") Long productoId,
-          @Param("colorId") Long colorId,
-          @Param("tallaId") Long tallaId,
-          @Param("estado") Inventario.EstadoInventario estado,
-          Pageable pageable);
+  /**
+   * Búsqueda paginada con filtros dinámicos, cargando en la misma consulta las asociaciones que usa el mapper
+   */
+  @Override
+  @EntityGraph(attributePaths = {"producto", "color", "talla", "almacen"})
+  Page<Inventario> findAll(Specification<Inventario> spec, Pageable pageable);
 
 
 }
@@ -1,40 +1,75 @@
 package com.emersondev.domain.repository;
 
 import com.emersondev.domain.entity.MovimientoInventario;
+import com.emersondev.domain.projection.MovimientoStock;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface MovimientoInventarioRepository extends JpaRepository<MovimientoInventario, Long> {
+public interface MovimientoInventarioRepository extends JpaRepository<MovimientoInventario, Long>,
+        JpaSpecificationExecutor<MovimientoInventario> {
 
   Page<MovimientoInventario> findByInventarioId(Long inventarioId, Pageable pageable);
 
   List<MovimientoInventario> findByInventarioId(Long inventarioId);
 
-  @Query("SELECT m FROM MovimientoInventario m WHERE " +
-          "(:inventarioId IS NULL OR m.inventario.id = :inventarioId) AND " +
-          "(:productoId IS NULL OR m.inventario.producto.id = :productoId) AND " +
-          "(:colorId IS NULL OR m.inventario.color.id = :colorId) AND " +
-          "(:tallaId IS NULL OR m.inventario.talla.id = :tallaId) AND " +
-          "(:tipo IS NULL OR m.tipo = :tipo) AND " +
-          "(COALESCE(:fechaInicio, NULL) IS NULL OR m.fechaMovimiento >= :fechaInicio) AND " +
-          "(COALESCE(:fechaFin, NULL) IS NULL OR m.fechaMovimiento <= :fechaFin)")
-  Page<MovimientoInventario> buscarMovimientos(
-          @Param("inventarioId") Long inventarioId,
-          @Param("productoId") Long productoId,
-          @Param("colorId") Long colorId,
-          @Param("tallaId") Long tallaId,
-          @Param("tipo") MovimientoInventario.TipoMovimiento tipo,
-          @Param("fechaInicio") LocalDateTime fechaInicio,
-          @Param("fechaFin") LocalDateTime fechaFin,
-          Pageable pageable);
+  /**
+   * Búsqueda paginada con filtros dinámicos, cargando en la misma consulta las asociaciones que usa el mapper
+   */
+  @Override
+  @EntityGraph(attributePaths = {"inventario", "inventario.producto", "inventario.color", "inventario.talla",
+          "inventarioDestino", "inventarioDestino.almacen"})
+  Page<MovimientoInventario> findAll(Specification<MovimientoInventario> spec, Pageable pageable);
+
+  /**
+   * Movimientos de un conjunto de inventarios en orden cronológico, agrupados por inventario
+   */
+  @Query("SELECT m FROM MovimientoInventario m WHERE m.inventario.id IN :inventarioIds " +
+          "ORDER BY m.inventario.id, m.fechaMovimiento, m.id")
+  List<MovimientoInventario> findLedgerByInventarioIdIn(@Param("inventarioIds") Collection<Long> inventarioIds);
+
+  /**
+   * Completa el costo unitario de movimientos que aún no lo tienen, sin cargar ni reescribir las filas
+   */
+  @Modifying
+  @Query("UPDATE MovimientoInventario m SET m.costoUnitario = :costo WHERE m.id IN :ids AND m.costoUnitario IS NULL")
+  int completarCostoUnitario(@Param("ids") Collection<Long> ids, @Param("costo") BigDecimal costo);
+
+  /**
+   * Movimientos de un conjunto de inventarios en el intervalo (desde, hasta], en orden cronológico
+   */
+  @Query("SELECT new com.emersondev.domain.projection.MovimientoStock(m.id, m.inventario.id, m.tipo, m.cantidad, " +
+          "m.fechaMovimiento) FROM MovimientoInventario m WHERE m.inventario.id IN :inventarioIds " +
+          "AND m.fechaMovimiento > :desde AND m.fechaMovimiento <= :hasta " +
+          "ORDER BY m.inventario.id, m.id")
+  List<MovimientoStock> findMovimientosStockEntre(@Param("inventarioIds") Collection<Long> inventarioIds,
+                                                  @Param("desde") LocalDateTime desde,
+                                                  @Param("hasta") LocalDateTime hasta);
+
+  /**
+   * Movimientos de un conjunto de inventarios registrados después del movimiento indicado y con fecha hasta la
+   * indicada, en orden de registro
+   */
+  @Query("SELECT new com.emersondev.domain.projection.MovimientoStock(m.id, m.inventario.id, m.tipo, m.cantidad, " +
+          "m.fechaMovimiento) FROM MovimientoInventario m WHERE m.inventario.id IN :inventarioIds " +
+          "AND m.id > :desdeId AND m.fechaMovimiento <= :hasta " +
+          "ORDER BY m.inventario.id, m.id")
+  List<MovimientoStock> findMovimientosStockPosterioresA(@Param("inventarioIds") Collection<Long> inventarioIds,
+                                                         @Param("desdeId") Long desdeId,
+                                                         @Param("hasta") LocalDateTime hasta);
 
   @Query("SELECT COUNT(m) FROM MovimientoInventario m WHERE m.inventario.id = :inventarioId")
   Long countByInventarioId(@Param("inventarioId") Long inventarioId);
@@ -1,13 +1,19 @@
 package com.emersondev.domain.repository;
 
 import com.emersondev.domain.entity.Producto;
+import com.emersondev.domain.projection.ProductoBusqueda;
+import com.emersondev.domain.projection.ProductoTextoCoincidencia;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
@@ -45,8 +51,37 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
   List<Producto> findByTermino(@Param("termino") String termino);
 
 
+  /**
+   * Campos indexados de todos los productos, para cargar el índice de búsqueda en memoria
+   */
+  @Query("SELECT new com.emersondev.domain.projection.ProductoBusqueda(p.id, p.codigo, p.nombre, p.marca, " +
+          "p.modelo, p.descripcion, p.precioVenta, p.imagen) FROM Producto p")
+  List<ProductoBusqueda> findAllParaBusqueda();
+
   boolean existsByCodigo(String codigo);
 
+  @Query("SELECT p.codigo FROM Producto p")
+  Set<String> findAllCodigos();
+
+  /**
+   * Bloquea el producto al reemplazar su imagen: las variantes anteriores pasan a un único evento
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT p FROM Producto p WHERE p.id = :id")
+  Optional<Producto> findParaActualizarById(@Param("id") Long id);
+
+  /**
+   * Registra las variantes generadas solo si el producto conserva la imagen de la que se generaron
+   * (una subida posterior las habría dejado obsoletas)
+   * @return 1 si se registraron, 0 si la imagen cambió o el producto ya no existe
+   */
+  @Modifying
+  @Query("UPDATE Producto p SET p.imagenMiniatura = :miniatura, p.imagenMediana = :mediana, " +
+          "p.imagenGrande = :grande WHERE p.id = :id AND p.imagen = :imagen")
+  int registrarVariantesImagen(@Param("id") Long id, @Param("imagen") String imagen,
+                               @Param("miniatura") String miniatura, @Param("mediana") String mediana,
+                               @Param("grande") String grande);
+
   @Query("SELECT DISTINCT p.marca FROM Producto p WHERE p.marca IS NOT NULL")
   List<String> findDistinctMarcas();
 
@@ -56,8 +91,33 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
   @Query("SELECT p FROM Producto p LEFT JOIN FETCH p.colores WHERE p.codigo = :codigo")
   Optional<Producto> findByCodigoWithColors(@Param("codigo") String codigo);
   
-  @Query(value = "SELECT p.* FROM productos p WHERE " +
-         "to_tsvector('spanish', p.nombre || ' ' || p.descripcion || ' ' || p.marca || ' ' || p.modelo) " +
-         "@@ plainto_tsquery('spanish', :searchTerm)", nativeQuery = true)
-  List<Producto> fullTextSearch(@Param("searchTerm") String searchTerm);
+  /**
+   * Búsqueda de texto completo sobre la columna generada {@code busqueda} (índice GIN), ordenada por ts_rank.
+   * La consulta se analiza con 'spanish' y con 'simple', como el código en la columna, para que los códigos
+   * coincidan aunque el analizador del español les aplique raíces. El fragmento resaltado solo se calcula
+   * para las filas de la página, sobre el texto ya escapado como HTML: las únicas etiquetas del fragmento son
+   * los &lt;mark&gt; que añade ts_headline
+   */
+  @Query(value = "SELECT r.id AS \"id\", r.codigo AS \"codigo\", r.nombre AS \"nombre\", r.marca AS \"marca\", " +
+          "r.modelo AS \"modelo\", r.precio_venta AS \"precioVenta\", r.imagen AS \"imagen\", " +
+          "r.puntaje AS \"puntaje\", " +
+          "ts_headline('spanish', replace(replace(replace(replace(r.nombre || ' - ' || coalesce(r.descripcion, ''), " +
+          "'&', '&amp;'), '<', '&lt;'), '>', '&gt;'), '\"', '&quot;'), " +
+          "websearch_to_tsquery('spanish', :termino), " +
+          "'StartSel=<mark>, StopSel=</mark>, MaxWords=25, MinWords=8, MaxFragments=2') AS \"fragmento\" " +
+          "FROM (SELECT p.id, p.codigo, p.nombre, p.marca, p.modelo, p.precio_venta, p.imagen, p.descripcion, " +
+          "ts_rank(p.busqueda, q.consulta) AS puntaje " +
+          "FROM productos p, (SELECT websearch_to_tsquery('spanish', :termino) || " +
+          "websearch_to_tsquery('simple', :termino)) q(consulta) " +
+          "WHERE p.busqueda @@ q.consulta " +
+          "ORDER BY puntaje DESC, p.id LIMIT :limite OFFSET :desplazamiento) r " +
+          "ORDER BY r.puntaje DESC, r.id", nativeQuery = true)
+  List<ProductoTextoCoincidencia> buscarTextoCompleto(@Param("termino") String termino,
+                                                      @Param("limite") int limite,
+                                                      @Param("desplazamiento") long desplazamiento);
+
+  @Query(value = "SELECT count(*) FROM productos p WHERE p.busqueda @@ " +
+          "(websearch_to_tsquery('spanish', :termino) || websearch_to_tsquery('simple', :termino))",
+          nativeQuery = true)
+  long contarTextoCompleto(@Param("termino") String termino);
 }
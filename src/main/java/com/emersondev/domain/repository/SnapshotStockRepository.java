@@ -0,0 +1,47 @@
+package com.emersondev.domain.repository;
+
+import com.emersondev.domain.entity.SnapshotStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SnapshotStockRepository extends JpaRepository<SnapshotStock, Long> {
+
+  @Query("SELECT MAX(s.fechaCorte) FROM SnapshotStock s")
+  LocalDateTime findUltimaFechaCorte();
+
+  /**
+   * Registra en una sola sentencia el stock de los inventarios sin snapshot, con movimientos registrados después
+   * de su último snapshot o modificados desde la fecha indicada. Los demás conservan su último snapshot, que sigue
+   * vigente. La cantidad y el último movimiento se leen en la misma sentencia, por lo que son coherentes entre sí.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO snapshots_stock (inventario_id, fecha_corte, cantidad, ultimo_movimiento_id) " +
+          "SELECT i.id, :corte, i.cantidad, " +
+          "(SELECT COALESCE(MAX(m.id), 0) FROM movimientos_inventario m WHERE m.inventario_id = i.id) " +
+          "FROM inventarios i " +
+          "WHERE NOT EXISTS (SELECT 1 FROM snapshots_stock s WHERE s.inventario_id = i.id) " +
+          "OR EXISTS (SELECT 1 FROM movimientos_inventario m WHERE m.inventario_id = i.id AND m.id > " +
+          "(SELECT COALESCE(MAX(s.ultimo_movimiento_id), 0) FROM snapshots_stock s WHERE s.inventario_id = i.id)) " +
+          "OR i.fecha_actualizacion >= :modificadosDesde",
+          nativeQuery = true)
+  int registrarSnapshots(@Param("corte") LocalDateTime corte,
+                         @Param("modificadosDesde") LocalDateTime modificadosDesde);
+
+  /**
+   * Snapshot más reciente en o antes de la fecha indicada para cada inventario
+   */
+  @Query(value = "SELECT DISTINCT ON (s.inventario_id) s.* FROM snapshots_stock s " +
+          "WHERE s.inventario_id IN (:inventarioIds) AND s.fecha_corte <= :fecha " +
+          "ORDER BY s.inventario_id, s.fecha_corte DESC",
+          nativeQuery = true)
+  List<SnapshotStock> findUltimosAnterioresA(@Param("inventarioIds") Collection<Long> inventarioIds,
+                                             @Param("fecha") LocalDateTime fecha);
+}
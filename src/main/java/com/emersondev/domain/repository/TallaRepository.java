@@ -3,8 +3,12 @@ package com.emersondev.domain.repository;
 import com.emersondev.domain.entity.Talla;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +21,11 @@ public interface TallaRepository extends JpaRepository<Talla, Long> {
   boolean existsByNumeroAndColorId(String numero, Long colorId);
 
   Optional<Talla> findByIdAndColorId(Long id, Long colorId);
+
+  /**
+   * Elimina las tallas indicadas en una sola sentencia
+   */
+  @Modifying
+  @Query("DELETE FROM Talla t WHERE t.id IN :ids")
+  int eliminarPorIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,60 @@
+package com.emersondev.domain.specification;
+
+import com.emersondev.domain.entity.Inventario;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtros dinámicos de inventario.
+ * Solo se generan predicados para los filtros informados, de modo que Postgres pueda
+ * usar los índices de las columnas filtradas en lugar de recorrer la tabla completa.
+ */
+public final class InventarioSpecifications {
+
+  private InventarioSpecifications() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  public static Specification<Inventario> filtrar(Long productoId, Long colorId, Long tallaId, Long almacenId,
+                                                  Inventario.EstadoInventario estado) {
+    List<Specification<Inventario>> filtros = new ArrayList<>();
+    if (productoId != null) {
+      filtros.add(conProducto(productoId));
+    }
+    if (colorId != null) {
+      filtros.add(conColor(colorId));
+    }
+    if (tallaId != null) {
+      filtros.add(conTalla(tallaId));
+    }
+    if (almacenId != null) {
+      filtros.add(conAlmacen(almacenId));
+    }
+    if (estado != null) {
+      filtros.add(conEstado(estado));
+    }
+    return Specification.allOf(filtros);
+  }
+
+  public static Specification<Inventario> conProducto(Long productoId) {
+    return (root, query, cb) -> cb.equal(root.get("producto").get("id"), productoId);
+  }
+
+  public static Specification<Inventario> conColor(Long colorId) {
+    return (root, query, cb) -> cb.equal(root.get("color").get("id"), colorId);
+  }
+
+  public static Specification<Inventario> conTalla(Long tallaId) {
+    return (root, query, cb) -> cb.equal(root.get("talla").get("id"), tallaId);
+  }
+
+  public static Specification<Inventario> conAlmacen(Long almacenId) {
+    return (root, query, cb) -> cb.equal(root.get("almacen").get("id"), almacenId);
+  }
+
+  public static Specification<Inventario> conEstado(Inventario.EstadoInventario estado) {
+    return (root, query, cb) -> cb.equal(root.get("estado"), estado);
+  }
+}
@@ -0,0 +1,60 @@
+package com.emersondev.domain.specification;
+
+import com.emersondev.domain.entity.MovimientoInventario;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtros dinámicos de movimientos de inventario.
+ * Solo se generan predicados para los filtros informados; los filtros por producto, color y talla
+ * se resuelven con un join a inventarios.
+ */
+public final class MovimientoInventarioSpecifications {
+
+  private MovimientoInventarioSpecifications() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  public static Specification<MovimientoInventario> filtrar(Long inventarioId, Long productoId, Long colorId,
+                                                            Long tallaId, MovimientoInventario.TipoMovimiento tipo,
+                                                            LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+    List<Specification<MovimientoInventario>> filtros = new ArrayList<>();
+    if (inventarioId != null) {
+      filtros.add(conInventario(inventarioId));
+    }
+    if (productoId != null) {
+      filtros.add(conAtributoDeInventario("producto", productoId));
+    }
+    if (colorId != null) {
+      filtros.add(conAtributoDeInventario("color", colorId));
+    }
+    if (tallaId != null) {
+      filtros.add(conAtributoDeInventario("talla", tallaId));
+    }
+    if (tipo != null) {
+      filtros.add(conTipo(tipo));
+    }
+    if (fechaInicio != null) {
+      filtros.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("fechaMovimiento"), fechaInicio));
+    }
+    if (fechaFin != null) {
+      filtros.add((root, query, cb) -> cb.lessThanOrEqualTo(root.get("fechaMovimiento"), fechaFin));
+    }
+    return Specification.allOf(filtros);
+  }
+
+  public static Specification<MovimientoInventario> conInventario(Long inventarioId) {
+    return (root, query, cb) -> cb.equal(root.get("inventario").get("id"), inventarioId);
+  }
+
+  public static Specification<MovimientoInventario> conTipo(MovimientoInventario.TipoMovimiento tipo) {
+    return (root, query, cb) -> cb.equal(root.get("tipo"), tipo);
+  }
+
+  private static Specification<MovimientoInventario> conAtributoDeInventario(String atributo, Long id) {
+    return (root, query, cb) -> cb.equal(root.get("inventario").get(atributo).get("id"), id);
+  }
+}
@@ -2,6 +2,7 @@ package com.emersondev.mapper;
 
 import com.emersondev.api.response.*;
 import com.emersondev.domain.entity.*;
+import com.emersondev.domain.projection.InventarioResumen;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -23,6 +24,8 @@ public class InventarioMapper {
     response.setSerie(inventario.getSerie());
     response.setCantidad(inventario.getCantidad());
     response.setEstado(inventario.getEstado());
+    response.setStockMinimo(inventario.getStockMinimo());
+    response.setCostoPromedio(inventario.getCostoPromedio());
     response.setFechaCreacion(inventario.getFechaCreacion());
     response.setFechaActualizacion(inventario.getFechaActualizacion());
 
@@ -63,4 +66,47 @@ public class InventarioMapper {
     return response;
   }
 
+  /**
+   * Convierte una proyección InventarioResumen a un InventarioResponse
+   */
+  public InventarioResponse toResponse(InventarioResumen resumen) {
+    if (resumen == null) {
+      return null;
+    }
+
+    InventarioResponse response = new InventarioResponse();
+    response.setId(resumen.id());
+    response.setSerie(resumen.serie());
+    response.setCantidad(resumen.cantidad());
+    response.setEstado(resumen.estado());
+    response.setStockMinimo(resumen.stockMinimo());
+    response.setCostoPromedio(resumen.costoPromedio());
+    response.setFechaCreacion(resumen.fechaCreacion());
+    response.setFechaActualizacion(resumen.fechaActualizacion());
+
+    InventarioResponse.ProductoSimpleResponse producto = new InventarioResponse.ProductoSimpleResponse();
+    producto.setId(resumen.productoId());
+    producto.setCodigo(resumen.productoCodigo());
+    producto.setNombre(resumen.productoNombre());
+    response.setProducto(producto);
+
+    InventarioResponse.ColorSimpleResponse color = new InventarioResponse.ColorSimpleResponse();
+    color.setId(resumen.colorId());
+    color.setNombre(resumen.colorNombre());
+    response.setColor(color);
+
+    InventarioResponse.TallaSimpleResponse talla = new InventarioResponse.TallaSimpleResponse();
+    talla.setId(resumen.tallaId());
+    talla.setNumero(resumen.tallaNumero());
+    response.setTalla(talla);
+
+    InventarioResponse.AlmacenSimpleResponse almacen = new InventarioResponse.AlmacenSimpleResponse();
+    almacen.setId(resumen.almacenId());
+    almacen.setNombre(resumen.almacenNombre());
+    almacen.setUbicacion(resumen.almacenUbicacion());
+    response.setAlmacen(almacen);
+
+    return response;
+  }
+
 }
@@ -58,6 +58,7 @@ public class MovimientoInventarioMapper {
 
     // Mapear resto de campos
     response.setCantidad(movimiento.getCantidad());
+    response.setCostoUnitario(movimiento.getCostoUnitario());
     response.setTipo(movimiento.getTipo());
     response.setDescripcion(movimiento.getDescripcion());
     response.setReferencia(movimiento.getReferencia());
@@ -29,6 +29,7 @@ public class ProductoMapper {
     producto.setPrecioCompra(request.getPrecioCompra());
     producto.setPrecioVenta(request.getPrecioVenta());
     producto.setImagen(request.getImagen());
+    producto.setStockMinimo(request.getStockMinimo());
 
     return producto;
   }
@@ -52,6 +53,10 @@ public class ProductoMapper {
     response.setPrecioCompra(producto.getPrecioCompra());
     response.setPrecioVenta(producto.getPrecioVenta());
     response.setImagen(producto.getImagen());
+    response.setImagenMiniatura(producto.getImagenMiniatura());
+    response.setImagenMediana(producto.getImagenMediana());
+    response.setImagenGrande(producto.getImagenGrande());
+    response.setStockMinimo(producto.getStockMinimo());
     response.setFechaCreacion(producto.getFechaCreacion());
     response.setFechaActualizacion(producto.getFechaActualizacion());
 
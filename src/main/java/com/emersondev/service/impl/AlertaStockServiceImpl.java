@@ -0,0 +1,195 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.api.response.AlertaStockResponse;
+import com.emersondev.domain.entity.Inventario;
+import com.emersondev.domain.event.AlertaStockEvent;
+import com.emersondev.domain.event.StockCambioEvent;
+import com.emersondev.domain.repository.InventarioRepository;
+import com.emersondev.service.interfaces.AlertaStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene en memoria el conjunto de variantes en o por debajo de su stock mínimo.
+ * Cada cambio de stock confirmado se evalúa solo para la fila afectada; la base de datos
+ * se consulta al arrancar y en una reconciliación periódica (p. ej. cambios hechos desde otro nodo).
+ * <p>
+ * Mientras dura una recarga los cambios recibidos se retienen y se aplican al terminar: la lectura de la base
+ * de datos no pisa un cambio más reciente ni resuelve una alerta activada después de la consulta.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AlertaStockServiceImpl implements AlertaStockService {
+
+  private final InventarioRepository inventarioRepository;
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final ConcurrentMap<Long, AlertaStockResponse> alertas = new ConcurrentHashMap<>();
+
+  private final Object bloqueoRecarga = new Object();
+  /**
+   * Último cambio recibido por inventario durante la recarga en curso; null si no hay recarga
+   */
+  private Map<Long, StockCambioEvent> cambiosDuranteRecarga;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void inicializar() {
+    recargar();
+    log.info("Alertas de stock inicializadas: {} variantes bajo su stock mínimo", alertas.size());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void alCambiarStock(StockCambioEvent evento) {
+    synchronized (bloqueoRecarga) {
+      if (cambiosDuranteRecarga != null) {
+        if (evento.inventarioId() != null) {
+          cambiosDuranteRecarga.put(evento.inventarioId(), evento);
+        }
+        return;
+      }
+    }
+    evaluar(evento);
+  }
+
+  @Override
+  public List<AlertaStockResponse> obtenerAlertas(Long almacenId) {
+    return alertas.values().stream()
+            .filter(alerta -> almacenId == null || almacenId.equals(alerta.getAlmacenId()))
+            .sorted(Comparator.comparing(AlertaStockResponse::getCantidad)
+                    .thenComparing(AlertaStockResponse::getInventarioId))
+            .collect(Collectors.toList());
+  }
+
+  @Override
+  public Set<Long> obtenerInventariosEnAlerta() {
+    return new HashSet<>(alertas.keySet());
+  }
+
+  @Override
+  public Set<Long> obtenerProductosEnAlerta() {
+    return alertas.values().stream()
+            .map(AlertaStockResponse::getProductoId)
+            .collect(Collectors.toSet());
+  }
+
+  @Override
+  @Scheduled(fixedDelayString = "${app.stock.alertas.reconciliacion-ms:600000}",
+          initialDelayString = "${app.stock.alertas.reconciliacion-ms:600000}")
+  public void recargar() {
+    synchronized (bloqueoRecarga) {
+      if (cambiosDuranteRecarga != null) {
+        log.debug("Recarga de alertas de stock ya en curso");
+        return;
+      }
+      cambiosDuranteRecarga = new HashMap<>();
+    }
+
+    try {
+      List<StockCambioEvent> bajoMinimo = inventarioRepository.findEstadoStockBajoMinimo(Inventario.UMBRAL_BAJO_STOCK);
+
+      // Las variantes con un cambio retenido se dejan al cambio, que es posterior a la consulta
+      Set<Long> vigentes = new HashSet<>();
+      for (StockCambioEvent estado : bajoMinimo) {
+        vigentes.add(estado.inventarioId());
+        if (!cambioRetenido(estado.inventarioId())) {
+          evaluar(estado);
+        }
+      }
+      for (Long inventarioId : alertas.keySet()) {
+        if (!vigentes.contains(inventarioId) && !cambioRetenido(inventarioId)) {
+          resolver(inventarioId);
+        }
+      }
+    } finally {
+      aplicarCambiosRetenidos();
+    }
+  }
+
+  private boolean cambioRetenido(Long inventarioId) {
+    synchronized (bloqueoRecarga) {
+      return cambiosDuranteRecarga.containsKey(inventarioId);
+    }
+  }
+
+  /**
+   * Aplica los cambios recibidos durante la recarga; los que siguen llegando mientras tanto se retienen hasta
+   * vaciar la cola, para conservar el orden por variante
+   */
+  private void aplicarCambiosRetenidos() {
+    while (true) {
+      Map<Long, StockCambioEvent> retenidos;
+      synchronized (bloqueoRecarga) {
+        if (cambiosDuranteRecarga.isEmpty()) {
+          cambiosDuranteRecarga = null;
+          return;
+        }
+        retenidos = cambiosDuranteRecarga;
+        cambiosDuranteRecarga = new HashMap<>();
+      }
+      retenidos.values().forEach(this::evaluar);
+    }
+  }
+
+  /**
+   * Aplica el estado de una sola variante al conjunto de alertas y publica el cambio, si lo hay
+   */
+  private void evaluar(StockCambioEvent evento) {
+    if (evento.inventarioId() == null) {
+      return;
+    }
+    boolean bajoMinimo = !evento.eliminado() && evento.cantidad() != null && evento.stockMinimo() != null
+            && evento.cantidad() <= evento.stockMinimo();
+
+    AlertaStockEvent[] cambio = new AlertaStockEvent[1];
+    alertas.compute(evento.inventarioId(), (id, actual) -> {
+      if (!bajoMinimo) {
+        if (actual != null) {
+          cambio[0] = new AlertaStockEvent(AlertaStockEvent.TipoCambio.RESUELTA, crearAlerta(evento, actual.getDesde()));
+        }
+        return null;
+      }
+      if (actual == null) {
+        AlertaStockResponse nueva = crearAlerta(evento, LocalDateTime.now());
+        cambio[0] = new AlertaStockEvent(AlertaStockEvent.TipoCambio.ACTIVADA, nueva);
+        return nueva;
+      }
+      if (!Objects.equals(actual.getCantidad(), evento.cantidad())
+              || !Objects.equals(actual.getStockMinimo(), evento.stockMinimo())) {
+        AlertaStockResponse actualizada = crearAlerta(evento, actual.getDesde());
+        cambio[0] = new AlertaStockEvent(AlertaStockEvent.TipoCambio.ACTUALIZADA, actualizada);
+        return actualizada;
+      }
+      return actual;
+    });
+
+    if (cambio[0] != null) {
+      log.debug("Alerta de stock {} para el inventario {}", cambio[0].tipo(), evento.inventarioId());
+      eventPublisher.publishEvent(cambio[0]);
+    }
+  }
+
+  private void resolver(Long inventarioId) {
+    AlertaStockResponse anterior = alertas.remove(inventarioId);
+    if (anterior != null) {
+      eventPublisher.publishEvent(new AlertaStockEvent(AlertaStockEvent.TipoCambio.RESUELTA, anterior));
+    }
+  }
+
+  private AlertaStockResponse crearAlerta(StockCambioEvent evento, LocalDateTime desde) {
+    return new AlertaStockResponse(evento.inventarioId(), evento.productoId(), evento.almacenId(),
+            evento.cantidad(), evento.stockMinimo(), evento.cantidad() != null && evento.cantidad() == 0, desde);
+  }
+}
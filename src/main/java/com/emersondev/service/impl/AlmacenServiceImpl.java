@@ -3,6 +3,8 @@ package com.emersondev.service.impl;
 import com.emersondev.api.request.AlmacenRequest;
 import com.emersondev.api.response.AlmacenResponse;
 import com.emersondev.api.response.InventarioResponse;
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.config.cache.CacheTags;
 import com.emersondev.domain.entity.Almacen;
 import com.emersondev.domain.entity.Inventario;
 import com.emersondev.domain.exception.AlmacenNotFoundException;
@@ -31,6 +33,7 @@ public class AlmacenServiceImpl implements AlmacenService {
   private final InventarioRepository inventarioRepository;
   private final AlmacenMapper almacenMapper;
   private final InventarioMapper inventarioMapper;
+  private final CacheInvalidator cacheInvalidator;
 
   @Override
   @Transactional
@@ -146,6 +149,8 @@ public class AlmacenServiceImpl implements AlmacenService {
     // Guardar los cambios
     almacen = almacenRepository.save(almacen);
     log.info("Almacén actualizado exitosamente con ID: {}", almacen.getId());
+    // El nombre del almacén aparece en las fichas de producto cacheadas
+    cacheInvalidator.invalidar(CacheTags.entidad(Almacen.class, id), CacheTags.inventariosAlmacen(id));
 
     return almacenMapper.toResponse(almacen);
 
@@ -172,6 +177,7 @@ public class AlmacenServiceImpl implements AlmacenService {
     // Eliminar el almacén
     almacenRepository.deleteById(id);
     log.info("Almacén eliminado exitosamente con ID: {}", id);
+    cacheInvalidator.invalidar(CacheTags.entidad(Almacen.class, id));
   }
 
   @Override
@@ -0,0 +1,105 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.config.FileStorageProperties;
+import com.emersondev.domain.exception.BusinessException;
+import com.emersondev.domain.exception.FileNotFoundException;
+import com.emersondev.service.interfaces.AlmacenamientoObjetos;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Almacenamiento en un directorio local. Cada archivo se escribe en un temporal del mismo directorio y
+ * se renombra al final, de modo que nunca se lee un archivo a medio escribir.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.file-storage", name = "backend", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class AlmacenamientoLocalImpl implements AlmacenamientoObjetos {
+
+  private final Path raiz;
+
+  public AlmacenamientoLocalImpl(FileStorageProperties fileStorageProperties) {
+    this.raiz = Paths.get(fileStorageProperties.getUploadDir()).toAbsolutePath().normalize();
+    try {
+      Files.createDirectories(this.raiz);
+    } catch (Exception ex) {
+      throw new BusinessException("No se pudo crear el directorio para almacenar los archivos", ex);
+    }
+  }
+
+  @Override
+  public void guardar(String clave, InputStream contenido, String contentType) throws IOException {
+    Path destino = resolver(clave);
+    Files.createDirectories(destino.getParent());
+    Path temporal = Files.createTempFile(destino.getParent(), "escritura-", ".tmp");
+    try {
+      Files.copy(contenido, temporal, StandardCopyOption.REPLACE_EXISTING);
+      Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporal);
+    }
+  }
+
+  @Override
+  public void guardar(String clave, Path archivo, String contentType) throws IOException {
+    Path destino = resolver(clave);
+    Files.createDirectories(destino.getParent());
+    try {
+      Files.move(archivo, destino, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      // El temporal está en otro sistema de archivos: se copia
+      try (InputStream contenido = Files.newInputStream(archivo)) {
+        guardar(clave, contenido, contentType);
+      }
+    }
+  }
+
+  @Override
+  public boolean existe(String clave) {
+    return Files.isRegularFile(resolver(clave));
+  }
+
+  @Override
+  public Resource cargar(String clave) {
+    return new FileSystemResource(rutaLocal(clave)
+            .orElseThrow(() -> new FileNotFoundException("Archivo no encontrado: " + clave)));
+  }
+
+  @Override
+  public Optional<Path> rutaLocal(String clave) {
+    Path ruta = resolver(clave);
+    return Files.isRegularFile(ruta) ? Optional.of(ruta) : Optional.empty();
+  }
+
+  @Override
+  public Optional<URI> urlDescarga(String clave, String nombreDescarga) {
+    return Optional.empty();
+  }
+
+  @Override
+  public boolean eliminar(String clave) throws IOException {
+    return Files.deleteIfExists(resolver(clave));
+  }
+
+  private Path resolver(String clave) {
+    Path ruta = raiz.resolve(clave).normalize();
+    if (!ruta.startsWith(raiz) || ruta.equals(raiz)) {
+      log.error("Clave de archivo fuera del directorio de almacenamiento: {}", clave);
+      throw new FileNotFoundException("Archivo no encontrado: " + clave);
+    }
+    return ruta;
+  }
+}
@@ -0,0 +1,173 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.config.FileStorageProperties;
+import com.emersondev.domain.exception.FileNotFoundException;
+import com.emersondev.service.interfaces.AlmacenamientoObjetos;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Almacenamiento en un bucket compatible con S3. Las subidas grandes van por partes leyendo el flujo a medida
+ * que llega (en memoria solo hay una parte a la vez) y las descargas se entregan con URL firmadas, de modo que
+ * el contenido no pasa por la aplicación.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.file-storage", name = "backend", havingValue = "s3")
+@Slf4j
+public class AlmacenamientoS3Impl implements AlmacenamientoObjetos {
+
+  private static final int MB = 1024 * 1024;
+  private static final int TAMANIO_MINIMO_PARTE = 5 * MB;
+
+  private final S3Client s3Client;
+  private final S3Presigner s3Presigner;
+  private final String bucket;
+  private final int tamanioParte;
+  private final Duration vigenciaUrl;
+
+  public AlmacenamientoS3Impl(S3Client s3Client, S3Presigner s3Presigner,
+                              FileStorageProperties fileStorageProperties) {
+    FileStorageProperties.S3 s3 = fileStorageProperties.getS3();
+    this.s3Client = s3Client;
+    this.s3Presigner = s3Presigner;
+    this.bucket = s3.getBucket();
+    this.tamanioParte = Math.max(TAMANIO_MINIMO_PARTE, s3.getTamanioParteMb() * MB);
+    this.vigenciaUrl = s3.getVigenciaUrl();
+  }
+
+  @Override
+  public void guardar(String clave, InputStream contenido, String contentType) throws IOException {
+    byte[] parte = new byte[tamanioParte];
+    int leidos = contenido.readNBytes(parte, 0, tamanioParte);
+    if (leidos < tamanioParte) {
+      // Cabe en una parte: una sola petición
+      RequestBody cuerpo = RequestBody.fromByteBuffer(ByteBuffer.wrap(parte, 0, leidos));
+      enviar(() -> s3Client.putObject(b -> b.bucket(bucket).key(clave).contentType(contentType), cuerpo));
+      return;
+    }
+
+    String uploadId = enviar(() -> s3Client.createMultipartUpload(b -> b.bucket(bucket).key(clave)
+            .contentType(contentType)).uploadId());
+    List<CompletedPart> partes = new ArrayList<>();
+    try {
+      int numero = 1;
+      while (leidos > 0) {
+        int numeroParte = numero++;
+        RequestBody cuerpo = RequestBody.fromByteBuffer(ByteBuffer.wrap(parte, 0, leidos));
+        String etag = enviar(() -> s3Client.uploadPart(b -> b.bucket(bucket).key(clave).uploadId(uploadId)
+                .partNumber(numeroParte), cuerpo).eTag());
+        partes.add(CompletedPart.builder().partNumber(numeroParte).eTag(etag).build());
+        leidos = contenido.readNBytes(parte, 0, tamanioParte);
+      }
+      enviar(() -> s3Client.completeMultipartUpload(b -> b.bucket(bucket).key(clave).uploadId(uploadId)
+              .multipartUpload(CompletedMultipartUpload.builder().parts(partes).build())));
+      log.debug("Archivo {} subido a S3 en {} partes", clave, partes.size());
+    } catch (IOException | RuntimeException e) {
+      // Las partes de una subida sin completar ocupan espacio hasta que se aborta
+      try {
+        s3Client.abortMultipartUpload(b -> b.bucket(bucket).key(clave).uploadId(uploadId));
+      } catch (SdkException abortError) {
+        log.warn("No se pudo abortar la subida multiparte {} de {}: {}", uploadId, clave, abortError.getMessage());
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void guardar(String clave, Path archivo, String contentType) throws IOException {
+    if (Files.size(archivo) <= tamanioParte) {
+      enviar(() -> s3Client.putObject(b -> b.bucket(bucket).key(clave).contentType(contentType),
+              RequestBody.fromFile(archivo)));
+      return;
+    }
+    try (InputStream contenido = Files.newInputStream(archivo)) {
+      guardar(clave, contenido, contentType);
+    }
+  }
+
+  @Override
+  public boolean existe(String clave) {
+    try {
+      s3Client.headObject(b -> b.bucket(bucket).key(clave));
+      return true;
+    } catch (NoSuchKeyException e) {
+      return false;
+    } catch (S3Exception e) {
+      if (e.statusCode() == 404) {
+        return false;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public Resource cargar(String clave) {
+    try {
+      return new InputStreamResource(s3Client.getObject(b -> b.bucket(bucket).key(clave)));
+    } catch (NoSuchKeyException e) {
+      throw new FileNotFoundException("Archivo no encontrado: " + clave, e);
+    }
+  }
+
+  @Override
+  public Optional<Path> rutaLocal(String clave) {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<URI> urlDescarga(String clave, String nombreDescarga) {
+    String disposicion = ContentDisposition.inline().filename(nombreDescarga).build().toString();
+    try {
+      return Optional.of(s3Presigner.presignGetObject(solicitud -> solicitud
+              .signatureDuration(vigenciaUrl)
+              .getObjectRequest(b -> b.bucket(bucket).key(clave)
+                      .responseContentDisposition(disposicion)
+                      .responseCacheControl("private, max-age=" + vigenciaUrl.toSeconds())))
+              .url().toURI());
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException("URL firmada inválida para " + clave, e);
+    }
+  }
+
+  @Override
+  public boolean eliminar(String clave) throws IOException {
+    enviar(() -> s3Client.deleteObject(b -> b.bucket(bucket).key(clave)));
+    return true;
+  }
+
+  /**
+   * Ejecuta una llamada a S3 traduciendo sus errores a IOException, como los del almacenamiento local
+   */
+  private static <T> T enviar(Supplier<T> llamada) throws IOException {
+    try {
+      return llamada.get();
+    } catch (SdkException e) {
+      throw new IOException("Error en el almacenamiento S3: " + e.getMessage(), e);
+    }
+  }
+}
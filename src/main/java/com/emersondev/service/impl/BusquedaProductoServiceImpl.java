@@ -0,0 +1,119 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.api.response.ProductoBusquedaResponse;
+import com.emersondev.domain.event.ProductoCatalogoEvent;
+import com.emersondev.domain.projection.ProductoBusqueda;
+import com.emersondev.domain.repository.ProductoRepository;
+import com.emersondev.service.interfaces.BusquedaProductoService;
+import com.emersondev.util.IndiceBusquedaProductos;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Búsqueda de productos sobre un índice invertido en memoria.
+ * El índice principal es inmutable; los productos creados o modificados desde su construcción se
+ * indexan aparte en un índice pequeño que se rehace en cada escritura, y al superar cierto número de
+ * cambios se reconstruye el principal a partir de los productos en memoria (sin consultar la base de datos).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BusquedaProductoServiceImpl implements BusquedaProductoService {
+
+  private static final int MAX_CAMBIOS_PENDIENTES = 500;
+  private static final int LIMITE_MAXIMO = 100;
+
+  private final ProductoRepository productoRepository;
+
+  /**
+   * Productos vigentes por ID; es la fuente desde la que se reconstruyen los índices
+   */
+  private final Map<Long, ProductoBusqueda> productos = new ConcurrentHashMap<>();
+
+  private volatile Estado estado = new Estado(IndiceBusquedaProductos.construir(List.of()),
+          IndiceBusquedaProductos.construir(List.of()), Set.of());
+
+  /**
+   * Índice principal, índice de cambios recientes y productos del principal que quedaron desactualizados
+   */
+  private record Estado(IndiceBusquedaProductos principal, IndiceBusquedaProductos cambios, Set<Long> modificados) {
+  }
+
+  @Override
+  public List<ProductoBusquedaResponse> buscar(String termino, int limite) {
+    int tope = Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+    Estado actual = estado;
+
+    List<IndiceBusquedaProductos.Resultado> resultados = new ArrayList<>(
+            actual.principal().buscar(termino, tope, actual.modificados()::contains));
+    if (actual.cambios().getTotalProductos() > 0) {
+      resultados.addAll(actual.cambios().buscar(termino, tope, id -> false));
+      resultados.sort(Comparator.comparingDouble(IndiceBusquedaProductos.Resultado::puntaje).reversed());
+    }
+
+    return resultados.stream()
+            .limit(tope)
+            .map(resultado -> {
+              ProductoBusqueda producto = resultado.producto();
+              return new ProductoBusquedaResponse(producto.id(), producto.codigo(), producto.nombre(),
+                      producto.marca(), producto.modelo(), producto.precioVenta(), producto.imagen(),
+                      resultado.puntaje(), null);
+            })
+            .toList();
+  }
+
+  @Override
+  public synchronized void recargar() {
+    long inicio = System.currentTimeMillis();
+    List<ProductoBusqueda> todos = productoRepository.findAllParaBusqueda();
+    productos.clear();
+    todos.forEach(producto -> productos.put(producto.id(), producto));
+    reconstruirPrincipal();
+    log.info("Índice de búsqueda de productos cargado: {} productos, {} términos en {} ms",
+            estado.principal().getTotalProductos(), estado.principal().getTotalTerminos(),
+            System.currentTimeMillis() - inicio);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void inicializar() {
+    recargar();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void alCambiarProducto(ProductoCatalogoEvent evento) {
+    if (evento.eliminado()) {
+      productos.remove(evento.productoId());
+    } else {
+      productos.put(evento.productoId(), evento.toProductoBusqueda());
+    }
+
+    Estado actual = estado;
+    Set<Long> modificados = new HashSet<>(actual.modificados());
+    modificados.add(evento.productoId());
+    if (modificados.size() > MAX_CAMBIOS_PENDIENTES) {
+      reconstruirPrincipal();
+      return;
+    }
+
+    List<ProductoBusqueda> recientes = modificados.stream()
+            .map(productos::get)
+            .filter(Objects::nonNull)
+            .toList();
+    estado = new Estado(actual.principal(), IndiceBusquedaProductos.construir(recientes, actual.principal()),
+            Set.copyOf(modificados));
+  }
+
+  private void reconstruirPrincipal() {
+    long inicio = System.currentTimeMillis();
+    IndiceBusquedaProductos principal = IndiceBusquedaProductos.construir(productos.values());
+    estado = new Estado(principal, IndiceBusquedaProductos.construir(List.of()), Set.of());
+    log.debug("Índice principal de productos reconstruido en {} ms", System.currentTimeMillis() - inicio);
+  }
+}
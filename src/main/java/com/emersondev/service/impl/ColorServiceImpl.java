@@ -4,6 +4,8 @@ import com.emersondev.api.request.ColorRequest;
 import com.emersondev.api.request.TallaRequest;
 import com.emersondev.api.response.ColorResponse;
 import com.emersondev.api.response.PagedResponse;
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.config.cache.CacheTags;
 import com.emersondev.domain.entity.Color;
 import com.emersondev.domain.entity.Producto;
 import com.emersondev.domain.entity.Talla;
@@ -17,6 +19,7 @@ import com.emersondev.domain.repository.TallaRepository;
 import com.emersondev.mapper.ColorMapper;
 import com.emersondev.service.interfaces.ColorService;
 import com.emersondev.util.PaginationUtils;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,11 +27,14 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -37,11 +43,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ColorServiceImpl implements ColorService {
 
+  private static final int LOTE_TALLAS = 100;
+
   private final ColorRepository colorRepository;
   private final ProductoRepository productoRepository;
   private final InventarioRepository inventarioRepository;
   private final TallaRepository tallaRepository;
   private final ColorMapper colorMapper;
+  private final CacheInvalidator cacheInvalidator;
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManager entityManager;
 
   /**
    * Método para crear un nuevo color asociado a un producto
@@ -82,6 +93,7 @@ public class ColorServiceImpl implements ColorService {
 
     color = colorRepository.save(color);
     log.info("Color creado exitosamente con ID {}", color.getId());
+    cacheInvalidator.invalidar(CacheTags.coleccionEntidad(Producto.class, "colores", productoId));
 
     return colorMapper.toResponse(color);
   }
@@ -196,59 +208,77 @@ public class ColorServiceImpl implements ColorService {
     }
 
     // Actualizar tallas si se proporcionan
-    if (colorRequest.getTallas() != null && !colorRequest.getTallas().isEmpty()) {
-      actualizarTallas(color, colorRequest.getTallas());
+    if (colorRequest.getTallas() != null && !colorRequest.getTallas().isEmpty()
+            && actualizarTallas(color, colorRequest.getTallas())) {
+      // Las tallas se modificaron con sentencias masivas: se recarga el color desde la base de datos
+      entityManager.clear();
+      color = colorRepository.findByIdWithTallas(id)
+              .orElseThrow(() -> new ResourceNotFoundException("Color", "id", id));
+    } else {
+      // Guardar el color actualizado
+      color = colorRepository.save(color);
     }
-
-
-    // Guardar el color actualizado
-    color = colorRepository.save(color);
     log.info("Color actualizado exitosamente con ID {}", color.getId());
+    cacheInvalidator.invalidar(CacheTags.entidad(Color.class, id), CacheTags.coleccionEntidad(Color.class, "tallas", id));
 
     return colorMapper.toResponse(color);
   }
 
-  private void actualizarTallas(Color color, List<TallaRequest> nuevasTallas) {
-    Set<Talla> tallasExistentes = color.getTallas(); // Cambiar a Set
-    List<String> numerosTallasNuevas = nuevasTallas.stream()
+  /**
+   * Sincroniza las tallas del color con la lista recibida: elimina las que ya no figuran (salvo las que
+   * tienen inventario, que se conservan) y agrega las nuevas. Todo en un número fijo de sentencias:
+   * una consulta de inventario, un DELETE masivo y un INSERT por lotes.
+   * @return true si se modificó alguna talla
+   */
+  private boolean actualizarTallas(Color color, List<TallaRequest> nuevasTallas) {
+    Set<String> numerosTallasNuevas = nuevasTallas.stream()
             .map(TallaRequest::getNumero)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+    Map<Long, String> tallasSobrantes = new HashMap<>();
+    Set<String> numerosTallasExistentes = new HashSet<>();
+    for (Talla talla : color.getTallas()) {
+      numerosTallasExistentes.add(talla.getNumero());
+      if (!numerosTallasNuevas.contains(talla.getNumero())) {
+        tallasSobrantes.put(talla.getId(), talla.getNumero());
+      }
+    }
+    List<String> tallasAgregar = numerosTallasNuevas.stream()
+            .filter(numero -> !numerosTallasExistentes.contains(numero))
             .toList();
 
     // 1. Eliminar solo las tallas que NO tienen inventario
-    Iterator<Talla> iterator = tallasExistentes.iterator();
-    while (iterator.hasNext()) {
-      Talla tallaExistente = iterator.next();
-
-      // Si la talla no está en la nueva lista
-      if (!numerosTallasNuevas.contains(tallaExistente.getNumero())) {
-        // Verificar si tiene inventario
-        boolean tieneInventario = inventarioRepository.existsByTallaId(tallaExistente.getId());
-
-        if (!tieneInventario) {
-          // Solo eliminar si NO tiene inventario
-          iterator.remove();
-          tallaRepository.delete(tallaExistente);
-          log.info("Talla {} eliminada (sin inventario)", tallaExistente.getNumero());
-        } else {
-          log.warn("No se puede eliminar la talla {} porque tiene inventario asociado", tallaExistente.getNumero());
-        }
-      }
+    List<Long> tallasEliminar = List.of();
+    if (!tallasSobrantes.isEmpty()) {
+      Set<Long> conInventario = inventarioRepository.findTallaIdsConInventario(tallasSobrantes.keySet());
+      conInventario.forEach(tallaId -> log.warn("No se puede eliminar la talla {} porque tiene inventario asociado",
+              tallasSobrantes.get(tallaId)));
+      tallasEliminar = tallasSobrantes.keySet().stream().filter(tallaId -> !conInventario.contains(tallaId)).toList();
+    }
+
+    if (tallasEliminar.isEmpty() && tallasAgregar.isEmpty()) {
+      return false;
+    }
+
+    // Los cambios pendientes del color se escriben antes de operar sobre sus tallas por SQL
+    colorRepository.flush();
+
+    if (!tallasEliminar.isEmpty()) {
+      tallaRepository.eliminarPorIds(tallasEliminar);
+      log.info("Tallas {} eliminadas (sin inventario)", tallasEliminar.stream().map(tallasSobrantes::get).toList());
     }
 
     // 2. Agregar solo las tallas nuevas (que no existen)
-    Set<String> numerosTallasExistentes = tallasExistentes.stream() // Cambiar a Set
-            .map(Talla::getNumero)
-            .collect(Collectors.toSet()); // Cambiar a toSet()
-
-    for (TallaRequest tallaRequest : nuevasTallas) {
-      if (!numerosTallasExistentes.contains(tallaRequest.getNumero())) {
-        Talla nuevaTalla = new Talla();
-        nuevaTalla.setNumero(tallaRequest.getNumero());
-        nuevaTalla.setColor(color);
-        color.getTallas().add(nuevaTalla);
-        log.info("Nueva talla {} agregada", tallaRequest.getNumero());
-      }
+    if (!tallasAgregar.isEmpty()) {
+      Long colorId = color.getId();
+      jdbcTemplate.batchUpdate("INSERT INTO tallas (numero, color_id) VALUES (?, ?)", tallasAgregar, LOTE_TALLAS,
+              (statement, numero) -> {
+                statement.setString(1, numero);
+                statement.setLong(2, colorId);
+              });
+      log.info("Nuevas tallas {} agregadas", tallasAgregar);
     }
+    return true;
   }
 
   /**
@@ -274,18 +304,19 @@ public class ColorServiceImpl implements ColorService {
       throw new BusinessException("No se puede eliminar el color porque tiene inventario asociado");
     }
 
-    //Eliminar tallas asociadas primero
-    for (Talla talla : color.getTallas()) {
-      //Verificar si la talla tiene inventario asociado
-      if (inventarioRepository.existsByTallaId(talla.getId())) {
-        log.error("No se puede eliminar la talla con ID {} porque tiene inventario asociado", talla.getId());
-        throw new BusinessException("No se puede eliminar la talla porque tiene inventario asociado");
-      }
+    //Verificar que ninguna de sus tallas tenga inventario asociado (una sola consulta)
+    List<Long> tallaIds = color.getTallas().stream().map(Talla::getId).toList();
+    Set<Long> tallasConInventario = tallaIds.isEmpty() ? Set.of() : inventarioRepository.findTallaIdsConInventario(tallaIds);
+    if (!tallasConInventario.isEmpty()) {
+      log.error("No se puede eliminar el color con ID {}: las tallas {} tienen inventario asociado", id, tallasConInventario);
+      throw new BusinessException("No se puede eliminar la talla porque tiene inventario asociado");
     }
 
     //Eliminar el color
     colorRepository.delete(color);
     log.info("Color eliminado exitosamente con ID {}", id);
+    cacheInvalidator.invalidar(CacheTags.entidad(Color.class, id),
+            CacheTags.coleccionEntidad(Producto.class, "colores", color.getProducto().getId()));
 
   }
 }
@@ -0,0 +1,316 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.api.request.ConteoFisicoRequest;
+import com.emersondev.api.request.LecturaConteoRequest;
+import com.emersondev.api.request.LecturasConteoRequest;
+import com.emersondev.api.response.ConteoFisicoResponse;
+import com.emersondev.api.response.DiferenciaConteoResponse;
+import com.emersondev.api.response.LecturasConteoResponse;
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.config.cache.CacheTags;
+import com.emersondev.domain.entity.Almacen;
+import com.emersondev.domain.entity.ConteoFisico;
+import com.emersondev.domain.entity.ConteoFisicoDetalle;
+import com.emersondev.domain.entity.Inventario;
+import com.emersondev.domain.entity.MovimientoInventario;
+import com.emersondev.domain.exception.AlmacenNotFoundException;
+import com.emersondev.domain.exception.BusinessException;
+import com.emersondev.domain.exception.ResourceNotFoundException;
+import com.emersondev.domain.repository.AlmacenRepository;
+import com.emersondev.domain.repository.ConteoFisicoDetalleRepository;
+import com.emersondev.domain.repository.ConteoFisicoRepository;
+import com.emersondev.domain.repository.InventarioRepository;
+import com.emersondev.domain.repository.MovimientoInventarioRepository;
+import com.emersondev.service.interfaces.ConteoFisicoService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConteoFisicoServiceImpl implements ConteoFisicoService {
+
+  /**
+   * Inventarios creados después de abrir el conteo: su stock en la apertura era cero.
+   * Si el inventario ya tiene detalle, la fila existente se conserva.
+   */
+  private static final String SQL_ALTA_DETALLE =
+          "INSERT INTO conteo_fisico_detalles (conteo_id, inventario_id, cantidad_base) VALUES (?, ?, 0) " +
+          "ON CONFLICT (conteo_id, inventario_id) DO NOTHING";
+
+  /**
+   * El incremento se hace en la base de datos para que las lecturas concurrentes de varios escáneres
+   * sobre el mismo inventario no se pisen. El stock del sistema se toma en la misma sentencia que la lectura.
+   */
+  private static final String SQL_LECTURA =
+          "UPDATE conteo_fisico_detalles SET cantidad_contada = CASE WHEN ? THEN ? " +
+          "ELSE COALESCE(cantidad_contada, 0) + ? END, fecha_ultima_lectura = ?, " +
+          "cantidad_sistema_lectura = (SELECT i.cantidad FROM inventarios i WHERE i.id = inventario_id) " +
+          "WHERE conteo_id = ? AND inventario_id = ?";
+
+  private final ConteoFisicoRepository conteoRepository;
+  private final ConteoFisicoDetalleRepository detalleRepository;
+  private final AlmacenRepository almacenRepository;
+  private final InventarioRepository inventarioRepository;
+  private final MovimientoInventarioRepository movimientoRepository;
+  private final CacheInvalidator cacheInvalidator;
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Lecturas de una serie acumuladas dentro de un lote
+   */
+  private static final class LecturaAcumulada {
+    private boolean reemplazar;
+    private int cantidad;
+
+    private void agregar(LecturaConteoRequest lectura) {
+      if (lectura.isReemplazar()) {
+        reemplazar = true;
+        cantidad = lectura.getCantidad();
+      } else {
+        cantidad += lectura.getCantidad();
+      }
+    }
+  }
+
+  @Override
+  @Transactional
+  public ConteoFisicoResponse abrirConteo(ConteoFisicoRequest request) {
+    Almacen almacen = almacenRepository.findById(request.getAlmacenId())
+            .orElseThrow(() -> new AlmacenNotFoundException(request.getAlmacenId()));
+    if (conteoRepository.existsByAlmacenIdAndEstado(almacen.getId(), ConteoFisico.EstadoConteo.ABIERTO)) {
+      throw new BusinessException("Ya existe un conteo abierto para el almacén " + almacen.getNombre());
+    }
+
+    LocalDateTime inicio = LocalDateTime.now();
+    ConteoFisico conteo = new ConteoFisico();
+    conteo.setAlmacen(almacen);
+    conteo.setProductoId(request.getProductoId());
+    conteo.setEstado(ConteoFisico.EstadoConteo.ABIERTO);
+    conteo.setReferencia(request.getReferencia() != null && !request.getReferencia().isBlank()
+            ? request.getReferencia().trim()
+            : "Conteo " + almacen.getNombre() + " " + inicio.toLocalDate());
+    conteo.setUsuario(obtenerUsuarioActual());
+    conteo.setFechaInicio(inicio);
+    conteo = conteoRepository.save(conteo);
+
+    int inventarios = detalleRepository.registrarBase(conteo.getId(), almacen.getId(), request.getProductoId());
+    log.info("Conteo físico {} abierto en el almacén {} con {} inventarios", conteo.getId(), almacen.getNombre(),
+            inventarios);
+    return toResponse(conteo, List.of(), inventarios, 0);
+  }
+
+  @Override
+  @Transactional
+  public LecturasConteoResponse registrarLecturas(Long conteoId, LecturasConteoRequest request) {
+    // El bloqueo impide registrar lecturas mientras otro hilo aplica el conteo
+    ConteoFisico conteo = conteoRepository.findParaActualizarById(conteoId)
+            .orElseThrow(() -> new ResourceNotFoundException("Conteo físico", "id", conteoId));
+    validarAbierto(conteo);
+
+    Map<String, LecturaAcumulada> lecturas = new LinkedHashMap<>();
+    for (LecturaConteoRequest lectura : request.getLecturas()) {
+      lecturas.computeIfAbsent(lectura.getSerie().trim(), serie -> new LecturaAcumulada()).agregar(lectura);
+    }
+
+    Map<String, Inventario> inventarios = inventarioRepository.findBySerieIn(lecturas.keySet()).stream()
+            .collect(Collectors.toMap(Inventario::getSerie, Function.identity()));
+
+    Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> altas = new ArrayList<>();
+    List<Object[]> actualizaciones = new ArrayList<>();
+    List<String> rechazadas = new ArrayList<>();
+    long unidades = 0;
+    for (Map.Entry<String, LecturaAcumulada> entrada : lecturas.entrySet()) {
+      Inventario inventario = inventarios.get(entrada.getKey());
+      if (inventario == null || !perteneceAlConteo(conteo, inventario)) {
+        rechazadas.add(entrada.getKey());
+        continue;
+      }
+      LecturaAcumulada lectura = entrada.getValue();
+      altas.add(new Object[]{conteoId, inventario.getId()});
+      actualizaciones.add(new Object[]{lectura.reemplazar, lectura.cantidad, lectura.cantidad, ahora, conteoId,
+              inventario.getId()});
+      unidades += lectura.cantidad;
+    }
+
+    if (!actualizaciones.isEmpty()) {
+      jdbcTemplate.batchUpdate(SQL_ALTA_DETALLE, altas);
+      jdbcTemplate.batchUpdate(SQL_LECTURA, actualizaciones);
+    }
+    if (!rechazadas.isEmpty()) {
+      log.warn("Conteo {}: {} series rechazadas", conteoId, rechazadas.size());
+    }
+    return new LecturasConteoResponse(conteoId, actualizaciones.size(), unidades, rechazadas);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public ConteoFisicoResponse obtenerConteo(Long conteoId, boolean ceroNoContados) {
+    ConteoFisico conteo = conteoRepository.findConAlmacenById(conteoId)
+            .orElseThrow(() -> new ResourceNotFoundException("Conteo físico", "id", conteoId));
+    List<ConteoFisicoDetalle> detalles = detalleRepository.findConInventarioByConteoId(conteoId);
+
+    if (conteo.getEstado() == ConteoFisico.EstadoConteo.ABIERTO) {
+      // Reporte provisional con el stock actual del sistema; no se guarda
+      detalles.forEach(detalle -> calcularDiferencia(detalle, ceroNoContados));
+    }
+    long contados = detalles.stream().filter(detalle -> detalle.getCantidadContada() != null).count();
+    return toResponse(conteo, detalles, detalles.size(), contados);
+  }
+
+  @Override
+  @Transactional
+  public ConteoFisicoResponse aplicarConteo(Long conteoId, boolean ceroNoContados) {
+    ConteoFisico conteo = conteoRepository.findParaActualizarById(conteoId)
+            .orElseThrow(() -> new ResourceNotFoundException("Conteo físico", "id", conteoId));
+    validarAbierto(conteo);
+
+    // Se bloquean los inventarios antes de cargar los detalles, para leer su stock ya bloqueado
+    // y que las ventas concurrentes esperen hasta el commit de los ajustes
+    inventarioRepository.findParaActualizarByIdIn(detalleRepository.findInventarioIdsByConteoId(conteoId));
+    List<ConteoFisicoDetalle> detalles = detalleRepository.findConInventarioByConteoId(conteoId);
+
+    String usuario = obtenerUsuarioActual();
+    List<MovimientoInventario> ajustes = new ArrayList<>();
+    Set<String> tags = new HashSet<>();
+    for (ConteoFisicoDetalle detalle : detalles) {
+      if (!calcularDiferencia(detalle, ceroNoContados)) {
+        continue;
+      }
+      Inventario inventario = detalle.getInventario();
+      if (detalle.getCantidadFinal().equals(inventario.getCantidad())) {
+        continue;
+      }
+
+      // AJUSTE registra la cantidad absoluta resultante, como los ajustes manuales
+      MovimientoInventario ajuste = new MovimientoInventario();
+      ajuste.setInventario(inventario);
+      ajuste.setTipo(MovimientoInventario.TipoMovimiento.AJUSTE);
+      ajuste.setCantidad(detalle.getCantidadFinal());
+      ajuste.setReferencia(conteo.getReferencia());
+      ajuste.setDescripcion(String.format(
+              "Conteo físico %d: contado %d, sistema al contar %d, movimientos posteriores %d", conteoId,
+              detalle.getCantidadContada(), stockAlContar(detalle), detalle.getMovimientosDurante()));
+      ajuste.setUsuario(usuario);
+      ajuste.setFechaMovimiento(LocalDateTime.now());
+      ajustes.add(ajuste);
+
+      inventario.setCantidad(detalle.getCantidadFinal());
+      inventario.actualizarEstado();
+      tags.addAll(CacheTags.cambioStock(inventario.getId(), inventario.getProducto().getId()));
+    }
+
+    movimientoRepository.saveAll(ajustes);
+    conteo.setEstado(ConteoFisico.EstadoConteo.APLICADO);
+    conteo.setFechaCierre(LocalDateTime.now());
+    cacheInvalidator.invalidar(tags);
+
+    long contados = detalles.stream().filter(detalle -> detalle.getCantidadContada() != null).count();
+    log.info("Conteo físico {} aplicado: {} inventarios contados, {} ajustes", conteoId, contados, ajustes.size());
+    return toResponse(conteo, detalles, detalles.size(), contados);
+  }
+
+  @Override
+  @Transactional
+  public void cancelarConteo(Long conteoId) {
+    ConteoFisico conteo = conteoRepository.findParaActualizarById(conteoId)
+            .orElseThrow(() -> new ResourceNotFoundException("Conteo físico", "id", conteoId));
+    validarAbierto(conteo);
+    conteo.setEstado(ConteoFisico.EstadoConteo.CANCELADO);
+    conteo.setFechaCierre(LocalDateTime.now());
+    log.info("Conteo físico {} cancelado", conteoId);
+  }
+
+  /**
+   * Completa la variación del sistema posterior a la última lectura y el stock final del detalle.
+   * Lo contado ya refleja los movimientos anteriores a la lectura; sin lectura se parte de la apertura.
+   * @return false si el inventario no fue contado y no debe ajustarse
+   */
+  static boolean calcularDiferencia(ConteoFisicoDetalle detalle, boolean ceroNoContados) {
+    if (detalle.getCantidadContada() == null) {
+      if (!ceroNoContados) {
+        return false;
+      }
+      detalle.setCantidadContada(0);
+    }
+    int movimientosDurante = detalle.getInventario().getCantidad() - stockAlContar(detalle);
+    detalle.setMovimientosDurante(movimientosDurante);
+    detalle.setCantidadFinal(Math.max(detalle.getCantidadContada() + movimientosDurante, 0));
+    return true;
+  }
+
+  /**
+   * Stock del sistema con el que se compara lo contado
+   */
+  static int stockAlContar(ConteoFisicoDetalle detalle) {
+    return detalle.getCantidadSistemaLectura() != null
+            ? detalle.getCantidadSistemaLectura()
+            : detalle.getCantidadBase();
+  }
+
+  private boolean perteneceAlConteo(ConteoFisico conteo, Inventario inventario) {
+    return inventario.getAlmacen().getId().equals(conteo.getAlmacen().getId())
+            && (conteo.getProductoId() == null || conteo.getProductoId().equals(inventario.getProducto().getId()));
+  }
+
+  private void validarAbierto(ConteoFisico conteo) {
+    if (conteo.getEstado() != ConteoFisico.EstadoConteo.ABIERTO) {
+      throw new BusinessException("El conteo " + conteo.getId() + " ya fue " + conteo.getEstado().name().toLowerCase());
+    }
+  }
+
+  private ConteoFisicoResponse toResponse(ConteoFisico conteo, List<ConteoFisicoDetalle> detalles,
+                                          long inventarios, long contados) {
+    List<DiferenciaConteoResponse> diferencias = new ArrayList<>();
+    long faltantes = 0;
+    long sobrantes = 0;
+    BigDecimal valorTotal = BigDecimal.ZERO;
+    for (ConteoFisicoDetalle detalle : detalles) {
+      if (detalle.getCantidadContada() == null || detalle.getCantidadFinal() == null) {
+        continue;
+      }
+      int diferencia = detalle.getCantidadContada() - stockAlContar(detalle);
+      if (diferencia == 0) {
+        continue;
+      }
+      Inventario inventario = detalle.getInventario();
+      BigDecimal costo = inventario.getCostoPromedio() != null ? inventario.getCostoPromedio() : BigDecimal.ZERO;
+      BigDecimal valor = costo.multiply(BigDecimal.valueOf(diferencia));
+      diferencias.add(new DiferenciaConteoResponse(inventario.getId(), inventario.getSerie(),
+              inventario.getProducto().getNombre(), inventario.getColor().getNombre(),
+              inventario.getTalla().getNumero(), detalle.getCantidadBase(), detalle.getCantidadContada(),
+              detalle.getMovimientosDurante(), detalle.getCantidadFinal(), diferencia, valor));
+      if (diferencia < 0) {
+        faltantes -= diferencia;
+      } else {
+        sobrantes += diferencia;
+      }
+      valorTotal = valorTotal.add(valor);
+    }
+
+    return new ConteoFisicoResponse(conteo.getId(), conteo.getAlmacen().getId(), conteo.getAlmacen().getNombre(),
+            conteo.getProductoId(), conteo.getEstado().name(), conteo.getReferencia(), conteo.getUsuario(),
+            conteo.getFechaInicio(), conteo.getFechaCierre(), inventarios, contados, diferencias.size(), faltantes,
+            sobrantes, valorTotal, diferencias);
+  }
+
+  private String obtenerUsuarioActual() {
+    try {
+      return SecurityContextHolder.getContext().getAuthentication().getName();
+    } catch (Exception e) {
+      return "anonymous";
+    }
+  }
+}
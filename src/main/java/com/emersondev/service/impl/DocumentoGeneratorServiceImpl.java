@@ -4,6 +4,7 @@ import com.emersondev.domain.entity.Comprobante;
 import com.emersondev.domain.entity.DetalleComprobante;
 import com.emersondev.domain.exception.ResourceNotFoundException;
 import com.emersondev.domain.repository.ComprobanteRepository;
+import com.emersondev.service.interfaces.AlmacenamientoObjetos;
 import com.emersondev.service.interfaces.DocumentoGeneratorService;
 import com.itextpdf.barcodes.BarcodeQRCode;
 import com.itextpdf.io.font.constants.StandardFonts;
@@ -27,14 +28,10 @@ import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,10 +42,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DocumentoGeneratorServiceImpl implements DocumentoGeneratorService {
 
-  private final ComprobanteRepository comprobanteRepository;
+  private static final String PREFIJO_COMPROBANTES = "comprobantes/";
 
-  @Value("${app.documentos.ruta-descarga:src/main/resources/comprobantes}")
-  private String rutaDescarga;
+  private final ComprobanteRepository comprobanteRepository;
+  private final AlmacenamientoObjetos almacenamiento;
 
   @Override
   public byte[] generarPdfComprobante(Long comprobanteId) {
@@ -309,7 +306,7 @@ public class DocumentoGeneratorServiceImpl implements DocumentoGeneratorService
       rutaTable.setWidth(UnitValue.createPercentValue(100));
 
       rutaTable.addCell(createLabelCell("Ruta de descarga:", boldFont));
-      rutaTable.addCell(createValueCell(rutaDescarga, normalFont));
+      rutaTable.addCell(createValueCell(PREFIJO_COMPROBANTES + nombreArchivoPdf(comprobante), normalFont));
 
       rutaCell.add(rutaTable);
       pieTables.addCell(rutaCell);
@@ -334,11 +331,12 @@ public class DocumentoGeneratorServiceImpl implements DocumentoGeneratorService
 
       document.close();
 
-      // Guardar en la ruta especificada
-      guardarPDFEnRuta(baos.toByteArray(), rutaDescarga, comprobante.getSerie(), comprobante.getNumero());
+      // Guardar en el almacenamiento de archivos
+      String clave = PREFIJO_COMPROBANTES + nombreArchivoPdf(comprobante);
+      guardarPDF(baos.toByteArray(), clave);
 
       log.info("PDF generado para comprobante: {}-{} y guardado en: {}",
-              comprobante.getSerie(), comprobante.getNumero(), rutaDescarga);
+              comprobante.getSerie(), comprobante.getNumero(), clave);
       return baos.toByteArray();
     } catch (IOException e) {
       log.error("Error al generar PDF para comprobante: {}", comprobanteId, e);
@@ -500,23 +498,17 @@ public class DocumentoGeneratorServiceImpl implements DocumentoGeneratorService
     return cell;
   }
 
-  // Método para guardar el PDF en una ruta específica
-  private void guardarPDFEnRuta(byte[] pdfBytes, String rutaBase, String serie, String numero) {
-    try {
-      String nombreArchivo = "Comprobante_" + serie + "-" + numero + ".pdf";
-      Path dirPath = Paths.get(rutaBase);
-
-      // Crear directorio si no existe
-      if (!Files.exists(dirPath)) {
-        Files.createDirectories(dirPath);
-      }
-
-      Path filePath = dirPath.resolve(nombreArchivo);
-      Files.write(filePath, pdfBytes);
+  private String nombreArchivoPdf(Comprobante comprobante) {
+    return "Comprobante_" + comprobante.getSerie() + "-" + comprobante.getNumero() + ".pdf";
+  }
 
-      log.info("PDF guardado correctamente en: {}", filePath);
+  // Método para guardar el PDF en el almacenamiento configurado (disco local o S3)
+  private void guardarPDF(byte[] pdfBytes, String clave) {
+    try {
+      almacenamiento.guardar(clave, pdfBytes, "application/pdf");
+      log.info("PDF guardado correctamente en: {}", clave);
     } catch (IOException e) {
-      log.error("Error al guardar el PDF en el sistema de archivos", e);
+      log.error("Error al guardar el PDF en el almacenamiento", e);
       throw new RuntimeException("Error al guardar el PDF: " + e.getMessage(), e);
     }
   }
@@ -0,0 +1,251 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.api.request.HojaEtiquetasRequest;
+import com.emersondev.domain.exception.BusinessException;
+import com.emersondev.domain.projection.InventarioResumen;
+import com.emersondev.domain.repository.InventarioRepository;
+import com.emersondev.service.interfaces.EtiquetaService;
+import com.itextpdf.barcodes.Barcode128;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.utils.PdfMerger;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.borders.Border;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.HorizontalAlignment;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class EtiquetaServiceImpl implements EtiquetaService {
+
+  private static final int MAX_ETIQUETAS = 50_000;
+  private static final int SERIES_POR_CONSULTA = 1000;
+
+  /**
+   * Páginas dibujándose a la vez: acota la memoria retenida por las páginas aún no escritas
+   */
+  private static final int PAGINAS_EN_CURSO = 8;
+
+  private static final float PUNTOS_POR_MM = 72f / 25.4f;
+  private static final float RELLENO_CELDA = 3f;
+
+  private final InventarioRepository inventarioRepository;
+  private final Executor reportExecutor;
+
+  public EtiquetaServiceImpl(InventarioRepository inventarioRepository,
+                             @Qualifier("reportExecutor") Executor reportExecutor) {
+    this.inventarioRepository = inventarioRepository;
+    this.reportExecutor = reportExecutor;
+  }
+
+  /**
+   * Medidas de la hoja en puntos
+   */
+  private record DisenoHoja(PageSize tamanoPagina, int columnas, int filas, float margen, float anchoCelda,
+                            float altoCelda) {
+
+    private static DisenoHoja de(HojaEtiquetasRequest request) {
+      PageSize tamano = switch (request.getTamanoPagina().trim().toUpperCase(Locale.ROOT)) {
+        case "A4" -> PageSize.A4;
+        case "CARTA", "LETTER" -> PageSize.LETTER;
+        default -> throw new BusinessException("Tamaño de página no soportado: " + request.getTamanoPagina()
+                + " (use A4 o CARTA)");
+      };
+      float margen = request.getMargenMm() * PUNTOS_POR_MM;
+      float ancho = (tamano.getWidth() - 2 * margen) / request.getColumnas();
+      float alto = (tamano.getHeight() - 2 * margen) / request.getFilas();
+      if (ancho < 40 || alto < 30) {
+        throw new BusinessException("Las etiquetas resultan demasiado pequeñas para el código de barras");
+      }
+      return new DisenoHoja(tamano, request.getColumnas(), request.getFilas(), margen, ancho, alto);
+    }
+
+    private int etiquetasPorPagina() {
+      return columnas * filas;
+    }
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<InventarioResumen> obtenerInventarios(HojaEtiquetasRequest request) {
+    DisenoHoja.de(request);
+    List<String> series = request.getSeries().stream()
+            .filter(serie -> serie != null && !serie.isBlank())
+            .map(String::trim)
+            .distinct()
+            .toList();
+
+    List<InventarioResumen> inventarios;
+    if (!series.isEmpty()) {
+      Map<String, InventarioResumen> porSerie = new HashMap<>();
+      for (int desde = 0; desde < series.size(); desde += SERIES_POR_CONSULTA) {
+        List<String> lote = series.subList(desde, Math.min(desde + SERIES_POR_CONSULTA, series.size()));
+        inventarioRepository.findResumenBySerieIn(lote).forEach(inv -> porSerie.put(inv.serie(), inv));
+      }
+      List<String> faltantes = series.stream().filter(serie -> !porSerie.containsKey(serie)).toList();
+      if (!faltantes.isEmpty()) {
+        throw new BusinessException("Series no encontradas: " + String.join(", ", faltantes.subList(0,
+                Math.min(10, faltantes.size()))) + (faltantes.size() > 10 ? " y " + (faltantes.size() - 10) + " más" : ""));
+      }
+      inventarios = series.stream().map(porSerie::get).toList();
+    } else if (request.getAlmacenId() != null || request.getProductoId() != null) {
+      List<Long> ids = inventarioRepository.findIdsCreadosHasta(LocalDateTime.now(), request.getAlmacenId(),
+              request.getProductoId());
+      inventarios = new ArrayList<>(ids.size());
+      for (int desde = 0; desde < ids.size(); desde += SERIES_POR_CONSULTA) {
+        List<Long> lote = ids.subList(desde, Math.min(desde + SERIES_POR_CONSULTA, ids.size()));
+        Map<Long, InventarioResumen> porId = inventarioRepository.findResumenByIdIn(lote).stream()
+                .collect(Collectors.toMap(InventarioResumen::id, Function.identity()));
+        lote.stream().map(porId::get).filter(Objects::nonNull).forEach(inventarios::add);
+      }
+    } else {
+      throw new BusinessException("Indique las series a imprimir o un almacén/producto");
+    }
+
+    if (inventarios.isEmpty()) {
+      throw new BusinessException("No hay inventarios para etiquetar");
+    }
+    if ((long) inventarios.size() * request.getCopias() > MAX_ETIQUETAS) {
+      throw new BusinessException("No se pueden generar más de " + MAX_ETIQUETAS + " etiquetas por hoja");
+    }
+    return inventarios;
+  }
+
+  @Override
+  public void generarHoja(List<InventarioResumen> inventarios, HojaEtiquetasRequest request, OutputStream salida)
+          throws IOException {
+    long inicio = System.currentTimeMillis();
+    DisenoHoja diseno = DisenoHoja.de(request);
+
+    List<InventarioResumen> etiquetas = new ArrayList<>(inventarios.size() * request.getCopias());
+    for (InventarioResumen inventario : inventarios) {
+      for (int copia = 0; copia < request.getCopias(); copia++) {
+        etiquetas.add(inventario);
+      }
+    }
+    int porPagina = diseno.etiquetasPorPagina();
+    int paginas = (etiquetas.size() + porPagina - 1) / porPagina;
+
+    // Cada página se dibuja como un PDF independiente en el pool de reportes (un PdfDocument no admite
+    // acceso concurrente) y se copia en orden al documento de salida, que se vuelca página a página
+    Deque<CompletableFuture<byte[]>> enCurso = new ArrayDeque<>();
+    PdfDocument destino = new PdfDocument(new PdfWriter(salida));
+    PdfMerger merger = new PdfMerger(destino);
+    try {
+      int siguiente = 0;
+      for (int pagina = 0; pagina < paginas; pagina++) {
+        while (siguiente < paginas && enCurso.size() < PAGINAS_EN_CURSO) {
+          List<InventarioResumen> contenido = etiquetas.subList(siguiente * porPagina,
+                  Math.min((siguiente + 1) * porPagina, etiquetas.size()));
+          enCurso.add(CompletableFuture.supplyAsync(() -> dibujarPagina(contenido, diseno), reportExecutor));
+          siguiente++;
+        }
+
+        int escritas = destino.getNumberOfPages();
+        try (PdfDocument origen = new PdfDocument(new PdfReader(new ByteArrayInputStream(esperar(enCurso.poll()))))) {
+          merger.merge(origen, 1, origen.getNumberOfPages());
+        }
+        // Un texto largo puede desbordar la hoja a otra página: se vuelcan todas las copiadas
+        for (int copiada = escritas + 1; copiada <= destino.getNumberOfPages(); copiada++) {
+          destino.getPage(copiada).flush(true);
+        }
+      }
+    } finally {
+      enCurso.forEach(tarea -> tarea.cancel(true));
+    }
+    destino.close();
+
+    long duracion = Math.max(System.currentTimeMillis() - inicio, 1);
+    log.info("Hoja de etiquetas generada: {} etiquetas en {} páginas, {} ms ({} etiquetas/s)", etiquetas.size(),
+            paginas, duracion, etiquetas.size() * 1000L / duracion);
+  }
+
+  private byte[] dibujarPagina(List<InventarioResumen> etiquetas, DisenoHoja diseno) {
+    ByteArrayOutputStream salida = new ByteArrayOutputStream(64 * 1024);
+    PdfDocument pdf = new PdfDocument(new PdfWriter(salida));
+    Document document = new Document(pdf, diseno.tamanoPagina());
+    document.setMargins(diseno.margen(), diseno.margen(), diseno.margen(), diseno.margen());
+
+    PdfFont boldFont;
+    PdfFont normalFont;
+    try {
+      boldFont = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
+      normalFont = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    float[] anchos = new float[diseno.columnas()];
+    Arrays.fill(anchos, diseno.anchoCelda());
+    Table tabla = new Table(UnitValue.createPointArray(anchos)).setFixedLayout();
+    for (InventarioResumen inventario : etiquetas) {
+      tabla.addCell(celdaEtiqueta(inventario, pdf, diseno, boldFont, normalFont));
+    }
+    // Completa la última fila para que la cuadrícula no se deforme
+    for (int vacia = etiquetas.size(); vacia % diseno.columnas() != 0; vacia++) {
+      tabla.addCell(new Cell().setHeight(diseno.altoCelda()).setBorder(Border.NO_BORDER));
+    }
+    document.add(tabla);
+    document.close();
+    return salida.toByteArray();
+  }
+
+  private Cell celdaEtiqueta(InventarioResumen inventario, PdfDocument pdf, DisenoHoja diseno, PdfFont boldFont,
+                             PdfFont normalFont) {
+    Barcode128 codigo = new Barcode128(pdf);
+    codigo.setCodeType(Barcode128.CODE128);
+    codigo.setCode(inventario.serie());
+    codigo.setFont(normalFont);
+    codigo.setSize(6);
+
+    Image imagen = new Image(codigo.createFormXObject(null, null, pdf))
+            .setHorizontalAlignment(HorizontalAlignment.CENTER);
+    imagen.scaleToFit(diseno.anchoCelda() - 2 * RELLENO_CELDA, diseno.altoCelda() * 0.55f);
+
+    return new Cell()
+            .setWidth(diseno.anchoCelda())
+            .setHeight(diseno.altoCelda())
+            .setPadding(RELLENO_CELDA)
+            .setBorder(Border.NO_BORDER)
+            .setTextAlignment(TextAlignment.CENTER)
+            .add(new Paragraph(inventario.productoNombre()).setFont(boldFont).setFontSize(7)
+                    .setMargin(0).setMultipliedLeading(1f))
+            .add(new Paragraph(inventario.productoCodigo() + " | " + inventario.colorNombre() + " | T. "
+                    + inventario.tallaNumero()).setFont(normalFont).setFontSize(6).setMargin(0))
+            .add(imagen);
+  }
+
+  private byte[] esperar(CompletableFuture<byte[]> tarea) throws IOException {
+    try {
+      return tarea.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException io) {
+        throw io.getCause();
+      }
+      throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+    }
+  }
+}
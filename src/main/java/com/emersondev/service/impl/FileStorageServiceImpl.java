@@ -3,44 +3,72 @@ package com.emersondev.service.impl;
 import com.emersondev.config.FileStorageProperties;
 import com.emersondev.domain.exception.BusinessException;
 import com.emersondev.domain.exception.FileNotFoundException;
+import com.emersondev.domain.repository.ArchivoAlmacenadoRepository;
+import com.emersondev.service.interfaces.AlmacenamientoObjetos;
 import com.emersondev.service.interfaces.FileStorageService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
 @Slf4j
 public class FileStorageServiceImpl implements FileStorageService {
 
-  private final Path fileStorageLocation;
+  /**
+   * Nombre de un archivo guardado por contenido: SHA-256 en hexadecimal y extensión opcional
+   */
+  private static final Pattern NOMBRE_CONTENIDO = Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]{1,10})?");
+  private static final Pattern EXTENSION_VALIDA = Pattern.compile("[a-z0-9]{1,10}");
 
-  @Autowired
-  public FileStorageServiceImpl(FileStorageProperties fileStorageProperties) {
-    this.fileStorageLocation = Paths.get(fileStorageProperties.getUploadDir())
-            .toAbsolutePath().normalize();
+  private final boolean deduplicar;
+  private final AlmacenamientoObjetos almacenamiento;
+  private final ArchivoAlmacenadoRepository archivoAlmacenadoRepository;
+  private final TransactionTemplate transaccionPropia;
 
-    try {
-      Files.createDirectories(this.fileStorageLocation);
-    } catch (Exception ex) {
-      throw new BusinessException("No se pudo crear el directorio para almacenar los archivos", ex);
-    }
+  @Autowired
+  public FileStorageServiceImpl(FileStorageProperties fileStorageProperties, AlmacenamientoObjetos almacenamiento,
+                                ArchivoAlmacenadoRepository archivoAlmacenadoRepository,
+                                PlatformTransactionManager transactionManager) {
+    this.deduplicar = fileStorageProperties.isDeduplicar();
+    this.almacenamiento = almacenamiento;
+    this.archivoAlmacenadoRepository = archivoAlmacenadoRepository;
+    this.transaccionPropia = new TransactionTemplate(transactionManager);
+    this.transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
   }
 
   @Override
+  @Transactional
   public String storeFile(MultipartFile file) {
     log.info("Almacenando archivo: {}", file.getOriginalFilename());
 
@@ -59,13 +87,16 @@ public class FileStorageServiceImpl implements FileStorageService {
       throw new BusinessException("El nombre del archivo contiene caracteres inválidos: " + originalFilename);
     }
 
-    //Generar un nombre unico para el arvhico
-    String filename = generateUniqueFileName(originalFilename);
+    try (InputStream contenido = file.getInputStream()) {
+      if (deduplicar) {
+        return storeByContent(contenido, originalFilename, file.getContentType());
+      }
 
-    try {
-      //Copiar el archivo al directorio de almacenamiento
-      Path targetLocation = this.fileStorageLocation.resolve(filename);
-      Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING );
+      //Generar un nombre unico para el arvhico
+      String filename = generateUniqueFileName(originalFilename);
+
+      //Copiar el archivo al almacenamiento
+      almacenamiento.guardar(filename, contenido, file.getContentType());
 
       log.info("Archivo almacenado exitosamente: {}", filename );
       return filename;
@@ -75,6 +106,125 @@ public class FileStorageServiceImpl implements FileStorageService {
     }
   }
 
+  @Override
+  @Transactional
+  public String storeFile(String fileName, byte[] contenido) {
+    String limpio = StringUtils.cleanPath(fileName);
+    if (limpio.contains("..") || limpio.contains("/")) {
+      throw new BusinessException("El nombre del archivo contiene caracteres inválidos: " + fileName);
+    }
+    String contentType = MediaTypeFactory.getMediaType(limpio).map(MediaType::toString).orElse(null);
+    try {
+      if (deduplicar) {
+        return storeByContent(new ByteArrayInputStream(contenido), limpio, contentType);
+      }
+      // Nombre único: un nombre ya servido nunca cambia de contenido
+      String filename = generateUniqueFileName(limpio);
+      almacenamiento.guardar(filename, contenido, contentType);
+      log.debug("Archivo generado almacenado: {} ({} bytes)", filename, contenido.length);
+      return filename;
+    } catch (IOException e) {
+      log.error("No se pudo almacenar el archivo generado {}: {}", limpio, e.getMessage());
+      throw new BusinessException("No se puede almacenar el archivo " + limpio, e);
+    }
+  }
+
+  @Override
+  @Transactional
+  public String storeFile(String originalFilename, Path archivo, String contentType) {
+    String limpio = StringUtils.cleanPath(originalFilename);
+    if (limpio.contains("..")) {
+      log.error("El nombre del archivo contiene una secuenca de path inválidos: {}", limpio);
+      throw new BusinessException("El nombre del archivo contiene caracteres inválidos: " + limpio);
+    }
+    try {
+      if (deduplicar) {
+        MessageDigest digest = sha256();
+        try (InputStream entrada = new DigestInputStream(Files.newInputStream(archivo), digest)) {
+          entrada.transferTo(OutputStream.nullOutputStream());
+        }
+        return storeContent(archivo, Files.size(archivo), digest, limpio, contentType);
+      }
+      String filename = generateUniqueFileName(limpio);
+      almacenamiento.guardar(filename, archivo, contentType);
+      log.info("Archivo almacenado exitosamente: {}", filename);
+      return filename;
+    } catch (IOException e) {
+      log.error("Error al almacenar el archivo {}: {}", limpio, e.getMessage());
+      throw new BusinessException("No se puede almacenar el archivo " + limpio, e);
+    }
+  }
+
+  /**
+   * Guarda el contenido con su SHA-256 como nombre, calculado mientras se copia a un temporal.
+   * Si ya existe un archivo con el mismo contenido solo se suma una referencia y se descarta la copia.
+   */
+  private String storeByContent(InputStream contenido, String originalFilename, String contentType)
+          throws IOException {
+    MessageDigest digest = sha256();
+    Path temporal = Files.createTempFile("subida-", ".tmp");
+    try {
+      long tamanio;
+      try (InputStream entrada = new DigestInputStream(contenido, digest)) {
+        tamanio = Files.copy(entrada, temporal, StandardCopyOption.REPLACE_EXISTING);
+      }
+      return storeContent(temporal, tamanio, digest, originalFilename, contentType);
+    } finally {
+      Files.deleteIfExists(temporal);
+    }
+  }
+
+  private String storeContent(Path temporal, long tamanio, MessageDigest digest, String originalFilename,
+                              String contentType) throws IOException {
+    String extension = contentExtension(originalFilename);
+    String filename = HexFormat.of().formatHex(digest.digest()) + (extension.isEmpty() ? "" : "." + extension);
+
+    // Se registra antes de tocar el almacenamiento, con el nombre bloqueado: un borrado pendiente de esta misma
+    // copia espera al commit y ve la nueva referencia, o termina antes y la copia se vuelve a guardar
+    archivoAlmacenadoRepository.bloquearNombre(filename);
+    archivoAlmacenadoRepository.registrarReferencia(filename, tamanio);
+
+    String clave = resolveKey(filename);
+    if (almacenamiento.existe(clave)) {
+      log.info("Archivo duplicado, se reutiliza el existente: {} ({})", filename, originalFilename);
+      return filename;
+    }
+    almacenamiento.guardar(clave, temporal, contentType);
+    log.info("Archivo almacenado por contenido: {} ({} bytes)", filename, tamanio);
+    return filename;
+  }
+
+  private MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 no disponible", e);
+    }
+  }
+
+  /**
+   * Clave de un archivo en el almacenamiento. Los guardados por contenido se reparten en subdirectorios por
+   * los primeros caracteres del hash (ab/cd/abcd….jpg) para no acumular miles de archivos en un directorio
+   */
+  private String resolveKey(String fileName) {
+    if (NOMBRE_CONTENIDO.matcher(fileName).matches()) {
+      return fileName.substring(0, 2) + "/" + fileName.substring(2, 4) + "/" + fileName;
+    }
+    if (fileName.isBlank() || fileName.contains("/") || fileName.contains("\\") || fileName.contains("..")) {
+      log.error("Nombre de archivo inválido: {}", fileName);
+      throw new FileNotFoundException("Archivo no encontrado: " + fileName);
+    }
+    return fileName;
+  }
+
+  private String contentExtension(String filename) {
+    int lastDotIndex = filename.lastIndexOf('.');
+    if (lastDotIndex <= 0) {
+      return "";
+    }
+    String extension = filename.substring(lastDotIndex + 1).toLowerCase(Locale.ROOT);
+    return EXTENSION_VALIDA.matcher(extension).matches() ? extension : "";
+  }
 
   /**
    * Genera un nombre único para el archivo combinando timestamp, UUID y la extensión original
@@ -99,33 +249,78 @@ public class FileStorageServiceImpl implements FileStorageService {
   @Override
   public Resource loadFileAsResource(String fileName) {
     log.info("Cargando archivo: {}", fileName);
+    return almacenamiento.cargar(resolveKey(fileName));
+  }
 
-    try {
-      Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-      org.springframework.core.io.Resource resource = new UrlResource(filePath.toUri());
-
-      if (resource.exists()) {
-        return resource;
-      } else {
-        log.error("Archivo no encontrado: {}", fileName);
-        throw new FileNotFoundException("Archivo no encontrado: " + fileName);
-      }
-    } catch (MalformedURLException ex) {
-      log.error("Error al cargar archivo: {}", fileName, ex);
-      throw new FileNotFoundException("Error al cargar archivo: " + fileName, ex);
-    }
+  @Override
+  public Path loadFilePath(String fileName) {
+    return almacenamiento.rutaLocal(resolveKey(fileName))
+            .orElseThrow(() -> {
+              log.debug("Archivo no encontrado en disco: {}", fileName);
+              return new FileNotFoundException("Archivo no encontrado: " + fileName);
+            });
   }
 
   @Override
+  public Optional<URI> getDownloadUrl(String fileName) {
+    return almacenamiento.urlDescarga(resolveKey(fileName), fileName);
+  }
+
+  /**
+   * Libera la referencia dentro de la transacción en curso; el archivo se borra del almacenamiento solo tras
+   * el commit, para que un rollback no deje referencias a un archivo ya eliminado
+   * @return true si el archivo existe (su borrado queda pendiente del commit) o sigue en uso
+   */
+  @Override
+  @Transactional
   public boolean deleteFile(String fileName) {
     log.info("Eliminando archivo: {}", fileName);
 
+    // Los archivos guardados por contenido solo se borran al liberar su última referencia
+    boolean porContenido = archivoAlmacenadoRepository.liberarReferencia(fileName) > 0;
+    if (porContenido && archivoAlmacenadoRepository.eliminarSinReferencias(fileName) == 0) {
+      log.info("El archivo {} sigue en uso; se liberó una referencia", fileName);
+      return true;
+    }
+
+    String clave = resolveKey(fileName);
+    if (!almacenamiento.existe(clave)) {
+      return false;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      eliminarDelAlmacenamiento(fileName, clave, porContenido);
+      return true;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        eliminarDelAlmacenamiento(fileName, clave, porContenido);
+      }
+    });
+    return true;
+  }
+
+  private void eliminarDelAlmacenamiento(String fileName, String clave, boolean porContenido) {
     try {
-      Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-      return Files.deleteIfExists(filePath);
-    } catch (IOException ex) {
+      if (!porContenido) {
+        almacenamiento.eliminar(clave);
+        return;
+      }
+      // Una subida del mismo contenido pudo registrarlo otra vez entre el commit y este borrado
+      transaccionPropia.executeWithoutResult(status -> {
+        archivoAlmacenadoRepository.bloquearNombre(fileName);
+        if (archivoAlmacenadoRepository.existsById(fileName)) {
+          log.info("El archivo {} volvió a referenciarse; se conserva", fileName);
+          return;
+        }
+        try {
+          almacenamiento.eliminar(clave);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (IOException | UncheckedIOException ex) {
       log.error("Error al eliminar archivo: {}", fileName, ex);
-      return false;
     }
   }
 
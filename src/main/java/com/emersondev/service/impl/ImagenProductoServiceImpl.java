@@ -0,0 +1,274 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.config.cache.CacheTags;
+import com.emersondev.domain.entity.Producto;
+import com.emersondev.domain.event.ImagenProductoEvent;
+import com.emersondev.domain.exception.BusinessException;
+import com.emersondev.domain.exception.ProductoNotFoundException;
+import com.emersondev.domain.repository.ProductoRepository;
+import com.emersondev.service.interfaces.FileStorageService;
+import com.emersondev.service.interfaces.ImagenProductoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * Genera las variantes redimensionadas de las imágenes de producto en el pool de imágenes, fuera de la petición
+ * de subida. Las fotos opacas se guardan como JPEG y las que tienen transparencia como PNG
+ * (el JDK no incluye un codificador WebP).
+ */
+@Service
+@Slf4j
+public class ImagenProductoServiceImpl implements ImagenProductoService {
+
+  private static final float CALIDAD_JPEG = 0.82f;
+
+  /**
+   * Píxeles máximos del original (~50 MP, 200 MB decodificada en ARGB): se comprueba con la cabecera,
+   * antes de decodificar
+   */
+  static final long MAX_PIXELES = 50_000_000L;
+
+  /**
+   * Variantes a generar con el lado mayor en píxeles; las imágenes más pequeñas no se amplían
+   */
+  private enum Variante {
+    MINIATURA("min", 200),
+    MEDIANA("med", 600),
+    GRANDE("lg", 1200);
+
+    private final String sufijo;
+    private final int ladoMaximo;
+
+    Variante(String sufijo, int ladoMaximo) {
+      this.sufijo = sufijo;
+      this.ladoMaximo = ladoMaximo;
+    }
+  }
+
+  private final ProductoRepository productoRepository;
+  private final FileStorageService fileStorageService;
+  private final CacheInvalidator cacheInvalidator;
+  private final TransactionTemplate transaccion;
+  private final Executor imagenExecutor;
+
+  public ImagenProductoServiceImpl(ProductoRepository productoRepository, FileStorageService fileStorageService,
+                                   CacheInvalidator cacheInvalidator, PlatformTransactionManager transactionManager,
+                                   @Qualifier("imagenExecutor") Executor imagenExecutor) {
+    this.productoRepository = productoRepository;
+    this.fileStorageService = fileStorageService;
+    this.cacheInvalidator = cacheInvalidator;
+    this.transaccion = new TransactionTemplate(transactionManager);
+    this.imagenExecutor = imagenExecutor;
+  }
+
+  /**
+   * Tras confirmarse la subida de una imagen, encola la generación de sus variantes
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void alSubirImagen(ImagenProductoEvent evento) {
+    imagenExecutor.execute(() -> generarVariantes(evento));
+  }
+
+  @Override
+  public void regenerarVariantes(Long productoId) {
+    // Como en una subida, las variantes actuales se quitan del producto y pasan al evento
+    ImagenProductoEvent evento = transaccion.execute(status -> {
+      Producto producto = productoRepository.findParaActualizarById(productoId)
+              .orElseThrow(() -> new ProductoNotFoundException(productoId));
+      if (producto.getImagen() == null || producto.getImagen().isBlank()) {
+        throw new BusinessException("El producto no tiene imagen");
+      }
+      List<String> anteriores = new ArrayList<>();
+      for (String variante : new String[]{producto.getImagenMiniatura(), producto.getImagenMediana(),
+              producto.getImagenGrande()}) {
+        if (variante != null) {
+          anteriores.add(variante);
+        }
+      }
+      productoRepository.registrarVariantesImagen(productoId, producto.getImagen(), null, null, null);
+      cacheInvalidator.invalidar(CacheTags.producto(productoId), CacheTags.entidad(Producto.class, productoId));
+      return new ImagenProductoEvent(productoId, producto.getImagen(), anteriores);
+    });
+    imagenExecutor.execute(() -> generarVariantes(evento));
+  }
+
+  private void generarVariantes(ImagenProductoEvent evento) {
+    long inicio = System.currentTimeMillis();
+    BufferedImage original;
+    try (InputStream entrada = fileStorageService.loadFileAsResource(evento.imagen()).getInputStream()) {
+      original = decodificar(entrada);
+    } catch (IOException | RuntimeException e) {
+      log.warn("No se pudo leer la imagen {} del producto {}: {}", evento.imagen(), evento.productoId(), e.getMessage());
+      eliminarAnteriores(evento);
+      return;
+    }
+    if (original == null) {
+      log.warn("Formato de imagen no soportado para generar variantes: {} (producto {})", evento.imagen(),
+              evento.productoId());
+      eliminarAnteriores(evento);
+      return;
+    }
+
+    boolean transparente = original.getColorModel().hasAlpha();
+    String formato = transparente ? "png" : "jpg";
+    String base = nombreBase(evento.imagen());
+
+    List<String> generadas = new ArrayList<>(Variante.values().length);
+    long bytesGenerados = 0;
+    try {
+      for (Variante variante : Variante.values()) {
+        byte[] contenido = codificar(redimensionar(original, variante.ladoMaximo, transparente), formato);
+        generadas.add(fileStorageService.storeFile(base + "_" + variante.sufijo + "." + formato, contenido));
+        bytesGenerados += contenido.length;
+      }
+    } catch (IOException | RuntimeException e) {
+      log.error("Error al generar las variantes de {} (producto {}): {}", evento.imagen(), evento.productoId(),
+              e.getMessage());
+      generadas.forEach(fileStorageService::deleteFile);
+      eliminarAnteriores(evento);
+      return;
+    }
+
+    Integer registradas = transaccion.execute(status -> {
+      int filas = productoRepository.registrarVariantesImagen(evento.productoId(), evento.imagen(),
+              generadas.get(0), generadas.get(1), generadas.get(2));
+      if (filas > 0) {
+        cacheInvalidator.invalidar(CacheTags.producto(evento.productoId()),
+                CacheTags.entidad(Producto.class, evento.productoId()));
+      }
+      return filas;
+    });
+    if (registradas == null || registradas == 0) {
+      // Otra subida reemplazó la imagen mientras se procesaba: estas variantes ya no sirven
+      log.info("La imagen del producto {} cambió durante el proceso; se descartan sus variantes", evento.productoId());
+      generadas.forEach(fileStorageService::deleteFile);
+      eliminarAnteriores(evento);
+      return;
+    }
+
+    eliminarAnteriores(evento);
+
+    log.info("Variantes de imagen generadas para el producto {}: {}x{} → {} archivos, {} KB en {} ms",
+            evento.productoId(), original.getWidth(), original.getHeight(), generadas.size(), bytesGenerados / 1024,
+            System.currentTimeMillis() - inicio);
+  }
+
+  /**
+   * Las variantes anteriores ya no están en el producto: se eliminan termine como termine el evento.
+   * Cada variante almacenada es una referencia propia (en modo por contenido pueden repetirse los nombres)
+   */
+  private void eliminarAnteriores(ImagenProductoEvent evento) {
+    evento.variantesAnteriores().stream()
+            .filter(Objects::nonNull)
+            .forEach(fileStorageService::deleteFile);
+  }
+
+  /**
+   * Decodifica la imagen tras comprobar sus dimensiones en la cabecera
+   * @return null si ningún lector admite el formato
+   * @throws IOException si la imagen supera {@link #MAX_PIXELES} o no puede leerse
+   */
+  static BufferedImage decodificar(InputStream entrada) throws IOException {
+    try (ImageInputStream flujo = ImageIO.createImageInputStream(entrada)) {
+      Iterator<ImageReader> lectores = flujo != null ? ImageIO.getImageReaders(flujo) : null;
+      if (lectores == null || !lectores.hasNext()) {
+        return null;
+      }
+      ImageReader lector = lectores.next();
+      try {
+        lector.setInput(flujo, true, true);
+        int ancho = lector.getWidth(0);
+        int alto = lector.getHeight(0);
+        if ((long) ancho * alto > MAX_PIXELES) {
+          throw new IOException("La imagen de " + ancho + "x" + alto + " supera los " + MAX_PIXELES + " píxeles");
+        }
+        return lector.read(0);
+      } finally {
+        lector.dispose();
+      }
+    }
+  }
+
+  /**
+   * Reduce la imagen para que su lado mayor no supere el máximo. Reduce a la mitad en pasos sucesivos
+   * antes del tamaño final: con interpolación bilineal evita el aliasing de una sola reducción grande.
+   */
+  private BufferedImage redimensionar(BufferedImage original, int ladoMaximo, boolean transparente) {
+    int ancho = original.getWidth();
+    int alto = original.getHeight();
+    double escala = Math.min(1d, (double) ladoMaximo / Math.max(ancho, alto));
+    int anchoFinal = Math.max(1, (int) Math.round(ancho * escala));
+    int altoFinal = Math.max(1, (int) Math.round(alto * escala));
+    int tipo = transparente ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+    BufferedImage actual = original;
+    do {
+      ancho = Math.max(anchoFinal, ancho / 2);
+      alto = Math.max(altoFinal, alto / 2);
+      BufferedImage paso = new BufferedImage(ancho, alto, tipo);
+      Graphics2D grafico = paso.createGraphics();
+      try {
+        grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        grafico.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        if (!transparente) {
+          // Fondo blanco para formatos sin canal alfa (p. ej. GIF con índice transparente no detectado)
+          grafico.setColor(Color.WHITE);
+          grafico.fillRect(0, 0, ancho, alto);
+        }
+        grafico.drawImage(actual, 0, 0, ancho, alto, null);
+      } finally {
+        grafico.dispose();
+      }
+      actual = paso;
+    } while (ancho != anchoFinal || alto != altoFinal);
+    return actual;
+  }
+
+  private byte[] codificar(BufferedImage imagen, String formato) throws IOException {
+    ByteArrayOutputStream salida = new ByteArrayOutputStream();
+    if ("png".equals(formato)) {
+      ImageIO.write(imagen, "png", salida);
+      return salida.toByteArray();
+    }
+
+    ImageWriter escritor = ImageIO.getImageWritersByFormatName("jpg").next();
+    try (ImageOutputStream flujo = ImageIO.createImageOutputStream(salida)) {
+      ImageWriteParam parametros = escritor.getDefaultWriteParam();
+      parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      parametros.setCompressionQuality(CALIDAD_JPEG);
+      escritor.setOutput(flujo);
+      escritor.write(null, new IIOImage(imagen, null, null), parametros);
+    } finally {
+      escritor.dispose();
+    }
+    return salida.toByteArray();
+  }
+
+  private String nombreBase(String imagen) {
+    int punto = imagen.lastIndexOf('.');
+    return punto > 0 ? imagen.substring(0, punto) : imagen;
+  }
+}
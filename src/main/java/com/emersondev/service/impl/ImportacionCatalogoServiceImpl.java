@@ -0,0 +1,456 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.api.response.ImportacionCatalogoResponse;
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.config.cache.CacheTags;
+import com.emersondev.domain.entity.Producto;
+import com.emersondev.domain.event.ProductoCatalogoEvent;
+import com.emersondev.domain.exception.BusinessException;
+import com.emersondev.domain.repository.ProductoRepository;
+import com.emersondev.service.interfaces.ImportacionCatalogoService;
+import com.emersondev.util.LectorXlsx;
+import com.emersondev.util.SerieGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImportacionCatalogoServiceImpl implements ImportacionCatalogoService {
+
+  /**
+   * Productos por transacción: un fallo de base de datos revierte solo su lote
+   */
+  private static final int PRODUCTOS_POR_LOTE = 200;
+
+  /**
+   * Filas por INSERT de varios valores (PostgreSQL admite hasta 65535 parámetros por sentencia)
+   */
+  private static final int FILAS_POR_SENTENCIA = 1000;
+  private static final int TALLAS_POR_BATCH = 500;
+  private static final int MAX_INTENTOS_CODIGO = 20;
+
+  private static final String SEPARADOR_TALLAS = "\\|";
+
+  private final ProductoRepository productoRepository;
+  private final SerieGenerator serieGenerator;
+  private final JdbcTemplate jdbcTemplate;
+  private final PlatformTransactionManager transactionManager;
+  private final CacheInvalidator cacheInvalidator;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Producto del archivo con sus colores, armado a partir de todas sus líneas
+   */
+  private static final class ProductoImportado {
+    private final int linea;
+    private String codigo;
+    private String nombre;
+    private String descripcion;
+    private String marca;
+    private String modelo;
+    private BigDecimal precioCompra;
+    private BigDecimal precioVenta;
+    private String imagen;
+    private Integer stockMinimo;
+    private final Map<String, ColorImportado> colores = new LinkedHashMap<>();
+    private Long id;
+
+    private ProductoImportado(int linea) {
+      this.linea = linea;
+    }
+  }
+
+  private static final class ColorImportado {
+    private final String nombre;
+    private final String codigoHex;
+    private final Set<String> tallas = new LinkedHashSet<>();
+    private Long id;
+
+    private ColorImportado(String nombre, String codigoHex) {
+      this.nombre = nombre;
+      this.codigoHex = codigoHex;
+    }
+  }
+
+  @Override
+  public ImportacionCatalogoResponse importarCatalogo(InputStream contenido, String contentType, boolean simular) {
+    long inicio = System.nanoTime();
+    log.info("Iniciando importación de catálogo{}", simular ? " (simulación)" : "");
+
+    ImportacionCatalogoResponse resultado = new ImportacionCatalogoResponse();
+    resultado.setSimulacion(simular);
+
+    // Códigos ya usados, en memoria: la validación de duplicados no consulta la base de datos por línea
+    Set<String> codigosOcupados = new HashSet<>(productoRepository.findAllCodigos());
+    Map<String, ProductoImportado> productos = new LinkedHashMap<>();
+
+    try {
+      leerFilas(contenido, contentType, new Consumer<>() {
+        private Map<String, Integer> columnas;
+        private int numero;
+
+        @Override
+        public void accept(List<String> fila) {
+          if (columnas == null) {
+            columnas = leerCabecera(fila);
+            return;
+          }
+          if (fila.stream().allMatch(String::isBlank)) {
+            return;
+          }
+          numero++;
+          resultado.setTotalLineas(numero);
+          String error = agregarLinea(numero, fila, columnas, productos, codigosOcupados);
+          if (error != null) {
+            resultado.getErrores().add(new ImportacionCatalogoResponse.ErrorLinea(numero, error));
+          } else {
+            resultado.setLineasValidas(resultado.getLineasValidas() + 1);
+          }
+        }
+      });
+    } catch (IOException e) {
+      log.error("Error al leer el archivo de catálogo: {}", e.getMessage());
+      throw new BusinessException("No se pudo leer el archivo de catálogo: " + e.getMessage());
+    }
+
+    asignarCodigosFaltantes(productos.values(), codigosOcupados, resultado);
+
+    List<ProductoImportado> aImportar = new ArrayList<>(productos.values());
+    if (simular) {
+      contar(aImportar, resultado);
+    } else {
+      TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+      for (int desde = 0; desde < aImportar.size(); desde += PRODUCTOS_POR_LOTE) {
+        List<ProductoImportado> lote = aImportar.subList(desde, Math.min(desde + PRODUCTOS_POR_LOTE, aImportar.size()));
+        procesarLote(lote, transaccion, resultado);
+      }
+      if (resultado.getProductosCreados() > 0) {
+        // Los productos son nuevos: solo cambian los listados
+        cacheInvalidator.invalidar(CacheTags.coleccion("productos"));
+      }
+    }
+
+    long duracionMs = Math.max((System.nanoTime() - inicio) / 1_000_000, 1);
+    resultado.setDuracionMs(duracionMs);
+    resultado.setLineasPorSegundo(resultado.getTotalLineas() * 1000L / duracionMs);
+    log.info("Importación de catálogo finalizada{}: {} líneas, {} productos, {} colores, {} tallas, {} errores, "
+                    + "{} ms ({} líneas/s)", simular ? " (simulación)" : "", resultado.getTotalLineas(),
+            resultado.getProductosCreados(), resultado.getColoresCreados(), resultado.getTallasCreadas(),
+            resultado.getErrores().size(), duracionMs, resultado.getLineasPorSegundo());
+    return resultado;
+  }
+
+  /**
+   * Valida una línea y la incorpora a su producto (nuevo o ya visto en el archivo)
+   * @return el error de la línea, o null si es válida
+   */
+  private String agregarLinea(int numero, List<String> fila, Map<String, Integer> columnas,
+                              Map<String, ProductoImportado> productos, Set<String> codigosOcupados) {
+    String codigo = valor(fila, columnas, "codigo");
+    String nombre = valor(fila, columnas, "nombre");
+    String marca = valor(fila, columnas, "marca");
+    String modelo = valor(fila, columnas, "modelo");
+    String color = valor(fila, columnas, "color");
+    String codigoHex = valor(fila, columnas, "codigohex");
+    String tallas = valor(fila, columnas, "tallas");
+
+    String clave = codigo != null ? "C:" + codigo
+            : "N:" + String.join("|", minusculas(nombre), minusculas(marca), minusculas(modelo));
+    ProductoImportado producto = productos.get(clave);
+
+    if (producto == null) {
+      if (nombre == null || nombre.length() < 2 || nombre.length() > 100) {
+        return "El nombre es obligatorio y debe tener entre 2 y 100 caracteres";
+      }
+      if (marca == null || modelo == null) {
+        return "La marca y el modelo son obligatorios";
+      }
+      if (codigo != null && codigo.length() > 50) {
+        return "El código no puede exceder los 50 caracteres";
+      }
+      String descripcion = valor(fila, columnas, "descripcion");
+      if (descripcion != null && descripcion.length() > 255) {
+        return "La descripción no puede exceder los 255 caracteres";
+      }
+
+      BigDecimal precioCompra;
+      BigDecimal precioVenta;
+      Integer stockMinimo;
+      try {
+        precioCompra = decimal(valor(fila, columnas, "preciocompra"));
+        precioVenta = decimal(valor(fila, columnas, "precioventa"));
+        String stock = valor(fila, columnas, "stockminimo");
+        stockMinimo = stock != null ? new BigDecimal(stock).intValueExact() : null;
+      } catch (NumberFormatException | ArithmeticException e) {
+        return "Valor numérico inválido: " + e.getMessage();
+      }
+      if (precioCompra == null || precioCompra.signum() <= 0 || precioVenta == null || precioVenta.signum() <= 0) {
+        return "Los precios de compra y venta son obligatorios y deben ser positivos";
+      }
+      if (stockMinimo != null && stockMinimo < 0) {
+        return "El stock mínimo no puede ser negativo";
+      }
+      if (codigo != null && !codigosOcupados.add(codigo)) {
+        return "Ya existe un producto con el código " + codigo;
+      }
+
+      producto = new ProductoImportado(numero);
+      producto.codigo = codigo;
+      producto.nombre = nombre;
+      producto.descripcion = descripcion;
+      producto.marca = marca;
+      producto.modelo = modelo;
+      producto.precioCompra = precioCompra;
+      producto.precioVenta = precioVenta;
+      producto.imagen = valor(fila, columnas, "imagen");
+      producto.stockMinimo = stockMinimo;
+      productos.put(clave, producto);
+    }
+
+    if (color == null) {
+      return tallas != null ? "Las tallas requieren un color" : null;
+    }
+    if (codigoHex != null && codigoHex.length() > 7) {
+      return "El código hexadecimal del color no puede exceder los 7 caracteres";
+    }
+    ColorImportado colorImportado = producto.colores.computeIfAbsent(minusculas(color),
+            nombreColor -> new ColorImportado(color, codigoHex != null ? codigoHex : ""));
+    if (tallas != null) {
+      for (String talla : tallas.split(SEPARADOR_TALLAS)) {
+        if (!talla.isBlank()) {
+          colorImportado.tallas.add(talla.trim());
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Genera los códigos que faltan, comprobando colisiones contra el conjunto precargado.
+   * Los productos sin código posible se descartan con su error.
+   */
+  private void asignarCodigosFaltantes(Collection<ProductoImportado> productos, Set<String> codigosOcupados,
+                                       ImportacionCatalogoResponse resultado) {
+    Iterator<ProductoImportado> iterador = productos.iterator();
+    while (iterador.hasNext()) {
+      ProductoImportado producto = iterador.next();
+      if (producto.codigo != null) {
+        continue;
+      }
+      Producto base = new Producto();
+      base.setNombre(producto.nombre);
+      base.setMarca(producto.marca);
+      for (int intento = 0; intento < MAX_INTENTOS_CODIGO && producto.codigo == null; intento++) {
+        String candidato = serieGenerator.generarCodigoProducto(base);
+        if (codigosOcupados.add(candidato)) {
+          producto.codigo = candidato;
+        }
+      }
+      if (producto.codigo == null) {
+        resultado.getErrores().add(new ImportacionCatalogoResponse.ErrorLinea(producto.linea,
+                "No se pudo generar un código único para el producto " + producto.nombre));
+        iterador.remove();
+      } else {
+        resultado.setCodigosGenerados(resultado.getCodigosGenerados() + 1);
+      }
+    }
+  }
+
+  private void contar(List<ProductoImportado> productos, ImportacionCatalogoResponse resultado) {
+    for (ProductoImportado producto : productos) {
+      resultado.setProductosCreados(resultado.getProductosCreados() + 1);
+      for (ColorImportado color : producto.colores.values()) {
+        resultado.setColoresCreados(resultado.getColoresCreados() + 1);
+        resultado.setTallasCreadas(resultado.getTallasCreadas() + color.tallas.size());
+      }
+    }
+  }
+
+  private void procesarLote(List<ProductoImportado> lote, TransactionTemplate transaccion,
+                            ImportacionCatalogoResponse resultado) {
+    try {
+      transaccion.executeWithoutResult(status -> insertarLote(lote));
+      contar(lote, resultado);
+    } catch (RuntimeException e) {
+      log.error("Error al grabar el lote de productos de las líneas {}-{}: {}", lote.get(0).linea,
+              lote.get(lote.size() - 1).linea, e.getMessage());
+      lote.forEach(producto -> resultado.getErrores().add(new ImportacionCatalogoResponse.ErrorLinea(
+              producto.linea, "Lote no aplicado: " + e.getMessage())));
+    }
+  }
+
+  /**
+   * Inserta productos, colores y tallas del lote con un número fijo de sentencias por tabla
+   * (Producto, Color y Talla usan IDENTITY, por lo que Hibernate no podría agruparlas en lotes)
+   */
+  private void insertarLote(List<ProductoImportado> lote) {
+    LocalDateTime ahora = LocalDateTime.now();
+
+    Map<String, Long> idsPorCodigo = new HashMap<>();
+    for (int desde = 0; desde < lote.size(); desde += FILAS_POR_SENTENCIA) {
+      List<ProductoImportado> parte = lote.subList(desde, Math.min(desde + FILAS_POR_SENTENCIA, lote.size()));
+      List<Object> parametros = new ArrayList<>(parte.size() * 11);
+      for (ProductoImportado producto : parte) {
+        Collections.addAll(parametros, producto.codigo, producto.nombre, producto.descripcion, producto.marca,
+                producto.modelo, producto.precioCompra, producto.precioVenta, producto.imagen, producto.stockMinimo,
+                ahora, ahora);
+      }
+      String sql = "INSERT INTO productos (codigo, nombre, descripcion, marca, modelo, precio_compra, precio_venta, "
+              + "imagen, stock_minimo, fecha_creacion, fecha_actualizacion) VALUES "
+              + valores(parte.size(), 11) + " RETURNING id, codigo";
+      jdbcTemplate.query(sql, resultSet -> {
+        idsPorCodigo.put(resultSet.getString("codigo"), resultSet.getLong("id"));
+      }, parametros.toArray());
+    }
+
+    List<ColorImportado> colores = new ArrayList<>();
+    Map<ColorImportado, Long> propietario = new IdentityHashMap<>();
+    for (ProductoImportado producto : lote) {
+      producto.id = idsPorCodigo.get(producto.codigo);
+      for (ColorImportado color : producto.colores.values()) {
+        colores.add(color);
+        propietario.put(color, producto.id);
+      }
+    }
+
+    for (int desde = 0; desde < colores.size(); desde += FILAS_POR_SENTENCIA) {
+      List<ColorImportado> parte = colores.subList(desde, Math.min(desde + FILAS_POR_SENTENCIA, colores.size()));
+      List<Object> parametros = new ArrayList<>(parte.size() * 3);
+      Map<String, ColorImportado> porClave = new HashMap<>();
+      for (ColorImportado color : parte) {
+        Long productoId = propietario.get(color);
+        Collections.addAll(parametros, color.nombre, color.codigoHex, productoId);
+        porClave.put(productoId + "|" + color.nombre, color);
+      }
+      String sql = "INSERT INTO colores (nombre, codigo_hex, producto_id) VALUES " + valores(parte.size(), 3)
+              + " RETURNING id, producto_id, nombre";
+      jdbcTemplate.query(sql, resultSet -> {
+        porClave.get(resultSet.getLong("producto_id") + "|" + resultSet.getString("nombre")).id = resultSet.getLong("id");
+      }, parametros.toArray());
+    }
+
+    List<Object[]> tallas = new ArrayList<>();
+    for (ColorImportado color : colores) {
+      color.tallas.forEach(talla -> tallas.add(new Object[]{talla, color.id}));
+    }
+    for (int desde = 0; desde < tallas.size(); desde += TALLAS_POR_BATCH) {
+      jdbcTemplate.batchUpdate("INSERT INTO tallas (numero, color_id) VALUES (?, ?)",
+              tallas.subList(desde, Math.min(desde + TALLAS_POR_BATCH, tallas.size())));
+    }
+
+    // Los índices en memoria reciben los productos al confirmar la transacción
+    for (ProductoImportado producto : lote) {
+      eventPublisher.publishEvent(new ProductoCatalogoEvent(producto.id, producto.codigo, producto.nombre,
+              producto.marca, producto.modelo, producto.descripcion, producto.precioVenta, producto.imagen, false));
+    }
+  }
+
+  private void leerFilas(InputStream contenido, String contentType, Consumer<List<String>> consumidor)
+          throws IOException {
+    String tipo = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+    if (tipo.contains("spreadsheetml") || tipo.contains("excel")) {
+      LectorXlsx.leerFilas(contenido, consumidor);
+      return;
+    }
+
+    BufferedReader lector = new BufferedReader(new InputStreamReader(contenido, StandardCharsets.UTF_8));
+    String linea = lector.readLine();
+    if (linea == null) {
+      return;
+    }
+    linea = linea.replace("\uFEFF", "");
+    char separador = linea.contains(";") ? ';' : ',';
+    do {
+      consumidor.accept(dividirCsv(linea, separador));
+    } while ((linea = lector.readLine()) != null);
+  }
+
+  /**
+   * Divide una línea CSV respetando los campos entre comillas dobles (con "" como comilla escapada)
+   */
+  private List<String> dividirCsv(String linea, char separador) {
+    List<String> campos = new ArrayList<>();
+    StringBuilder campo = new StringBuilder();
+    boolean entreComillas = false;
+    for (int i = 0; i < linea.length(); i++) {
+      char caracter = linea.charAt(i);
+      if (entreComillas) {
+        if (caracter == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+          campo.append('"');
+          i++;
+        } else if (caracter == '"') {
+          entreComillas = false;
+        } else {
+          campo.append(caracter);
+        }
+      } else if (caracter == '"') {
+        entreComillas = true;
+      } else if (caracter == separador) {
+        campos.add(campo.toString());
+        campo.setLength(0);
+      } else {
+        campo.append(caracter);
+      }
+    }
+    campos.add(campo.toString());
+    return campos;
+  }
+
+  private Map<String, Integer> leerCabecera(List<String> cabecera) {
+    Map<String, Integer> columnas = new HashMap<>();
+    for (int i = 0; i < cabecera.size(); i++) {
+      columnas.put(cabecera.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+    }
+    // Admite "talla" como alias de "tallas"
+    if (!columnas.containsKey("tallas") && columnas.containsKey("talla")) {
+      columnas.put("tallas", columnas.get("talla"));
+    }
+    if (!columnas.keySet().containsAll(List.of("nombre", "marca", "modelo", "preciocompra", "precioventa"))) {
+      throw new BusinessException("La cabecera debe incluir las columnas 'nombre', 'marca', 'modelo', "
+              + "'precioCompra' y 'precioVenta'");
+    }
+    return columnas;
+  }
+
+  private String valor(List<String> fila, Map<String, Integer> columnas, String columna) {
+    Integer indice = columnas.get(columna);
+    if (indice == null || indice >= fila.size()) {
+      return null;
+    }
+    String valor = fila.get(indice).trim();
+    return valor.isEmpty() ? null : valor;
+  }
+
+  private BigDecimal decimal(String valor) {
+    // Admite coma decimal en archivos separados por punto y coma
+    return valor != null ? new BigDecimal(valor.replace(',', '.')) : null;
+  }
+
+  private String minusculas(String valor) {
+    return valor != null ? valor.trim().toLowerCase(Locale.ROOT) : "";
+  }
+
+  /**
+   * Marcadores de un INSERT de varias filas: (?, ?), (?, ?), ...
+   */
+  private String valores(int filas, int columnas) {
+    String fila = "(" + String.join(", ", Collections.nCopies(columnas, "?")) + ")";
+    return String.join(", ", Collections.nCopies(filas, fila));
+  }
+}
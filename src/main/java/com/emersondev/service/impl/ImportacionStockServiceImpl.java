@@ -0,0 +1,412 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.api.request.IngresoStockLineaRequest;
+import com.emersondev.api.response.ImportacionStockResponse;
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.config.cache.CacheTags;
+import com.emersondev.domain.entity.*;
+import com.emersondev.domain.exception.BusinessException;
+import com.emersondev.domain.repository.*;
+import com.emersondev.service.interfaces.ImportacionStockService;
+import com.emersondev.util.SerieGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImportacionStockServiceImpl implements ImportacionStockService {
+
+  /**
+   * Líneas por transacción: acota la memoria del contexto de persistencia y el alcance de un fallo
+   */
+  private static final int TAMANIO_LOTE = 500;
+
+  private final InventarioRepository inventarioRepository;
+  private final MovimientoInventarioRepository movimientoRepository;
+  private final ProductoRepository productoRepository;
+  private final ColorRepository colorRepository;
+  private final TallaRepository tallaRepository;
+  private final AlmacenRepository almacenRepository;
+  private final SerieGenerator serieGenerator;
+  private final CacheInvalidator cacheInvalidator;
+  private final ObjectMapper objectMapper;
+  private final PlatformTransactionManager transactionManager;
+
+  /**
+   * Línea leída del archivo: datos válidos o el error de lectura
+   */
+  private record LineaLeida(int numero, IngresoStockLineaRequest datos, String error) {
+  }
+
+  /**
+   * Resultado de aplicar un lote dentro de su transacción
+   */
+  private record ResultadoLote(int procesadas, int creados, long unidades,
+                               List<ImportacionStockResponse.ErrorLinea> errores, Set<String> etiquetas) {
+  }
+
+  @Override
+  public ImportacionStockResponse importarEntradas(InputStream contenido, String contentType, String referencia) {
+    String usuario = obtenerUsuarioActual();
+    String referenciaMovimiento = referencia != null && !referencia.isBlank()
+            ? referencia.trim()
+            : "Ingreso masivo " + LocalDate.now();
+    log.info("Iniciando importación masiva de ingresos de stock (referencia: {})", referenciaMovimiento);
+
+    ImportacionStockResponse resultado = new ImportacionStockResponse();
+    Set<String> etiquetas = new HashSet<>();
+    TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+    List<LineaLeida> lote = new ArrayList<>(TAMANIO_LOTE);
+
+    try {
+      leerLineas(contenido, contentType, linea -> {
+        resultado.setTotalLineas(resultado.getTotalLineas() + 1);
+        if (linea.error() != null) {
+          resultado.getErrores().add(new ImportacionStockResponse.ErrorLinea(linea.numero(), linea.error()));
+          return;
+        }
+        lote.add(linea);
+        if (lote.size() >= TAMANIO_LOTE) {
+          procesarLote(lote, referenciaMovimiento, usuario, transaccion, resultado, etiquetas);
+          lote.clear();
+        }
+      });
+    } catch (IOException e) {
+      // Los lotes anteriores ya están confirmados: se devuelve el informe parcial en lugar de perderlo
+      log.error("Error al leer el archivo de importación tras {} líneas: {}", resultado.getTotalLineas(), e.getMessage());
+      resultado.setError("No se pudo leer el archivo de importación tras la línea " + resultado.getTotalLineas()
+              + ": " + e.getMessage());
+    } finally {
+      if (!lote.isEmpty()) {
+        procesarLote(lote, referenciaMovimiento, usuario, transaccion, resultado, etiquetas);
+      }
+      // Una sola invalidación para todo el archivo
+      cacheInvalidator.invalidar(etiquetas);
+    }
+
+    log.info("Importación finalizada: {} líneas, {} procesadas, {} inventarios creados, {} errores",
+            resultado.getTotalLineas(), resultado.getLineasProcesadas(), resultado.getInventariosCreados(),
+            resultado.getErrores().size());
+    return resultado;
+  }
+
+  private void procesarLote(List<LineaLeida> lote, String referencia, String usuario, TransactionTemplate transaccion,
+                            ImportacionStockResponse resultado, Set<String> etiquetas) {
+    try {
+      ResultadoLote resultadoLote = transaccion.execute(status -> aplicarLote(lote, referencia, usuario));
+      if (resultadoLote == null) {
+        return;
+      }
+      resultado.setLineasProcesadas(resultado.getLineasProcesadas() + resultadoLote.procesadas());
+      resultado.setInventariosCreados(resultado.getInventariosCreados() + resultadoLote.creados());
+      resultado.setUnidadesIngresadas(resultado.getUnidadesIngresadas() + resultadoLote.unidades());
+      resultado.getErrores().addAll(resultadoLote.errores());
+      etiquetas.addAll(resultadoLote.etiquetas());
+    } catch (RuntimeException e) {
+      // Un fallo de base de datos revierte solo este lote; el resto del archivo continúa
+      log.error("Error al aplicar el lote de líneas {}-{}: {}", lote.get(0).numero(),
+              lote.get(lote.size() - 1).numero(), e.getMessage());
+      lote.forEach(linea -> resultado.getErrores().add(
+              new ImportacionStockResponse.ErrorLinea(linea.numero(), "Lote no aplicado: " + e.getMessage())));
+    }
+  }
+
+  private ResultadoLote aplicarLote(List<LineaLeida> lote, String referencia, String usuario) {
+    List<ImportacionStockResponse.ErrorLinea> errores = new ArrayList<>();
+    Set<String> etiquetas = new HashSet<>();
+
+    // Precargar en memoria los inventarios y el catálogo que referencia el lote
+    Set<String> series = new HashSet<>();
+    Set<Long> productoIds = new HashSet<>();
+    Set<Long> colorIds = new HashSet<>();
+    Set<Long> tallaIds = new HashSet<>();
+    Set<Long> almacenIds = new HashSet<>();
+    for (LineaLeida linea : lote) {
+      IngresoStockLineaRequest datos = linea.datos();
+      if (tieneSerie(datos)) {
+        series.add(datos.getSerie().trim());
+      } else {
+        agregarSiNoNulo(productoIds, datos.getProductoId());
+        agregarSiNoNulo(colorIds, datos.getColorId());
+        agregarSiNoNulo(tallaIds, datos.getTallaId());
+        agregarSiNoNulo(almacenIds, datos.getAlmacenId());
+      }
+    }
+
+    // Los inventarios existentes se bloquean en una sola consulta ordenada por ID: otra importación, una venta o
+    // un traslado concurrente esperan al commit en lugar de pisar la cantidad (evita interbloqueos entre lotes)
+    Set<Long> inventarioIds = new HashSet<>();
+    if (!series.isEmpty()) {
+      inventarioIds.addAll(inventarioRepository.findIdsBySerieIn(series));
+    }
+    if (!productoIds.isEmpty() && !almacenIds.isEmpty()) {
+      inventarioIds.addAll(inventarioRepository.findIdsByProductoIdInAndAlmacenIdIn(productoIds, almacenIds));
+    }
+    List<Inventario> bloqueados = inventarioIds.isEmpty() ? List.of()
+            : inventarioRepository.findParaActualizarByIdIn(inventarioIds);
+    Map<String, Inventario> inventariosPorSerie = porClave(bloqueados, Inventario::getSerie);
+    Map<String, Inventario> inventariosPorVariante = porClave(bloqueados,
+            i -> claveVariante(i.getProducto().getId(), i.getColor().getId(), i.getTalla().getId(),
+                    i.getAlmacen().getId()));
+    // Los productos de las líneas por serie se cargan juntos (precio de compra) en lugar de uno por línea
+    bloqueados.forEach(inventario -> productoIds.add(inventario.getProducto().getId()));
+    Map<Long, Producto> productos = porClave(productoRepository.findAllById(productoIds), Producto::getId);
+    Map<Long, Color> colores = porClave(colorRepository.findAllById(colorIds), Color::getId);
+    Map<Long, Talla> tallas = porClave(tallaRepository.findAllById(tallaIds), Talla::getId);
+    Map<Long, Almacen> almacenes = porClave(almacenRepository.findAllById(almacenIds), Almacen::getId);
+
+    List<Inventario> nuevos = new ArrayList<>();
+    List<MovimientoInventario> movimientos = new ArrayList<>();
+    long unidades = 0;
+
+    for (LineaLeida linea : lote) {
+      IngresoStockLineaRequest datos = linea.datos();
+      if (datos.getCantidad() == null || datos.getCantidad() <= 0) {
+        errores.add(new ImportacionStockResponse.ErrorLinea(linea.numero(), "La cantidad debe ser mayor a cero"));
+        continue;
+      }
+      if (datos.getCostoUnitario() != null && datos.getCostoUnitario().signum() < 0) {
+        errores.add(new ImportacionStockResponse.ErrorLinea(linea.numero(), "El costo unitario no puede ser negativo"));
+        continue;
+      }
+
+      Inventario inventario;
+      if (tieneSerie(datos)) {
+        inventario = inventariosPorSerie.get(datos.getSerie().trim());
+        if (inventario == null) {
+          errores.add(new ImportacionStockResponse.ErrorLinea(linea.numero(),
+                  "No existe inventario con serie " + datos.getSerie().trim()));
+          continue;
+        }
+      } else {
+        if (datos.getProductoId() == null || datos.getColorId() == null || datos.getTallaId() == null
+                || datos.getAlmacenId() == null) {
+          errores.add(new ImportacionStockResponse.ErrorLinea(linea.numero(),
+                  "Debe indicar la serie o el producto, color, talla y almacén"));
+          continue;
+        }
+        String clave = claveVariante(datos.getProductoId(), datos.getColorId(), datos.getTallaId(), datos.getAlmacenId());
+        inventario = inventariosPorVariante.get(clave);
+        if (inventario == null) {
+          String error = validarVariante(datos, productos, colores, tallas, almacenes);
+          if (error != null) {
+            errores.add(new ImportacionStockResponse.ErrorLinea(linea.numero(), error));
+            continue;
+          }
+          inventario = new Inventario();
+          inventario.setProducto(productos.get(datos.getProductoId()));
+          inventario.setColor(colores.get(datos.getColorId()));
+          inventario.setTalla(tallas.get(datos.getTallaId()));
+          inventario.setAlmacen(almacenes.get(datos.getAlmacenId()));
+          inventario.setCantidad(0);
+          nuevos.add(inventario);
+          inventariosPorVariante.put(clave, inventario);
+          etiquetas.addAll(CacheTags.altaBajaInventario(datos.getProductoId(), datos.getAlmacenId()));
+        }
+      }
+
+      if (inventario.getId() != null) {
+        etiquetas.addAll(CacheTags.cambioStock(inventario.getId(), inventario.getProducto().getId()));
+      }
+      BigDecimal costoEntrada = datos.getCostoUnitario() != null
+              ? datos.getCostoUnitario()
+              : inventario.getProducto().getPrecioCompra();
+      inventario.aplicarCostoEntrada(datos.getCantidad(), costoEntrada);
+      inventario.setCantidad(inventario.getCantidad() + datos.getCantidad());
+      inventario.actualizarEstado();
+
+      MovimientoInventario movimiento = new MovimientoInventario();
+      movimiento.setInventario(inventario);
+      movimiento.setTipo(MovimientoInventario.TipoMovimiento.ENTRADA);
+      movimiento.setCantidad(datos.getCantidad());
+      movimiento.setReferencia(referencia);
+      movimiento.setDescripcion("Ingreso masivo de " + datos.getCantidad() + " unidades (línea " + linea.numero() + ")");
+      movimiento.setUsuario(usuario);
+      movimiento.setCostoUnitario(costoEntrada);
+      movimiento.setFechaMovimiento(LocalDateTime.now());
+      movimientos.add(movimiento);
+      unidades += datos.getCantidad();
+    }
+
+    serieGenerator.asignarSeriesInventario(nuevos);
+    inventarioRepository.saveAll(nuevos);
+    movimientoRepository.saveAll(movimientos);
+    // Los inventarios existentes (bloqueados) se actualizan en lote al confirmar la transacción
+
+    return new ResultadoLote(movimientos.size(), nuevos.size(), unidades, errores, etiquetas);
+  }
+
+  private String validarVariante(IngresoStockLineaRequest datos, Map<Long, Producto> productos, Map<Long, Color> colores,
+                                 Map<Long, Talla> tallas, Map<Long, Almacen> almacenes) {
+    Producto producto = productos.get(datos.getProductoId());
+    if (producto == null) {
+      return "Producto no encontrado con ID " + datos.getProductoId();
+    }
+    Color color = colores.get(datos.getColorId());
+    if (color == null || !color.getProducto().getId().equals(producto.getId())) {
+      return "El color " + datos.getColorId() + " no pertenece al producto " + datos.getProductoId();
+    }
+    Talla talla = tallas.get(datos.getTallaId());
+    if (talla == null || !talla.getColor().getId().equals(color.getId())) {
+      return "La talla " + datos.getTallaId() + " no pertenece al color " + datos.getColorId();
+    }
+    if (!almacenes.containsKey(datos.getAlmacenId())) {
+      return "Almacén no encontrado con ID " + datos.getAlmacenId();
+    }
+    return null;
+  }
+
+  private void leerLineas(InputStream contenido, String contentType, Consumer<LineaLeida> consumidor) throws IOException {
+    if (contentType != null && contentType.toLowerCase().contains("json")) {
+      leerJson(contenido, consumidor);
+    } else {
+      leerCsv(contenido, consumidor);
+    }
+  }
+
+  /**
+   * Lee un arreglo JSON o JSON delimitado por líneas, un elemento a la vez
+   */
+  private void leerJson(InputStream contenido, Consumer<LineaLeida> consumidor) throws IOException {
+    try (MappingIterator<IngresoStockLineaRequest> iterador =
+                 objectMapper.readerFor(IngresoStockLineaRequest.class).readValues(contenido)) {
+      int numero = 0;
+      while (true) {
+        IngresoStockLineaRequest datos;
+        try {
+          if (!iterador.hasNextValue()) {
+            break;
+          }
+          numero++;
+          datos = iterador.nextValue();
+        } catch (JsonProcessingException e) {
+          consumidor.accept(new LineaLeida(numero, null,
+                  "JSON inválido, se detiene la lectura: " + e.getOriginalMessage()));
+          break;
+        }
+        consumidor.accept(datos != null
+                ? new LineaLeida(numero, datos, null)
+                : new LineaLeida(numero, null, "Elemento nulo: se esperaba un objeto con los datos del ingreso"));
+      }
+    }
+  }
+
+  /**
+   * Lee un CSV con cabecera (serie, productoId, colorId, tallaId, almacenId, cantidad y opcionalmente costoUnitario),
+   * separado por coma o punto y coma
+   */
+  private void leerCsv(InputStream contenido, Consumer<LineaLeida> consumidor) throws IOException {
+    BufferedReader lector = new BufferedReader(new InputStreamReader(contenido, StandardCharsets.UTF_8));
+    String cabecera = lector.readLine();
+    if (cabecera == null) {
+      return;
+    }
+    cabecera = cabecera.replace("\uFEFF", "");
+    String separador = cabecera.contains(";") ? ";" : ",";
+
+    Map<String, Integer> columnas = new HashMap<>();
+    String[] nombres = cabecera.split(separador, -1);
+    for (int i = 0; i < nombres.length; i++) {
+      columnas.put(nombres[i].trim().toLowerCase(), i);
+    }
+    if (!columnas.containsKey("cantidad")) {
+      throw new BusinessException("La cabecera del CSV debe incluir la columna 'cantidad'");
+    }
+
+    String linea;
+    int numero = 0;
+    while ((linea = lector.readLine()) != null) {
+      if (linea.isBlank()) {
+        continue;
+      }
+      numero++;
+      String[] valores = linea.split(separador, -1);
+      LineaLeida leida;
+      try {
+        leida = new LineaLeida(numero, new IngresoStockLineaRequest(
+                valor(valores, columnas, "serie"),
+                numeroLargo(valores, columnas, "productoid"),
+                numeroLargo(valores, columnas, "colorid"),
+                numeroLargo(valores, columnas, "tallaid"),
+                numeroLargo(valores, columnas, "almacenid"),
+                numeroEntero(valores, columnas, "cantidad"),
+                numeroDecimal(valores, columnas, "costounitario")), null);
+      } catch (NumberFormatException e) {
+        leida = new LineaLeida(numero, null, "Valor numérico inválido: " + e.getMessage());
+      }
+      consumidor.accept(leida);
+    }
+  }
+
+  private String valor(String[] valores, Map<String, Integer> columnas, String columna) {
+    Integer indice = columnas.get(columna);
+    if (indice == null || indice >= valores.length) {
+      return null;
+    }
+    String valor = valores[indice].trim();
+    return valor.isEmpty() ? null : valor;
+  }
+
+  private Long numeroLargo(String[] valores, Map<String, Integer> columnas, String columna) {
+    String valor = valor(valores, columnas, columna);
+    return valor != null ? Long.valueOf(valor) : null;
+  }
+
+  private Integer numeroEntero(String[] valores, Map<String, Integer> columnas, String columna) {
+    String valor = valor(valores, columnas, columna);
+    return valor != null ? Integer.valueOf(valor) : null;
+  }
+
+  private BigDecimal numeroDecimal(String[] valores, Map<String, Integer> columnas, String columna) {
+    String valor = valor(valores, columnas, columna);
+    // Admite coma decimal en archivos separados por punto y coma
+    return valor != null ? new BigDecimal(valor.replace(',', '.')) : null;
+  }
+
+  private boolean tieneSerie(IngresoStockLineaRequest datos) {
+    return datos.getSerie() != null && !datos.getSerie().isBlank();
+  }
+
+  private void agregarSiNoNulo(Set<Long> ids, Long id) {
+    if (id != null) {
+      ids.add(id);
+    }
+  }
+
+  private String claveVariante(Long productoId, Long colorId, Long tallaId, Long almacenId) {
+    return productoId + "-" + colorId + "-" + tallaId + "-" + almacenId;
+  }
+
+  private <K, V> Map<K, V> porClave(Iterable<V> valores, Function<V, K> clave) {
+    Map<K, V> mapa = new HashMap<>();
+    valores.forEach(valor -> mapa.put(clave.apply(valor), valor));
+    return mapa;
+  }
+
+  private String obtenerUsuarioActual() {
+    Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+    return autenticacion != null ? autenticacion.getName() : "system";
+  }
+}
@@ -1,18 +1,25 @@
 package com.emersondev.service.impl;
 
 import com.emersondev.api.request.InventarioRequest;
+import com.emersondev.api.request.LineaTrasladoRequest;
+import com.emersondev.api.request.OrdenTrasladoRequest;
 import com.emersondev.api.response.InventarioResponse;
+import com.emersondev.api.response.OrdenTrasladoResponse;
 import com.emersondev.api.response.PagedResponse;
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.config.cache.CacheTags;
 import com.emersondev.domain.entity.*;
 import com.emersondev.domain.exception.*;
+import com.emersondev.domain.projection.InventarioResumen;
 import com.emersondev.domain.repository.*;
+import com.emersondev.domain.specification.InventarioSpecifications;
 import com.emersondev.mapper.InventarioMapper;
+import com.emersondev.service.interfaces.AlertaStockService;
 import com.emersondev.service.interfaces.InventarioService;
 import com.emersondev.util.PaginationUtils;
 import com.emersondev.util.SerieGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -21,7 +28,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +37,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class InventarioServiceImpl implements InventarioService {
 
+  /**
+   * IDs por consulta en las órdenes de traslado, lejos del límite de parámetros por sentencia de PostgreSQL
+   */
+  private static final int INVENTARIOS_POR_CONSULTA = 1000;
+
   private final InventarioRepository inventarioRepository;
   private final ProductoRepository productoRepository;
   private final ColorRepository colorRepository;
@@ -38,10 +51,12 @@ public class InventarioServiceImpl implements InventarioService {
   private final SerieGenerator serieGenerator;
   private final VentaRepository ventaRepository;
   private final UsuarioRepository usuarioRepository;
+  private final CacheInvalidator cacheInvalidator;
+  private final MovimientoInventarioRepository movimientoInventarioRepository;
+  private final AlertaStockService alertaStockService;
 
   @Override
   @Transactional
-  @CacheEvict(value = {"inventario", "productos"}, allEntries = true)
   public InventarioResponse agregarInventario(InventarioRequest request) {
     log.info("Agregando nuevo inventario para producto ID: {}", request.getProductoId());
 
@@ -102,6 +117,12 @@ public class InventarioServiceImpl implements InventarioService {
     inventario = inventarioRepository.save(inventario);
     log.info("Inventario agregado correctamente con ID: {}", inventario.getId());
 
+    // El stock inicial entra al historial como ENTRADA: la reconstrucción del stock a una fecha parte de cero
+    registrarMovimientoStock(inventario, MovimientoInventario.TipoMovimiento.ENTRADA, request.getCantidad(),
+            "Stock inicial del inventario");
+
+    cacheInvalidator.invalidar(CacheTags.altaBajaInventario(producto.getId(), almacen.getId()));
+
     return inventarioMapper.toResponse(inventario);
   }
 
@@ -119,8 +140,8 @@ public class InventarioServiceImpl implements InventarioService {
     // Crear el objeto pageable
     Pageable pageable = PaginationUtils.createPageable(page, size, sortBy, sortDir);
 
-    // Ejecutar la consulta paginada
-    Page<Inventario> inventarioPage =  inventarioRepository.findAll(pageable);
+    // Ejecutar la consulta paginada (proyección con las asociaciones en la misma consulta)
+    Page<InventarioResumen> inventarioPage = inventarioRepository.findAllResumen(pageable);
 
     // Si no hay resultados, devolver una respuesta vacia
     if (inventarioPage.isEmpty()) {
@@ -176,7 +197,7 @@ public class InventarioServiceImpl implements InventarioService {
     }
 
     log.debug("Obteniendo inventario para producto con ID: {}", productoId);
-    List<Inventario> inventarios = inventarioRepository.findByProductoId(productoId);
+    List<InventarioResumen> inventarios = inventarioRepository.findResumenByProductoId(productoId);
 
     return inventarios.stream()
             .map(inventarioMapper::toResponse)
@@ -186,7 +207,6 @@ public class InventarioServiceImpl implements InventarioService {
 
   @Override
   @Transactional
-  @CacheEvict(value = {"inventario", "productos"}, allEntries = true)
   public InventarioResponse actualizarInventario(Long id, InventarioRequest request) {
     log.info("Actualizando inventario con ID: {}", id);
 
@@ -197,6 +217,11 @@ public class InventarioServiceImpl implements InventarioService {
               return new InventarioNotFoundException(id);
             });
 
+    // Conservar las relaciones previas para invalidar sus entradas de caché
+    Long productoIdAnterior = inventario.getProducto().getId();
+    Integer cantidadAnterior = inventario.getCantidad();
+    Long almacenIdAnterior = inventario.getAlmacen().getId();
+
     // Verificar si hay cambio de producto/color/talla/almacén
     boolean cambioRelaciones = false;
 
@@ -266,30 +291,46 @@ public class InventarioServiceImpl implements InventarioService {
     inventario = inventarioRepository.save(inventario);
     log.info("Inventario actualizado exitosamente");
 
+    // Un cambio directo de cantidad queda en el historial como AJUSTE (cantidad absoluta)
+    if (!request.getCantidad().equals(cantidadAnterior)) {
+      registrarMovimientoStock(inventario, MovimientoInventario.TipoMovimiento.AJUSTE, request.getCantidad(),
+              "Ajuste de cantidad desde " + cantidadAnterior);
+    }
+
+    cacheInvalidator.invalidar(CacheTags.cambioStock(id, productoIdAnterior));
+    if (cambioRelaciones) {
+      cacheInvalidator.invalidar(CacheTags.altaBajaInventario(productoIdAnterior, almacenIdAnterior));
+      cacheInvalidator.invalidar(CacheTags.altaBajaInventario(request.getProductoId(), request.getAlmacenId()));
+    }
+
     return inventarioMapper.toResponse(inventario);
 
   }
 
   @Override
   @Transactional
-  @CacheEvict(value = {"inventario", "productos"}, allEntries = true)
   public void eliminarInventario(Long id) {
     log.info("Eliminando inventario con ID: {}", id);
 
     //Verificar que exista el inventario
-    if (!inventarioRepository.existsById(id)) {
-      log.error("Inventario no encontrado con ID: {}", id);
-      throw new InventarioNotFoundException(id);
-    }
+    Inventario inventario = inventarioRepository.findById(id)
+            .orElseThrow(() -> {
+              log.error("Inventario no encontrado con ID: {}", id);
+              return new InventarioNotFoundException(id);
+            });
+    Long productoId = inventario.getProducto().getId();
+    Long almacenId = inventario.getAlmacen().getId();
 
     //Eliminar inventario
-    inventarioRepository.deleteById(id);
+    inventarioRepository.delete(inventario);
     log.info("Inventario eliminado correctamente");
+
+    cacheInvalidator.invalidar(CacheTags.cambioStock(id, productoId));
+    cacheInvalidator.invalidar(CacheTags.altaBajaInventario(productoId, almacenId));
   }
 
   @Override
   @Transactional
-  @CacheEvict(value = {"inventario", "productos"}, allEntries = true)
   public void transferirInventario(Long inventarioId, Long almacenDestinoId, Integer cantidad) {
     log.info("Transfiriendo {} unidades del inventario {} al almacén {}",
             cantidad, inventarioId, almacenDestinoId);
@@ -338,9 +379,11 @@ public class InventarioServiceImpl implements InventarioService {
     if (inventarioDestino != null) {
       // Si ya existe, actualizamos la cantidad
       log.debug("Actualizando inventario destino existente, cantidad anterior: {}", inventarioDestino.getCantidad());
+      inventarioDestino.aplicarCostoEntrada(cantidad, inventarioOrigen.getCostoPromedio());
       inventarioDestino.setCantidad(inventarioDestino.getCantidad() + cantidad);
       inventarioDestino.actualizarEstado();
       inventarioRepository.save(inventarioDestino);
+      cacheInvalidator.invalidar(CacheTags.cambioStock(inventarioDestino.getId(), inventarioOrigen.getProducto().getId()));
 
     } else {
       // Si no existe, creamos un nuevo registro
@@ -351,6 +394,7 @@ public class InventarioServiceImpl implements InventarioService {
       inventarioDestino.setTalla(inventarioOrigen.getTalla());
       inventarioDestino.setAlmacen(almacenDestino);
       inventarioDestino.setCantidad(cantidad);
+      inventarioDestino.setCostoPromedio(inventarioOrigen.getCostoPromedio());
       inventarioDestino.setSerie(serieGenerator.generarSerieInventario(
               inventarioOrigen.getProducto(),
               inventarioOrigen.getColor(),
@@ -358,28 +402,248 @@ public class InventarioServiceImpl implements InventarioService {
       ));
       inventarioDestino.actualizarEstado();
       inventarioRepository.save(inventarioDestino);
+      cacheInvalidator.invalidar(CacheTags.altaBajaInventario(inventarioOrigen.getProducto().getId(), almacenDestino.getId()));
     }
 
     // Actualizar cantidad en origen
     inventarioOrigen.setCantidad(inventarioOrigen.getCantidad() - cantidad);
     log.debug("Actualizado inventario origen, nueva cantidad: {}", inventarioOrigen.getCantidad());
     inventarioRepository.save(inventarioOrigen);
+    cacheInvalidator.invalidar(CacheTags.cambioStock(inventarioOrigen.getId(), inventarioOrigen.getProducto().getId()));
 
     log.info("Transferencia completada exitosamente");
   }
 
+  @Override
+  @Transactional
+  public OrdenTrasladoResponse transferirOrden(OrdenTrasladoRequest request) {
+    Long almacenOrigenId = request.getAlmacenOrigenId();
+    Long almacenDestinoId = request.getAlmacenDestinoId();
+    log.info("Ejecutando orden de traslado de {} líneas del almacén {} al almacén {}",
+            request.getLineas().size(), almacenOrigenId, almacenDestinoId);
+
+    if (almacenOrigenId.equals(almacenDestinoId)) {
+      throw new BusinessException("No se puede transferir al mismo almacén origen");
+    }
+    if (!almacenRepository.existsById(almacenOrigenId)) {
+      throw new AlmacenNotFoundException(almacenOrigenId);
+    }
+    Almacen almacenDestino = almacenRepository.findById(almacenDestinoId)
+            .orElseThrow(() -> new AlmacenNotFoundException(almacenDestinoId));
+
+    // Agrupar líneas repetidas del mismo inventario
+    Map<Long, Integer> cantidades = new LinkedHashMap<>();
+    for (LineaTrasladoRequest linea : request.getLineas()) {
+      cantidades.merge(linea.getInventarioId(), linea.getCantidad(), Integer::sum);
+    }
+
+    // Origen y destinos existentes se bloquean en orden de ID, por lotes ascendentes: dos traslados cruzados entre
+    // los mismos almacenes, o una venta concurrente, esperan en el mismo orden en lugar de interbloquearse
+    List<Long> origenIds = new ArrayList<>(cantidades.keySet());
+    Set<Long> productoIds = new HashSet<>();
+    for (int desde = 0; desde < origenIds.size(); desde += INVENTARIOS_POR_CONSULTA) {
+      List<Long> lote = origenIds.subList(desde, Math.min(desde + INVENTARIOS_POR_CONSULTA, origenIds.size()));
+      productoIds.addAll(inventarioRepository.findProductoIdsByIdIn(lote));
+    }
+    Set<Long> porBloquear = new HashSet<>(origenIds);
+    List<Long> productos = new ArrayList<>(productoIds);
+    for (int desde = 0; desde < productos.size(); desde += INVENTARIOS_POR_CONSULTA) {
+      List<Long> lote = productos.subList(desde, Math.min(desde + INVENTARIOS_POR_CONSULTA, productos.size()));
+      porBloquear.addAll(inventarioRepository.findIdsByAlmacenIdAndProductoIdIn(almacenDestinoId, lote));
+    }
+    List<Long> bloquear = porBloquear.stream().sorted().toList();
+    List<Inventario> bloqueados = new ArrayList<>(bloquear.size());
+    for (int desde = 0; desde < bloquear.size(); desde += INVENTARIOS_POR_CONSULTA) {
+      List<Long> lote = bloquear.subList(desde, Math.min(desde + INVENTARIOS_POR_CONSULTA, bloquear.size()));
+      bloqueados.addAll(inventarioRepository.findParaActualizarByIdIn(lote));
+    }
+    Map<Long, Inventario> origenes = bloqueados.stream()
+            .filter(inventario -> cantidades.containsKey(inventario.getId()))
+            .collect(Collectors.toMap(Inventario::getId, Function.identity()));
+    for (Map.Entry<Long, Integer> linea : cantidades.entrySet()) {
+      Inventario origen = origenes.get(linea.getKey());
+      if (origen == null) {
+        throw new InventarioNotFoundException(linea.getKey());
+      }
+      if (!origen.getAlmacen().getId().equals(almacenOrigenId)) {
+        throw new BusinessException("El inventario " + origen.getId() + " no pertenece al almacén origen");
+      }
+      if (origen.getCantidad() < linea.getValue()) {
+        throw new StockInsuficienteException(
+                "No hay suficiente stock disponible para transferir el inventario " + origen.getSerie(),
+                origen.getCantidad(),
+                linea.getValue());
+      }
+    }
+
+    Map<String, Inventario> destinos = bloqueados.stream()
+            .filter(inventario -> inventario.getAlmacen().getId().equals(almacenDestinoId))
+            .collect(Collectors.toMap(this::claveVariante, Function.identity(), (a, b) -> a));
+
+    String referencia = request.getReferencia() != null && !request.getReferencia().isBlank()
+            ? request.getReferencia().trim()
+            : "Traslado " + almacenOrigenId + "-" + almacenDestinoId + " " + LocalDateTime.now().toLocalDate();
+    String usuario = obtenerUsuarioActual();
+    List<Inventario> nuevos = new ArrayList<>();
+    Set<Long> actualizados = new HashSet<>();
+    List<MovimientoInventario> movimientos = new ArrayList<>(cantidades.size() * 2);
+    Set<String> tags = new HashSet<>();
+    long unidades = 0;
+
+    for (Map.Entry<Long, Integer> linea : cantidades.entrySet()) {
+      Inventario origen = origenes.get(linea.getKey());
+      int cantidad = linea.getValue();
+      Long productoId = origen.getProducto().getId();
+
+      Inventario destino = destinos.get(claveVariante(origen));
+      if (destino == null) {
+        destino = new Inventario();
+        destino.setProducto(origen.getProducto());
+        destino.setColor(origen.getColor());
+        destino.setTalla(origen.getTalla());
+        destino.setAlmacen(almacenDestino);
+        destino.setCantidad(0);
+        destinos.put(claveVariante(origen), destino);
+        nuevos.add(destino);
+        tags.addAll(CacheTags.altaBajaInventario(productoId, almacenDestinoId));
+      } else if (destino.getId() != null) {
+        actualizados.add(destino.getId());
+        tags.addAll(CacheTags.cambioStock(destino.getId(), productoId));
+      }
+
+      origen.setCantidad(origen.getCantidad() - cantidad);
+      origen.actualizarEstado();
+      destino.aplicarCostoEntrada(cantidad, origen.getCostoPromedio());
+      destino.setCantidad(destino.getCantidad() + cantidad);
+      destino.actualizarEstado();
+      tags.addAll(CacheTags.cambioStock(origen.getId(), productoId));
+
+      // Movimientos pareados: TRASLADO en origen y ENTRADA en destino
+      movimientos.add(crearMovimiento(origen, destino, MovimientoInventario.TipoMovimiento.TRASLADO, cantidad,
+              referencia, "Traslado al almacén " + almacenDestino.getNombre(), usuario));
+      MovimientoInventario entrada = crearMovimiento(destino, null, MovimientoInventario.TipoMovimiento.ENTRADA,
+              cantidad, referencia, "Traslado desde inventario " + origen.getId(), usuario);
+      entrada.setCostoUnitario(origen.getCostoPromedio());
+      movimientos.add(entrada);
+      unidades += cantidad;
+    }
+
+    // Los destinos nuevos se insertan antes que los movimientos que los referencian;
+    // los inventarios existentes se actualizan al hacer flush
+    serieGenerator.asignarSeriesInventario(nuevos);
+    inventarioRepository.saveAll(nuevos);
+    movimientoInventarioRepository.saveAll(movimientos);
+
+    cacheInvalidator.invalidar(tags);
+    log.info("Orden de traslado completada: {} unidades, {} inventarios destino creados, {} actualizados",
+            unidades, nuevos.size(), actualizados.size());
+
+    return new OrdenTrasladoResponse(almacenOrigenId, almacenDestinoId, referencia, cantidades.size(), unidades,
+            nuevos.size(), actualizados.size());
+  }
+
+  @Override
+  @Transactional
+  public InventarioResponse actualizarStockMinimo(Long id, Integer stockMinimo) {
+    log.info("Actualizando stock mínimo del inventario {} a {}", id, stockMinimo);
+
+    if (stockMinimo != null && stockMinimo < 0) {
+      throw new BusinessException("El stock mínimo no puede ser negativo");
+    }
+
+    Inventario inventario = inventarioRepository.findById(id)
+            .orElseThrow(() -> new InventarioNotFoundException(id));
+
+    inventario.setStockMinimo(stockMinimo != null ? stockMinimo : inventario.getProducto().getStockMinimo());
+    if (inventario.getEstado() != Inventario.EstadoInventario.RESERVADO) {
+      inventario.actualizarEstado();
+    }
+    inventario = inventarioRepository.save(inventario);
+
+    cacheInvalidator.invalidar(CacheTags.cambioStock(id, inventario.getProducto().getId()));
+    return inventarioMapper.toResponse(inventario);
+  }
+
+  private List<InventarioResumen> buscarResumenEnAlerta() {
+    Set<Long> ids = alertaStockService.obtenerInventariosEnAlerta();
+    return ids.isEmpty() ? List.of() : inventarioRepository.findResumenByIdIn(ids);
+  }
+
+  private MovimientoInventario crearMovimiento(Inventario inventario, Inventario inventarioDestino,
+                                                       MovimientoInventario.TipoMovimiento tipo, int cantidad,
+                                                       String referencia, String descripcion, String usuario) {
+    MovimientoInventario movimiento = new MovimientoInventario();
+    movimiento.setInventario(inventario);
+    movimiento.setInventarioDestino(inventarioDestino);
+    movimiento.setTipo(tipo);
+    movimiento.setCantidad(cantidad);
+    movimiento.setReferencia(referencia);
+    movimiento.setDescripcion(descripcion);
+    movimiento.setUsuario(usuario);
+    movimiento.setFechaMovimiento(LocalDateTime.now());
+    return movimiento;
+  }
+
+  private void registrarMovimientoStock(Inventario inventario, MovimientoInventario.TipoMovimiento tipo, int cantidad,
+                                       String descripcion) {
+    movimientoInventarioRepository.save(crearMovimiento(inventario, null, tipo, cantidad,
+            "Inventario " + inventario.getSerie(), descripcion, obtenerUsuarioActual()));
+  }
+
+  private String claveVariante(Inventario inventario) {
+    return inventario.getProducto().getId() + "-" + inventario.getColor().getId() + "-" + inventario.getTalla().getId();
+  }
+
+  private String obtenerUsuarioActual() {
+    try {
+      return SecurityContextHolder.getContext().getAuthentication().getName();
+    } catch (Exception e) {
+      return "anonymous";
+    }
+  }
+
   @Override
   @Transactional
   public List<InventarioResponse> obtenerInventarioConStockBajo(Integer umbral) {
     log.debug("Obteniendo inventario con stock bajo (umbral: {})", umbral);
 
-    List<Inventario> inventarios = inventarioRepository.findByCantidadLessThanEqual(umbral);
+    // Sin umbral explícito se usan las alertas en memoria: una consulta por ID en lugar de recorrer la tabla
+    List<InventarioResumen> inventarios = umbral != null
+            ? inventarioRepository.findResumenByCantidadLessThanEqual(umbral)
+            : buscarResumenEnAlerta();
 
     return inventarios.stream()
             .map(inventarioMapper::toResponse)
             .collect(Collectors.toList());
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public PagedResponse<InventarioResponse> buscarInventario(Long productoId, Long colorId, Long tallaId, Long almacenId,
+                                                            Inventario.EstadoInventario estado,
+                                                            int page, int size, String sortBy, String sortDir) {
+    log.debug("Buscando inventarios: producto {}, color {}, talla {}, almacén {}, estado {}",
+            productoId, colorId, tallaId, almacenId, estado);
+
+    // Validamos parametros de paginacion
+    int[] validatedParams = PaginationUtils.validatePaginationParams(page, size);
+    page = validatedParams[0];
+    size = validatedParams[1];
+
+    Pageable pageable = PaginationUtils.createPageable(page, size, sortBy, sortDir);
+
+    // Ejecutar la consulta paginada solo con los filtros informados
+    Page<Inventario> inventarioPage = inventarioRepository.findAll(
+            InventarioSpecifications.filtrar(productoId, colorId, tallaId, almacenId, estado), pageable);
+
+    if (inventarioPage.isEmpty()) {
+      log.info("No se encontraron inventarios para los filtros especificados");
+      return PaginationUtils.emptyPagedResponse(page, size);
+    }
+
+    return PaginationUtils.createPagedResponse(inventarioPage, inventarioMapper::toResponse);
+  }
+
   @Override
   @Transactional
   @Cacheable(value = "inventario", key = "'stock-total-producto-' + #productoId")
@@ -419,7 +683,6 @@ public class InventarioServiceImpl implements InventarioService {
 
   @Override
   @Transactional
-  @CacheEvict(value = {"inventario", "productos"}, allEntries = true)
   public void actualizarStockPorVenta(Long productoId, Long colorId, Long tallaId, Integer cantidad, Long ventaId) {
     log.info("Actualizando stock por venta: producto {}, color {}, talla {}, cantidad {}",
             productoId, colorId, tallaId, cantidad);
@@ -470,6 +733,7 @@ public class InventarioServiceImpl implements InventarioService {
       inventario.setCantidad(cantidadDisponible -  cantidadAActualizar);
       cantidadRestante -= cantidadAActualizar;
       inventarioRepository.save(inventario);
+      cacheInvalidator.invalidar(CacheTags.cambioStock(inventario.getId(), productoId));
     }
 
     log.info("Stock actualizado correctamente por venta");
@@ -478,7 +742,6 @@ public class InventarioServiceImpl implements InventarioService {
 
   @Override
   @Transactional
-  @CacheEvict(value = {"inventario", "productos"}, allEntries = true)
   public void disminuirStock(Long inventarioId, Integer cantidad) {
     log.info("Disminuyendo stock de inventario ID: {} en {} unidades", inventarioId, cantidad);
 
@@ -499,12 +762,12 @@ public class InventarioServiceImpl implements InventarioService {
 
     inventario.setCantidad(inventario.getCantidad() - cantidad);
     inventarioRepository.save(inventario);
+    cacheInvalidator.invalidar(CacheTags.cambioStock(inventarioId, inventario.getProducto().getId()));
     log.debug("Stock disminuido correctamente. Nueva cantidad: {}", inventario.getCantidad());
   }
 
   @Override
   @Transactional
-  @CacheEvict(value = {"inventario", "productos"}, allEntries = true)
   public void devolverStockPorAnulacion(Long productoId, Long colorId, Long tallaId, Integer cantidad, Long ventaId) {
     log.info("Devolviendo stock por anulacion: producto {}, color {}, talla {}, cantidad {}", productoId, colorId, tallaId, cantidad);
 
@@ -543,6 +806,7 @@ public class InventarioServiceImpl implements InventarioService {
     inventario.setCantidad(inventario.getCantidad() + cantidad);
     inventario.actualizarEstado();
     inventarioRepository.save(inventario);
+    cacheInvalidator.invalidar(CacheTags.cambioStock(inventario.getId(), productoId));
 
     log.info("Stock devuelto correctamente por anulación");
   }
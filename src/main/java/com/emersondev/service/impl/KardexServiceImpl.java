@@ -0,0 +1,249 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.domain.exception.InventarioNotFoundException;
+import com.emersondev.domain.projection.InventarioResumen;
+import com.emersondev.domain.projection.KardexLinea;
+import com.emersondev.domain.repository.InventarioRepository;
+import com.emersondev.service.interfaces.KardexService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KardexServiceImpl implements KardexService {
+
+  private static final int FETCH_SIZE = 500;
+  private static final int FILAS_POR_BLOQUE_PDF = 200;
+  private static final LocalDateTime FECHA_MINIMA = LocalDateTime.of(1900, 1, 1, 0, 0);
+  private static final LocalDateTime FECHA_MAXIMA = LocalDateTime.of(9999, 12, 31, 0, 0);
+  private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+  /**
+   * Saldo acumulado calculado en la base de datos. Un AJUSTE fija el stock absoluto, por lo que cada
+   * ajuste abre un tramo nuevo: el saldo es la suma de los deltas desde el último ajuste. Entradas y salidas
+   * se derivan de la diferencia con el saldo anterior. El filtro de fechas se aplica después de acumular,
+   * para que el saldo incluya los movimientos previos al rango.
+   */
+  private static final String SQL_KARDEX = """
+          SELECT k.id, k.fecha_movimiento, k.tipo, k.referencia, k.descripcion, k.usuario, k.costo_unitario, k.saldo,
+                 GREATEST(k.saldo - k.saldo_anterior, 0) AS entrada,
+                 GREATEST(k.saldo_anterior - k.saldo, 0) AS salida
+          FROM (
+            SELECT s.*, LAG(s.saldo, 1, 0) OVER (ORDER BY s.fecha_movimiento, s.id) AS saldo_anterior
+            FROM (
+              SELECT t.*, SUM(t.delta) OVER (PARTITION BY t.tramo ORDER BY t.fecha_movimiento, t.id) AS saldo
+              FROM (
+                SELECT m.id, m.fecha_movimiento, m.tipo, m.referencia, m.descripcion, m.usuario, m.costo_unitario,
+                       CASE m.tipo WHEN 'ENTRADA' THEN ABS(m.cantidad)
+                                   WHEN 'AJUSTE' THEN m.cantidad
+                                   ELSE -ABS(m.cantidad) END AS delta,
+                       COUNT(*) FILTER (WHERE m.tipo = 'AJUSTE') OVER (ORDER BY m.fecha_movimiento, m.id) AS tramo
+                FROM movimientos_inventario m
+                WHERE m.inventario_id = ?
+              ) t
+            ) s
+          ) k
+          WHERE k.fecha_movimiento >= ? AND k.fecha_movimiento < ?
+          ORDER BY k.fecha_movimiento, k.id
+          """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final InventarioRepository inventarioRepository;
+  private final PlatformTransactionManager transactionManager;
+  private final ObjectMapper objectMapper;
+
+  @Override
+  @Transactional(readOnly = true)
+  public InventarioResumen obtenerInventario(Long inventarioId) {
+    return inventarioRepository.findResumenByIdIn(List.of(inventarioId)).stream()
+            .findFirst()
+            .orElseThrow(() -> new InventarioNotFoundException(inventarioId));
+  }
+
+  @Override
+  public void exportar(Long inventarioId, LocalDateTime desde, LocalDateTime hasta, Formato formato,
+                       OutputStream salida) throws IOException {
+    log.info("Exportando kardex del inventario {} en formato {}", inventarioId, formato);
+    try {
+      switch (formato) {
+        case CSV -> exportarCsv(inventarioId, desde, hasta, salida);
+        case NDJSON -> exportarNdjson(inventarioId, desde, hasta, salida);
+        case PDF -> exportarPdf(inventarioId, desde, hasta, salida);
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void exportarCsv(Long inventarioId, LocalDateTime desde, LocalDateTime hasta, OutputStream salida)
+          throws IOException {
+    Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+    escritor.write("movimiento_id,fecha,tipo,entrada,salida,saldo,costo_unitario,referencia,descripcion,usuario\n");
+    recorrerKardex(inventarioId, desde, hasta, linea -> escribir(escritor, String.join(",",
+            String.valueOf(linea.movimientoId()),
+            linea.fecha().toString(),
+            linea.tipo(),
+            String.valueOf(linea.entrada()),
+            String.valueOf(linea.salida()),
+            String.valueOf(linea.saldo()),
+            linea.costoUnitario() != null ? linea.costoUnitario().toPlainString() : "",
+            campoCsv(linea.referencia()),
+            campoCsv(linea.descripcion()),
+            campoCsv(linea.usuario())) + "\n"));
+    escritor.flush();
+  }
+
+  private void exportarNdjson(Long inventarioId, LocalDateTime desde, LocalDateTime hasta, OutputStream salida)
+          throws IOException {
+    Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+    recorrerKardex(inventarioId, desde, hasta, linea -> {
+      try {
+        escritor.write(objectMapper.writeValueAsString(linea));
+        escritor.write('\n');
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    escritor.flush();
+  }
+
+  /**
+   * Tabla en modo "large table": las filas se vuelcan al documento por bloques y cada página
+   * completa se escribe en la salida, sin construir el PDF en memoria
+   */
+  private void exportarPdf(Long inventarioId, LocalDateTime desde, LocalDateTime hasta, OutputStream salida)
+          throws IOException {
+    InventarioResumen inventario = obtenerInventario(inventarioId);
+    PdfFont boldFont = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
+    PdfFont normalFont = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+
+    PdfDocument pdfDoc = new PdfDocument(new PdfWriter(salida));
+    Document document = new Document(pdfDoc, PageSize.A4.rotate());
+    document.setMargins(20, 20, 20, 20);
+
+    document.add(new Paragraph("KARDEX DE INVENTARIO").setFont(boldFont).setFontSize(14));
+    document.add(new Paragraph(String.format("Serie: %s | Producto: %s - %s | Color: %s | Talla: %s | Almacén: %s",
+            inventario.serie(), inventario.productoCodigo(), inventario.productoNombre(),
+            inventario.colorNombre(), inventario.tallaNumero(), inventario.almacenNombre()))
+            .setFont(normalFont).setFontSize(9));
+
+    Table tabla = new Table(UnitValue.createPercentArray(new float[]{12, 9, 7, 7, 7, 9, 14, 25, 10}), true)
+            .useAllAvailableWidth();
+    for (String titulo : new String[]{"Fecha", "Tipo", "Entrada", "Salida", "Saldo", "Costo unit.", "Referencia",
+            "Descripción", "Usuario"}) {
+      tabla.addHeaderCell(new Cell().add(new Paragraph(titulo).setFont(boldFont).setFontSize(8))
+              .setBackgroundColor(new DeviceRgb(230, 230, 230)));
+    }
+    document.add(tabla);
+
+    int[] filas = {0};
+    recorrerKardex(inventarioId, desde, hasta, linea -> {
+      tabla.addCell(celda(linea.fecha().format(FORMATO_FECHA), normalFont, TextAlignment.LEFT));
+      tabla.addCell(celda(linea.tipo(), normalFont, TextAlignment.LEFT));
+      tabla.addCell(celda(String.valueOf(linea.entrada()), normalFont, TextAlignment.RIGHT));
+      tabla.addCell(celda(String.valueOf(linea.salida()), normalFont, TextAlignment.RIGHT));
+      tabla.addCell(celda(String.valueOf(linea.saldo()), boldFont, TextAlignment.RIGHT));
+      tabla.addCell(celda(linea.costoUnitario() != null ? linea.costoUnitario().toPlainString() : "-", normalFont,
+              TextAlignment.RIGHT));
+      tabla.addCell(celda(linea.referencia(), normalFont, TextAlignment.LEFT));
+      tabla.addCell(celda(linea.descripcion(), normalFont, TextAlignment.LEFT));
+      tabla.addCell(celda(linea.usuario(), normalFont, TextAlignment.LEFT));
+      if (++filas[0] % FILAS_POR_BLOQUE_PDF == 0) {
+        tabla.flush();
+      }
+    });
+    tabla.complete();
+
+    if (filas[0] == 0) {
+      document.add(new Paragraph("Sin movimientos en el rango indicado").setFont(normalFont).setFontSize(9));
+    }
+    document.close();
+  }
+
+  /**
+   * Recorre el kardex con un cursor del servidor: el driver de PostgreSQL solo respeta
+   * el fetchSize con autocommit desactivado, por eso la consulta corre en una transacción de solo lectura
+   */
+  private void recorrerKardex(Long inventarioId, LocalDateTime desde, LocalDateTime hasta,
+                              Consumer<KardexLinea> consumidor) {
+    TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+    transaccion.setReadOnly(true);
+    transaccion.executeWithoutResult(status -> jdbcTemplate.query(conexion -> {
+      PreparedStatement statement = conexion.prepareStatement(SQL_KARDEX);
+      statement.setFetchSize(FETCH_SIZE);
+      statement.setLong(1, inventarioId);
+      statement.setTimestamp(2, Timestamp.valueOf(desde != null ? desde : FECHA_MINIMA));
+      statement.setTimestamp(3, Timestamp.valueOf(hasta != null ? hasta : FECHA_MAXIMA));
+      return statement;
+    }, (RowCallbackHandler) resultSet -> consumidor.accept(mapearLinea(resultSet))));
+  }
+
+  private KardexLinea mapearLinea(ResultSet resultSet) throws SQLException {
+    return new KardexLinea(
+            resultSet.getLong("id"),
+            resultSet.getTimestamp("fecha_movimiento").toLocalDateTime(),
+            resultSet.getString("tipo"),
+            resultSet.getInt("entrada"),
+            resultSet.getInt("salida"),
+            resultSet.getInt("saldo"),
+            resultSet.getBigDecimal("costo_unitario"),
+            resultSet.getString("referencia"),
+            resultSet.getString("descripcion"),
+            resultSet.getString("usuario"));
+  }
+
+  private Cell celda(String texto, PdfFont fuente, TextAlignment alineacion) {
+    return new Cell().add(new Paragraph(texto != null ? texto : "").setFont(fuente).setFontSize(8))
+            .setTextAlignment(alineacion);
+  }
+
+  private void escribir(Writer escritor, String texto) {
+    try {
+      escritor.write(texto);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private String campoCsv(String valor) {
+    if (valor == null) {
+      return "";
+    }
+    if (valor.contains(",") || valor.contains("\"") || valor.contains("\n") || valor.contains("\r")) {
+      return "\"" + valor.replace("\"", "\"\"") + "\"";
+    }
+    return valor;
+  }
+}
@@ -3,19 +3,21 @@ package com.emersondev.service.impl;
 import com.emersondev.api.request.MovimientoInventarioRequest;
 import com.emersondev.api.response.MovimientoInventarioResponse;
 import com.emersondev.api.response.PagedResponse;
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.config.cache.CacheTags;
 import com.emersondev.domain.entity.Inventario;
 import com.emersondev.domain.entity.MovimientoInventario;
 import com.emersondev.domain.entity.Venta;
 import com.emersondev.domain.exception.BusinessException;
 import com.emersondev.domain.exception.ResourceNotFoundException;
 import com.emersondev.domain.repository.*;
+import com.emersondev.domain.specification.MovimientoInventarioSpecifications;
 import com.emersondev.mapper.MovimientoInventarioMapper;
 import com.emersondev.service.interfaces.MovimientoInventarioService;
 import com.emersondev.util.PaginationUtils;
 import com.emersondev.util.SerieGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +25,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Service
@@ -39,10 +42,10 @@ public class MovimientoInventarioServiceImpl implements MovimientoInventarioServ
   private final TallaRepository tallaRepository;
   private final AlmacenRepository almacenRepository;
   private final SerieGenerator serieGenerator;
+  private final CacheInvalidator cacheInvalidator;
 
   @Override
   @Transactional
-  @CacheEvict(value = {"productos", "inventarios"}, allEntries = true)
   public MovimientoInventarioResponse registrarMovimiento(MovimientoInventarioRequest movimientoRequest) {
     log.info("Registrando movimiento para inventario ID {}", movimientoRequest.getInventarioId());
 
@@ -111,6 +114,12 @@ public class MovimientoInventarioServiceImpl implements MovimientoInventarioServ
     // Actualizar la cantidad en el inventario según el tipo de movimiento
     switch (tipo) {
       case ENTRADA:
+        // El costo de compra actualiza el costo promedio ponderado antes de sumar las unidades
+        BigDecimal costoEntrada = movimientoRequest.getCostoUnitario() != null
+                ? movimientoRequest.getCostoUnitario()
+                : inventario.getProducto().getPrecioCompra();
+        inventario.aplicarCostoEntrada(movimientoRequest.getCantidad(), costoEntrada);
+        movimiento.setCostoUnitario(costoEntrada);
         inventario.setCantidad(inventario.getCantidad() + movimientoRequest.getCantidad());
         break;
       case SALIDA:
@@ -129,6 +138,7 @@ public class MovimientoInventarioServiceImpl implements MovimientoInventarioServ
         Long tallaIdOrigen = inventario.getTalla().getId();
 
         Inventario inventarioDestino = null;
+        boolean destinoCreado = false;
 
         if (movimientoRequest.getInventarioDestinoId() != null) {
           // Buscar inventario destino por ID
@@ -170,6 +180,7 @@ public class MovimientoInventarioServiceImpl implements MovimientoInventarioServ
             inventarioDestino.setSerie(nuevaSerie);
 
             inventarioDestino = inventarioRepository.save(inventarioDestino);
+            destinoCreado = true;
           }
         }
 
@@ -182,7 +193,8 @@ public class MovimientoInventarioServiceImpl implements MovimientoInventarioServ
         inventario.setCantidad(inventario.getCantidad() - movimientoRequest.getCantidad());
         inventario.actualizarEstado();
 
-        // Sumar al inventario destino
+        // Sumar al inventario destino, que recibe las unidades al costo promedio del origen
+        inventarioDestino.aplicarCostoEntrada(movimientoRequest.getCantidad(), inventario.getCostoPromedio());
         inventarioDestino.setCantidad(inventarioDestino.getCantidad() + movimientoRequest.getCantidad());
         inventarioDestino.actualizarEstado();
 
@@ -200,12 +212,20 @@ public class MovimientoInventarioServiceImpl implements MovimientoInventarioServ
         movimientoEntrada.setReferencia(movimientoRequest.getReferencia());
         movimientoEntrada.setDescripcion("Traslado desde inventario " + inventario.getId());
         movimientoEntrada.setUsuario(usuario);
+        movimientoEntrada.setCostoUnitario(inventario.getCostoPromedio());
         movimientoEntrada.setFechaMovimiento(LocalDateTime.now());
         inventarioDestino.agregarMovimiento(movimientoEntrada);
 
         inventarioRepository.save(inventario);
         inventarioRepository.save(inventarioDestino);
 
+        // Invalidar solo las entradas de caché que dependen de los inventarios involucrados
+        cacheInvalidator.invalidar(CacheTags.cambioStock(inventario.getId(), productoIdOrigen));
+        cacheInvalidator.invalidar(CacheTags.cambioStock(inventarioDestino.getId(), productoIdOrigen));
+        if (destinoCreado) {
+          cacheInvalidator.invalidar(CacheTags.altaBajaInventario(productoIdOrigen, movimientoRequest.getAlmacenDestinoId()));
+        }
+
         return movimientoMapper.toResponse(movimiento); // El de salida, con inventarioDestino seteado
     }
 
@@ -221,6 +241,8 @@ public class MovimientoInventarioServiceImpl implements MovimientoInventarioServ
     log.info("Movimiento registrado exitosamente. Nuevo stock: {}, Estado: {}",
             inventario.getCantidad(), inventario.getEstado());
 
+    cacheInvalidator.invalidar(CacheTags.cambioStock(inventario.getId(), inventario.getProducto().getId()));
+
     return movimientoMapper.toResponse(movimiento);
   }
 
@@ -291,10 +313,10 @@ public class MovimientoInventarioServiceImpl implements MovimientoInventarioServ
     // Crear objeto pageable
     Pageable pageable = PaginationUtils.createPageable(page, size, sortBy, sortDir);
 
-    // Ejecutar la consulta paginada con filtros
-    Page<MovimientoInventario> movimientoPage = movimientoRepository.buscarMovimientos(
-            inventarioId, productoId, colorId, tallaId,
-            tipo, fechaInicio, fechaFin, pageable);
+    // Ejecutar la consulta paginada solo con los filtros informados
+    Page<MovimientoInventario> movimientoPage = movimientoRepository.findAll(
+            MovimientoInventarioSpecifications.filtrar(inventarioId, productoId, colorId, tallaId,
+                    tipo, fechaInicio, fechaFin), pageable);
 
     // Si no hay resultados, devolver una respuesta vacía
     if (movimientoPage.isEmpty()) {
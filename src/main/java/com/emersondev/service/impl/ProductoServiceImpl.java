@@ -2,31 +2,46 @@ package com.emersondev.service.impl;
 
 import com.emersondev.api.request.ProductoRequest;
 import com.emersondev.api.response.PagedResponse;
+import com.emersondev.api.response.ProductoBusquedaResponse;
+import com.emersondev.api.response.ProductoDetalleResponse;
 import com.emersondev.api.response.ProductoResponse;
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.config.cache.CacheTags;
+import com.emersondev.domain.entity.Color;
+import com.emersondev.domain.entity.Inventario;
 import com.emersondev.domain.entity.Producto;
+import com.emersondev.domain.entity.Talla;
+import com.emersondev.domain.event.ImagenProductoEvent;
 import com.emersondev.domain.exception.BusinessException;
 import com.emersondev.domain.exception.ProductoNotFoundException;
+import com.emersondev.domain.projection.ProductoTextoCoincidencia;
+import com.emersondev.domain.projection.StockVarianteAlmacen;
 import com.emersondev.domain.repository.InventarioRepository;
 import com.emersondev.domain.repository.ProductoRepository;
 import com.emersondev.mapper.ProductoMapper;
+import com.emersondev.service.interfaces.AlertaStockService;
 import com.emersondev.service.interfaces.FileStorageService;
 import com.emersondev.service.interfaces.ProductoService;
 import com.emersondev.util.PaginationUtils;
 import com.emersondev.util.SerieGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,10 +54,12 @@ public class ProductoServiceImpl implements ProductoService {
   private final ProductoMapper productoMapper;
   private final FileStorageService fileStorageService;
   private final SerieGenerator serieGenerator;
+  private final CacheInvalidator cacheInvalidator;
+  private final AlertaStockService alertaStockService;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Override
   @Transactional
-  @CacheEvict(value = "productos", allEntries = true)
   public ProductoResponse crearProducto(ProductoRequest productoRequest) {
     log.info("Creando nuevo Producto: {}", productoRequest.getNombre());
     log.info("Código recibido en request: '{}'", productoRequest.getCodigo());
@@ -71,6 +88,7 @@ public class ProductoServiceImpl implements ProductoService {
 
     log.info("Producto guardado con código: '{}'", producto.getCodigo());
 
+    cacheInvalidator.invalidar(CacheTags.coleccion("productos"));
 
     return productoMapper.toResponse(producto);
   }
@@ -133,6 +151,64 @@ public class ProductoServiceImpl implements ProductoService {
     return productoMapper.toResponse(producto);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  @Cacheable(value = "productos", key = "'detalle-' + #id")
+  public ProductoDetalleResponse obtenerDetalleProducto(Long id) {
+    log.debug("Obteniendo detalle del producto con ID {}", id);
+
+    // Producto, colores y tallas en una consulta; el stock de todas las variantes en otra
+    Producto producto = productoRepository.findByIdWithDetails(id)
+            .orElseThrow(() -> new ProductoNotFoundException(id));
+    Map<Long, Map<Long, List<StockVarianteAlmacen>>> stockPorColorYTalla = inventarioRepository
+            .findStockPorVarianteYAlmacen(id).stream()
+            .collect(Collectors.groupingBy(StockVarianteAlmacen::colorId,
+                    Collectors.groupingBy(StockVarianteAlmacen::tallaId)));
+
+    ProductoDetalleResponse detalle = new ProductoDetalleResponse();
+    detalle.setId(producto.getId());
+    detalle.setCodigo(producto.getCodigo());
+    detalle.setNombre(producto.getNombre());
+    detalle.setDescripcion(producto.getDescripcion());
+    detalle.setMarca(producto.getMarca());
+    detalle.setModelo(producto.getModelo());
+    detalle.setPrecioCompra(producto.getPrecioCompra());
+    detalle.setPrecioVenta(producto.getPrecioVenta());
+    detalle.setImagen(producto.getImagen());
+    detalle.setStockMinimo(producto.getStockMinimo());
+    detalle.setFechaCreacion(producto.getFechaCreacion());
+    detalle.setFechaActualizacion(producto.getFechaActualizacion());
+
+    List<Color> colores = producto.getColores().stream().sorted(Comparator.comparing(Color::getId)).toList();
+    for (Color color : colores) {
+      Map<Long, List<StockVarianteAlmacen>> stockPorTalla = stockPorColorYTalla.getOrDefault(color.getId(), Map.of());
+      ProductoDetalleResponse.ColorDetalle colorDetalle = new ProductoDetalleResponse.ColorDetalle();
+      colorDetalle.setId(color.getId());
+      colorDetalle.setNombre(color.getNombre());
+      colorDetalle.setCodigoHex(color.getCodigoHex());
+
+      List<Talla> tallas = color.getTallas().stream().sorted(Comparator.comparing(Talla::getId)).toList();
+      for (Talla talla : tallas) {
+        ProductoDetalleResponse.TallaDetalle tallaDetalle = new ProductoDetalleResponse.TallaDetalle();
+        tallaDetalle.setId(talla.getId());
+        tallaDetalle.setNumero(talla.getNumero());
+        for (StockVarianteAlmacen stock : stockPorTalla.getOrDefault(talla.getId(), List.of())) {
+          ProductoDetalleResponse.StockAlmacen stockAlmacen = new ProductoDetalleResponse.StockAlmacen();
+          stockAlmacen.setAlmacenId(stock.almacenId());
+          stockAlmacen.setAlmacenNombre(stock.almacenNombre());
+          stockAlmacen.setCantidad(stock.cantidad().intValue());
+          tallaDetalle.getAlmacenes().add(stockAlmacen);
+          tallaDetalle.setStockTotal(tallaDetalle.getStockTotal() + stockAlmacen.getCantidad());
+        }
+        colorDetalle.getTallas().add(tallaDetalle);
+        colorDetalle.setStockTotal(colorDetalle.getStockTotal() + tallaDetalle.getStockTotal());
+      }
+      detalle.getColores().add(colorDetalle);
+      detalle.setStockTotal(detalle.getStockTotal() + colorDetalle.getStockTotal());
+    }
+    return detalle;
+  }
+
   @Override
   @Transactional
   public List<ProductoResponse> buscarProductos(String termino, String filtro) {
@@ -157,9 +233,37 @@ public class ProductoServiceImpl implements ProductoService {
             .collect(Collectors.toList());
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public PagedResponse<ProductoBusquedaResponse> buscarTextoCompleto(String termino, int page, int size) {
+    if (termino == null || termino.isBlank()) {
+      throw new BusinessException("Indique el término de búsqueda");
+    }
+    int[] validatedParams = PaginationUtils.validatePaginationParams(page, size);
+    page = validatedParams[0];
+    size = validatedParams[1];
+
+    long total = productoRepository.contarTextoCompleto(termino);
+    if (total == 0) {
+      return PaginationUtils.emptyPagedResponse(page, size);
+    }
+
+    List<ProductoBusquedaResponse> contenido = productoRepository
+            .buscarTextoCompleto(termino, size, (long) page * size).stream()
+            .map(this::toBusquedaResponse)
+            .toList();
+    int totalPaginas = (int) ((total + size - 1) / size);
+    return new PagedResponse<>(contenido, page, size, total, totalPaginas, page >= totalPaginas - 1);
+  }
+
+  private ProductoBusquedaResponse toBusquedaResponse(ProductoTextoCoincidencia coincidencia) {
+    return new ProductoBusquedaResponse(coincidencia.getId(), coincidencia.getCodigo(), coincidencia.getNombre(),
+            coincidencia.getMarca(), coincidencia.getModelo(), coincidencia.getPrecioVenta(),
+            coincidencia.getImagen(), coincidencia.getPuntaje(), coincidencia.getFragmento());
+  }
+
   @Override
   @Transactional
-  @CacheEvict(value = "productos", allEntries = true)
   public ProductoResponse actualizarProducto(Long id, ProductoRequest productoRequest) {
     log.info("Actualizando producto con ID {}", id);
 
@@ -188,6 +292,29 @@ public class ProductoServiceImpl implements ProductoService {
     if (productoRequest.getImagen() != null && !productoRequest.getImagen().isEmpty()) {
       producto.setImagen(productoRequest.getImagen());
     }
+
+    // El stock mínimo solo cambia si la petición lo envía, y se propaga a las variantes que aún heredan el valor
+    // anterior del producto (las que tienen uno propio lo conservan). Las variantes se bloquean porque guardar
+    // la entidad reescribe también su cantidad; cada fila modificada publica su cambio de stock y el motor de
+    // alertas la reevalúa
+    Integer stockMinimoAnterior = producto.getStockMinimo();
+    if (productoRequest.getStockMinimo() != null
+            && !productoRequest.getStockMinimo().equals(stockMinimoAnterior)) {
+      producto.setStockMinimo(productoRequest.getStockMinimo());
+      List<Long> inventarioIds = inventarioRepository.findIdsByProductoId(id);
+      List<Inventario> variantes = inventarioIds.isEmpty() ? List.of()
+              : inventarioRepository.findParaActualizarByIdIn(inventarioIds);
+      for (Inventario inventario : variantes) {
+        if (!Objects.equals(inventario.getStockMinimo(), stockMinimoAnterior)) {
+          continue;
+        }
+        inventario.setStockMinimo(productoRequest.getStockMinimo());
+        if (inventario.getEstado() != Inventario.EstadoInventario.RESERVADO) {
+          inventario.actualizarEstado();
+        }
+        cacheInvalidator.invalidar(CacheTags.cambioStock(inventario.getId(), id));
+      }
+    }
     // La actualización de colores y tallas requeriría una lógica más compleja
     // para manejar adiciones, eliminaciones y modificaciones
 
@@ -195,12 +322,15 @@ public class ProductoServiceImpl implements ProductoService {
     producto = productoRepository.save(producto);
     log.info("Producto actualizado exitosamente con ID: {}", producto.getId());
 
+    // Los listados paginados pueden reordenarse al cambiar nombre, código o precios
+    cacheInvalidator.invalidar(CacheTags.producto(id), CacheTags.coleccion("productos"),
+            CacheTags.entidad(Producto.class, id));
+
     return productoMapper.toResponse(producto);
   }
 
   @Override
   @Transactional
-  @CacheEvict(value = {"productos", "inventario"}, allEntries = true)
   public void eliminarProducto(Long id) {
     log.info("Eliminando producto con ID: {}", id);
 
@@ -219,17 +349,20 @@ public class ProductoServiceImpl implements ProductoService {
     //Eliminar el producto
     productoRepository.deleteById(id);
     log.info("Producto eliminado exitosamente con ID: {}", id);
+
+    cacheInvalidator.invalidar(CacheTags.producto(id), CacheTags.coleccion("productos"),
+            CacheTags.inventariosProducto(id), CacheTags.stockProducto(id), CacheTags.coleccion("inventario"),
+            CacheTags.entidad(Producto.class, id));
   }
 
 
   @Override
   @Transactional
-  @CacheEvict(value = "productos", allEntries = true)
   public ProductoResponse guardarImagenProducto(Long id, MultipartFile imagen) {
     log.info("Guardando imagen para producto con ID: {}", id);
 
-    // Verificar si el producto existe
-    Producto producto = productoRepository.findById(id)
+    // Verificar si el producto existe; el bloqueo evita que una regeneración tome las mismas variantes
+    Producto producto = productoRepository.findParaActualizarById(id)
             .orElseThrow(() -> {
               log.error("Producto no encontrado con ID: {}", id);
               return new ProductoNotFoundException(id);
@@ -241,12 +374,27 @@ public class ProductoServiceImpl implements ProductoService {
     // Guardar la imagen y obtener la ruta
     String fileName = fileStorageService.storeFile(imagen);
 
-    // Actualizar la ruta de la imagen en el producto
+    // Las variantes de la imagen anterior se eliminan cuando estén listas las nuevas
+    List<String> variantesAnteriores = new ArrayList<>();
+    for (String variante : new String[]{producto.getImagenMiniatura(), producto.getImagenMediana(),
+            producto.getImagenGrande()}) {
+      if (variante != null) {
+        variantesAnteriores.add(variante);
+      }
+    }
+
+    // Actualizar la ruta de la imagen en el producto; las variantes se generan en segundo plano
     producto.setImagen(fileName);
+    producto.setImagenMiniatura(null);
+    producto.setImagenMediana(null);
+    producto.setImagenGrande(null);
     producto = productoRepository.save(producto);
 
     log.info("Imagen guardada exitosamente para producto con ID: {}", id);
 
+    cacheInvalidator.invalidar(CacheTags.producto(id), CacheTags.entidad(Producto.class, id));
+    eventPublisher.publishEvent(new ImagenProductoEvent(id, fileName, variantesAnteriores));
+
     return productoMapper.toResponse(producto);
 
   }
@@ -280,8 +428,10 @@ public class ProductoServiceImpl implements ProductoService {
   public List<ProductoResponse> obtenerProductosConStockBajo(Integer umbral) {
     log.debug("Obteniendo productos con stock bajo (umbral: {})", umbral);
 
-    // Obtener IDs de productos con stock bajo
-    List<Long> productosIds = inventarioRepository.findProductosConStockBajo(umbral);
+    // Obtener IDs de productos con stock bajo; sin umbral se usan las alertas por variante en memoria
+    Collection<Long> productosIds = umbral != null
+            ? inventarioRepository.findProductosConStockBajo(umbral)
+            : alertaStockService.obtenerProductosEnAlerta();
 
 
     // Obtener productos por IDs
@@ -0,0 +1,178 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.api.response.StockHistoricoResponse;
+import com.emersondev.domain.entity.SnapshotStock;
+import com.emersondev.domain.exception.InventarioNotFoundException;
+import com.emersondev.domain.projection.InventarioResumen;
+import com.emersondev.domain.projection.MovimientoStock;
+import com.emersondev.domain.repository.InventarioRepository;
+import com.emersondev.domain.repository.MovimientoInventarioRepository;
+import com.emersondev.domain.repository.SnapshotStockRepository;
+import com.emersondev.service.interfaces.SnapshotStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SnapshotStockServiceImpl implements SnapshotStockService {
+
+  /**
+   * Inventarios por consulta al reconstruir el stock de muchas variantes
+   */
+  private static final int INVENTARIOS_POR_LOTE = 1000;
+
+  /**
+   * La fecha de actualización se asigna al hacer flush, antes del commit: una transacción en curso
+   * durante el corte anterior puede haber confirmado cambios con una fecha algo anterior a ese corte
+   */
+  private static final Duration MARGEN_MODIFICACIONES = Duration.ofHours(1);
+
+  private static final LocalDateTime FECHA_MINIMA = LocalDateTime.of(1900, 1, 1, 0, 0);
+
+  private final SnapshotStockRepository snapshotRepository;
+  private final InventarioRepository inventarioRepository;
+  private final MovimientoInventarioRepository movimientoRepository;
+
+  /**
+   * Stock reconstruido de un inventario
+   */
+  record StockReconstruido(int cantidad, LocalDateTime fechaSnapshot, int movimientosAplicados) {
+  }
+
+  @Override
+  @Transactional
+  @Scheduled(cron = "${app.stock.snapshots.cron:0 0 0 * * *}")
+  public int registrarSnapshot() {
+    LocalDateTime corte = LocalDateTime.now();
+    LocalDateTime ultimoCorte = snapshotRepository.findUltimaFechaCorte();
+    LocalDateTime modificadosDesde = ultimoCorte != null ? ultimoCorte.minus(MARGEN_MODIFICACIONES) : FECHA_MINIMA;
+
+    int registrados = snapshotRepository.registrarSnapshots(corte, modificadosDesde);
+    log.info("Snapshot de stock al {}: {} inventarios registrados", corte, registrados);
+    return registrados;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<StockHistoricoResponse> obtenerStockHistorico(LocalDateTime fecha, Long almacenId, Long productoId) {
+    List<Long> ids = inventarioRepository.findIdsCreadosHasta(fecha, almacenId, productoId);
+    log.info("Reconstruyendo el stock de {} inventarios al {}", ids.size(), fecha);
+
+    List<StockHistoricoResponse> resultado = new ArrayList<>(ids.size());
+    for (int desde = 0; desde < ids.size(); desde += INVENTARIOS_POR_LOTE) {
+      List<Long> lote = ids.subList(desde, Math.min(desde + INVENTARIOS_POR_LOTE, ids.size()));
+      Map<Long, StockReconstruido> stock = reconstruir(lote, fecha);
+      for (InventarioResumen inventario : inventarioRepository.findResumenByIdIn(lote)) {
+        resultado.add(toResponse(inventario, fecha, stock.get(inventario.id())));
+      }
+    }
+    resultado.sort(Comparator.comparing(StockHistoricoResponse::getInventarioId));
+    return resultado;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public StockHistoricoResponse obtenerStockHistorico(Long inventarioId, LocalDateTime fecha) {
+    InventarioResumen inventario = inventarioRepository.findResumenByIdIn(List.of(inventarioId)).stream()
+            .findFirst()
+            .orElseThrow(() -> new InventarioNotFoundException(inventarioId));
+    return toResponse(inventario, fecha, reconstruir(List.of(inventarioId), fecha).get(inventarioId));
+  }
+
+  /**
+   * Parte del snapshot más cercano de cada inventario y aplica los movimientos posteriores hasta la fecha.
+   * Los inventarios sin snapshot previo se reconstruyen desde su primer movimiento (el alta registra el stock
+   * inicial como ENTRADA).
+   */
+  private Map<Long, StockReconstruido> reconstruir(List<Long> inventarioIds, LocalDateTime fecha) {
+    Map<Long, SnapshotStock> snapshots = snapshotRepository.findUltimosAnterioresA(inventarioIds, fecha).stream()
+            .collect(Collectors.toMap(SnapshotStock::getInventarioId, Function.identity()));
+
+    // Snapshots con último movimiento: se continúa por ID de movimiento (orden de registro)
+    Map<Long, SnapshotStock> conMovimiento = new HashMap<>();
+    Map<Long, SnapshotStock> soloFecha = new HashMap<>();
+    snapshots.forEach((id, snapshot) ->
+            (snapshot.getUltimoMovimientoId() != null ? conMovimiento : soloFecha).put(id, snapshot));
+
+    List<MovimientoStock> movimientos = new ArrayList<>();
+    if (!conMovimiento.isEmpty()) {
+      long primerCorte = conMovimiento.values().stream()
+              .mapToLong(SnapshotStock::getUltimoMovimientoId)
+              .min()
+              .orElseThrow();
+      movimientos.addAll(movimientoRepository.findMovimientosStockPosterioresA(conMovimiento.keySet(), primerCorte,
+              fecha));
+    }
+    if (!soloFecha.isEmpty()) {
+      LocalDateTime corteMasAntiguo = soloFecha.values().stream()
+              .map(SnapshotStock::getFechaCorte)
+              .min(Comparator.naturalOrder())
+              .orElseThrow();
+      movimientos.addAll(movimientoRepository.findMovimientosStockEntre(soloFecha.keySet(), corteMasAntiguo, fecha));
+    }
+    List<Long> sinSnapshot = inventarioIds.stream().filter(id -> !snapshots.containsKey(id)).toList();
+    if (!sinSnapshot.isEmpty()) {
+      movimientos.addAll(movimientoRepository.findMovimientosStockEntre(sinSnapshot, FECHA_MINIMA, fecha));
+    }
+    return reproducir(inventarioIds, snapshots, movimientos);
+  }
+
+  /**
+   * Aplica a cada inventario, sobre su snapshot (o desde cero), los movimientos que este no incluye.
+   * Los movimientos de un mismo inventario deben venir en orden de registro.
+   */
+  static Map<Long, StockReconstruido> reproducir(List<Long> inventarioIds, Map<Long, SnapshotStock> snapshots,
+                                                 List<MovimientoStock> movimientos) {
+    Map<Long, int[]> estado = new HashMap<>();
+    for (Long id : inventarioIds) {
+      SnapshotStock snapshot = snapshots.get(id);
+      estado.put(id, new int[]{snapshot != null ? snapshot.getCantidad() : 0, 0});
+    }
+    for (MovimientoStock movimiento : movimientos) {
+      // Los cortes difieren entre inventarios: se descartan los movimientos ya incluidos en su snapshot
+      if (incluidoEnSnapshot(movimiento, snapshots.get(movimiento.inventarioId()))) {
+        continue;
+      }
+      int[] actual = estado.get(movimiento.inventarioId());
+      actual[0] = movimiento.aplicar(actual[0]);
+      actual[1]++;
+    }
+
+    Map<Long, StockReconstruido> resultado = new HashMap<>();
+    estado.forEach((id, actual) -> {
+      SnapshotStock snapshot = snapshots.get(id);
+      resultado.put(id, new StockReconstruido(actual[0], snapshot != null ? snapshot.getFechaCorte() : null,
+              actual[1]));
+    });
+    return resultado;
+  }
+
+  private static boolean incluidoEnSnapshot(MovimientoStock movimiento, SnapshotStock snapshot) {
+    if (snapshot == null) {
+      return false;
+    }
+    if (snapshot.getUltimoMovimientoId() != null) {
+      return movimiento.id() <= snapshot.getUltimoMovimientoId();
+    }
+    // Snapshots sin último movimiento: solo se dispone de la fecha de corte
+    return !movimiento.fecha().isAfter(snapshot.getFechaCorte());
+  }
+
+  private StockHistoricoResponse toResponse(InventarioResumen inventario, LocalDateTime fecha,
+                                            StockReconstruido stock) {
+    return new StockHistoricoResponse(inventario.id(), inventario.serie(), inventario.productoId(),
+            inventario.productoCodigo(), inventario.productoNombre(), inventario.colorNombre(),
+            inventario.tallaNumero(), inventario.almacenId(), inventario.almacenNombre(), fecha,
+            stock.cantidad(), stock.fechaSnapshot(), stock.movimientosAplicados());
+  }
+}
@@ -0,0 +1,289 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.domain.event.AlertaStockEvent;
+import com.emersondev.domain.event.StockCambioEvent;
+import com.emersondev.service.interfaces.StockFeedService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Difunde por SSE los cambios de stock confirmados y los cambios en las alertas de stock bajo, dentro de este proceso.
+ * El estado (secuencia, eventos recientes y suscripciones) se maneja desde un único hilo, lo que garantiza el orden
+ * de entrega. Cada suscripción tiene su propia cola de salida, que vacía un hilo de envío: un cliente lento solo
+ * retrasa sus propios eventos y, si acumula demasiados, se cierra para que reconecte con Last-Event-ID.
+ * <p>
+ * Los IDs de evento llevan la época de este arranque ({@code <epoca>-<secuencia>}): tras un reinicio la secuencia
+ * vuelve a empezar y un ID de otra época provoca una resincronización en lugar de una reanudación incorrecta.
+ */
+@Service
+@Slf4j
+public class StockFeedServiceImpl implements StockFeedService {
+
+  /**
+   * Eventos retenidos para reanudar suscripciones a partir de Last-Event-ID
+   */
+  private static final int EVENTOS_RETENIDOS = 5000;
+  /**
+   * Eventos pendientes de envío por suscripción antes de darla por bloqueada
+   */
+  private static final int MAX_PENDIENTES = 1000;
+  private static final long TIMEOUT_SUSCRIPCION_MS = TimeUnit.MINUTES.toMillis(30);
+  private static final long INTERVALO_HEARTBEAT_S = 20;
+
+  private final ScheduledExecutorService despachador = Executors.newSingleThreadScheduledExecutor(
+          hilos("stock-feed"));
+  private final ExecutorService envios = Executors.newCachedThreadPool(hilos("stock-feed-envio"));
+
+  private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+  private final Deque<EventoSecuenciado> recientes = new ArrayDeque<>();
+  private final List<Suscripcion> suscripciones = new ArrayList<>();
+  private long secuencia;
+
+  private record EventoSecuenciado(long id, String nombre, Long almacenId, Object datos) {
+  }
+
+  /**
+   * Suscripción con su cola de salida; como mucho un hilo de envío la vacía a la vez
+   */
+  private final class Suscripcion {
+
+    private final SseEmitter emisor;
+    private final Long almacenId;
+    private final Queue<SseEmitter.SseEventBuilder> pendientes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger totalPendientes = new AtomicInteger();
+    private final AtomicBoolean enviando = new AtomicBoolean();
+    private volatile boolean cerrada;
+
+    private Suscripcion(SseEmitter emisor, Long almacenId) {
+      this.emisor = emisor;
+      this.almacenId = almacenId;
+    }
+
+    boolean acepta(EventoSecuenciado evento) {
+      return almacenId == null || almacenId.equals(evento.almacenId());
+    }
+
+    /**
+     * @return false si la suscripción está cerrada o su cola se desbordó
+     */
+    boolean encolar(SseEmitter.SseEventBuilder evento) {
+      if (cerrada) {
+        return false;
+      }
+      if (totalPendientes.incrementAndGet() > MAX_PENDIENTES) {
+        log.debug("Suscripción al flujo de stock sin leer {} eventos; se cierra", MAX_PENDIENTES);
+        cerrada = true;
+        programarEnvio();
+        return false;
+      }
+      pendientes.add(evento);
+      programarEnvio();
+      return true;
+    }
+
+    boolean sinPendientes() {
+      return totalPendientes.get() == 0;
+    }
+
+    private void programarEnvio() {
+      if (enviando.compareAndSet(false, true)) {
+        envios.execute(this::vaciar);
+      }
+    }
+
+    private void vaciar() {
+      try {
+        SseEmitter.SseEventBuilder evento;
+        while (!cerrada && (evento = pendientes.poll()) != null) {
+          totalPendientes.decrementAndGet();
+          if (!enviar(emisor, evento)) {
+            cerrada = true;
+          }
+        }
+        if (cerrada) {
+          // Se completa desde el hilo de envío: nunca bloquea al despachador tras un envío colgado
+          pendientes.clear();
+          emisor.complete();
+        }
+      } finally {
+        enviando.set(false);
+      }
+      if (!cerrada && !pendientes.isEmpty()) {
+        programarEnvio();
+      }
+    }
+  }
+
+  @PostConstruct
+  public void iniciar() {
+    despachador.scheduleAtFixedRate(this::enviarHeartbeat, INTERVALO_HEARTBEAT_S, INTERVALO_HEARTBEAT_S,
+            TimeUnit.SECONDS);
+  }
+
+  @PreDestroy
+  public void detener() {
+    despachador.shutdownNow();
+    envios.shutdownNow();
+    suscripciones.forEach(suscripcion -> suscripcion.emisor.complete());
+  }
+
+  /**
+   * Recibe los cambios de stock una vez confirmada la transacción que los produjo
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void alCambiarStock(StockCambioEvent evento) {
+    despachador.execute(() -> difundir("stock", evento.almacenId(), evento));
+  }
+
+  /**
+   * Las alertas ya se publican tras el commit, desde el motor de alertas
+   */
+  @EventListener
+  public void alCambiarAlerta(AlertaStockEvent evento) {
+    despachador.execute(() -> difundir("alerta", evento.alerta().getAlmacenId(), evento));
+  }
+
+  @Override
+  public SseEmitter suscribir(Long almacenId, String ultimoEventoId) {
+    SseEmitter emisor = new SseEmitter(TIMEOUT_SUSCRIPCION_MS);
+    Suscripcion suscripcion = new Suscripcion(emisor, almacenId);
+
+    Runnable retirar = () -> despachador.execute(() -> retirar(suscripcion));
+    emisor.onCompletion(retirar);
+    emisor.onTimeout(retirar);
+    emisor.onError(error -> retirar.run());
+
+    despachador.execute(() -> registrar(suscripcion, ultimoEventoId));
+    return emisor;
+  }
+
+  private void registrar(Suscripcion suscripcion, String ultimoEventoId) {
+    Long ultimo = ultimoEventoId != null ? secuenciaDe(ultimoEventoId) : null;
+
+    if (ultimoEventoId == null) {
+      // Suscripción nueva: el cliente toma la secuencia actual como punto de partida
+      if (!suscripcion.encolar(eventoControl("inicio"))) {
+        return;
+      }
+    } else if (ultimo == null || !puedeReanudar(ultimo)) {
+      // ID de otro arranque, o eventos intermedios ya no retenidos: el cliente debe recargar el stock
+      log.debug("No se puede reanudar desde el evento {}; se solicita resincronización", ultimoEventoId);
+      if (!suscripcion.encolar(eventoControl("resync"))) {
+        return;
+      }
+    } else {
+      for (EventoSecuenciado evento : recientes) {
+        if (evento.id() > ultimo && suscripcion.acepta(evento) && !suscripcion.encolar(aSse(evento))) {
+          return;
+        }
+      }
+    }
+
+    suscripciones.add(suscripcion);
+    log.debug("Nueva suscripción al flujo de stock (almacén: {}, activas: {})",
+            suscripcion.almacenId, suscripciones.size());
+  }
+
+  /**
+   * Secuencia de un ID de evento de esta época, o null si pertenece a otro arranque o no tiene el formato esperado
+   */
+  private Long secuenciaDe(String eventoId) {
+    String prefijo = epoca + "-";
+    if (!eventoId.startsWith(prefijo)) {
+      return null;
+    }
+    try {
+      return Long.valueOf(eventoId.substring(prefijo.length()));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private boolean puedeReanudar(long ultimoEventoId) {
+    if (ultimoEventoId > secuencia) {
+      return false;
+    }
+    EventoSecuenciado primero = recientes.peekFirst();
+    return ultimoEventoId == secuencia || (primero != null && primero.id() <= ultimoEventoId + 1);
+  }
+
+  private void difundir(String nombre, Long almacenId, Object datos) {
+    EventoSecuenciado secuenciado = new EventoSecuenciado(++secuencia, nombre, almacenId, datos);
+    recientes.addLast(secuenciado);
+    if (recientes.size() > EVENTOS_RETENIDOS) {
+      recientes.removeFirst();
+    }
+
+    suscripciones.removeIf(suscripcion -> suscripcion.acepta(secuenciado)
+            && !suscripcion.encolar(aSse(secuenciado)));
+  }
+
+  private void enviarHeartbeat() {
+    // Un cliente con envíos pendientes no necesita ping adicional
+    suscripciones.removeIf(suscripcion -> suscripcion.sinPendientes()
+            && !suscripcion.encolar(SseEmitter.event().comment("ping")));
+  }
+
+  private void retirar(Suscripcion suscripcion) {
+    suscripcion.cerrada = true;
+    suscripciones.remove(suscripcion);
+  }
+
+  private SseEmitter.SseEventBuilder eventoControl(String nombre) {
+    String id = idEvento(secuencia);
+    return SseEmitter.event().name(nombre).id(id).data(Map.of("secuencia", id));
+  }
+
+  private SseEmitter.SseEventBuilder aSse(EventoSecuenciado evento) {
+    return SseEmitter.event()
+            .name(evento.nombre())
+            .id(idEvento(evento.id()))
+            .data(evento.datos());
+  }
+
+  private String idEvento(long id) {
+    return epoca + "-" + id;
+  }
+
+  /**
+   * @return false si el cliente ya no está conectado
+   */
+  private boolean enviar(SseEmitter emisor, SseEmitter.SseEventBuilder evento) {
+    try {
+      emisor.send(evento);
+      return true;
+    } catch (IOException | IllegalStateException e) {
+      log.debug("Suscripción al flujo de stock cerrada: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  private static ThreadFactory hilos(String nombre) {
+    return tarea -> {
+      Thread hilo = new Thread(tarea, nombre);
+      hilo.setDaemon(true);
+      return hilo;
+    };
+  }
+}
@@ -0,0 +1,176 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.api.response.FileResponse;
+import com.emersondev.api.response.SubidaMultipleResponse;
+import com.emersondev.config.FileStorageProperties;
+import com.emersondev.domain.exception.BusinessException;
+import com.emersondev.service.interfaces.FileStorageService;
+import com.emersondev.service.interfaces.SubidaArchivosService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Subida de varios archivos sin que el contenedor procese antes la petición completa, con el lector multipart
+ * en streaming de commons-fileupload2. Cada parte se vuelca a un temporal controlando su tamaño mientras se lee,
+ * y se entrega al pool de subidas para almacenarla mientras se sigue leyendo la siguiente. En memoria solo hay
+ * un búfer de lectura por archivo en curso.
+ */
+@Service
+@Slf4j
+public class SubidaArchivosServiceImpl implements SubidaArchivosService {
+
+  private static final int TAMANIO_BUFFER = 64 * 1024;
+
+  private final FileStorageService fileStorageService;
+  private final FileStorageProperties.SubidaMultiple limites;
+  private final Executor subidaExecutor;
+
+  /**
+   * Resultado del almacenamiento de un archivo: el archivo guardado o el motivo del rechazo
+   */
+  private record Resultado(FileResponse archivo, SubidaMultipleResponse.ArchivoRechazado rechazo) {
+  }
+
+  public SubidaArchivosServiceImpl(FileStorageService fileStorageService,
+                                   FileStorageProperties fileStorageProperties,
+                                   @Qualifier("subidaExecutor") Executor subidaExecutor) {
+    this.fileStorageService = fileStorageService;
+    this.limites = fileStorageProperties.getSubidaMultiple();
+    this.subidaExecutor = subidaExecutor;
+  }
+
+  @Override
+  public SubidaMultipleResponse subirArchivos(HttpServletRequest request, String urlDescargaBase) {
+    if (!JakartaServletFileUpload.isMultipartContent(request)) {
+      throw new BusinessException("La petición debe ser de tipo multipart/form-data");
+    }
+    long inicio = System.currentTimeMillis();
+    long maximoArchivo = limites.getTamanioMaximoArchivo().toBytes();
+
+    JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+    upload.setSizeMax(limites.getTamanioMaximoTotal().toBytes());
+
+    SubidaMultipleResponse response = new SubidaMultipleResponse();
+    List<CompletableFuture<Resultado>> pendientes = new ArrayList<>();
+    try {
+      FileItemInputIterator partes = upload.getItemIterator(request);
+      while (partes.hasNext()) {
+        FileItemInput parte = partes.next();
+        if (parte.isFormField() || !StringUtils.hasText(parte.getName())) {
+          continue;
+        }
+        // Se cuentan solo las partes con archivo: el límite de la librería incluye también los campos
+        if (response.getTotalArchivos() >= limites.getMaximoArchivos()) {
+          log.warn("Subida múltiple interrumpida: más de {} archivos", limites.getMaximoArchivos());
+          response.setError("Se dejó de leer la petición: supera el máximo de " + limites.getMaximoArchivos()
+                  + " archivos");
+          break;
+        }
+        String nombre = StringUtils.cleanPath(parte.getName());
+        String contentType = parte.getContentType();
+        response.setTotalArchivos(response.getTotalArchivos() + 1);
+
+        Path temporal = Files.createTempFile("subida-", ".tmp");
+        long tamanio;
+        try (InputStream contenido = parte.getInputStream()) {
+          // Al cerrar el flujo se descarta lo que quede de la parte si se cortó por tamaño
+          tamanio = copiarConLimite(contenido, temporal, maximoArchivo);
+        } catch (IOException | RuntimeException e) {
+          Files.deleteIfExists(temporal);
+          throw e;
+        }
+
+        String motivo = null;
+        if (tamanio < 0) {
+          motivo = "Excede el tamaño máximo por archivo (" + limites.getTamanioMaximoArchivo().toMegabytes() + " MB)";
+        } else if (tamanio == 0) {
+          motivo = "El archivo está vacío";
+        }
+        if (motivo != null) {
+          Files.deleteIfExists(temporal);
+          response.getRechazados().add(new SubidaMultipleResponse.ArchivoRechazado(nombre, motivo));
+          continue;
+        }
+        pendientes.add(CompletableFuture.supplyAsync(
+                () -> almacenar(nombre, temporal, tamanio, contentType, urlDescargaBase), subidaExecutor));
+      }
+    } catch (FileUploadException e) {
+      // Límite total superado o petición mal formada: se conserva lo ya recibido
+      log.warn("Subida múltiple interrumpida: {}", e.getMessage());
+      response.setError("Se dejó de leer la petición: " + e.getMessage());
+    } catch (IOException e) {
+      log.warn("Error al leer la subida múltiple: {}", e.getMessage());
+      response.setError("La subida se interrumpió: " + e.getMessage());
+    }
+
+    for (CompletableFuture<Resultado> pendiente : pendientes) {
+      Resultado resultado = pendiente.join();
+      if (resultado.archivo() != null) {
+        response.getArchivos().add(resultado.archivo());
+      } else {
+        response.getRechazados().add(resultado.rechazo());
+      }
+    }
+    response.setAlmacenados(response.getArchivos().size());
+    response.setDuracionMs(System.currentTimeMillis() - inicio);
+
+    log.info("Subida múltiple: {} archivos, {} almacenados, {} rechazados en {} ms", response.getTotalArchivos(),
+            response.getAlmacenados(), response.getRechazados().size(), response.getDuracionMs());
+    return response;
+  }
+
+  private Resultado almacenar(String nombre, Path temporal, long tamanio, String contentType, String urlDescargaBase) {
+    try {
+      String fileName = fileStorageService.storeFile(nombre, temporal, contentType);
+      return new Resultado(new FileResponse(fileName, urlDescargaBase + fileName, contentType, tamanio), null);
+    } catch (RuntimeException e) {
+      log.warn("No se pudo almacenar {}: {}", nombre, e.getMessage());
+      return new Resultado(null, new SubidaMultipleResponse.ArchivoRechazado(nombre, e.getMessage()));
+    } finally {
+      try {
+        Files.deleteIfExists(temporal);
+      } catch (IOException e) {
+        log.warn("No se pudo eliminar el temporal {}: {}", temporal, e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Copia el contenido al temporal hasta el límite indicado
+   * @return bytes copiados, o -1 si el contenido supera el límite (se deja de leer en ese punto)
+   */
+  private long copiarConLimite(InputStream contenido, Path destino, long limite) throws IOException {
+    byte[] buffer = new byte[TAMANIO_BUFFER];
+    long total = 0;
+    try (OutputStream salida = Files.newOutputStream(destino)) {
+      int leidos;
+      while ((leidos = contenido.read(buffer)) != -1) {
+        total += leidos;
+        if (total > limite) {
+          return -1;
+        }
+        salida.write(buffer, 0, leidos);
+      }
+    }
+    return total;
+  }
+}
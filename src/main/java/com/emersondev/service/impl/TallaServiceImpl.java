@@ -2,6 +2,8 @@ package com.emersondev.service.impl;
 
 import com.emersondev.api.request.TallaRequest;
 import com.emersondev.api.response.TallaResponse;
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.config.cache.CacheTags;
 import com.emersondev.domain.entity.Color;
 import com.emersondev.domain.entity.Talla;
 import com.emersondev.domain.exception.BusinessException;
@@ -30,6 +32,7 @@ public class TallaServiceImpl implements TallaService {
   private final ColorRepository colorRepository;
   private final InventarioRepository inventarioRepository;
   private final TallaMapper tallaMapper;
+  private final CacheInvalidator cacheInvalidator;
 
   @Override
   @Transactional
@@ -57,6 +60,7 @@ public class TallaServiceImpl implements TallaService {
     talla = tallaRepository.save(talla);
 
     log.info("Talla creada exitosamente con ID: {}", talla.getId());
+    cacheInvalidator.invalidar(CacheTags.coleccionEntidad(Color.class, "tallas", colorId));
     return tallaMapper.toResponse(talla);
   }
 
@@ -130,6 +134,7 @@ public class TallaServiceImpl implements TallaService {
 
     talla = tallaRepository.save(talla);
     log.info("Talla actualizada exitosamente con ID: {}", talla.getId());
+    cacheInvalidator.invalidar(CacheTags.entidad(Talla.class, id));
 
     return tallaMapper.toResponse(talla);
   }
@@ -141,10 +146,12 @@ public class TallaServiceImpl implements TallaService {
     log.info("Eliminando talla con ID: {}", id);
 
     //Verificar si la talla existe
-    if (!tallaRepository.existsById(id)) {
-      log.error("Talla no encontrada con ID: {}", id);
-      throw new ResourceNotFoundException("Talla", "id", id);
-    }
+    Talla talla = tallaRepository.findById(id)
+            .orElseThrow(() -> {
+              log.error("Talla no encontrada con ID: {}", id);
+              return new ResourceNotFoundException("Talla", "id", id);
+            });
+    Long colorId = talla.getColor().getId();
 
     //Verificar si la talla está asociada a un inventario
     if (inventarioRepository.existsByTallaId(id)) {
@@ -153,7 +160,8 @@ public class TallaServiceImpl implements TallaService {
     }
 
     //Eliminar la talla
-    tallaRepository.deleteById(id);
+    tallaRepository.delete(talla);
     log.info("Talla eliminada exitosamente con ID: {}", id);
+    cacheInvalidator.invalidar(CacheTags.entidad(Talla.class, id), CacheTags.coleccionEntidad(Color.class, "tallas", colorId));
   }
 }
@@ -0,0 +1,169 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.api.response.ReconstruccionCostosResponse;
+import com.emersondev.api.response.ValoracionInventarioResponse;
+import com.emersondev.api.response.dashboard.InventarioMetricasResponse;
+import com.emersondev.domain.entity.Inventario;
+import com.emersondev.domain.entity.MovimientoInventario;
+import com.emersondev.domain.projection.ValoracionResumen;
+import com.emersondev.domain.repository.InventarioRepository;
+import com.emersondev.domain.repository.MovimientoInventarioRepository;
+import com.emersondev.domain.repository.ProductoRepository;
+import com.emersondev.service.interfaces.ValoracionInventarioService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+@Service
+@Slf4j
+public class ValoracionInventarioServiceImpl implements ValoracionInventarioService {
+
+  /**
+   * Variantes por tarea de reconstrucción (cada tarea corre en su propia transacción)
+   */
+  private static final int VARIANTES_POR_TAREA = 200;
+
+  private final InventarioRepository inventarioRepository;
+  private final MovimientoInventarioRepository movimientoRepository;
+  private final ProductoRepository productoRepository;
+  private final TransactionTemplate transaccion;
+  private final Executor reportExecutor;
+
+  public ValoracionInventarioServiceImpl(InventarioRepository inventarioRepository,
+                                         MovimientoInventarioRepository movimientoRepository,
+                                         ProductoRepository productoRepository,
+                                         PlatformTransactionManager transactionManager,
+                                         @Qualifier("reportExecutor") Executor reportExecutor) {
+    this.inventarioRepository = inventarioRepository;
+    this.movimientoRepository = movimientoRepository;
+    this.productoRepository = productoRepository;
+    this.transaccion = new TransactionTemplate(transactionManager);
+    this.reportExecutor = reportExecutor;
+  }
+
+  /**
+   * Movimientos recorridos y movimientos a los que se completó el costo en una tarea
+   */
+  private record ResultadoLote(long procesados, long completados) {
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public ValoracionInventarioResponse obtenerValoracion(Long almacenId) {
+    ValoracionResumen resumen = almacenId != null
+            ? inventarioRepository.valorizarInventarioPorAlmacen(almacenId)
+            : inventarioRepository.valorizarInventario();
+    return new ValoracionInventarioResponse(almacenId, resumen.valorTotal(), resumen.unidades(),
+            resumen.variantes(), LocalDateTime.now());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public InventarioMetricasResponse obtenerMetricas() {
+    return InventarioMetricasResponse.builder()
+            .totalProductos((int) productoRepository.count())
+            .productosSinStock((int) inventarioRepository.contarProductosConEstado(Inventario.EstadoInventario.AGOTADO))
+            .productosStockBajo((int) inventarioRepository.contarProductosConEstado(
+                    Inventario.EstadoInventario.BAJO_STOCK))
+            .valorInventarioTotal(inventarioRepository.valorizarInventario().valorTotal())
+            .build();
+  }
+
+  @Override
+  public ReconstruccionCostosResponse reconstruirCostos() {
+    long inicio = System.currentTimeMillis();
+    List<Long> ids = inventarioRepository.findAllIds();
+    log.info("Reconstruyendo costos promedio de {} variantes desde el historial de movimientos", ids.size());
+
+    // Cada variante se recalcula de forma independiente: los lotes se procesan en paralelo
+    List<CompletableFuture<ResultadoLote>> tareas = new ArrayList<>();
+    for (int desde = 0; desde < ids.size(); desde += VARIANTES_POR_TAREA) {
+      List<Long> lote = List.copyOf(ids.subList(desde, Math.min(desde + VARIANTES_POR_TAREA, ids.size())));
+      tareas.add(CompletableFuture.supplyAsync(() -> transaccion.execute(status -> reconstruirLote(lote)),
+              reportExecutor));
+    }
+
+    long procesados = 0;
+    long completados = 0;
+    for (CompletableFuture<ResultadoLote> tarea : tareas) {
+      ResultadoLote resultado = tarea.join();
+      procesados += resultado.procesados();
+      completados += resultado.completados();
+    }
+
+    long duracion = System.currentTimeMillis() - inicio;
+    log.info("Reconstrucción de costos finalizada: {} variantes, {} movimientos en {} ms",
+            ids.size(), procesados, duracion);
+    return new ReconstruccionCostosResponse(ids.size(), procesados, completados, duracion);
+  }
+
+  /**
+   * Recalcula un lote leyendo las filas sin modificarlas; los resultados se escriben con actualizaciones de
+   * columna, de modo que una venta o ingreso concurrente no pierde su cantidad al confirmar el lote
+   */
+  private ResultadoLote reconstruirLote(List<Long> inventarioIds) {
+    List<Inventario> inventarios = inventarioRepository.findAllConVarianteByIdIn(inventarioIds);
+
+    Map<Long, List<MovimientoInventario>> movimientosPorInventario = new LinkedHashMap<>();
+    for (MovimientoInventario movimiento : movimientoRepository.findLedgerByInventarioIdIn(inventarioIds)) {
+      movimientosPorInventario.computeIfAbsent(movimiento.getInventario().getId(), id -> new ArrayList<>())
+              .add(movimiento);
+    }
+
+    long procesados = 0;
+    Map<BigDecimal, List<Long>> movimientosPorCosto = new HashMap<>();
+    for (Inventario inventario : inventarios) {
+      BigDecimal costoBase = inventario.getProducto().getPrecioCompra();
+      BigDecimal costo = null;
+      int stock = 0;
+
+      for (MovimientoInventario movimiento : movimientosPorInventario.getOrDefault(inventario.getId(), List.of())) {
+        int cantidad = Math.abs(movimiento.getCantidad());
+        BigDecimal costoVigente = costo != null ? costo : costoBase;
+        switch (movimiento.getTipo()) {
+          case ENTRADA -> {
+            BigDecimal costoEntrada = movimiento.getCostoUnitario() != null ? movimiento.getCostoUnitario() : costoVigente;
+            if (costoEntrada != null) {
+              costo = Inventario.costoPromedioPonderado(stock, costo, cantidad, costoEntrada);
+            }
+            stock += cantidad;
+          }
+          case SALIDA, TRASLADO -> stock = Math.max(stock - cantidad, 0);
+          // Los ajustes registran el nuevo stock absoluto
+          case AJUSTE -> stock = movimiento.getCantidad();
+        }
+
+        // Movimientos anteriores a la valorización: se completan con el costo promedio vigente en ese momento
+        if (movimiento.getCostoUnitario() == null && costoVigente != null) {
+          movimientosPorCosto.computeIfAbsent(costoVigente, c -> new ArrayList<>()).add(movimiento.getId());
+        }
+        procesados++;
+      }
+
+      BigDecimal costoFinal = costo != null ? costo : costoBase;
+      if (!Objects.equals(costoFinal, inventario.getCostoPromedio())) {
+        inventarioRepository.actualizarCostoPromedio(inventario.getId(), costoFinal);
+      }
+    }
+
+    long completados = 0;
+    for (Map.Entry<BigDecimal, List<Long>> grupo : movimientosPorCosto.entrySet()) {
+      completados += movimientoRepository.completarCostoUnitario(grupo.getValue(), grupo.getKey());
+    }
+    return new ResultadoLote(procesados, completados);
+  }
+}
@@ -5,6 +5,8 @@ import com.emersondev.api.request.MovimientoInventarioRequest;
 import com.emersondev.api.request.VentaRequest;
 import com.emersondev.api.response.ReporteVentasResponse;
 import com.emersondev.api.response.VentaResponse;
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.config.cache.CacheTags;
 import com.emersondev.domain.entity.*;
 import com.emersondev.domain.exception.*;
 import com.emersondev.domain.repository.*;
@@ -15,7 +17,6 @@ import com.emersondev.util.SerieGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -50,10 +51,10 @@ public class VentaServiceImpl implements VentaService {
   private final SerieGenerator serieGenerator;
   private final InventarioRepository inventarioRepository;
   private final MovimientoInventarioServiceImpl movimientoService;
+  private final CacheInvalidator cacheInvalidator;
 
   @Override
   @Transactional
-  @CacheEvict(value = {"ventas", "inventario", "reportes"}, allEntries = true)
   public VentaResponse registrarVenta(VentaRequest ventaRequest) {
     log.info("Registrando nueva venta para cliente ID: {}", ventaRequest.getClienteId());
 
@@ -176,6 +177,7 @@ public class VentaServiceImpl implements VentaService {
     }
 
     log.info("Venta registrada exitosamente con número: {}", venta.getNumeroVenta());
+    invalidarCacheVenta(venta, venta.getEstado());
     return ventaMapper.toResponse(venta);
   }
 
@@ -294,7 +296,6 @@ public class VentaServiceImpl implements VentaService {
 
   @Override
   @Transactional
-  @CacheEvict(value = {"ventas", "inventario", "reportes"}, allEntries = true)
   public VentaResponse anularVenta(Long id, String motivo) {
     log.info("Anulando venta con ID: {}", id);
 
@@ -330,6 +331,7 @@ public class VentaServiceImpl implements VentaService {
     }
 
     // Actualizar estado y observaciones
+    Venta.EstadoVenta estadoAnterior = venta.getEstado();
     venta.setEstado(Venta.EstadoVenta.ANULADA);
     String observaciones = venta.getObservaciones();
     venta.setObservaciones((observaciones != null ? observaciones + " | " : "") +
@@ -337,13 +339,13 @@ public class VentaServiceImpl implements VentaService {
 
     venta = ventaRepository.save(venta);
     log.info("Venta anulada exitosamente");
+    invalidarCacheVenta(venta, estadoAnterior, Venta.EstadoVenta.ANULADA);
 
     return ventaMapper.toResponse(venta);
   }
 
   @Override
   @Transactional
-  @CacheEvict(value = {"ventas", "inventario", "reportes"}, allEntries = true)
   public void eliminarVenta(Long id) {
     log.info("Eliminando venta con ID: {}", id);
 
@@ -375,11 +377,11 @@ public class VentaServiceImpl implements VentaService {
 
     ventaRepository.delete(venta);
     log.info("Venta eliminada exitosamente");
+    invalidarCacheVenta(venta, venta.getEstado());
   }
 
   @Override
   @Transactional
-  @CacheEvict(value = {"ventas", "reportes"}, allEntries = true)
   public VentaResponse actualizarEstadoVenta(Long id, Venta.EstadoVenta nuevoEstado) {
     log.info("Actualizando estado de venta ID: {} a {}", id, nuevoEstado);
 
@@ -391,17 +393,18 @@ public class VentaServiceImpl implements VentaService {
       throw new BusinessException("Una venta anulada no puede cambiar de estado");
     }
     // Actualizar estado
+    Venta.EstadoVenta estadoAnterior = venta.getEstado();
     venta.setEstado(nuevoEstado);
     // Guardar cambios
     venta = ventaRepository.save(venta);
     log.info("Estado de venta actualizado exitosamente");
+    invalidarCacheVenta(venta, estadoAnterior, nuevoEstado);
 
     return ventaMapper.toResponse(venta);
   }
 
   @Override
   @Transactional
-  @CacheEvict(value = {"ventas", "reportes"}, allEntries = true)
   public VentaResponse actualizarComprobante(Long id, String serieComprobante, String numeroComprobante) {
     log.info("Actualizando datos de comprobante para venta ID: {}", id);
 
@@ -420,6 +423,7 @@ public class VentaServiceImpl implements VentaService {
     // Guardar cambios
     venta = ventaRepository.save(venta);
     log.info("Datos de comprobante actualizados exitosamente");
+    invalidarCacheVenta(venta, venta.getEstado());
 
     return ventaMapper.toResponse(venta);
   }
@@ -663,7 +667,6 @@ public class VentaServiceImpl implements VentaService {
 
   @Override
   @Transactional
-  @CacheEvict(value = {"ventas", "reportes"}, allEntries = true)
   public VentaResponse revertirVentaCompletada(Long id, String motivo) {
     log.info("Revirtiendo venta completada ID: {}", id);
 
@@ -684,6 +687,7 @@ public class VentaServiceImpl implements VentaService {
     // Guardar cambios
     venta = ventaRepository.save(venta);
     log.info("Venta revertida exitosamente a estado PENDIENTE");
+    invalidarCacheVenta(venta, Venta.EstadoVenta.COMPLETADA, Venta.EstadoVenta.PENDIENTE);
 
     return ventaMapper.toResponse(venta);
   }
@@ -943,6 +947,19 @@ public class VentaServiceImpl implements VentaService {
     return List.of();
   }
 
+  /**
+   * Invalida las entradas de caché de ventas y reportes que dependen de la venta indicada
+   */
+  private void invalidarCacheVenta(Venta venta, Venta.EstadoVenta... estados) {
+    LocalDate fecha = venta.getFechaCreacion() != null ? venta.getFechaCreacion().toLocalDate() : LocalDate.now();
+    String[] nombresEstado = new String[estados.length];
+    for (int i = 0; i < estados.length; i++) {
+      nombresEstado[i] = String.valueOf(estados[i]);
+    }
+    cacheInvalidator.invalidar(CacheTags.cambioVenta(venta.getId(), venta.getCliente().getId(),
+            venta.getUsuario().getId(), fecha, nombresEstado));
+  }
+
   /**
    * Clase auxiliar para estadísticas de modelo
    */
@@ -0,0 +1,31 @@
+package com.emersondev.service.interfaces;
+
+import com.emersondev.api.response.AlertaStockResponse;
+
+import java.util.List;
+import java.util.Set;
+
+public interface AlertaStockService {
+
+  /**
+   * Obtiene las alertas de stock bajo vigentes, sin consultar la base de datos
+   * @param almacenId filtra por almacén (opcional)
+   * @return variantes en o por debajo de su stock mínimo
+   */
+  List<AlertaStockResponse> obtenerAlertas(Long almacenId);
+
+  /**
+   * @return IDs de los inventarios con alerta vigente
+   */
+  Set<Long> obtenerInventariosEnAlerta();
+
+  /**
+   * @return IDs de los productos con al menos una variante en alerta
+   */
+  Set<Long> obtenerProductosEnAlerta();
+
+  /**
+   * Recarga las alertas desde la base de datos, publicando las diferencias encontradas
+   */
+  void recargar();
+}
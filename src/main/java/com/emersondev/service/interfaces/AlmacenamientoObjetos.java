@@ -0,0 +1,66 @@
+package com.emersondev.service.interfaces;
+
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Almacenamiento de archivos por clave (p. ej. "ab/cd/archivo.jpg" o "comprobantes/F001-1.pdf").
+ * La implementación se elige con app.file-storage.backend: disco local o un bucket compatible con S3.
+ */
+public interface AlmacenamientoObjetos {
+
+  /**
+   * Guarda el contenido leyéndolo en streaming, sin necesidad de conocer su tamaño.
+   * Si la clave ya existe se reemplaza
+   * @param clave Clave del archivo
+   * @param contenido Flujo con el contenido (no se cierra)
+   * @param contentType Tipo de contenido, o null si se desconoce
+   */
+  void guardar(String clave, InputStream contenido, String contentType) throws IOException;
+
+  /**
+   * Guarda el contenido de un archivo temporal; la implementación puede moverlo en lugar de copiarlo
+   */
+  default void guardar(String clave, Path archivo, String contentType) throws IOException {
+    try (InputStream contenido = Files.newInputStream(archivo)) {
+      guardar(clave, contenido, contentType);
+    }
+  }
+
+  default void guardar(String clave, byte[] contenido, String contentType) throws IOException {
+    guardar(clave, new ByteArrayInputStream(contenido), contentType);
+  }
+
+  boolean existe(String clave);
+
+  /**
+   * Carga un archivo como recurso
+   * @throws com.emersondev.domain.exception.FileNotFoundException Si el archivo no existe
+   */
+  Resource cargar(String clave);
+
+  /**
+   * Ruta en disco del archivo, si el almacenamiento es local y el archivo existe
+   */
+  Optional<Path> rutaLocal(String clave);
+
+  /**
+   * URL firmada y temporal para que el cliente descargue el archivo directamente del almacenamiento,
+   * si la implementación lo permite
+   * @param clave Clave del archivo
+   * @param nombreDescarga Nombre con el que se presenta el archivo
+   */
+  Optional<URI> urlDescarga(String clave, String nombreDescarga);
+
+  /**
+   * @return true si el archivo existía y se eliminó
+   */
+  boolean eliminar(String clave) throws IOException;
+}
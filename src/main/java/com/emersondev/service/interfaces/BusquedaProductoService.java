@@ -0,0 +1,22 @@
+package com.emersondev.service.interfaces;
+
+import com.emersondev.api.response.ProductoBusquedaResponse;
+
+import java.util.List;
+
+public interface BusquedaProductoService {
+
+  /**
+   * Busca productos en el índice en memoria: por palabras completas, prefijos o con una errata,
+   * sin distinguir mayúsculas ni tildes
+   * @param termino texto buscado
+   * @param limite cantidad máxima de resultados
+   * @return productos ordenados por relevancia
+   */
+  List<ProductoBusquedaResponse> buscar(String termino, int limite);
+
+  /**
+   * Reconstruye el índice completo desde la base de datos
+   */
+  void recargar();
+}
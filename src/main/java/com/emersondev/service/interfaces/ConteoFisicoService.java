@@ -0,0 +1,48 @@
+package com.emersondev.service.interfaces;
+
+import com.emersondev.api.request.ConteoFisicoRequest;
+import com.emersondev.api.request.LecturasConteoRequest;
+import com.emersondev.api.response.ConteoFisicoResponse;
+import com.emersondev.api.response.LecturasConteoResponse;
+
+public interface ConteoFisicoService {
+
+  /**
+   * Abre un conteo físico congelando el stock actual de cada inventario del almacén como base
+   * @param request almacén, producto (opcional) y referencia
+   * @return la sesión creada
+   */
+  ConteoFisicoResponse abrirConteo(ConteoFisicoRequest request);
+
+  /**
+   * Registra un lote de lecturas de escáner. Las cantidades se suman a lo ya contado salvo en las lecturas
+   * marcadas como reconteo. Varios escáneres pueden enviar lecturas en paralelo sobre la misma sesión.
+   * @param conteoId ID del conteo
+   * @param request lecturas por serie
+   * @return inventarios actualizados y series rechazadas
+   */
+  LecturasConteoResponse registrarLecturas(Long conteoId, LecturasConteoRequest request);
+
+  /**
+   * Obtiene la sesión con su reporte de diferencias (provisional si aún está abierta)
+   * @param conteoId ID del conteo
+   * @param ceroNoContados considera contados en cero los inventarios no escaneados
+   * @return la sesión con sus diferencias
+   */
+  ConteoFisicoResponse obtenerConteo(Long conteoId, boolean ceroNoContados);
+
+  /**
+   * Aplica todas las diferencias en una sola transacción. Cada ajuste conserva las ventas y entradas
+   * registradas durante el conteo: stock final = contado + variación del sistema desde la apertura.
+   * @param conteoId ID del conteo
+   * @param ceroNoContados deja en cero los inventarios no escaneados
+   * @return reporte de diferencias aplicadas
+   */
+  ConteoFisicoResponse aplicarConteo(Long conteoId, boolean ceroNoContados);
+
+  /**
+   * Cancela una sesión abierta sin modificar el stock
+   * @param conteoId ID del conteo
+   */
+  void cancelarConteo(Long conteoId);
+}
@@ -0,0 +1,28 @@
+package com.emersondev.service.interfaces;
+
+import com.emersondev.api.request.HojaEtiquetasRequest;
+import com.emersondev.domain.projection.InventarioResumen;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface EtiquetaService {
+
+  /**
+   * Resuelve los inventarios a etiquetar, validando que existan todas las series solicitadas
+   * @param request series o filtros de almacén/producto
+   * @return inventarios en el orden en que se imprimirán
+   */
+  List<InventarioResumen> obtenerInventarios(HojaEtiquetasRequest request);
+
+  /**
+   * Genera la hoja de etiquetas (Code128 con producto, color y talla) en PDF. Las páginas se dibujan
+   * en paralelo y se escriben en orden en la salida a medida que están listas.
+   * @param inventarios inventarios a etiquetar
+   * @param request diseño de la hoja y copias por serie
+   * @param salida flujo de destino
+   */
+  void generarHoja(List<InventarioResumen> inventarios, HojaEtiquetasRequest request, OutputStream salida)
+          throws IOException;
+}
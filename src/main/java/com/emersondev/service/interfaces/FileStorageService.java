@@ -4,6 +4,10 @@ import com.emersondev.domain.exception.BusinessException;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Optional;
+
 public interface FileStorageService {
 
   /**
@@ -13,6 +17,23 @@ public interface FileStorageService {
    */
   String storeFile(MultipartFile file);
 
+  /**
+   * Almacena un contenido generado por la aplicación; el nombre indicado aporta la extensión
+   * @param fileName Nombre del archivo (sin rutas)
+   * @param contenido Bytes del archivo
+   * @return Nombre único del archivo almacenado
+   */
+  String storeFile(String fileName, byte[] contenido);
+
+  /**
+   * Almacena un archivo ya recibido en un temporal, que puede moverse en lugar de copiarse
+   * @param originalFilename Nombre original del archivo
+   * @param archivo Archivo temporal con el contenido
+   * @param contentType Tipo de contenido, o null si se desconoce
+   * @return Nombre del archivo almacenado
+   */
+  String storeFile(String originalFilename, Path archivo, String contentType);
+
   /**
    * Carga un archivo como recurso
    * @param fileName Nombre del archivo a cargar
@@ -21,7 +42,23 @@ public interface FileStorageService {
   Resource loadFileAsResource(String fileName);
 
   /**
-   * Elimina un archivo del almacenamiento
+   * Obtiene la ruta de un archivo almacenado en disco, para enviarlo sin pasar su contenido por memoria
+   * @param fileName Nombre del archivo
+   * @return Ruta absoluta del archivo
+   * @throws com.emersondev.domain.exception.FileNotFoundException Si el archivo no existe o no está en disco local
+   */
+  Path loadFilePath(String fileName);
+
+  /**
+   * Obtiene una URL firmada y temporal para descargar el archivo directamente del almacenamiento
+   * @param fileName Nombre del archivo
+   * @return La URL, o vacío si el almacenamiento es local
+   */
+  Optional<URI> getDownloadUrl(String fileName);
+
+  /**
+   * Elimina un archivo del almacenamiento. Si se guardó por contenido y otras subidas lo comparten,
+   * solo se libera una referencia
    * @param fileName Nombre del archivo a eliminar
    * @return true si se eliminó correctamente, false en caso contrario
    */
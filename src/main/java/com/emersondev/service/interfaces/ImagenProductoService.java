@@ -0,0 +1,11 @@
+package com.emersondev.service.interfaces;
+
+public interface ImagenProductoService {
+
+  /**
+   * Programa en segundo plano la generación de las variantes (miniatura, mediana y grande)
+   * de la imagen actual del producto; sirve para completar productos cargados antes del pipeline
+   * @param productoId ID del producto
+   */
+  void regenerarVariantes(Long productoId);
+}
@@ -0,0 +1,20 @@
+package com.emersondev.service.interfaces;
+
+import com.emersondev.api.response.ImportacionCatalogoResponse;
+
+import java.io.InputStream;
+
+public interface ImportacionCatalogoService {
+
+  /**
+   * Importa productos con sus colores y tallas desde un CSV o XLSX leído en streaming.
+   * Cada línea es una variante (producto + color + tallas); las líneas del mismo producto se agrupan por código,
+   * o por nombre, marca y modelo si el código viene vacío (en ese caso se genera).
+   * Las líneas con errores se informan en la respuesta sin detener la importación.
+   * @param contenido flujo con el archivo
+   * @param contentType tipo de contenido (text/csv o el de XLSX)
+   * @param simular si es true solo valida y cuenta lo que se crearía
+   * @return resumen de la importación con los errores por línea y el rendimiento
+   */
+  ImportacionCatalogoResponse importarCatalogo(InputStream contenido, String contentType, boolean simular);
+}
@@ -0,0 +1,18 @@
+package com.emersondev.service.interfaces;
+
+import com.emersondev.api.response.ImportacionStockResponse;
+
+import java.io.InputStream;
+
+public interface ImportacionStockService {
+
+  /**
+   * Importa ingresos de stock (ENTRADA) desde un flujo CSV o JSON, procesándolo por lotes.
+   * Las líneas con errores se informan en la respuesta sin detener la importación.
+   * @param contenido flujo con las líneas a importar
+   * @param contentType tipo de contenido (text/csv, application/json o application/x-ndjson)
+   * @param referencia referencia a registrar en los movimientos
+   * @return resumen de la importación con los errores por línea
+   */
+  ImportacionStockResponse importarEntradas(InputStream contenido, String contentType, String referencia);
+}
@@ -0,0 +1,28 @@
+package com.emersondev.service.interfaces;
+
+import com.emersondev.api.response.IndiceEscaneoResponse;
+import com.emersondev.api.response.ItemEscaneoResponse;
+
+import java.util.List;
+
+public interface IndiceEscaneoService {
+
+  /**
+   * Resuelve un código escaneado en caja: primero como serie de inventario y, si no existe,
+   * como código de producto (devuelve sus variantes)
+   * @param codigo serie o código de producto
+   * @param almacenId limita el resultado a un almacén (opcional)
+   * @return inventarios que corresponden al código
+   */
+  List<ItemEscaneoResponse> buscar(String codigo, Long almacenId);
+
+  /**
+   * Vuelve a cargar el índice completo desde la base de datos
+   */
+  void recargar();
+
+  /**
+   * Tamaño y estado del índice
+   */
+  IndiceEscaneoResponse obtenerEstadisticas();
+}
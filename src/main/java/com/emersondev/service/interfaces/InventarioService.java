@@ -2,9 +2,12 @@ package com.emersondev.service.interfaces;
 
 import com.emersondev.api.request.InventarioRequest;
 import com.emersondev.api.request.MovimientoInventarioRequest;
+import com.emersondev.api.request.OrdenTrasladoRequest;
 import com.emersondev.api.response.InventarioResponse;
 import com.emersondev.api.response.MovimientoInventarioResponse;
+import com.emersondev.api.response.OrdenTrasladoResponse;
 import com.emersondev.api.response.PagedResponse;
+import com.emersondev.domain.entity.Inventario;
 import jakarta.validation.Valid;
 
 import java.util.List;
@@ -53,6 +56,13 @@ public interface InventarioService {
    */
   void transferirInventario(Long inventarioId, Long almacenDestinoId, Integer cantidad);
 
+  /**
+   * Ejecuta una orden de traslado de varias líneas entre dos almacenes en una sola transacción
+   * @param request almacenes origen/destino y líneas a trasladar
+   * @return resumen del traslado
+   */
+  OrdenTrasladoResponse transferirOrden(OrdenTrasladoRequest request);
+
   /**
    * Actualiza un registro de inventario
    * @param id ID del inventario a actualizar
@@ -94,11 +104,27 @@ public interface InventarioService {
 
   /**
    * Obtiene el inventario con stock bajo
-   * @param umbral nivel mínimo de stock
+   * @param umbral nivel mínimo de stock; si es null se usa el stock mínimo de cada variante
    * @return lista de inventario con stock bajo
    */
   List<InventarioResponse> obtenerInventarioConStockBajo(Integer umbral);
 
+  /**
+   * Define el stock mínimo de una variante de inventario
+   * @param id ID del inventario
+   * @param stockMinimo nuevo stock mínimo; null vuelve al valor del producto
+   * @return inventario actualizado
+   */
+  InventarioResponse actualizarStockMinimo(Long id, Integer stockMinimo);
+
+  /**
+   * Busca inventarios aplicando solo los filtros informados
+   * @return página de inventarios que cumplen los filtros
+   */
+  PagedResponse<InventarioResponse> buscarInventario(Long productoId, Long colorId, Long tallaId, Long almacenId,
+                                                     Inventario.EstadoInventario estado,
+                                                     int page, int size, String sortBy, String sortDir);
+
   /**
    * Disminuye el stock de un inventario específico
    * @param inventarioId ID del inventario
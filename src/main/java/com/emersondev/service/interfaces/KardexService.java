@@ -0,0 +1,63 @@
+package com.emersondev.service.interfaces;
+
+import com.emersondev.domain.exception.BusinessException;
+import com.emersondev.domain.projection.InventarioResumen;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+public interface KardexService {
+
+  /**
+   * Formatos de exportación del kardex
+   */
+  enum Formato {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    PDF("application/pdf", "pdf");
+
+    private final String mediaType;
+    private final String extension;
+
+    Formato(String mediaType, String extension) {
+      this.mediaType = mediaType;
+      this.extension = extension;
+    }
+
+    public String getMediaType() {
+      return mediaType;
+    }
+
+    public String getExtension() {
+      return extension;
+    }
+
+    public static Formato desde(String valor) {
+      try {
+        return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new BusinessException("Formato de kardex no soportado: " + valor + " (use csv, ndjson o pdf)");
+      }
+    }
+  }
+
+  /**
+   * Obtiene los datos del inventario cuyo kardex se va a exportar
+   * @param inventarioId ID del inventario
+   * @return resumen del inventario
+   */
+  InventarioResumen obtenerInventario(Long inventarioId);
+
+  /**
+   * Escribe el kardex del inventario en el flujo indicado, fila a fila, sin cargar el historial en memoria
+   * @param inventarioId ID del inventario
+   * @param desde fecha inicial (opcional); el saldo considera también los movimientos anteriores
+   * @param hasta fecha final exclusiva (opcional)
+   * @param formato formato de salida
+   * @param salida flujo de destino
+   */
+  void exportar(Long inventarioId, LocalDateTime desde, LocalDateTime hasta, Formato formato, OutputStream salida)
+          throws IOException;
+}
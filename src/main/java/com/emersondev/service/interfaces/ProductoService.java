@@ -2,6 +2,8 @@ package com.emersondev.service.interfaces;
 
 import com.emersondev.api.request.ProductoRequest;
 import com.emersondev.api.response.PagedResponse;
+import com.emersondev.api.response.ProductoBusquedaResponse;
+import com.emersondev.api.response.ProductoDetalleResponse;
 import com.emersondev.api.response.ProductoResponse;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -18,8 +20,19 @@ public interface ProductoService {
 
   ProductoResponse obtenerProductoPorCodigo(String codigo);
 
+  /**
+   * Ficha del producto con sus colores, tallas y el stock de cada variante por almacén
+   */
+  ProductoDetalleResponse obtenerDetalleProducto(Long id);
+
   List<ProductoResponse> buscarProductos(String termino, String filtro);
 
+  /**
+   * Búsqueda de texto completo (PostgreSQL) por código, nombre, marca, modelo y descripción,
+   * ordenada por relevancia y con el fragmento coincidente resaltado
+   */
+  PagedResponse<ProductoBusquedaResponse> buscarTextoCompleto(String termino, int page, int size);
+
   ProductoResponse actualizarProducto(Long id, ProductoRequest productoRequest);
 
   void eliminarProducto(Long id);
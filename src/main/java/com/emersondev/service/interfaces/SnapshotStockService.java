@@ -0,0 +1,33 @@
+package com.emersondev.service.interfaces;
+
+import com.emersondev.api.response.StockHistoricoResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SnapshotStockService {
+
+  /**
+   * Registra el snapshot de stock de los inventarios modificados desde el último corte
+   * @return cantidad de snapshots registrados
+   */
+  int registrarSnapshot();
+
+  /**
+   * Stock de los inventarios a una fecha: parte del snapshot más cercano anterior a la fecha
+   * y reproduce solo los movimientos posteriores a ese corte
+   * @param fecha fecha de consulta
+   * @param almacenId filtra por almacén (opcional)
+   * @param productoId filtra por producto (opcional)
+   * @return stock de cada variante existente en esa fecha
+   */
+  List<StockHistoricoResponse> obtenerStockHistorico(LocalDateTime fecha, Long almacenId, Long productoId);
+
+  /**
+   * Stock de un inventario a una fecha
+   * @param inventarioId ID del inventario
+   * @param fecha fecha de consulta
+   * @return stock reconstruido
+   */
+  StockHistoricoResponse obtenerStockHistorico(Long inventarioId, LocalDateTime fecha);
+}
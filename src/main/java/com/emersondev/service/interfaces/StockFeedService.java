@@ -0,0 +1,15 @@
+package com.emersondev.service.interfaces;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface StockFeedService {
+
+  /**
+   * Suscribe un terminal al flujo de cambios de stock
+   * @param almacenId si se indica, solo se envían los cambios de ese almacén
+   * @param ultimoEventoId último evento recibido por el cliente ({@code <epoca>-<secuencia>}); se reenvían los
+   *                       posteriores, o se pide resincronizar si pertenece a otro arranque del servidor
+   * @return emisor SSE de la suscripción
+   */
+  SseEmitter suscribir(Long almacenId, String ultimoEventoId);
+}
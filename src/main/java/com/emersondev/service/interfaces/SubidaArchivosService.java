@@ -0,0 +1,16 @@
+package com.emersondev.service.interfaces;
+
+import com.emersondev.api.response.SubidaMultipleResponse;
+import jakarta.servlet.http.HttpServletRequest;
+
+public interface SubidaArchivosService {
+
+  /**
+   * Lee una petición multipart en streaming y almacena cada archivo en paralelo a medida que llega.
+   * Los archivos que no cumplen los límites se rechazan sin afectar al resto
+   * @param request Petición multipart/form-data sin procesar
+   * @param urlDescargaBase URL base de descarga, a la que se añade el nombre de cada archivo almacenado
+   * @return Archivos almacenados y rechazados
+   */
+  SubidaMultipleResponse subirArchivos(HttpServletRequest request, String urlDescargaBase);
+}
@@ -0,0 +1,29 @@
+package com.emersondev.service.interfaces;
+
+import com.emersondev.api.response.ReconstruccionCostosResponse;
+import com.emersondev.api.response.ValoracionInventarioResponse;
+import com.emersondev.api.response.dashboard.InventarioMetricasResponse;
+
+public interface ValoracionInventarioService {
+
+  /**
+   * Valoriza el inventario al costo promedio vigente de cada variante
+   * @param almacenId limita la valorización a un almacén (opcional)
+   * @return valor total, unidades y variantes valorizadas
+   */
+  ValoracionInventarioResponse obtenerValoracion(Long almacenId);
+
+  /**
+   * Métricas de inventario para el panel: productos, productos sin stock o con stock bajo y valor total
+   * al costo promedio vigente
+   */
+  InventarioMetricasResponse obtenerMetricas();
+
+  /**
+   * Recalcula el costo promedio de todas las variantes recorriendo el historial de movimientos,
+   * procesando lotes de variantes en paralelo. Completa el costo unitario de los movimientos que no lo tengan.
+   * Pensado para ejecutarse en una ventana sin movimientos.
+   * @return resumen de la reconstrucción
+   */
+  ReconstruccionCostosResponse reconstruirCostos();
+}
@@ -0,0 +1,248 @@
+package com.emersondev.util;
+
+import com.emersondev.domain.projection.ProductoBusqueda;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Índice invertido inmutable sobre nombre, código, marca, modelo y descripción de los productos.
+ * Los términos se guardan ordenados para resolver prefijos con búsqueda binaria; las erratas se toleran
+ * comparando contra los términos con la misma inicial y longitud parecida.
+ */
+public final class IndiceBusquedaProductos {
+
+  private static final float PESO_CODIGO = 4f;
+  private static final float PESO_NOMBRE = 2f;
+  private static final float PESO_MARCA = 1.5f;
+  private static final float PESO_MODELO = 1.5f;
+  private static final float PESO_DESCRIPCION = 0.5f;
+
+  private static final float COINCIDENCIA_EXACTA = 1f;
+  private static final float COINCIDENCIA_PREFIJO = 0.8f;
+  private static final float COINCIDENCIA_ERRATA = 0.5f;
+  private static final float BONO_CODIGO_EXACTO = 10f;
+
+  /**
+   * Términos como máximo que expande un prefijo (los prefijos de una letra abarcan gran parte del vocabulario)
+   */
+  private static final int MAX_TERMINOS_PREFIJO = 256;
+  private static final int LONGITUD_MINIMA_ERRATA = 4;
+  private static final int LONGITUD_DOS_ERRATAS = 8;
+
+  private final ProductoBusqueda[] documentos;
+  private final String[] codigosNormalizados;
+  private final String[] terminos;
+  private final int[][] documentosPorTermino;
+  private final float[][] pesosPorTermino;
+  private final IndiceBusquedaProductos referencia;
+
+  /**
+   * Resultado de una búsqueda con su puntaje de relevancia
+   */
+  public record Resultado(ProductoBusqueda producto, float puntaje) {
+  }
+
+  private IndiceBusquedaProductos(ProductoBusqueda[] documentos, String[] codigosNormalizados, String[] terminos,
+                                  int[][] documentosPorTermino, float[][] pesosPorTermino,
+                                  IndiceBusquedaProductos referencia) {
+    this.documentos = documentos;
+    this.codigosNormalizados = codigosNormalizados;
+    this.terminos = terminos;
+    this.documentosPorTermino = documentosPorTermino;
+    this.pesosPorTermino = pesosPorTermino;
+    this.referencia = referencia;
+  }
+
+  /**
+   * Postings de un término mientras se construye el índice
+   */
+  private static final class Postings {
+    private int[] documentos = new int[4];
+    private float[] pesos = new float[4];
+    private int total;
+
+    private void agregar(int documento, float peso) {
+      if (total > 0 && documentos[total - 1] == documento) {
+        pesos[total - 1] += peso;
+        return;
+      }
+      if (total == documentos.length) {
+        documentos = Arrays.copyOf(documentos, total * 2);
+        pesos = Arrays.copyOf(pesos, total * 2);
+      }
+      documentos[total] = documento;
+      pesos[total] = peso;
+      total++;
+    }
+  }
+
+  public static IndiceBusquedaProductos construir(Collection<ProductoBusqueda> productos) {
+    return construir(productos, null);
+  }
+
+  /**
+   * Construye el índice. Si se indica una referencia, la rareza de los términos se toma de ella,
+   * para que los puntajes de un índice pequeño de cambios recientes sean comparables con los del principal.
+   */
+  public static IndiceBusquedaProductos construir(Collection<ProductoBusqueda> productos,
+                                                  IndiceBusquedaProductos referencia) {
+    ProductoBusqueda[] documentos = productos.toArray(ProductoBusqueda[]::new);
+    String[] codigos = new String[documentos.length];
+    Map<String, Postings> postings = new HashMap<>();
+
+    for (int i = 0; i < documentos.length; i++) {
+      ProductoBusqueda producto = documentos[i];
+      codigos[i] = String.join(" ", TextoBusqueda.tokenizar(producto.codigo()));
+      indexar(postings, i, producto.codigo(), PESO_CODIGO);
+      indexar(postings, i, producto.nombre(), PESO_NOMBRE);
+      indexar(postings, i, producto.marca(), PESO_MARCA);
+      indexar(postings, i, producto.modelo(), PESO_MODELO);
+      indexar(postings, i, producto.descripcion(), PESO_DESCRIPCION);
+    }
+
+    String[] terminos = postings.keySet().toArray(String[]::new);
+    Arrays.sort(terminos);
+    int[][] documentosPorTermino = new int[terminos.length][];
+    float[][] pesosPorTermino = new float[terminos.length][];
+    for (int i = 0; i < terminos.length; i++) {
+      Postings lista = postings.get(terminos[i]);
+      documentosPorTermino[i] = Arrays.copyOf(lista.documentos, lista.total);
+      pesosPorTermino[i] = Arrays.copyOf(lista.pesos, lista.total);
+    }
+    return new IndiceBusquedaProductos(documentos, codigos, terminos, documentosPorTermino, pesosPorTermino,
+            referencia);
+  }
+
+  private static void indexar(Map<String, Postings> postings, int documento, String texto, float peso) {
+    for (String token : TextoBusqueda.tokenizar(texto)) {
+      postings.computeIfAbsent(token, t -> new Postings()).agregar(documento, peso);
+    }
+  }
+
+  public int getTotalProductos() {
+    return documentos.length;
+  }
+
+  public int getTotalTerminos() {
+    return terminos.length;
+  }
+
+  /**
+   * Productos que contienen todos los términos de la consulta (exactos, como prefijo o con una errata),
+   * ordenados por relevancia
+   * @param consulta texto buscado
+   * @param limite cantidad máxima de resultados
+   * @param excluido productos a omitir (p. ej. los reemplazados por una versión más reciente)
+   */
+  public List<Resultado> buscar(String consulta, int limite, Predicate<Long> excluido) {
+    List<String> tokens = TextoBusqueda.tokenizar(consulta);
+    if (tokens.isEmpty() || documentos.length == 0) {
+      return List.of();
+    }
+
+    // Se intersecta empezando por el término con menos candidatos
+    List<Map<Integer, Float>> porToken = new ArrayList<>(tokens.size());
+    for (String token : new LinkedHashSet<>(tokens)) {
+      Map<Integer, Float> candidatos = puntuarToken(token);
+      if (candidatos.isEmpty()) {
+        return List.of();
+      }
+      porToken.add(candidatos);
+    }
+    porToken.sort(Comparator.comparingInt(Map::size));
+
+    Map<Integer, Float> acumulado = new HashMap<>(porToken.get(0));
+    for (int i = 1; i < porToken.size() && !acumulado.isEmpty(); i++) {
+      Map<Integer, Float> siguiente = porToken.get(i);
+      acumulado.entrySet().removeIf(entrada -> !siguiente.containsKey(entrada.getKey()));
+      acumulado.replaceAll((documento, puntaje) -> puntaje + siguiente.get(documento));
+    }
+
+    String codigoConsulta = String.join(" ", tokens);
+    Comparator<Resultado> orden = Comparator.comparingDouble(Resultado::puntaje)
+            .thenComparing(resultado -> -resultado.producto().id());
+    PriorityQueue<Resultado> mejores = new PriorityQueue<>(limite + 1, orden);
+    for (Map.Entry<Integer, Float> entrada : acumulado.entrySet()) {
+      ProductoBusqueda producto = documentos[entrada.getKey()];
+      if (excluido.test(producto.id())) {
+        continue;
+      }
+      float puntaje = entrada.getValue();
+      if (codigosNormalizados[entrada.getKey()].equals(codigoConsulta)) {
+        puntaje += BONO_CODIGO_EXACTO;
+      }
+      mejores.add(new Resultado(producto, puntaje));
+      if (mejores.size() > limite) {
+        mejores.poll();
+      }
+    }
+
+    List<Resultado> resultado = new ArrayList<>(mejores);
+    resultado.sort(orden.reversed());
+    return resultado;
+  }
+
+  /**
+   * Mejor puntaje de cada documento para un término de la consulta
+   */
+  private Map<Integer, Float> puntuarToken(String token) {
+    Map<Integer, Float> puntajes = new HashMap<>();
+    int inicio = primeraPosicion(token);
+    boolean exacto = inicio < terminos.length && terminos[inicio].equals(token);
+
+    int fin = inicio;
+    while (fin < terminos.length && fin - inicio < MAX_TERMINOS_PREFIJO && terminos[fin].startsWith(token)) {
+      acumular(puntajes, fin, fin == inicio && exacto ? COINCIDENCIA_EXACTA : COINCIDENCIA_PREFIJO);
+      fin++;
+    }
+
+    if (!exacto && token.length() >= LONGITUD_MINIMA_ERRATA) {
+      // Se asume correcta la primera letra: solo se comparan los términos con la misma inicial
+      int maximo = token.length() >= LONGITUD_DOS_ERRATAS ? 2 : 1;
+      String inicial = token.substring(0, 1);
+      for (int i = primeraPosicion(inicial); i < terminos.length && terminos[i].startsWith(inicial); i++) {
+        String termino = terminos[i];
+        if (i >= inicio && i < fin || Math.abs(termino.length() - token.length()) > maximo) {
+          continue;
+        }
+        int distancia = TextoBusqueda.distanciaEdicion(token, termino, maximo);
+        if (distancia <= maximo) {
+          acumular(puntajes, i, COINCIDENCIA_ERRATA / distancia);
+        }
+      }
+    }
+    return puntajes;
+  }
+
+  private void acumular(Map<Integer, Float> puntajes, int termino, float coincidencia) {
+    float factor = coincidencia * rareza(terminos[termino], documentosPorTermino[termino].length);
+    int[] docs = documentosPorTermino[termino];
+    float[] pesos = pesosPorTermino[termino];
+    for (int i = 0; i < docs.length; i++) {
+      puntajes.merge(docs[i], pesos[i] * factor, Math::max);
+    }
+  }
+
+  /**
+   * Peso inverso a la frecuencia del término (idf); los términos comunes aportan menos
+   */
+  private float rareza(String termino, int frecuenciaPropia) {
+    if (referencia != null) {
+      int posicion = referencia.posicion(termino);
+      int frecuencia = posicion >= 0 ? referencia.documentosPorTermino[posicion].length : 1;
+      return (float) Math.log(1 + (double) Math.max(referencia.documentos.length, 1) / frecuencia);
+    }
+    return (float) Math.log(1 + (double) documentos.length / frecuenciaPropia);
+  }
+
+  private int posicion(String termino) {
+    int posicion = Arrays.binarySearch(terminos, termino);
+    return posicion >= 0 ? posicion : -1;
+  }
+
+  private int primeraPosicion(String prefijo) {
+    int posicion = Arrays.binarySearch(terminos, prefijo);
+    return posicion >= 0 ? posicion : -posicion - 1;
+  }
+}
@@ -0,0 +1,272 @@
+package com.emersondev.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Lectura en streaming de la primera hoja de un libro XLSX, sin dependencias externas.
+ * El libro es un ZIP de XML: se vuelca a un archivo temporal (las cadenas compartidas suelen ir después
+ * de las hojas) y la hoja se recorre con StAX fila a fila, sin cargarla completa en memoria.
+ * El tamaño del archivo, el del XML descomprimido y la cantidad de filas están acotados.
+ */
+public final class LectorXlsx {
+
+  private static final String CADENAS_COMPARTIDAS = "xl/sharedStrings.xml";
+  private static final String PRIMERA_HOJA = "xl/worksheets/sheet1.xml";
+  private static final String PREFIJO_HOJAS = "xl/worksheets/sheet";
+
+  static final long MAX_BYTES_ARCHIVO = 50L * 1024 * 1024;
+
+  /**
+   * Límite del XML descomprimido de cada parte: un ZIP pequeño puede expandirse a gigabytes
+   */
+  static final long MAX_BYTES_XML = 500L * 1024 * 1024;
+
+  static final int MAX_FILAS = 200_000;
+
+  private LectorXlsx() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * Entrega cada fila de la primera hoja como lista de celdas en texto (las celdas vacías como "").
+   * Los números se entregan tal como están guardados (p. ej. "38" o "199.9")
+   * @throws IOException si el archivo no es válido o supera los límites de tamaño o de filas
+   */
+  public static void leerFilas(InputStream contenido, Consumer<List<String>> consumidor) throws IOException {
+    Path temporal = Files.createTempFile("importacion-", ".xlsx");
+    try {
+      try (OutputStream destino = Files.newOutputStream(temporal)) {
+        copiarAcotado(contenido, destino);
+      }
+      try (ZipFile libro = new ZipFile(temporal.toFile())) {
+        List<String> cadenas = leerCadenasCompartidas(libro);
+        ZipEntry hoja = buscarPrimeraHoja(libro);
+        try (InputStream xml = abrirAcotado(libro, hoja)) {
+          recorrerHoja(xml, cadenas, consumidor);
+        }
+      }
+    } catch (XMLStreamException e) {
+      if (e.getNestedException() instanceof IOException limite) {
+        throw limite;
+      }
+      throw new IOException("El archivo XLSX no es válido: " + e.getMessage(), e);
+    } finally {
+      Files.deleteIfExists(temporal);
+    }
+  }
+
+  private static void copiarAcotado(InputStream origen, OutputStream destino) throws IOException {
+    byte[] buffer = new byte[8192];
+    long copiados = 0;
+    int leidos;
+    while ((leidos = origen.read(buffer)) != -1) {
+      copiados += leidos;
+      if (copiados > MAX_BYTES_ARCHIVO) {
+        throw new IOException("El archivo XLSX supera los " + MAX_BYTES_ARCHIVO / (1024 * 1024) + " MB");
+      }
+      destino.write(buffer, 0, leidos);
+    }
+  }
+
+  /**
+   * Abre una parte del libro cortando la lectura si su XML descomprimido supera el límite
+   */
+  private static InputStream abrirAcotado(ZipFile libro, ZipEntry entrada) throws IOException {
+    if (entrada.getSize() > MAX_BYTES_XML) {
+      throw new IOException("La parte " + entrada.getName() + " del archivo XLSX es demasiado grande");
+    }
+    return new FilterInputStream(libro.getInputStream(entrada)) {
+      private long leidos;
+
+      @Override
+      public int read() throws IOException {
+        int valor = super.read();
+        if (valor != -1) {
+          contar(1);
+        }
+        return valor;
+      }
+
+      @Override
+      public int read(byte[] buffer, int desde, int longitud) throws IOException {
+        int cantidad = super.read(buffer, desde, longitud);
+        if (cantidad > 0) {
+          contar(cantidad);
+        }
+        return cantidad;
+      }
+
+      private void contar(int cantidad) throws IOException {
+        leidos += cantidad;
+        if (leidos > MAX_BYTES_XML) {
+          throw new IOException("La parte " + entrada.getName() + " del archivo XLSX es demasiado grande");
+        }
+      }
+    };
+  }
+
+  private static ZipEntry buscarPrimeraHoja(ZipFile libro) throws IOException {
+    ZipEntry hoja = libro.getEntry(PRIMERA_HOJA);
+    if (hoja != null) {
+      return hoja;
+    }
+    return libro.stream()
+            .filter(entrada -> entrada.getName().startsWith(PREFIJO_HOJAS) && entrada.getName().endsWith(".xml"))
+            .min((a, b) -> a.getName().compareTo(b.getName()))
+            .orElseThrow(() -> new IOException("El archivo XLSX no contiene hojas"));
+  }
+
+  private static List<String> leerCadenasCompartidas(ZipFile libro) throws IOException, XMLStreamException {
+    ZipEntry entrada = libro.getEntry(CADENAS_COMPARTIDAS);
+    if (entrada == null) {
+      return Collections.emptyList();
+    }
+    List<String> cadenas = new ArrayList<>();
+    try (InputStream xml = abrirAcotado(libro, entrada)) {
+      XMLStreamReader lector = crearLector(xml);
+      StringBuilder actual = null;
+      while (lector.hasNext()) {
+        int evento = lector.next();
+        if (evento == XMLStreamConstants.START_ELEMENT) {
+          if ("si".equals(lector.getLocalName())) {
+            actual = new StringBuilder();
+          } else if ("t".equals(lector.getLocalName()) && actual != null) {
+            // Concatena los fragmentos de texto enriquecido (<r><t>) de la misma cadena
+            actual.append(lector.getElementText());
+          } else if ("rPh".equals(lector.getLocalName())) {
+            saltarElemento(lector);
+          }
+        } else if (evento == XMLStreamConstants.END_ELEMENT && "si".equals(lector.getLocalName()) && actual != null) {
+          cadenas.add(actual.toString());
+          actual = null;
+        }
+      }
+      lector.close();
+    }
+    return cadenas;
+  }
+
+  private static void recorrerHoja(InputStream xml, List<String> cadenas, Consumer<List<String>> consumidor)
+          throws XMLStreamException, IOException {
+    XMLStreamReader lector = crearLector(xml);
+    List<String> fila = null;
+    int filas = 0;
+    String tipoCelda = null;
+    int columna = -1;
+    String valor = null;
+
+    while (lector.hasNext()) {
+      int evento = lector.next();
+      if (evento == XMLStreamConstants.START_ELEMENT) {
+        switch (lector.getLocalName()) {
+          case "row" -> fila = new ArrayList<>();
+          case "c" -> {
+            tipoCelda = lector.getAttributeValue(null, "t");
+            String referencia = lector.getAttributeValue(null, "r");
+            columna = referencia != null ? indiceColumna(referencia) : (fila != null ? fila.size() : 0);
+            valor = null;
+          }
+          case "v" -> valor = lector.getElementText();
+          case "is" -> valor = textoEnLinea(lector);
+          default -> {
+            // Fórmulas, estilos y demás elementos no aportan al valor
+          }
+        }
+      } else if (evento == XMLStreamConstants.END_ELEMENT) {
+        if ("c".equals(lector.getLocalName()) && fila != null) {
+          while (fila.size() < columna) {
+            fila.add("");
+          }
+          fila.add(valorCelda(tipoCelda, valor, cadenas));
+        } else if ("row".equals(lector.getLocalName()) && fila != null) {
+          if (++filas > MAX_FILAS) {
+            throw new IOException("El archivo XLSX supera las " + MAX_FILAS + " filas");
+          }
+          consumidor.accept(fila);
+          fila = null;
+        }
+      }
+    }
+    lector.close();
+  }
+
+  private static String valorCelda(String tipo, String valor, List<String> cadenas) {
+    if (valor == null) {
+      return "";
+    }
+    if ("s".equals(tipo)) {
+      int indice = Integer.parseInt(valor.trim());
+      return indice < cadenas.size() ? cadenas.get(indice) : "";
+    }
+    if ("b".equals(tipo)) {
+      return "1".equals(valor) ? "true" : "false";
+    }
+    return valor;
+  }
+
+  /**
+   * Texto de una celda de tipo inlineStr ({@code <is><t>..</t></is>})
+   */
+  private static String textoEnLinea(XMLStreamReader lector) throws XMLStreamException {
+    StringBuilder texto = new StringBuilder();
+    int profundidad = 1;
+    while (profundidad > 0 && lector.hasNext()) {
+      int evento = lector.next();
+      if (evento == XMLStreamConstants.START_ELEMENT) {
+        if ("t".equals(lector.getLocalName())) {
+          texto.append(lector.getElementText());
+        } else {
+          profundidad++;
+        }
+      } else if (evento == XMLStreamConstants.END_ELEMENT) {
+        profundidad--;
+      }
+    }
+    return texto.toString();
+  }
+
+  private static void saltarElemento(XMLStreamReader lector) throws XMLStreamException {
+    int profundidad = 1;
+    while (profundidad > 0 && lector.hasNext()) {
+      int evento = lector.next();
+      if (evento == XMLStreamConstants.START_ELEMENT) {
+        profundidad++;
+      } else if (evento == XMLStreamConstants.END_ELEMENT) {
+        profundidad--;
+      }
+    }
+  }
+
+  /**
+   * Índice (desde 0) de la columna de una referencia de celda: "A1" → 0, "AB12" → 27
+   */
+  private static int indiceColumna(String referencia) {
+    int indice = 0;
+    for (int i = 0; i < referencia.length() && Character.isLetter(referencia.charAt(i)); i++) {
+      indice = indice * 26 + (Character.toUpperCase(referencia.charAt(i)) - 'A' + 1);
+    }
+    return indice - 1;
+  }
+
+  private static XMLStreamReader crearLector(InputStream xml) throws XMLStreamException {
+    XMLInputFactory fabrica = XMLInputFactory.newFactory();
+    fabrica.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    fabrica.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return fabrica.createXMLStreamReader(xml);
+  }
+}
@@ -1,7 +1,9 @@
 package com.emersondev.util;
 
 import com.emersondev.domain.entity.*;
+import com.emersondev.domain.exception.BusinessException;
 import com.emersondev.domain.repository.ComprobanteRepository;
+import com.emersondev.domain.repository.InventarioRepository;
 import com.emersondev.domain.repository.VentaRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,7 +16,10 @@ import java.security.SecureRandom;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -28,11 +33,13 @@ public class SerieGenerator {
 
   private final VentaRepository ventaRepository;
   private final ComprobanteRepository comprobanteRepository;
+  private final InventarioRepository inventarioRepository;
 
   private static final String CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
   private static final int CODIGO_PRODUCTO_LENGTH = 8;
   private static final SecureRandom RANDOM = new SecureRandom();
   private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+  private static final int MAX_INTENTOS_SERIE = 5;
 
   // Contadores para generación de secuencias
   private final AtomicInteger ventaCounter = new AtomicInteger(1);
@@ -47,15 +54,15 @@ public class SerieGenerator {
     StringBuilder sb = new StringBuilder();
 
    // Usar 3 primeras letras del nombre o codigo del producto
-    if (producto != null && producto.getNombre() != null) {
-      sb.append(producto.getNombre().substring(0, 3).toUpperCase()).append("-");
+    if (producto != null && producto.getNombre() != null && !producto.getNombre().isBlank()) {
+      sb.append(primerasLetras(producto.getNombre(), 3)).append("-");
     } else {
       sb.append("PRD-");
     }
 
     // Usar 3 primeras letras de las marca
-    if (producto != null && producto.getMarca() != null) {
-      sb.append(producto.getMarca().substring(0, 3).toUpperCase()).append("-");
+    if (producto != null && producto.getMarca() != null && !producto.getMarca().isBlank()) {
+      sb.append(primerasLetras(producto.getMarca(), 3)).append("-");
     } else {
       sb.append("MAR-");
     }
@@ -69,6 +76,14 @@ public class SerieGenerator {
     return sb.toString();
   }
 
+  /**
+   * Hasta las primeras letras indicadas, en mayúsculas (los textos más cortos son válidos)
+   */
+  private String primerasLetras(String texto, int cantidad) {
+    String limpio = texto.trim();
+    return limpio.substring(0, Math.min(cantidad, limpio.length())).toUpperCase();
+  }
+
   /**
    * Genera una serie para un item de inventario
    * @param producto el producto
@@ -80,22 +95,22 @@ public class SerieGenerator {
     StringBuilder sb = new StringBuilder();
     
     // Usar primera letra del nombre o código del producto
-    if (producto != null && producto.getCodigo() != null) {
-      sb.append(producto.getCodigo().substring(0, 3).toUpperCase()).append("-");
+    if (producto != null && producto.getCodigo() != null && !producto.getCodigo().isBlank()) {
+      sb.append(primerasLetras(producto.getCodigo(), 3)).append("-");
     } else {
       sb.append("PRD-");
     }
 
     // Usar las 3 letra de la marca
-    if (producto != null && producto.getMarca() != null ) {
-      sb.append(producto.getMarca().substring(0, 3).toUpperCase()).append("-");
+    if (producto != null && producto.getMarca() != null && !producto.getMarca().isBlank()) {
+      sb.append(primerasLetras(producto.getMarca(), 3)).append("-");
     } else {
       sb.append("MAR-");
     }
 
     // Agregar primera letra del color
-    if (color != null && color.getNombre() != null && !color.getNombre().isEmpty()) {
-      sb.append(color.getNombre().substring(0, 2).toUpperCase());
+    if (color != null && color.getNombre() != null && !color.getNombre().isBlank()) {
+      sb.append(primerasLetras(color.getNombre(), 2));
     } else {
       sb.append("X");
     }
@@ -118,6 +133,33 @@ public class SerieGenerator {
     return sb.toString();
   }
 
+  /**
+   * Asigna series únicas a un lote de inventarios nuevos, comprobando colisiones
+   * con una sola consulta por intento en lugar de una por inventario
+   * @param nuevos inventarios aún no persistidos
+   */
+  public void asignarSeriesInventario(List<Inventario> nuevos) {
+    Set<String> generadas = new HashSet<>();
+    List<Inventario> pendientes = nuevos;
+    for (int intento = 0; !pendientes.isEmpty(); intento++) {
+      if (intento >= MAX_INTENTOS_SERIE) {
+        throw new BusinessException("No se pudieron generar series únicas para los inventarios nuevos");
+      }
+      for (Inventario inventario : pendientes) {
+        String serie;
+        do {
+          serie = generarSerieInventario(inventario.getProducto(), inventario.getColor(), inventario.getTalla());
+        } while (!generadas.add(serie));
+        inventario.setSerie(serie);
+      }
+      Set<String> existentes = inventarioRepository.findSeriesExistentes(
+              pendientes.stream().map(Inventario::getSerie).toList());
+      pendientes = pendientes.stream()
+              .filter(inventario -> existentes.contains(inventario.getSerie()))
+              .toList();
+    }
+  }
+
   /**
    * Genera un código único para pago
    * @return código único
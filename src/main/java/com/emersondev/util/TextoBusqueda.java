@@ -0,0 +1,90 @@
+package com.emersondev.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto para búsquedas: minúsculas, sin tildes ni diéresis y dividido en palabras
+ */
+public final class TextoBusqueda {
+
+  private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+  private TextoBusqueda() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * Pasa el texto a minúsculas y elimina tildes, diéresis y la virgulilla de la ñ ("Camión Ñandú" → "camion nandu")
+   */
+  public static String normalizar(String texto) {
+    if (texto == null || texto.isEmpty()) {
+      return "";
+    }
+    String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+    return MARCAS_DIACRITICAS.matcher(descompuesto).replaceAll("").toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Palabras normalizadas del texto; letras y dígitos forman palabras, el resto separa
+   */
+  public static List<String> tokenizar(String texto) {
+    String normalizado = normalizar(texto);
+    List<String> tokens = new ArrayList<>();
+    int inicio = -1;
+    for (int i = 0; i < normalizado.length(); i++) {
+      if (Character.isLetterOrDigit(normalizado.charAt(i))) {
+        if (inicio < 0) {
+          inicio = i;
+        }
+      } else if (inicio >= 0) {
+        tokens.add(normalizado.substring(inicio, i));
+        inicio = -1;
+      }
+    }
+    if (inicio >= 0) {
+      tokens.add(normalizado.substring(inicio));
+    }
+    return tokens;
+  }
+
+  /**
+   * Distancia de Damerau-Levenshtein (con transposiciones adyacentes) acotada:
+   * devuelve maximo + 1 en cuanto sabe que la distancia supera el máximo
+   */
+  public static int distanciaEdicion(String a, String b, int maximo) {
+    if (Math.abs(a.length() - b.length()) > maximo) {
+      return maximo + 1;
+    }
+    int[] anterior2 = new int[b.length() + 1];
+    int[] anterior = new int[b.length() + 1];
+    int[] actual = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      anterior[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      actual[0] = i;
+      int minimoFila = actual[0];
+      for (int j = 1; j <= b.length(); j++) {
+        int costo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        int valor = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1), anterior[j - 1] + costo);
+        if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+          valor = Math.min(valor, anterior2[j - 2] + 1);
+        }
+        actual[j] = valor;
+        minimoFila = Math.min(minimoFila, valor);
+      }
+      if (minimoFila > maximo) {
+        return maximo + 1;
+      }
+      int[] temporal = anterior2;
+      anterior2 = anterior;
+      anterior = actual;
+      actual = temporal;
+    }
+    return Math.min(anterior[b.length()], maximo + 1);
+  }
+}
@@ -0,0 +1,15 @@
+package com.emersondev;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+/**
+ * PostgreSQL compartido por las pruebas de repositorio. Versión 16 por {@code EXPLAIN (GENERIC_PLAN)}.
+ */
+public interface PostgresContenedor {
+
+  @Container
+  @ServiceConnection
+  PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+}
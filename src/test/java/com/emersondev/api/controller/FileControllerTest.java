@@ -0,0 +1,47 @@
+package com.emersondev.api.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileControllerTest {
+
+  @Test
+  void resuelveRangosCerradosAbiertosYSufijos() {
+    assertThat(FileController.resolverRango("bytes=0-99", 1000)).isEqualTo(new FileController.Rango(0, 99));
+    assertThat(FileController.resolverRango("bytes=500-", 1000)).isEqualTo(new FileController.Rango(500, 999));
+    assertThat(FileController.resolverRango("bytes=-100", 1000)).isEqualTo(new FileController.Rango(900, 999));
+  }
+
+  @Test
+  void recortaAlFinalDelArchivo() {
+    assertThat(FileController.resolverRango("bytes=900-5000", 1000)).isEqualTo(new FileController.Rango(900, 999));
+    assertThat(FileController.resolverRango("bytes=-5000", 1000)).isEqualTo(new FileController.Rango(0, 999));
+  }
+
+  @Test
+  void variosRangosDevuelvenElArchivoCompleto() {
+    assertThat(FileController.resolverRango("bytes=0-9,20-29", 1000)).isNull();
+  }
+
+  @Test
+  void rechazaRangosNoSatisfacibles() {
+    assertThatThrownBy(() -> FileController.resolverRango("bytes=1000-", 1000))
+            .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> FileController.resolverRango("bytes=5000-6000", 1000))
+            .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> FileController.resolverRango("bytes=-0", 1000))
+            .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> FileController.resolverRango("bytes=0-", 0))
+            .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rechazaCabecerasMalFormadas() {
+    assertThatThrownBy(() -> FileController.resolverRango("items=0-9", 1000))
+            .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> FileController.resolverRango("bytes=9-0", 1000))
+            .isInstanceOf(IllegalArgumentException.class);
+  }
+}
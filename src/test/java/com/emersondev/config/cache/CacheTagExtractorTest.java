@@ -0,0 +1,68 @@
+package com.emersondev.config.cache;
+
+import com.emersondev.api.response.InventarioResponse;
+import com.emersondev.api.response.PagedResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheTagExtractorTest {
+
+  private final CacheTagExtractor extractor = new CacheTagExtractor();
+
+  @Test
+  void clavesDeStockSeEtiquetanPorProducto() {
+    assertThat(extractor.extraer("inventario", "stock-total-producto-7", 12))
+            .containsExactly(CacheTags.stockProducto(7L));
+    assertThat(extractor.extraer("inventario", "stock-variante-7-3-2", 4))
+            .containsExactly(CacheTags.stockProducto(7L));
+    assertThat(extractor.extraer("inventario", "almacen-5", List.of()))
+            .containsExactly(CacheTags.inventariosAlmacen(5L));
+  }
+
+  @Test
+  void valoresDeInventarioAportanInventarioYProducto() {
+    PagedResponse<InventarioResponse> pagina = new PagedResponse<>(List.of(inventario(10L, 7L)), 0, 20, 1, 1, true);
+
+    assertThat(extractor.extraer("inventario", "producto-7", pagina)).containsExactlyInAnyOrder(
+            CacheTags.inventariosProducto(7L), CacheTags.inventario(10L), CacheTags.producto(7L));
+  }
+
+  @Test
+  void clavesNoTextualesDependenDeLaColeccionYDelStockSiOrdenanPorCantidad() {
+    assertThat(extractor.extraer("inventario", PageRequest.of(0, 20), null))
+            .containsExactly(CacheTags.coleccion("inventario"));
+    assertThat(extractor.extraer("inventario", List.of(0, 20, "cantidad: DESC"), null))
+            .contains(CacheTags.coleccion("inventario"), CacheTags.STOCK_GLOBAL);
+  }
+
+  @Test
+  void rangosDeFechasSeEtiquetanDiaADia() {
+    assertThat(extractor.extraer("ventas", "fechas-2024-03-01T00:00-2024-03-03T23:59", List.of()))
+            .containsExactlyInAnyOrder(CacheTags.fecha(LocalDate.of(2024, 3, 1)),
+                    CacheTags.fecha(LocalDate.of(2024, 3, 2)), CacheTags.fecha(LocalDate.of(2024, 3, 3)));
+  }
+
+  @Test
+  void rangosInvertidosDemasiadoAmpliosOIlegiblesUsanLaEtiquetaComodin() {
+    assertThat(extractor.extraer("reportes", "ventas-2024-03-05T00:00-2024-03-01T00:00", null))
+            .containsExactly(CacheTags.FECHA_CUALQUIERA);
+    assertThat(extractor.extraer("reportes", "ventas-2020-01-01T00:00-2024-01-01T00:00", null))
+            .containsExactly(CacheTags.FECHA_CUALQUIERA);
+    assertThat(extractor.extraer("reportes", "ventas-mes-actual", null))
+            .containsExactly(CacheTags.FECHA_CUALQUIERA);
+  }
+
+  private InventarioResponse inventario(Long id, Long productoId) {
+    InventarioResponse.ProductoSimpleResponse producto = new InventarioResponse.ProductoSimpleResponse();
+    producto.setId(productoId);
+    InventarioResponse inventario = new InventarioResponse();
+    inventario.setId(id);
+    inventario.setProducto(producto);
+    return inventario;
+  }
+}
@@ -0,0 +1,86 @@
+package com.emersondev.config.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheTagIndexTest {
+
+  private final CacheTagIndex indice = new CacheTagIndex();
+
+  @Test
+  void extraerDependientesDevuelveSoloLasEntradasDeLasEtiquetas() {
+    indice.registrar("productos", 1L, Set.of("producto:1"), indice.secuencia());
+    indice.registrar("productos", 2L, Set.of("producto:2"), indice.secuencia());
+    indice.registrar("inventario", "producto-1", Set.of("producto:1", "inventarios-producto:1"), indice.secuencia());
+
+    Set<CacheTagIndex.Entrada> dependientes = indice.extraerDependientes(List.of("producto:1"));
+
+    assertThat(dependientes).containsExactlyInAnyOrder(
+            new CacheTagIndex.Entrada("productos", 1L),
+            new CacheTagIndex.Entrada("inventario", "producto-1"));
+    assertThat(indice.totalEntradas()).isEqualTo(1);
+    // La etiqueta secundaria de la entrada extraída también desaparece del índice
+    assertThat(indice.totalEtiquetas()).isEqualTo(1);
+  }
+
+  @Test
+  void registrarReemplazaLasEtiquetasAnteriores() {
+    indice.registrar("productos", 1L, Set.of("producto:1", "coleccion:productos"), indice.secuencia());
+    indice.registrar("productos", 1L, Set.of("producto:1"), indice.secuencia());
+
+    assertThat(indice.extraerDependientes(List.of("coleccion:productos"))).isEmpty();
+    assertThat(indice.totalEntradas()).isEqualTo(1);
+  }
+
+  @Test
+  void eliminarCacheSoloAfectaALaCacheIndicada() {
+    indice.registrar("productos", 1L, Set.of("producto:1"), indice.secuencia());
+    indice.registrar("inventario", 1L, Set.of("producto:1"), indice.secuencia());
+
+    indice.eliminarCache("productos");
+
+    assertThat(indice.extraerDependientes(List.of("producto:1")))
+            .containsExactly(new CacheTagIndex.Entrada("inventario", 1L));
+  }
+
+  @Test
+  void rechazaValoresLeidosAntesDeUnaInvalidacion() {
+    long inicioCarga = indice.secuencia();
+    indice.extraerDependientes(List.of("producto:1"));
+
+    assertThat(indice.registrar("productos", 1L, Set.of("producto:1"), inicioCarga)).isFalse();
+    assertThat(indice.totalEntradas()).isZero();
+  }
+
+  @Test
+  void aceptaValoresLeidosDespuesDeLaInvalidacionOSinEtiquetasAfectadas() {
+    long antes = indice.secuencia();
+    indice.extraerDependientes(List.of("producto:1"));
+
+    assertThat(indice.registrar("productos", 2L, Set.of("producto:2"), antes)).isTrue();
+    assertThat(indice.registrar("productos", 1L, Set.of("producto:1"), indice.secuencia())).isTrue();
+    assertThat(indice.totalEntradas()).isEqualTo(2);
+  }
+
+  @Test
+  void podaLasMarcasCaducadasSinPerderLasRecientes() {
+    AtomicLong reloj = new AtomicLong();
+    CacheTagIndex conReloj = new CacheTagIndex(reloj::get);
+    long inicioCarga = conReloj.secuencia();
+    for (int i = 0; i <= 4096; i++) {
+      conReloj.extraerDependientes(List.of("producto:" + i));
+    }
+    reloj.addAndGet(TimeUnit.SECONDS.toNanos(61));
+    conReloj.extraerDependientes(List.of("producto:reciente"));
+
+    // La marca antigua se podó: una carga lentísima ya no queda protegida, pero el índice no crece sin límite
+    assertThat(conReloj.registrar("productos", 1L, Set.of("producto:1"), inicioCarga)).isTrue();
+    assertThat(conReloj.registrar("productos", 2L, Set.of("producto:reciente"), inicioCarga)).isFalse();
+  }
+}
@@ -0,0 +1,208 @@
+package com.emersondev.config.cache;
+
+import com.emersondev.api.response.InventarioResponse;
+import com.emersondev.api.response.ProductoDetalleResponse;
+import com.emersondev.api.response.ProductoResponse;
+import com.emersondev.api.response.VentaResponse;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Reproduce la misma mezcla de lecturas, ventas y movimientos de inventario con las dos estrategias de invalidación:
+ * vaciar las cachés completas como hacían los antiguos {@code @CacheEvict(allEntries = true)} o invalidar por
+ * etiquetas con {@link CacheInvalidator}. Compara la tasa de aciertos de Caffeine de cada una.
+ * Ejecutar con mvn test -Pbenchmark.
+ */
+@Tag("benchmark")
+class InvalidacionCacheBenchmarkTest {
+
+  private static final long SEMILLA = 42;
+  private static final int OPERACIONES = 200_000;
+  private static final int PRODUCTOS = 400;
+  private static final int ALMACENES = 2;
+  private static final int CLIENTES = 200;
+  private static final int USUARIOS = 10;
+  private static final int VENTAS_RECIENTES = 500;
+  private static final int MESES_REPORTE = 6;
+  private static final LocalDate HOY = LocalDate.of(2024, 6, 15);
+  private static final List<String> CACHES = List.of("productos", "inventario", "inventarios", "ventas", "reportes");
+
+  @Test
+  void etiquetasConservanMasAciertosQueAllEntries() {
+    Resultado allEntries = reproducir(false);
+    Resultado etiquetas = reproducir(true);
+
+    System.out.printf("Mezcla de %d operaciones (84%% lecturas, 10%% ventas, 6%% movimientos)%n", OPERACIONES);
+    System.out.printf("%-12s %12s %12s%n", "Caché", "allEntries", "etiquetas");
+    for (String cacheName : CACHES) {
+      System.out.printf("%-12s %11.1f%% %11.1f%%%n", cacheName, allEntries.porCache().get(cacheName).hitRate() * 100,
+              etiquetas.porCache().get(cacheName).hitRate() * 100);
+    }
+    System.out.printf("%-12s %11.1f%% %11.1f%%%n", "Total", allEntries.total().hitRate() * 100,
+            etiquetas.total().hitRate() * 100);
+    System.out.printf("Stock total servido obsoleto: allEntries=%d, etiquetas=%d%n", allEntries.obsoletas(),
+            etiquetas.obsoletas());
+
+    // Mismo guion: las dos estrategias hacen exactamente las mismas consultas
+    assertThat(etiquetas.total().requestCount()).isEqualTo(allEntries.total().requestCount());
+    assertThat(etiquetas.total().hitRate()).isGreaterThan(allEntries.total().hitRate());
+    assertThat(etiquetas.obsoletas()).isZero();
+  }
+
+  private Resultado reproducir(boolean porEtiquetas) {
+    CacheTagIndex indice = new CacheTagIndex();
+    TaggedCaffeineCacheManager cacheManager = new TaggedCaffeineCacheManager(indice, new CacheTagExtractor());
+    cacheManager.setCacheNames(CACHES);
+    @SuppressWarnings("unchecked")
+    ObjectProvider<PgCacheCoherenciaBus> sinBus = mock(ObjectProvider.class);
+    CacheInvalidator cacheInvalidator = new CacheInvalidator(cacheManager, indice, sinBus,
+            mock(EntidadCacheEvictor.class));
+
+    Random random = new Random(SEMILLA);
+    int[] stock = new int[PRODUCTOS * ALMACENES];
+    long ultimaVenta = 0;
+    long obsoletas = 0;
+
+    for (int i = 0; i < OPERACIONES; i++) {
+      int operacion = random.nextInt(100);
+      long productoId = productoPopular(random);
+      long inventarioId = (productoId - 1) * ALMACENES + random.nextInt(ALMACENES) + 1;
+
+      if (operacion < 10) {
+        // Venta de una unidad
+        long clienteId = random.nextInt(CLIENTES) + 1L;
+        long usuarioId = random.nextInt(USUARIOS) + 1L;
+        stock[(int) inventarioId - 1]--;
+        ultimaVenta++;
+        if (porEtiquetas) {
+          cacheInvalidator.invalidar(CacheTags.cambioVenta(ultimaVenta, clienteId, usuarioId, HOY, "COMPLETADA"));
+          cacheInvalidator.invalidar(CacheTags.cambioStock(inventarioId, productoId));
+        } else {
+          limpiar(cacheManager, "ventas", "inventario", "reportes");
+        }
+      } else if (operacion < 16) {
+        // Entrada de mercadería
+        stock[(int) inventarioId - 1] += 5;
+        if (porEtiquetas) {
+          cacheInvalidator.invalidar(CacheTags.cambioStock(inventarioId, productoId));
+        } else {
+          limpiar(cacheManager, "productos", "inventarios");
+        }
+      } else {
+        int lectura = random.nextInt(100);
+        if (lectura < 25) {
+          leer(cacheManager, "productos", "id-" + productoId, () -> producto(productoId));
+        } else if (lectura < 40) {
+          leer(cacheManager, "productos", "detalle-" + productoId, () -> detalle(productoId));
+        } else if (lectura < 60) {
+          int actual = stockTotal(stock, productoId);
+          Object leido = leer(cacheManager, "inventario", "stock-total-producto-" + productoId, () -> actual);
+          if (!Integer.valueOf(actual).equals(leido)) {
+            obsoletas++;
+          }
+        } else if (lectura < 75) {
+          leer(cacheManager, "inventario", "id-" + inventarioId, () -> inventario(inventarioId, productoId));
+        } else if (lectura < 85) {
+          long ventaId = Math.max(1, ultimaVenta - random.nextInt(VENTAS_RECIENTES));
+          leer(cacheManager, "ventas", "id-" + ventaId, () -> venta(ventaId));
+        } else if (lectura < 92) {
+          leer(cacheManager, "ventas", "cliente-" + (random.nextInt(CLIENTES) + 1), List::of);
+        } else {
+          LocalDateTime inicio = HOY.withDayOfMonth(1).minusMonths(random.nextInt(MESES_REPORTE)).atStartOfDay();
+          LocalDateTime fin = inicio.plusMonths(1).minusSeconds(1);
+          leer(cacheManager, "reportes", "reporte-ventas-" + inicio + "-" + fin, () -> "reporte");
+        }
+      }
+    }
+
+    Map<String, CacheStats> porCache = new LinkedHashMap<>();
+    for (String cacheName : CACHES) {
+      porCache.put(cacheName, ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cacheManager.getCache(cacheName)
+              .getNativeCache()).stats());
+    }
+    return new Resultado(porCache, obsoletas);
+  }
+
+  /**
+   * Lectura como la hace {@code @Cacheable}: get y, si falla, carga y put
+   */
+  private Object leer(TaggedCaffeineCacheManager cacheManager, String cacheName, String key, Supplier<Object> carga) {
+    Cache cache = cacheManager.getCache(cacheName);
+    Cache.ValueWrapper valor = cache.get(key);
+    if (valor != null) {
+      return valor.get();
+    }
+    Object cargado = carga.get();
+    cache.put(key, cargado);
+    return cargado;
+  }
+
+  private void limpiar(TaggedCaffeineCacheManager cacheManager, String... cacheNames) {
+    for (String cacheName : cacheNames) {
+      cacheManager.getCache(cacheName).clear();
+    }
+  }
+
+  /**
+   * Pocos productos concentran la mayoría de lecturas y escrituras
+   */
+  private long productoPopular(Random random) {
+    return (long) (PRODUCTOS * Math.pow(random.nextDouble(), 3)) + 1;
+  }
+
+  private int stockTotal(int[] stock, long productoId) {
+    int total = 0;
+    for (int almacen = 0; almacen < ALMACENES; almacen++) {
+      total += stock[(int) (productoId - 1) * ALMACENES + almacen];
+    }
+    return total;
+  }
+
+  private ProductoResponse producto(long id) {
+    ProductoResponse producto = new ProductoResponse();
+    producto.setId(id);
+    return producto;
+  }
+
+  private ProductoDetalleResponse detalle(long id) {
+    ProductoDetalleResponse detalle = new ProductoDetalleResponse();
+    detalle.setId(id);
+    return detalle;
+  }
+
+  private InventarioResponse inventario(long id, long productoId) {
+    InventarioResponse.ProductoSimpleResponse producto = new InventarioResponse.ProductoSimpleResponse();
+    producto.setId(productoId);
+    InventarioResponse inventario = new InventarioResponse();
+    inventario.setId(id);
+    inventario.setProducto(producto);
+    return inventario;
+  }
+
+  private VentaResponse venta(long id) {
+    VentaResponse venta = new VentaResponse();
+    venta.setId(id);
+    return venta;
+  }
+
+  private record Resultado(Map<String, CacheStats> porCache, long obsoletas) {
+
+    CacheStats total() {
+      return porCache.values().stream().reduce(CacheStats.empty(), CacheStats::plus);
+    }
+  }
+}
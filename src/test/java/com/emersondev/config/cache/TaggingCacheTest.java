@@ -0,0 +1,84 @@
+package com.emersondev.config.cache;
+
+import com.emersondev.api.response.ProductoResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaggingCacheTest {
+
+  private final CacheTagIndex indice = new CacheTagIndex();
+  private final List<String> limpiezas = new ArrayList<>();
+  private final TaggingCache cache = new TaggingCache(new ConcurrentMapCache("productos"), indice,
+          new CacheTagExtractor(), limpiezas::add);
+
+  @Test
+  void putEtiquetaElValorParaInvalidarloDespues() {
+    cache.put(1L, producto(1L));
+
+    invalidar("producto:1");
+
+    assertThat(cache.get(1L)).isNull();
+  }
+
+  @Test
+  void lecturaObsoletaNoVuelveALaCacheTrasElCommitDelEscritor() {
+    // Lector: fallo de caché y lectura del valor antiguo en base de datos
+    assertThat(cache.get(1L)).isNull();
+    ProductoResponse leido = producto(1L);
+
+    // Escritor: confirma su transacción e invalida antes de que el lector guarde
+    invalidar("producto:1");
+
+    cache.put(1L, leido);
+
+    assertThat(cache.get(1L)).isNull();
+    assertThat(indice.totalEntradas()).isZero();
+  }
+
+  @Test
+  void cargaConLoaderInvalidadaEnCursoSeDevuelvePeroNoSeCachea() {
+    ProductoResponse valor = cache.get(1L, () -> {
+      invalidar("producto:1");
+      return producto(1L);
+    });
+
+    assertThat(valor.getId()).isEqualTo(1L);
+    assertThat(cache.get(1L)).isNull();
+  }
+
+  @Test
+  void putTrasFalloPosteriorALaInvalidacionSeConserva() {
+    invalidar("producto:1");
+    assertThat(cache.get(1L)).isNull();
+
+    cache.put(1L, producto(1L));
+
+    assertThat(cache.get(1L)).isNotNull();
+  }
+
+  @Test
+  void clearNotificaALosDemasNodos() {
+    cache.put(1L, producto(1L));
+
+    cache.clear();
+
+    assertThat(cache.get(1L)).isNull();
+    assertThat(indice.totalEntradas()).isZero();
+    assertThat(limpiezas).containsExactly("productos");
+  }
+
+  private void invalidar(String tag) {
+    indice.extraerDependientes(List.of(tag)).forEach(entrada -> cache.evict(entrada.key()));
+  }
+
+  private ProductoResponse producto(Long id) {
+    ProductoResponse producto = new ProductoResponse();
+    producto.setId(id);
+    return producto;
+  }
+}
@@ -0,0 +1,72 @@
+package com.emersondev.domain.repository;
+
+import com.emersondev.domain.entity.Almacen;
+import com.emersondev.domain.entity.Color;
+import com.emersondev.domain.entity.Inventario;
+import com.emersondev.domain.entity.MovimientoInventario;
+import com.emersondev.domain.entity.Producto;
+import com.emersondev.domain.entity.Talla;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Crea variantes de inventario completas (producto, color, talla y almacén propios) para las pruebas
+ */
+final class DatosInventario {
+
+  private DatosInventario() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  static List<Inventario> crearInventarios(TestEntityManager em, int total) {
+    Almacen almacen = new Almacen();
+    almacen.setNombre("Almacen " + System.nanoTime());
+    em.persist(almacen);
+
+    List<Inventario> inventarios = new ArrayList<>();
+    for (int i = 0; i < total; i++) {
+      Producto producto = new Producto();
+      producto.setCodigo("P" + System.nanoTime() + i);
+      producto.setNombre("Producto " + i);
+      producto.setMarca("Marca");
+      producto.setModelo("Modelo");
+      producto.setPrecioCompra(new BigDecimal("50.00"));
+      producto.setPrecioVenta(new BigDecimal("80.00"));
+      em.persist(producto);
+
+      Color color = new Color();
+      color.setNombre("Negro");
+      color.setProducto(producto);
+      em.persist(color);
+
+      Talla talla = new Talla();
+      talla.setNumero(String.valueOf(36 + i % 8));
+      talla.setColor(color);
+      em.persist(talla);
+
+      Inventario inventario = new Inventario();
+      inventario.setSerie("S" + System.nanoTime() + i);
+      inventario.setProducto(producto);
+      inventario.setColor(color);
+      inventario.setTalla(talla);
+      inventario.setAlmacen(almacen);
+      inventario.setCantidad(20);
+      inventarios.add(em.persist(inventario));
+    }
+    return inventarios;
+  }
+
+  static MovimientoInventario crearMovimiento(TestEntityManager em, Inventario inventario,
+                                              MovimientoInventario.TipoMovimiento tipo, int cantidad) {
+    MovimientoInventario movimiento = new MovimientoInventario();
+    movimiento.setInventario(inventario);
+    movimiento.setTipo(tipo);
+    movimiento.setCantidad(cantidad);
+    movimiento.setDescripcion("Prueba");
+    movimiento.setReferencia("TEST");
+    return em.persist(movimiento);
+  }
+}
@@ -0,0 +1,128 @@
+package com.emersondev.domain.repository;
+
+import com.emersondev.PostgresContenedor;
+import com.emersondev.domain.entity.Inventario;
+import com.emersondev.domain.entity.MovimientoInventario;
+import com.emersondev.domain.projection.InventarioResumen;
+import com.emersondev.domain.specification.InventarioSpecifications;
+import com.emersondev.domain.specification.MovimientoInventarioSpecifications;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Número de sentencias por listado: una página debe costar la consulta de datos más el conteo,
+ * sin cargas perezosas por fila al recorrer las asociaciones que leen los mappers.
+ * El cache de segundo nivel se desactiva para que no oculte un N+1.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class InventarioRepositoryConsultasTest implements PostgresContenedor {
+
+  @Autowired
+  private TestEntityManager em;
+
+  @Autowired
+  private InventarioRepository inventarioRepository;
+
+  @Autowired
+  private MovimientoInventarioRepository movimientoInventarioRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  void listadoDeResumenesCuestaUnaConsultaMasElConteo() {
+    DatosInventario.crearInventarios(em, 5);
+    reiniciarContadores();
+
+    Page<InventarioResumen> pagina = inventarioRepository.findAllResumen(PageRequest.of(0, 2));
+
+    assertThat(pagina.getContent()).hasSize(2);
+    assertThat(pagina.getTotalElements()).isGreaterThanOrEqualTo(5);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    assertThat(statistics.getEntityLoadCount()).isZero();
+  }
+
+  @Test
+  void resumenesPorProductoNoCarganEntidades() {
+    Inventario inventario = DatosInventario.crearInventarios(em, 3).get(1);
+    reiniciarContadores();
+
+    List<InventarioResumen> resumenes = inventarioRepository.findResumenByProductoId(inventario.getProducto().getId());
+
+    assertThat(resumenes).hasSize(1);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(statistics.getEntityLoadCount()).isZero();
+  }
+
+  @Test
+  void busquedaPorEspecificacionTraeLasAsociacionesEnLaMismaConsulta() {
+    DatosInventario.crearInventarios(em, 5);
+    reiniciarContadores();
+
+    Page<Inventario> pagina = inventarioRepository.findAll(
+            InventarioSpecifications.filtrar(null, null, null, null, Inventario.EstadoInventario.DISPONIBLE),
+            PageRequest.of(0, 2));
+    pagina.forEach(inventario -> {
+      inventario.getProducto().getNombre();
+      inventario.getColor().getNombre();
+      inventario.getTalla().getNumero();
+      inventario.getAlmacen().getNombre();
+    });
+
+    assertThat(pagina.getContent()).hasSize(2);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+  }
+
+  @Test
+  void busquedaDeMovimientosTraeLaVarianteEnLaMismaConsulta() {
+    List<Inventario> inventarios = DatosInventario.crearInventarios(em, 3);
+    inventarios.forEach(inventario ->
+            DatosInventario.crearMovimiento(em, inventario, MovimientoInventario.TipoMovimiento.ENTRADA, 5));
+    reiniciarContadores();
+
+    Page<MovimientoInventario> pagina = movimientoInventarioRepository.findAll(
+            MovimientoInventarioSpecifications.filtrar(null, null, null, null,
+                    MovimientoInventario.TipoMovimiento.ENTRADA, null, null),
+            PageRequest.of(0, 2));
+    pagina.forEach(movimiento -> {
+      movimiento.getInventario().getProducto().getNombre();
+      movimiento.getInventario().getColor().getNombre();
+      movimiento.getInventario().getTalla().getNumero();
+    });
+
+    assertThat(pagina.getContent()).hasSize(2);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+  }
+
+  private void reiniciarContadores() {
+    em.flush();
+    em.clear();
+    statistics.clear();
+  }
+}
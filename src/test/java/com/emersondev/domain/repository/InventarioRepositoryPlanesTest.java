@@ -0,0 +1,125 @@
+package com.emersondev.domain.repository;
+
+import com.emersondev.PostgresContenedor;
+import com.emersondev.domain.entity.Inventario;
+import com.emersondev.domain.entity.MovimientoInventario;
+import com.emersondev.domain.specification.InventarioSpecifications;
+import com.emersondev.domain.specification.MovimientoInventarioSpecifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Planes de las búsquedas con filtros dinámicos. Se pide el plan genérico (el que usa una sentencia preparada
+ * sin conocer los valores) con los recorridos secuenciales desaconsejados: si existe un índice aplicable
+ * al predicado generado, PostgreSQL lo usa; si el predicado no lo admite, el plan sigue mostrando "Seq Scan".
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.emersondev.domain.repository.SentenciasCapturadas")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class InventarioRepositoryPlanesTest implements PostgresContenedor {
+
+  @Autowired
+  private TestEntityManager em;
+
+  @Autowired
+  private InventarioRepository inventarioRepository;
+
+  @Autowired
+  private MovimientoInventarioRepository movimientoInventarioRepository;
+
+  @BeforeEach
+  void setUp() {
+    em.getEntityManager().createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+    SentenciasCapturadas.limpiar();
+  }
+
+  @Test
+  void filtroPorProductoYEstadoUsaIndice() {
+    inventarioRepository.findAll(
+            InventarioSpecifications.filtrar(1L, null, null, null, Inventario.EstadoInventario.DISPONIBLE),
+            PageRequest.of(0, 20));
+
+    assertThat(plan(SentenciasCapturadas.ultimaConsulta("inventarios")))
+            .containsPattern(usaIndiceSobre("inventarios"))
+            .doesNotContain("Seq Scan on inventarios");
+  }
+
+  @Test
+  void filtroPorAlmacenYEstadoUsaIndice() {
+    inventarioRepository.findAll(
+            InventarioSpecifications.filtrar(null, null, null, 1L, Inventario.EstadoInventario.BAJO_STOCK),
+            PageRequest.of(0, 20));
+
+    assertThat(plan(SentenciasCapturadas.ultimaConsulta("inventarios")))
+            .containsPattern(usaIndiceSobre("inventarios"))
+            .doesNotContain("Seq Scan on inventarios");
+  }
+
+  @Test
+  void movimientosDeUnInventarioPorFechaUsanIndice() {
+    LocalDateTime ahora = LocalDateTime.now();
+    movimientoInventarioRepository.findAll(
+            MovimientoInventarioSpecifications.filtrar(1L, null, null, null, null, ahora.minusDays(30), ahora),
+            PageRequest.of(0, 20));
+
+    assertThat(plan(SentenciasCapturadas.ultimaConsulta("movimientos_inventario")))
+            .containsPattern(usaIndiceSobre("movimientos_inventario"))
+            .doesNotContain("Seq Scan on movimientos_inventario");
+  }
+
+  @Test
+  void movimientosPorTipoYFechaUsanIndice() {
+    LocalDateTime ahora = LocalDateTime.now();
+    movimientoInventarioRepository.findAll(
+            MovimientoInventarioSpecifications.filtrar(null, null, null, null,
+                    MovimientoInventario.TipoMovimiento.SALIDA, ahora.minusDays(30), ahora),
+            PageRequest.of(0, 20));
+
+    assertThat(plan(SentenciasCapturadas.ultimaConsulta("movimientos_inventario")))
+            .containsPattern(usaIndiceSobre("movimientos_inventario"))
+            .doesNotContain("Seq Scan on movimientos_inventario");
+  }
+
+  @Test
+  void elPatronDeParametroOpcionalImpideUsarElIndice() {
+    // Control: la forma anterior de los filtros, que motivó las especificaciones
+    String plan = plan("select i.id from inventarios i where (?::bigint is null or i.producto_id = ?::bigint) "
+            + "and (?::varchar is null or i.estado = ?::varchar)");
+
+    assertThat(plan).contains("Seq Scan on inventarios");
+  }
+
+  private String usaIndiceSobre(String tabla) {
+    return "(Index Scan|Index Only Scan|Bitmap Heap Scan).* on " + tabla + " ";
+  }
+
+  private String plan(String sql) {
+    StringBuilder numerado = new StringBuilder();
+    int parametro = 0;
+    for (char caracter : sql.toCharArray()) {
+      if (caracter == '?') {
+        numerado.append('$').append(++parametro);
+      } else {
+        numerado.append(caracter);
+      }
+    }
+    @SuppressWarnings("unchecked")
+    List<Object> filas = em.getEntityManager()
+            .createNativeQuery("EXPLAIN (GENERIC_PLAN) " + numerado)
+            .getResultList();
+    return filas.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+  }
+}
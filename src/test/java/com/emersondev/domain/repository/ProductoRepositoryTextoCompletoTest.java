@@ -0,0 +1,64 @@
+package com.emersondev.domain.repository;
+
+import com.emersondev.PostgresContenedor;
+import com.emersondev.config.BusquedaTextoConfig;
+import com.emersondev.domain.entity.Producto;
+import com.emersondev.domain.projection.ProductoTextoCoincidencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class ProductoRepositoryTextoCompletoTest implements PostgresContenedor {
+
+  @Autowired
+  private TestEntityManager em;
+
+  @Autowired
+  private ProductoRepository productoRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void crearColumnaBusqueda() throws Exception {
+    new BusquedaTextoConfig().crearIndiceBusquedaTexto(jdbcTemplate).run();
+  }
+
+  @Test
+  void elFragmentoEscapaElHtmlDeLaDescripcion() {
+    String codigo = "FTS" + System.nanoTime();
+    Producto producto = new Producto();
+    producto.setCodigo(codigo);
+    producto.setNombre("Zapatilla urbana");
+    producto.setDescripcion("<img src=x onerror=\"alert(1)\"> Suela de goma & lona <b>urbana</b>");
+    producto.setMarca("Marca");
+    producto.setModelo("Modelo");
+    producto.setPrecioCompra(new BigDecimal("50.00"));
+    producto.setPrecioVenta(new BigDecimal("80.00"));
+    em.persist(producto);
+    em.flush();
+
+    List<ProductoTextoCoincidencia> resultado = productoRepository.buscarTextoCompleto("goma", 100, 0);
+
+    String fragmento = resultado.stream()
+            .filter(coincidencia -> codigo.equals(coincidencia.getCodigo()))
+            .findFirst().orElseThrow()
+            .getFragmento();
+    assertThat(fragmento).contains("<mark>goma</mark>", "&amp; lona").doesNotContain("<img", "<b>");
+    // Sin las marcas de resaltado no queda ninguna etiqueta
+    assertThat(fragmento.replace("<mark>", "").replace("</mark>", "")).doesNotContain("<", ">");
+  }
+}
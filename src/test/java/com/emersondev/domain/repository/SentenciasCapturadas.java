@@ -0,0 +1,37 @@
+package com.emersondev.domain.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Guarda el SQL que genera Hibernate para poder pedir su plan a PostgreSQL
+ */
+public class SentenciasCapturadas implements StatementInspector {
+
+  private static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+  @Override
+  public String inspect(String sql) {
+    SENTENCIAS.add(sql);
+    return sql;
+  }
+
+  static void limpiar() {
+    SENTENCIAS.clear();
+  }
+
+  /**
+   * Última consulta de datos (no de conteo) sobre la tabla indicada
+   */
+  static String ultimaConsulta(String tabla) {
+    for (int i = SENTENCIAS.size() - 1; i >= 0; i--) {
+      String sql = SENTENCIAS.get(i).toLowerCase();
+      if (sql.startsWith("select") && sql.contains("from " + tabla + " ") && !sql.contains("count(")) {
+        return SENTENCIAS.get(i);
+      }
+    }
+    throw new IllegalStateException("No se ejecutó ninguna consulta sobre " + tabla);
+  }
+}
@@ -0,0 +1,35 @@
+package com.emersondev.domain.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Con el cache de segundo nivel, el segundo mapeo lee producto, color y tallas del cache
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VentaMapperConCacheTest extends VentaMapperSentenciasTest {
+
+  @Test
+  void elSegundoMapeoNoConsultaElCatalogo() {
+    long primero = sentenciasAlMapear();
+    long segundo = sentenciasAlMapear();
+
+    System.out.printf("VentaMapper.toResponse con cache L2: %d sentencias en frío, %d con el cache cargado%n",
+            primero, segundo);
+    // Un producto, un color y una talla por detalle dejan de consultarse
+    assertThat(primero - segundo).isEqualTo(2 + TALLAS);
+    assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2 + TALLAS);
+  }
+}
@@ -0,0 +1,125 @@
+package com.emersondev.domain.repository;
+
+import com.emersondev.PostgresContenedor;
+import com.emersondev.api.response.VentaResponse;
+import com.emersondev.domain.entity.Clientes;
+import com.emersondev.domain.entity.Color;
+import com.emersondev.domain.entity.DetalleVenta;
+import com.emersondev.domain.entity.Producto;
+import com.emersondev.domain.entity.Talla;
+import com.emersondev.domain.entity.Usuario;
+import com.emersondev.domain.entity.Venta;
+import com.emersondev.mapper.VentaMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sentencias que cuesta VentaMapper.toResponse sobre una venta recién cargada. Cada mapeo usa su propia
+ * transacción (un contexto de persistencia nuevo), como dos peticiones seguidas; las subclases fijan si el
+ * cache de segundo nivel está activo.
+ */
+abstract class VentaMapperSentenciasTest implements PostgresContenedor {
+
+  static final int TALLAS = 3;
+
+  @Autowired
+  private TestEntityManager em;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private final VentaMapper ventaMapper = new VentaMapper();
+
+  protected Statistics statistics;
+  private TransactionTemplate transaccion;
+  private Long ventaId;
+
+  @BeforeEach
+  void sembrarVenta() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    transaccion = new TransactionTemplate(transactionManager);
+    ventaId = transaccion.execute(status -> crearVenta());
+    // Lo insertado ya entra al cache al confirmar: se parte de un cache frío
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  /**
+   * Carga la venta y la convierte a respuesta en una transacción nueva
+   * @return sentencias preparadas durante la carga y el mapeo
+   */
+  protected long sentenciasAlMapear() {
+    statistics.clear();
+    VentaResponse response = transaccion.execute(status -> ventaMapper.toResponse(em.find(Venta.class, ventaId)));
+    assertThat(response.getDetalles()).hasSize(TALLAS);
+    return statistics.getPrepareStatementCount();
+  }
+
+  private Long crearVenta() {
+    long sufijo = System.nanoTime();
+    Clientes cliente = new Clientes();
+    cliente.setNombres("Cliente");
+    cliente.setApellidos("Prueba");
+    cliente.setDni("12345678");
+    em.persist(cliente);
+
+    Usuario usuario = new Usuario();
+    usuario.setNombres("Vendedor");
+    usuario.setApellidos("Prueba");
+    usuario.setUsername("vendedor" + sufijo);
+    usuario.setPassword("secreto");
+    usuario.setEmail("vendedor" + sufijo + "@prueba.pe");
+    em.persist(usuario);
+
+    Producto producto = new Producto();
+    producto.setCodigo("VM" + sufijo);
+    producto.setNombre("Zapatilla");
+    producto.setMarca("Marca");
+    producto.setModelo("Modelo");
+    producto.setPrecioCompra(new BigDecimal("50.00"));
+    producto.setPrecioVenta(new BigDecimal("80.00"));
+    em.persist(producto);
+
+    Color color = new Color();
+    color.setNombre("Negro");
+    color.setProducto(producto);
+    em.persist(color);
+
+    Venta venta = new Venta();
+    venta.setNumeroVenta("V" + sufijo % 1_000_000_000L);
+    venta.setCliente(cliente);
+    venta.setUsuario(usuario);
+    venta.setSubtotal(new BigDecimal("203.39"));
+    venta.setIgv(new BigDecimal("36.61"));
+    venta.setTotal(new BigDecimal("240.00"));
+    for (int i = 0; i < TALLAS; i++) {
+      Talla talla = new Talla();
+      talla.setNumero(String.valueOf(38 + i));
+      talla.setColor(color);
+      em.persist(talla);
+
+      DetalleVenta detalle = new DetalleVenta();
+      detalle.setVenta(venta);
+      detalle.setProducto(producto);
+      detalle.setColor(color);
+      detalle.setTalla(talla);
+      detalle.setCantidad(1);
+      detalle.setPrecioUnitario(new BigDecimal("80.00"));
+      detalle.setSubtotal(new BigDecimal("80.00"));
+      venta.getDetalles().add(detalle);
+    }
+    return em.persistAndGetId(venta, Long.class);
+  }
+}
@@ -0,0 +1,34 @@
+package com.emersondev.domain.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sin el cache de segundo nivel, cada mapeo vuelve a consultar el catálogo de cada detalle
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VentaMapperSinCacheTest extends VentaMapperSentenciasTest {
+
+  @Test
+  void cadaMapeoConsultaElCatalogo() {
+    long primero = sentenciasAlMapear();
+    long segundo = sentenciasAlMapear();
+
+    System.out.printf("VentaMapper.toResponse sin cache L2: %d y %d sentencias%n", primero, segundo);
+    // Venta, cliente, usuario, detalles, producto, color y una talla por detalle
+    assertThat(segundo).isEqualTo(primero).isGreaterThanOrEqualTo(6 + TALLAS);
+    assertThat(statistics.getSecondLevelCacheHitCount()).isZero();
+  }
+}
@@ -0,0 +1,135 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.config.AlmacenamientoS3Config;
+import com.emersondev.config.FileStorageProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Subidas multiparte, abortos y URL firmadas contra un MinIO real
+ */
+@Testcontainers
+class AlmacenamientoS3ImplTest {
+
+  private static final String BUCKET = "pruebas";
+  private static final int MB = 1024 * 1024;
+
+  @Container
+  static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-10-13T13-34-11Z");
+
+  private static S3Client s3Client;
+  private static S3Presigner s3Presigner;
+  private static AlmacenamientoS3Impl almacenamiento;
+
+  @BeforeAll
+  static void crearBucket() {
+    FileStorageProperties properties = new FileStorageProperties();
+    FileStorageProperties.S3 s3 = properties.getS3();
+    s3.setEndpoint(MINIO.getS3URL());
+    s3.setBucket(BUCKET);
+    s3.setAccessKey(MINIO.getUserName());
+    s3.setSecretKey(MINIO.getPassword());
+    s3.setTamanioParteMb(5);
+
+    AlmacenamientoS3Config config = new AlmacenamientoS3Config();
+    s3Client = config.s3Client(properties);
+    s3Presigner = config.s3Presigner(properties);
+    s3Client.createBucket(b -> b.bucket(BUCKET));
+    almacenamiento = new AlmacenamientoS3Impl(s3Client, s3Presigner, properties);
+  }
+
+  @AfterAll
+  static void cerrarClientes() {
+    s3Client.close();
+    s3Presigner.close();
+  }
+
+  @Test
+  void subidaGrandeVaPorPartesYConservaElContenido() throws IOException {
+    byte[] contenido = aleatorio(12 * MB);
+
+    almacenamiento.guardar("multiparte.bin", new ByteArrayInputStream(contenido), "application/octet-stream");
+
+    HeadObjectResponse cabecera = s3Client.headObject(b -> b.bucket(BUCKET).key("multiparte.bin"));
+    assertThat(cabecera.contentLength()).isEqualTo(contenido.length);
+    // El ETag de un objeto multiparte termina en el número de partes
+    assertThat(cabecera.eTag()).endsWith("-3\"");
+    assertThat(cabecera.contentType()).isEqualTo("application/octet-stream");
+    assertThat(s3Client.getObjectAsBytes(b -> b.bucket(BUCKET).key("multiparte.bin")).asByteArray())
+            .isEqualTo(contenido);
+  }
+
+  @Test
+  void errorDeLecturaAbortaLaSubidaMultiparte() {
+    // La primera parte llega entera a S3 y el flujo falla a mitad de la segunda
+    InputStream contenido = new SequenceInputStream(new ByteArrayInputStream(aleatorio(7 * MB)),
+            new InputStream() {
+              @Override
+              public int read() throws IOException {
+                throw new IOException("Conexión cerrada por el cliente");
+              }
+            });
+
+    assertThatThrownBy(() -> almacenamiento.guardar("abortado.bin", contenido, "application/octet-stream"))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Conexión cerrada");
+
+    assertThat(s3Client.listMultipartUploads(b -> b.bucket(BUCKET).prefix("abortado.bin")).uploads()).isEmpty();
+    assertThat(almacenamiento.existe("abortado.bin")).isFalse();
+  }
+
+  @Test
+  void urlFirmadaDescargaElArchivoConSuNombre() throws IOException, InterruptedException {
+    byte[] contenido = aleatorio(1024);
+    almacenamiento.guardar("firmado.bin", new ByteArrayInputStream(contenido), "application/octet-stream");
+
+    URI url = almacenamiento.urlDescarga("firmado.bin", "factura.pdf").orElseThrow();
+    HttpResponse<byte[]> respuesta = HttpClient.newHttpClient()
+            .send(HttpRequest.newBuilder(url).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+
+    assertThat(respuesta.statusCode()).isEqualTo(200);
+    assertThat(respuesta.body()).isEqualTo(contenido);
+    assertThat(respuesta.headers().firstValue("Content-Disposition")).hasValueSatisfying(
+            disposicion -> assertThat(disposicion).contains("factura.pdf"));
+    assertThat(respuesta.headers().firstValue("Cache-Control")).hasValue("private, max-age=900");
+  }
+
+  @Test
+  void urlFirmadaNoSirveConLaFirmaAlterada() throws IOException, InterruptedException {
+    almacenamiento.guardar("privado.bin", new ByteArrayInputStream(aleatorio(16)), "application/octet-stream");
+
+    String url = almacenamiento.urlDescarga("privado.bin", "privado.bin").orElseThrow().toString();
+    URI alterada = URI.create(url.replaceFirst("X-Amz-Signature=[0-9a-f]+",
+            "X-Amz-Signature=" + "0".repeat(64)));
+    HttpResponse<Void> respuesta = HttpClient.newHttpClient()
+            .send(HttpRequest.newBuilder(alterada).GET().build(), HttpResponse.BodyHandlers.discarding());
+
+    assertThat(respuesta.statusCode()).isEqualTo(403);
+  }
+
+  private static byte[] aleatorio(int tamanio) {
+    byte[] datos = new byte[tamanio];
+    new Random(tamanio).nextBytes(datos);
+    return datos;
+  }
+}
@@ -0,0 +1,62 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.domain.entity.ConteoFisicoDetalle;
+import com.emersondev.domain.entity.Inventario;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConteoFisicoServiceImplTest {
+
+  @Test
+  void lasVentasAnterioresALaLecturaNoSeRestanDosVeces() {
+    // Base 10; se venden 2 antes de contar (el conteo ya no las ve) y 1 después
+    ConteoFisicoDetalle detalle = detalle(10, 8, 8, 7);
+
+    assertThat(ConteoFisicoServiceImpl.calcularDiferencia(detalle, false)).isTrue();
+    assertThat(detalle.getMovimientosDurante()).isEqualTo(-1);
+    assertThat(detalle.getCantidadFinal()).isEqualTo(7);
+  }
+
+  @Test
+  void faltanteDetectadoSeConservaTrasMovimientosPosteriores() {
+    // Se cuentan 6 con 8 en el sistema; luego entran 5
+    ConteoFisicoDetalle detalle = detalle(10, 6, 8, 13);
+
+    ConteoFisicoServiceImpl.calcularDiferencia(detalle, false);
+
+    assertThat(detalle.getMovimientosDurante()).isEqualTo(5);
+    assertThat(detalle.getCantidadFinal()).isEqualTo(11);
+  }
+
+  @Test
+  void noContadoSeIgnoraSalvoQueSeTomeComoCero() {
+    ConteoFisicoDetalle ignorado = detalle(10, null, null, 9);
+    assertThat(ConteoFisicoServiceImpl.calcularDiferencia(ignorado, false)).isFalse();
+    assertThat(ignorado.getCantidadFinal()).isNull();
+
+    // Sin lectura se compara con la apertura: la venta posterior no deja stock negativo
+    ConteoFisicoDetalle cero = detalle(10, null, null, 9);
+    assertThat(ConteoFisicoServiceImpl.calcularDiferencia(cero, true)).isTrue();
+    assertThat(cero.getCantidadContada()).isZero();
+    assertThat(cero.getMovimientosDurante()).isEqualTo(-1);
+    assertThat(cero.getCantidadFinal()).isZero();
+  }
+
+  @Test
+  void stockAlContarUsaLaBaseSiNoHayLectura() {
+    assertThat(ConteoFisicoServiceImpl.stockAlContar(detalle(10, null, null, 10))).isEqualTo(10);
+    assertThat(ConteoFisicoServiceImpl.stockAlContar(detalle(10, 4, 7, 10))).isEqualTo(7);
+  }
+
+  private static ConteoFisicoDetalle detalle(int base, Integer contada, Integer sistemaLectura, int stockActual) {
+    Inventario inventario = new Inventario();
+    inventario.setCantidad(stockActual);
+    ConteoFisicoDetalle detalle = new ConteoFisicoDetalle();
+    detalle.setInventario(inventario);
+    detalle.setCantidadBase(base);
+    detalle.setCantidadContada(contada);
+    detalle.setCantidadSistemaLectura(sistemaLectura);
+    return detalle;
+  }
+}
@@ -0,0 +1,66 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.api.request.HojaEtiquetasRequest;
+import com.emersondev.domain.entity.Inventario;
+import com.emersondev.domain.projection.InventarioResumen;
+import com.emersondev.domain.repository.InventarioRepository;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Rendimiento de la hoja de etiquetas con 10.000 series. Ejecutar con mvn test -Pbenchmark.
+ */
+@Tag("benchmark")
+class EtiquetaBenchmarkTest {
+
+  private static final int ETIQUETAS = 10_000;
+
+  @Test
+  void etiquetasPorSegundo() throws IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    try {
+      EtiquetaServiceImpl servicio = new EtiquetaServiceImpl(mock(InventarioRepository.class), executor);
+      HojaEtiquetasRequest request = HojaEtiquetasRequest.builder().columnas(3).filas(8).build();
+      List<InventarioResumen> inventarios = IntStream.range(0, ETIQUETAS).mapToObj(this::inventario).toList();
+
+      // Calentamiento de iText y del JIT
+      servicio.generarHoja(inventarios.subList(0, 500), request, new ByteArrayOutputStream());
+
+      ByteArrayOutputStream salida = new ByteArrayOutputStream();
+      long inicio = System.nanoTime();
+      servicio.generarHoja(inventarios, request, salida);
+      double segundos = (System.nanoTime() - inicio) / 1e9;
+
+      double porSegundo = ETIQUETAS / segundos;
+      System.out.printf("Etiquetas: %d en %.2f s (%.0f etiquetas/s, %d KB)%n", ETIQUETAS, segundos, porSegundo,
+              salida.size() / 1024);
+      try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(salida.toByteArray())))) {
+        assertThat(pdf.getNumberOfPages()).isGreaterThanOrEqualTo((ETIQUETAS + 23) / 24);
+      }
+      assertThat(porSegundo).isGreaterThan(1000);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private InventarioResumen inventario(int i) {
+    return new InventarioResumen((long) i + 1, "INV-" + (1_000_000 + i) + "-NEG-40", 5,
+            Inventario.EstadoInventario.DISPONIBLE, 2, BigDecimal.TEN, null, null, (long) i / 10 + 1,
+            "PRD" + (100_000 + i / 10), "Zapatilla urbana modelo " + i / 10, 1L, "Negro", 1L, "40", 1L,
+            "Principal", null);
+  }
+}
@@ -0,0 +1,66 @@
+package com.emersondev.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImagenProductoServiceImplTest {
+
+  @Test
+  void decodificaImagenesDentroDelLimite() throws IOException {
+    ByteArrayOutputStream png = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(120, 80, BufferedImage.TYPE_INT_RGB), "png", png);
+
+    BufferedImage imagen = ImagenProductoServiceImpl.decodificar(new ByteArrayInputStream(png.toByteArray()));
+
+    assertThat(imagen.getWidth()).isEqualTo(120);
+    assertThat(imagen.getHeight()).isEqualTo(80);
+  }
+
+  @Test
+  void rechazaPorLaCabeceraLasImagenesDemasiadoGrandes() throws IOException {
+    // Solo la cabecera de un PNG de 20000x20000: no llega a decodificarse
+    byte[] cabecera = cabeceraPng(20_000, 20_000);
+
+    assertThatThrownBy(() -> ImagenProductoServiceImpl.decodificar(new ByteArrayInputStream(cabecera)))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("20000x20000");
+  }
+
+  @Test
+  void devuelveNuloSiElFormatoNoEsUnaImagen() throws IOException {
+    byte[] texto = "no es una imagen".getBytes(StandardCharsets.UTF_8);
+
+    assertThat(ImagenProductoServiceImpl.decodificar(new ByteArrayInputStream(texto))).isNull();
+  }
+
+  private static byte[] cabeceraPng(int ancho, int alto) throws IOException {
+    ByteArrayOutputStream salida = new ByteArrayOutputStream();
+    DataOutputStream datos = new DataOutputStream(salida);
+    datos.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+
+    ByteArrayOutputStream ihdr = new ByteArrayOutputStream();
+    DataOutputStream campos = new DataOutputStream(ihdr);
+    campos.writeBytes("IHDR");
+    campos.writeInt(ancho);
+    campos.writeInt(alto);
+    campos.write(new byte[]{8, 6, 0, 0, 0});
+    CRC32 crc = new CRC32();
+    crc.update(ihdr.toByteArray());
+
+    datos.writeInt(13);
+    datos.write(ihdr.toByteArray());
+    datos.writeInt((int) crc.getValue());
+    return salida.toByteArray();
+  }
+}
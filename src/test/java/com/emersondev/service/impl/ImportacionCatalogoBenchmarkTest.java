@@ -0,0 +1,84 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.PostgresContenedor;
+import com.emersondev.api.response.ImportacionCatalogoResponse;
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.domain.repository.ProductoRepository;
+import com.emersondev.util.SerieGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Líneas por segundo de la importación de catálogo contra PostgreSQL: 2.000 modelos × 10 colores × 6 tallas.
+ * Ejecutar con mvn test -Pbenchmark.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImportacionCatalogoBenchmarkTest implements PostgresContenedor {
+
+  private static final int MODELOS = 2_000;
+  private static final int COLORES = 10;
+
+  @Autowired
+  private ProductoRepository productoRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  void lineasPorSegundo() {
+    ImportacionCatalogoServiceImpl servicio = new ImportacionCatalogoServiceImpl(productoRepository,
+            new SerieGenerator(null, null, null), jdbcTemplate, transactionManager, mock(CacheInvalidator.class),
+            mock(ApplicationEventPublisher.class));
+    byte[] csv = generarCsv();
+
+    ImportacionCatalogoResponse simulacion = servicio.importarCatalogo(new ByteArrayInputStream(csv), "text/csv",
+            true);
+    ImportacionCatalogoResponse importacion = servicio.importarCatalogo(new ByteArrayInputStream(csv), "text/csv",
+            false);
+
+    System.out.printf("Importación de catálogo: %d líneas; simulación %d ms (%d líneas/s), "
+                    + "importación %d ms (%d líneas/s)%n", importacion.getTotalLineas(), simulacion.getDuracionMs(),
+            simulacion.getLineasPorSegundo(), importacion.getDuracionMs(), importacion.getLineasPorSegundo());
+    assertThat(importacion.getErrores()).isEmpty();
+    assertThat(importacion.getProductosCreados()).isEqualTo(MODELOS);
+    assertThat(importacion.getColoresCreados()).isEqualTo(MODELOS * COLORES);
+    assertThat(importacion.getTallasCreadas()).isEqualTo(MODELOS * COLORES * 6);
+    assertThat(productoRepository.count()).isEqualTo(MODELOS);
+  }
+
+  private static byte[] generarCsv() {
+    StringBuilder csv = new StringBuilder("codigo;nombre;marca;modelo;precioCompra;precioVenta;color;tallas\n");
+    for (int modelo = 0; modelo < MODELOS; modelo++) {
+      // La mitad sin código: se generan con SerieGenerator
+      String codigo = modelo % 2 == 0 ? "IMP-" + modelo : "";
+      for (int color = 0; color < COLORES; color++) {
+        csv.append(codigo).append(";Zapatilla temporada ").append(modelo).append(";Marca ").append(modelo % 50)
+                .append(";M").append(modelo).append(";80.50;159.90;Color ").append(color)
+                .append(";36|37|38|39|40|41\n");
+      }
+    }
+    return csv.toString().getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,98 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.api.response.IndiceEscaneoResponse;
+import com.emersondev.domain.entity.Inventario;
+import com.emersondev.domain.projection.InventarioEscaneo;
+import com.emersondev.domain.repository.InventarioRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Memoria retenida y latencia del índice de escaneo con 500.000 series. Ejecutar con mvn test -Pbenchmark.
+ */
+@Tag("benchmark")
+class IndiceEscaneoBenchmarkTest {
+
+  private static final int SERIES = 500_000;
+  private static final int VARIANTES_POR_PRODUCTO = 10;
+  private static final int BUSQUEDAS = 1_000_000;
+
+  @Test
+  void memoriaYLatenciaCon500MilSeries() {
+    InventarioRepository repository = mock(InventarioRepository.class);
+    // Las filas se generan al recorrer el stream: solo queda en memoria lo que retiene el índice
+    when(repository.streamEscaneo()).thenAnswer(invocacion -> IntStream.range(0, SERIES).mapToObj(this::fila));
+    IndiceEscaneoServiceImpl servicio =
+            new IndiceEscaneoServiceImpl(repository, mock(PlatformTransactionManager.class));
+
+    long antes = memoriaUsada();
+    servicio.recargar();
+    long retenida = memoriaUsada() - antes;
+
+    IndiceEscaneoResponse estadisticas = servicio.obtenerEstadisticas();
+    int productos = SERIES / VARIANTES_POR_PRODUCTO;
+    assertThat(estadisticas.getSeries()).isEqualTo(SERIES);
+    assertThat(estadisticas.getProductos()).isEqualTo(productos);
+    System.out.printf("Índice de escaneo: %d B retenidos, %.1f B por serie (estimación %d B)%n", retenida,
+            (double) retenida / SERIES, estadisticas.getBytesEstimados());
+    assertThat((double) estadisticas.getBytesEstimados()).isCloseTo(retenida, within(retenida * 0.15));
+
+    for (int i = 0; i < BUSQUEDAS; i++) {
+      servicio.buscar(serie(ThreadLocalRandom.current().nextInt(SERIES)), null);
+    }
+    long inicio = System.nanoTime();
+    for (int i = 0; i < BUSQUEDAS; i++) {
+      servicio.buscar(serie(ThreadLocalRandom.current().nextInt(SERIES)), null);
+    }
+    double microsPorSerie = (System.nanoTime() - inicio) / 1_000.0 / BUSQUEDAS;
+
+    inicio = System.nanoTime();
+    for (int i = 0; i < BUSQUEDAS / VARIANTES_POR_PRODUCTO; i++) {
+      servicio.buscar(codigo(ThreadLocalRandom.current().nextInt(productos)), 1L);
+    }
+    double microsPorCodigo = (System.nanoTime() - inicio) / 1_000.0 / (BUSQUEDAS / VARIANTES_POR_PRODUCTO);
+
+    System.out.printf("Escaneo: %.2f µs por serie, %.2f µs por código de producto%n", microsPorSerie,
+            microsPorCodigo);
+    assertThat(microsPorSerie).isLessThan(10);
+    assertThat(microsPorCodigo).isLessThan(50);
+  }
+
+  private InventarioEscaneo fila(int i) {
+    int producto = i / VARIANTES_POR_PRODUCTO;
+    return new InventarioEscaneo((long) i + 1, serie(i), 5, Inventario.EstadoInventario.DISPONIBLE,
+            (long) producto + 1, codigo(producto), "Zapatilla urbana modelo " + producto,
+            new BigDecimal("159.90"), "Color " + i % 20, String.valueOf(35 + i % 10), (long) 1 + i % 3);
+  }
+
+  private static String serie(int i) {
+    return "INV-" + (1_000_000 + i) + "-NEG-40";
+  }
+
+  private static String codigo(int producto) {
+    return "PRD" + (100_000 + producto);
+  }
+
+  private static long memoriaUsada() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
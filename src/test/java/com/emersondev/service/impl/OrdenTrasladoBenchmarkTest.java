@@ -0,0 +1,206 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.PostgresContenedor;
+import com.emersondev.api.request.LineaTrasladoRequest;
+import com.emersondev.api.request.OrdenTrasladoRequest;
+import com.emersondev.api.response.OrdenTrasladoResponse;
+import com.emersondev.config.cache.CacheInvalidator;
+import com.emersondev.domain.entity.Almacen;
+import com.emersondev.domain.entity.Color;
+import com.emersondev.domain.entity.Inventario;
+import com.emersondev.domain.entity.Producto;
+import com.emersondev.domain.entity.Talla;
+import com.emersondev.domain.repository.AlmacenRepository;
+import com.emersondev.domain.repository.ColorRepository;
+import com.emersondev.domain.repository.InventarioRepository;
+import com.emersondev.domain.repository.MovimientoInventarioRepository;
+import com.emersondev.domain.repository.ProductoRepository;
+import com.emersondev.domain.repository.TallaRepository;
+import com.emersondev.domain.repository.UsuarioRepository;
+import com.emersondev.domain.repository.VentaRepository;
+import com.emersondev.mapper.InventarioMapper;
+import com.emersondev.service.interfaces.AlertaStockService;
+import com.emersondev.util.SerieGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Orden de traslado de un almacén completo contra PostgreSQL: 5.000 variantes en origen, la mitad ya presentes
+ * en el destino. Ejecutar con mvn test -Pbenchmark.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class OrdenTrasladoBenchmarkTest implements PostgresContenedor {
+
+  private static final int PRODUCTOS = 1_000;
+  private static final int TALLAS = 5;
+  private static final int LINEAS = PRODUCTOS * TALLAS;
+  private static final int STOCK_ORIGEN = 20;
+  private static final int STOCK_DESTINO = 3;
+  private static final int CANTIDAD = 7;
+
+  @Autowired
+  private TestEntityManager em;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private InventarioRepository inventarioRepository;
+
+  @Autowired
+  private ProductoRepository productoRepository;
+
+  @Autowired
+  private ColorRepository colorRepository;
+
+  @Autowired
+  private TallaRepository tallaRepository;
+
+  @Autowired
+  private AlmacenRepository almacenRepository;
+
+  @Autowired
+  private VentaRepository ventaRepository;
+
+  @Autowired
+  private UsuarioRepository usuarioRepository;
+
+  @Autowired
+  private MovimientoInventarioRepository movimientoInventarioRepository;
+
+  @Test
+  void trasladoDe5000Lineas() {
+    Almacen origen = almacen("Origen");
+    Almacen destino = almacen("Destino");
+    List<Inventario> origenes = sembrar(origen, destino);
+    em.flush();
+    em.clear();
+
+    CacheInvalidator cacheInvalidator = mock(CacheInvalidator.class);
+    InventarioServiceImpl servicio = new InventarioServiceImpl(inventarioRepository, productoRepository,
+            colorRepository, tallaRepository, almacenRepository, mock(InventarioMapper.class),
+            new SerieGenerator(null, null, inventarioRepository), ventaRepository, usuarioRepository,
+            cacheInvalidator, movimientoInventarioRepository, mock(AlertaStockService.class));
+    List<LineaTrasladoRequest> lineas = origenes.stream()
+            .map(inventario -> new LineaTrasladoRequest(inventario.getId(), CANTIDAD))
+            .toList();
+    OrdenTrasladoRequest request = OrdenTrasladoRequest.builder()
+            .almacenOrigenId(origen.getId())
+            .almacenDestinoId(destino.getId())
+            .referencia("TRASLADO-BENCH")
+            .lineas(new ArrayList<>(lineas))
+            .build();
+
+    long inicio = System.nanoTime();
+    OrdenTrasladoResponse response = servicio.transferirOrden(request);
+    em.flush();
+    long ms = (System.nanoTime() - inicio) / 1_000_000;
+    System.out.printf("Orden de traslado: %d líneas en %d ms (%.0f líneas/s)%n", LINEAS, ms,
+            LINEAS * 1000.0 / Math.max(ms, 1));
+
+    assertThat(response.getLineas()).isEqualTo(LINEAS);
+    assertThat(response.getUnidadesTrasladadas()).isEqualTo((long) LINEAS * CANTIDAD);
+    assertThat(response.getInventariosDestinoCreados()).isEqualTo(LINEAS / 2);
+    assertThat(response.getInventariosDestinoActualizados()).isEqualTo(LINEAS / 2);
+    // Una sola invalidación para toda la orden
+    verify(cacheInvalidator, times(1)).invalidar(anyCollection());
+
+    // Movimientos pareados: un TRASLADO en origen y una ENTRADA en destino por línea
+    List<Map<String, Object>> movimientos = jdbcTemplate.queryForList(
+            "SELECT tipo, COUNT(*) AS total, SUM(cantidad) AS unidades FROM movimientos_inventario "
+                    + "WHERE referencia = 'TRASLADO-BENCH' GROUP BY tipo ORDER BY tipo");
+    assertThat(movimientos).hasSize(2);
+    for (Map<String, Object> fila : movimientos) {
+      assertThat(fila.get("tipo")).isIn("ENTRADA", "TRASLADO");
+      assertThat(((Number) fila.get("total")).longValue()).isEqualTo(LINEAS);
+      assertThat(((Number) fila.get("unidades")).longValue()).isEqualTo((long) LINEAS * CANTIDAD);
+    }
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movimientos_inventario m "
+                    + "JOIN inventarios i ON i.id = m.inventario_id "
+                    + "JOIN inventarios d ON d.id = m.inventario_destino_id "
+                    + "WHERE m.referencia = 'TRASLADO-BENCH' AND m.tipo = 'TRASLADO' AND i.almacen_id = ? "
+                    + "AND d.almacen_id = ? AND d.producto_id = i.producto_id AND d.talla_id = i.talla_id",
+            Long.class, origen.getId(), destino.getId())).isEqualTo(LINEAS);
+
+    // Cantidades finales: todo el origen baja lo mismo; en destino se suman a las existentes o se crean
+    assertThat(jdbcTemplate.queryForList("SELECT DISTINCT cantidad FROM inventarios WHERE almacen_id = ?",
+            Integer.class, origen.getId())).containsExactly(STOCK_ORIGEN - CANTIDAD);
+    assertThat(jdbcTemplate.queryForList("SELECT cantidad FROM inventarios WHERE almacen_id = ? "
+                    + "GROUP BY cantidad HAVING COUNT(*) = ? ORDER BY cantidad",
+            Integer.class, destino.getId(), LINEAS / 2)).containsExactly(CANTIDAD, STOCK_DESTINO + CANTIDAD);
+  }
+
+  private Almacen almacen(String nombre) {
+    Almacen almacen = new Almacen();
+    almacen.setNombre(nombre + " " + System.nanoTime());
+    return em.persist(almacen);
+  }
+
+  /**
+   * Crea las variantes del origen; las de índice par ya existen en el destino
+   */
+  private List<Inventario> sembrar(Almacen origen, Almacen destino) {
+    List<Inventario> origenes = new ArrayList<>(LINEAS);
+    for (int p = 0; p < PRODUCTOS; p++) {
+      Producto producto = new Producto();
+      producto.setCodigo("TRB" + p);
+      producto.setNombre("Zapatilla " + p);
+      producto.setMarca("Marca");
+      producto.setModelo("M" + p);
+      producto.setPrecioCompra(new BigDecimal("50.00"));
+      producto.setPrecioVenta(new BigDecimal("80.00"));
+      em.persist(producto);
+
+      Color color = new Color();
+      color.setNombre("Negro");
+      color.setProducto(producto);
+      em.persist(color);
+
+      for (int t = 0; t < TALLAS; t++) {
+        Talla talla = new Talla();
+        talla.setNumero(String.valueOf(38 + t));
+        talla.setColor(color);
+        em.persist(talla);
+
+        int indice = p * TALLAS + t;
+        origenes.add(inventario("O-" + indice, producto, color, talla, origen, STOCK_ORIGEN));
+        if (indice % 2 == 0) {
+          inventario("D-" + indice, producto, color, talla, destino, STOCK_DESTINO);
+        }
+      }
+    }
+    return origenes;
+  }
+
+  private Inventario inventario(String serie, Producto producto, Color color, Talla talla, Almacen almacen,
+                                int cantidad) {
+    Inventario inventario = new Inventario();
+    inventario.setSerie(serie);
+    inventario.setProducto(producto);
+    inventario.setColor(color);
+    inventario.setTalla(talla);
+    inventario.setAlmacen(almacen);
+    inventario.setCantidad(cantidad);
+    return em.persist(inventario);
+  }
+}
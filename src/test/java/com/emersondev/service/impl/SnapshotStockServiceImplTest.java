@@ -0,0 +1,100 @@
+package com.emersondev.service.impl;
+
+import com.emersondev.domain.entity.MovimientoInventario.TipoMovimiento;
+import com.emersondev.domain.entity.SnapshotStock;
+import com.emersondev.domain.projection.MovimientoStock;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotStockServiceImplTest {
+
+  private static final LocalDateTime CORTE = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+  @Test
+  void sinSnapshotSeReproduceDesdeLaEntradaInicial() {
+    List<MovimientoStock> movimientos = List.of(
+            movimiento(1L, TipoMovimiento.ENTRADA, 10, CORTE.minusDays(5)),
+            movimiento(2L, TipoMovimiento.SALIDA, 3, CORTE.minusDays(2)));
+
+    SnapshotStockServiceImpl.StockReconstruido stock =
+            SnapshotStockServiceImpl.reproducir(List.of(7L), Map.of(), movimientos).get(7L);
+
+    assertThat(stock.cantidad()).isEqualTo(7);
+    assertThat(stock.fechaSnapshot()).isNull();
+    assertThat(stock.movimientosAplicados()).isEqualTo(2);
+  }
+
+  @Test
+  void snapshotConUltimoMovimientoAplicaLosDeIdMayorAunqueTenganFechaAnterior() {
+    SnapshotStock snapshot = new SnapshotStock(1L, 7L, CORTE, 10, 5L);
+    List<MovimientoStock> movimientos = List.of(
+            movimiento(5L, TipoMovimiento.SALIDA, 2, CORTE.minusHours(2)),
+            // Confirmado después del corte con una fecha anterior a él
+            movimiento(6L, TipoMovimiento.SALIDA, 4, CORTE.minusHours(1)),
+            movimiento(8L, TipoMovimiento.ENTRADA, 1, CORTE.plusHours(1)));
+
+    SnapshotStockServiceImpl.StockReconstruido stock =
+            SnapshotStockServiceImpl.reproducir(List.of(7L), Map.of(7L, snapshot), movimientos).get(7L);
+
+    assertThat(stock.cantidad()).isEqualTo(7);
+    assertThat(stock.fechaSnapshot()).isEqualTo(CORTE);
+    assertThat(stock.movimientosAplicados()).isEqualTo(2);
+  }
+
+  @Test
+  void snapshotSinUltimoMovimientoUsaLaFechaDeCorte() {
+    SnapshotStock snapshot = new SnapshotStock(1L, 7L, CORTE, 10, null);
+    List<MovimientoStock> movimientos = List.of(
+            movimiento(6L, TipoMovimiento.SALIDA, 4, CORTE),
+            movimiento(8L, TipoMovimiento.SALIDA, 1, CORTE.plusHours(1)));
+
+    SnapshotStockServiceImpl.StockReconstruido stock =
+            SnapshotStockServiceImpl.reproducir(List.of(7L), Map.of(7L, snapshot), movimientos).get(7L);
+
+    assertThat(stock.cantidad()).isEqualTo(9);
+    assertThat(stock.movimientosAplicados()).isEqualTo(1);
+  }
+
+  @Test
+  void ajusteFijaLaCantidadAbsoluta() {
+    List<MovimientoStock> movimientos = List.of(
+            movimiento(1L, TipoMovimiento.ENTRADA, 10, CORTE.minusDays(3)),
+            movimiento(2L, TipoMovimiento.AJUSTE, 4, CORTE.minusDays(2)),
+            movimiento(3L, TipoMovimiento.TRASLADO, -1, CORTE.minusDays(1)));
+
+    SnapshotStockServiceImpl.StockReconstruido stock =
+            SnapshotStockServiceImpl.reproducir(List.of(7L), Map.of(), movimientos).get(7L);
+
+    assertThat(stock.cantidad()).isEqualTo(3);
+  }
+
+  @Test
+  void cadaInventarioUsaSuPropioCorte() {
+    SnapshotStock reciente = new SnapshotStock(1L, 7L, CORTE, 10, 20L);
+    SnapshotStock antiguo = new SnapshotStock(2L, 8L, CORTE.minusDays(10), 5, 3L);
+    List<MovimientoStock> movimientos = List.of(
+            movimiento(4L, 8L, TipoMovimiento.ENTRADA, 2, CORTE.minusDays(9)),
+            movimiento(15L, 7L, TipoMovimiento.SALIDA, 1, CORTE.minusDays(1)),
+            movimiento(21L, 7L, TipoMovimiento.SALIDA, 3, CORTE.plusDays(1)));
+
+    Map<Long, SnapshotStockServiceImpl.StockReconstruido> stock = SnapshotStockServiceImpl.reproducir(
+            List.of(7L, 8L), Map.of(7L, reciente, 8L, antiguo), movimientos);
+
+    assertThat(stock.get(7L).cantidad()).isEqualTo(7);
+    assertThat(stock.get(8L).cantidad()).isEqualTo(7);
+  }
+
+  private static MovimientoStock movimiento(Long id, TipoMovimiento tipo, int cantidad, LocalDateTime fecha) {
+    return movimiento(id, 7L, tipo, cantidad, fecha);
+  }
+
+  private static MovimientoStock movimiento(Long id, Long inventarioId, TipoMovimiento tipo, int cantidad,
+                                            LocalDateTime fecha) {
+    return new MovimientoStock(id, inventarioId, tipo, cantidad, fecha);
+  }
+}
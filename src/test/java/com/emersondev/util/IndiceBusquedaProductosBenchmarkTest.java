@@ -0,0 +1,70 @@
+package com.emersondev.util;
+
+import com.emersondev.domain.projection.ProductoBusqueda;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Construcción y latencia de búsqueda del índice con 100.000 productos. Ejecutar con mvn test -Pbenchmark.
+ */
+@Tag("benchmark")
+class IndiceBusquedaProductosBenchmarkTest {
+
+  private static final int PRODUCTOS = 100_000;
+  private static final int BUSQUEDAS = 20_000;
+
+  private static final String[] TIPOS = {"zapatilla", "botin", "sandalia", "mocasin", "bota", "pantufla", "chimpunes",
+          "ballerina", "sneaker", "alpargata"};
+  private static final String[] MARCAS = {"Nike", "Adidas", "Puma", "Reebok", "Caterpillar", "Converse", "Vans",
+          "Fila", "Skechers", "Bata"};
+  private static final String[] ADJETIVOS = {"urbana", "running", "cuero", "casual", "deportiva", "clásica",
+          "impermeable", "ligera", "escolar", "montaña"};
+  private static final String[] CONSULTAS = {"zapatilla running", "botin cuero", "sandalia", "nike urb", "zaptilla",
+          "PRD-104217", "caterpillar impermeable", "mocasin clasico", "dep", "skechers ligera escolar"};
+
+  @Test
+  void construccionYBusquedaCon100MilProductos() {
+    List<ProductoBusqueda> productos = IntStream.range(0, PRODUCTOS).mapToObj(this::producto).toList();
+
+    long inicio = System.nanoTime();
+    IndiceBusquedaProductos indice = IndiceBusquedaProductos.construir(productos);
+    double msConstruccion = (System.nanoTime() - inicio) / 1e6;
+    assertThat(indice.getTotalProductos()).isEqualTo(PRODUCTOS);
+
+    for (int i = 0; i < BUSQUEDAS; i++) {
+      indice.buscar(CONSULTAS[i % CONSULTAS.length], 20, id -> false);
+    }
+    long[] latencias = new long[BUSQUEDAS];
+    for (int i = 0; i < BUSQUEDAS; i++) {
+      long antes = System.nanoTime();
+      indice.buscar(CONSULTAS[i % CONSULTAS.length], 20, id -> false);
+      latencias[i] = System.nanoTime() - antes;
+    }
+    Arrays.sort(latencias);
+    double p50 = latencias[BUSQUEDAS / 2] / 1e6;
+    double p99 = latencias[BUSQUEDAS * 99 / 100] / 1e6;
+
+    System.out.printf("Índice de búsqueda: %d productos, %d términos, construido en %.0f ms; p50 %.2f ms, "
+            + "p99 %.2f ms%n", PRODUCTOS, indice.getTotalTerminos(), msConstruccion, p50, p99);
+    assertThat(indice.buscar("PRD-104217", 20, id -> false).get(0).producto().codigo()).isEqualTo("PRD-104217");
+    assertThat(p99).isLessThan(50);
+  }
+
+  private ProductoBusqueda producto(int i) {
+    Random random = new Random(i);
+    String tipo = TIPOS[random.nextInt(TIPOS.length)];
+    String marca = MARCAS[random.nextInt(MARCAS.length)];
+    String adjetivo = ADJETIVOS[random.nextInt(ADJETIVOS.length)];
+    return new ProductoBusqueda((long) i + 1, "PRD-" + (100_000 + i), tipo + " " + adjetivo + " " + i,
+            marca, "M" + random.nextInt(5_000), "Calzado " + adjetivo + " de " + marca + " talla estándar",
+            BigDecimal.TEN, null);
+  }
+}
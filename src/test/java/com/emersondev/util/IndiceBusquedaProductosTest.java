@@ -0,0 +1,74 @@
+package com.emersondev.util;
+
+import com.emersondev.domain.projection.ProductoBusqueda;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceBusquedaProductosTest {
+
+  private final IndiceBusquedaProductos indice = IndiceBusquedaProductos.construir(List.of(
+          producto(1L, "ZAP-001", "Zapatilla Running", "Nike", "Air Zoom", "Zapatilla ligera para correr"),
+          producto(2L, "ZAP-002", "Zapatilla Urbana", "Adidas", "Stan Smith", "Cuero blanco"),
+          producto(3L, "BOT-001", "Botín de Cuero", "Caterpillar", "Colorado", "Botín de montaña"),
+          producto(4L, "CAM-001", "Camión de juguete", "Lego", "City", "Incluye zapatilla de regalo")));
+
+  @Test
+  void ignoraMayusculasYTildes() {
+    assertThat(ids("BOTIN cuero")).containsExactly(3L);
+    assertThat(ids("camion")).containsExactly(4L);
+  }
+
+  @Test
+  void aceptaPrefijosYErratas() {
+    assertThat(ids("zapat urb")).containsExactly(2L);
+    assertThat(ids("zaptilla runing")).containsExactly(1L);
+  }
+
+  @Test
+  void exigeTodosLosTerminos() {
+    assertThat(ids("zapatilla caterpillar")).isEmpty();
+    assertThat(ids("inexistente")).isEmpty();
+    assertThat(ids("  ")).isEmpty();
+  }
+
+  @Test
+  void ordenaPorCampoYDaPrioridadAlCodigoExacto() {
+    // El nombre pesa más que la descripción
+    assertThat(ids("zapatilla")).containsExactly(1L, 2L, 4L);
+    assertThat(ids("zap 002")).first().isEqualTo(2L);
+    assertThat(indice.buscar("ZAP-001", 10, id -> false).get(0).puntaje()).isGreaterThan(10f);
+  }
+
+  @Test
+  void respetaElLimiteYLosExcluidos() {
+    assertThat(indice.buscar("zapatilla", 2, id -> false)).hasSize(2);
+    assertThat(indice.buscar("zapatilla", 10, id -> id == 1L))
+            .extracting(resultado -> resultado.producto().id())
+            .containsExactly(2L, 4L);
+  }
+
+  @Test
+  void indiceConReferenciaPuntuaComoElPrincipal() {
+    ProductoBusqueda modificado = producto(2L, "ZAP-002", "Zapatilla Urbana", "Adidas", "Stan Smith", "Cuero blanco");
+    IndiceBusquedaProductos cambios = IndiceBusquedaProductos.construir(List.of(modificado), indice);
+
+    float principal = indice.buscar("urbana", 10, id -> false).get(0).puntaje();
+    assertThat(cambios.buscar("urbana", 10, id -> false).get(0).puntaje()).isEqualTo(principal);
+    assertThat(cambios.getTotalProductos()).isEqualTo(1);
+  }
+
+  private List<Long> ids(String consulta) {
+    return indice.buscar(consulta, 10, id -> false).stream()
+            .map(resultado -> resultado.producto().id())
+            .toList();
+  }
+
+  private static ProductoBusqueda producto(Long id, String codigo, String nombre, String marca, String modelo,
+                                           String descripcion) {
+    return new ProductoBusqueda(id, codigo, nombre, marca, modelo, descripcion, BigDecimal.TEN, null);
+  }
+}
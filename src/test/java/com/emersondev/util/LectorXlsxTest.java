@@ -0,0 +1,79 @@
+package com.emersondev.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LectorXlsxTest {
+
+  @Test
+  void leeCadenasCompartidasEnLineaNumerosYCeldasVacias() throws IOException {
+    String cadenas = "<sst><si><t>nombre</t></si><si><r><t>Zapa</t></r><r><t>tilla</t></r></si></sst>";
+    String hoja = "<worksheet><sheetData>"
+            + "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"inlineStr\"><is><t>precio</t></is></c></row>"
+            + "<row r=\"2\"><c r=\"A2\" t=\"s\"><v>1</v></c><c r=\"C2\"><v>199.9</v></c>"
+            + "<c r=\"D2\" t=\"b\"><v>1</v></c></row>"
+            + "</sheetData></worksheet>";
+
+    List<List<String>> filas = leer(libro(cadenas, hoja));
+
+    assertThat(filas).containsExactly(
+            List.of("nombre", "precio"),
+            List.of("Zapatilla", "", "199.9", "true"));
+  }
+
+  @Test
+  void rechazaMasFilasQueElLimite() throws IOException {
+    ByteArrayOutputStream salida = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(salida)) {
+      zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+      zip.write("<worksheet><sheetData>".getBytes(StandardCharsets.UTF_8));
+      byte[] fila = "<row><c><v>1</v></c></row>".getBytes(StandardCharsets.UTF_8);
+      for (int i = 0; i <= LectorXlsx.MAX_FILAS; i++) {
+        zip.write(fila);
+      }
+      zip.write("</sheetData></worksheet>".getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+    }
+
+    assertThatThrownBy(() -> leer(salida.toByteArray()))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("filas");
+  }
+
+  @Test
+  void rechazaArchivosQueNoSonXlsx() {
+    assertThatThrownBy(() -> leer("nombre,precio".getBytes(StandardCharsets.UTF_8)))
+            .isInstanceOf(IOException.class);
+  }
+
+  private static List<List<String>> leer(byte[] libro) throws IOException {
+    List<List<String>> filas = new ArrayList<>();
+    LectorXlsx.leerFilas(new ByteArrayInputStream(libro), filas::add);
+    return filas;
+  }
+
+  private static byte[] libro(String cadenas, String hoja) throws IOException {
+    ByteArrayOutputStream salida = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(salida)) {
+      // La hoja antes que las cadenas compartidas, como en los libros de Excel
+      zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+      zip.write(hoja.getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+      zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+      zip.write(cadenas.getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+    }
+    return salida.toByteArray();
+  }
+}
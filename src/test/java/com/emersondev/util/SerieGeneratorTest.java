@@ -0,0 +1,106 @@
+package com.emersondev.util;
+
+import com.emersondev.domain.entity.Color;
+import com.emersondev.domain.entity.Inventario;
+import com.emersondev.domain.entity.Producto;
+import com.emersondev.domain.entity.Talla;
+import com.emersondev.domain.exception.BusinessException;
+import com.emersondev.domain.repository.InventarioRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SerieGeneratorTest {
+
+  private final InventarioRepository inventarioRepository = mock(InventarioRepository.class);
+  private final SerieGenerator generator = new SerieGenerator(null, null, inventarioRepository);
+
+  @Test
+  void serieDeInventarioUsaCodigoMarcaColorYTalla() {
+    String serie = generator.generarSerieInventario(producto("zap-001", "Nike"), color("negro"), talla("40"));
+
+    assertThat(serie).matches("ZAP-NIK-NE40\\d{8}[A-Z0-9]{3}");
+  }
+
+  @Test
+  void serieDeInventarioAdmiteTextosCortos() {
+    String serie = generator.generarSerieInventario(producto("Z1", "LG"), color("R"), talla("M"));
+
+    assertThat(serie).matches("Z1-LG-RM\\d{8}[A-Z0-9]{3}");
+  }
+
+  @Test
+  void serieDeInventarioUsaValoresPorDefectoSiFaltanDatos() {
+    assertThat(generator.generarSerieInventario(producto(" ", null), color(""), null))
+            .matches("PRD-MAR-X00\\d{8}[A-Z0-9]{3}");
+    assertThat(generator.generarSerieInventario(null, null, null)).matches("PRD-MAR-X00\\d{8}[A-Z0-9]{3}");
+  }
+
+  @Test
+  void codigoDeProductoAdmiteNombresYMarcasCortos() {
+    Producto producto = producto(null, " hp ");
+    producto.setNombre("TV");
+
+    assertThat(generator.generarCodigoProducto(producto)).matches("TV-HP-[A-Z0-9]{3}");
+    assertThat(generator.generarCodigoProducto(null)).matches("PRD-MAR-[A-Z0-9]{3}");
+  }
+
+  @Test
+  void asignarSeriesReintentaSoloLasQueYaExisten() {
+    Inventario primero = inventario();
+    Inventario segundo = inventario();
+    when(inventarioRepository.findSeriesExistentes(anyCollection()))
+            .thenAnswer(invocacion -> Set.of(primero.getSerie()))
+            .thenReturn(Set.of());
+
+    generator.asignarSeriesInventario(List.of(primero, segundo));
+
+    verify(inventarioRepository, times(2)).findSeriesExistentes(anyCollection());
+    assertThat(primero.getSerie()).isNotNull().isNotEqualTo(segundo.getSerie());
+  }
+
+  @Test
+  void asignarSeriesFallaTrasAgotarLosIntentos() {
+    when(inventarioRepository.findSeriesExistentes(anyCollection()))
+            .thenAnswer(invocacion -> Set.copyOf(invocacion.<List<String>>getArgument(0)));
+
+    assertThatThrownBy(() -> generator.asignarSeriesInventario(List.of(inventario())))
+            .isInstanceOf(BusinessException.class);
+  }
+
+  private static Inventario inventario() {
+    Inventario inventario = new Inventario();
+    inventario.setProducto(producto("ZAP-001", "Nike"));
+    inventario.setColor(color("Negro"));
+    inventario.setTalla(talla("40"));
+    return inventario;
+  }
+
+  private static Producto producto(String codigo, String marca) {
+    Producto producto = new Producto();
+    producto.setCodigo(codigo);
+    producto.setMarca(marca);
+    return producto;
+  }
+
+  private static Color color(String nombre) {
+    Color color = new Color();
+    color.setNombre(nombre);
+    return color;
+  }
+
+  private static Talla talla(String numero) {
+    Talla talla = new Talla();
+    talla.setNumero(numero);
+    return talla;
+  }
+}
@@ -0,0 +1,39 @@
+package com.emersondev.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextoBusquedaTest {
+
+  @Test
+  void normalizarQuitaTildesDieresisYMayusculas() {
+    assertThat(TextoBusqueda.normalizar("Camión Ñandú Pingüino")).isEqualTo("camion nandu pinguino");
+    assertThat(TextoBusqueda.normalizar(null)).isEmpty();
+    assertThat(TextoBusqueda.normalizar("")).isEmpty();
+  }
+
+  @Test
+  void tokenizarSeparaPorCaracteresQueNoSonLetrasNiDigitos() {
+    assertThat(TextoBusqueda.tokenizar("  Zapatilla-Running  AIR_max 270/Ñ ")).containsExactly("zapatilla",
+            "running", "air", "max", "270", "n");
+    assertThat(TextoBusqueda.tokenizar("PRD-00012")).containsExactly("prd", "00012");
+    assertThat(TextoBusqueda.tokenizar(" -/ ")).isEmpty();
+    assertThat(TextoBusqueda.tokenizar(null)).isEmpty();
+  }
+
+  @Test
+  void distanciaEdicionCuentaTransposicionesComoUnaEdicion() {
+    assertThat(TextoBusqueda.distanciaEdicion("zapato", "zapato", 2)).isZero();
+    assertThat(TextoBusqueda.distanciaEdicion("zapato", "zpaato", 2)).isEqualTo(1);
+    assertThat(TextoBusqueda.distanciaEdicion("zapato", "zapatos", 2)).isEqualTo(1);
+    assertThat(TextoBusqueda.distanciaEdicion("zapato", "sapatp", 2)).isEqualTo(2);
+  }
+
+  @Test
+  void distanciaEdicionSeCortaAlSuperarElMaximo() {
+    assertThat(TextoBusqueda.distanciaEdicion("zapato", "bota", 1)).isEqualTo(2);
+    assertThat(TextoBusqueda.distanciaEdicion("zapatilla", "sandalia", 2)).isEqualTo(3);
+    assertThat(TextoBusqueda.distanciaEdicion("a", "abcd", 2)).isEqualTo(3);
+  }
+}